@@ -59,6 +59,7 @@ public class App extends Application {
     chaosGame.addObserver(ButtonEnum.COORDS, parameterInputView);
     chaosGame.addObserver(ButtonEnum.GAME_NAME, parameterInputView);
     chaosGame.addObserver(ButtonEnum.CANVAS_CHANGE, canvasView);
+    chaosGame.addObserver(ButtonEnum.RENDER_PASS, canvasView);
 
     ChaosGameView chaosGameView = new ChaosGameView(parameterInputView, canvasView);
     ChaosGameController chaosGameController = new
@@ -75,6 +76,13 @@ public class App extends Application {
     parameterInputView.addObserver(ButtonEnum.SAVEFILE, chaosGameController);
     parameterInputView.addObserver(ButtonEnum.READFILE, chaosGameController);
     parameterInputView.addObserver(ButtonEnum.COLORPICKER, chaosGameController);
+    parameterInputView.addObserver(ButtonEnum.PROGRESSIVE, chaosGameController);
+    parameterInputView.addObserver(ButtonEnum.PIXEL_DEPTH, chaosGameController);
+    parameterInputView.addObserver(ButtonEnum.ACCUMULATION, chaosGameController);
+    parameterInputView.addObserver(ButtonEnum.MAX_ITERATIONS, chaosGameController);
+    parameterInputView.addObserver(ButtonEnum.DISTANCE_ESTIMATION, chaosGameController);
+    parameterInputView.addObserver(ButtonEnum.ANTIALIASING, chaosGameController);
+    parameterInputView.addObserver(ButtonEnum.NEBULABROT, chaosGameController);
 
     ViewController viewController = new ViewController(primaryStage);
 
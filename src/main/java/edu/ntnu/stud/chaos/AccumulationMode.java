@@ -0,0 +1,26 @@
+package edu.ntnu.stud.chaos;
+
+/**
+ * Enumeration of the ways parallel threads can accumulate hits on a {@link ChaosCanvas}.
+ */
+public enum AccumulationMode {
+  /**
+   * Every thread draws on its own copy of the canvas,
+   * and the copies are added together when all threads are done.
+   * This is the fastest mode, but needs one canvas per thread.
+   */
+  REPLICATED,
+
+  /**
+   * All threads draw on the shared canvas with atomic increments.
+   * No hits are lost, and only a single canvas is needed.
+   */
+  SHARED_ATOMIC,
+
+  /**
+   * All threads draw on the shared canvas with opaque reads and writes.
+   * This avoids atomic instructions, but a hit can be lost when two
+   * threads increment the same pixel at the same time.
+   */
+  SHARED_APPROXIMATE
+}
@@ -0,0 +1,324 @@
+package edu.ntnu.stud.chaos;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * This class represents an antialiasing pass for a rendered escape-time fractal.
+ * Supersampling every pixel on an N×N grid multiplies the cost of the whole frame,
+ * but aliasing only shows where neighbouring pixels get visibly different colours.
+ * The pass reads the rendered values back from the canvas, and marks both pixels of
+ * every pair of neighbours whose values differ by more than a share of the largest
+ * value. The palette colours a pixel by its value relative to the largest value,
+ * so this is where the colours differ. Only the marked pixels are sampled again,
+ * in parallel on a {@link ForkJoinPool}, and get the mean of their samples.
+ * The samples sit at the centres of an N×N grid of cells covering the pixel, and
+ * are the pixels of a finer {@link Viewport} with the same centre, so they are
+ * computed by a kernel made for that viewport like any other render.
+ * Goal: give the edges of an escape-time fractal the quality of uniform
+ * supersampling at the cost of the few pixels along them.
+ */
+public class AdaptiveSupersampler {
+
+  /** The default number of samples along each side of a pixel. */
+  public static final int DEFAULT_SAMPLES = 4;
+
+  /** The default share of the largest value two neighbours must differ by to be sampled. */
+  public static final double DEFAULT_CONTRAST = 1.0 / 64;
+
+  /** The number of marked pixels a worker samples at a time. */
+  private static final int CHUNK_SIZE = 64;
+
+  /** The number of samples along each side of a pixel. */
+  private final int samples;
+
+  /** The pool the marked pixels are sampled on, kept between passes. */
+  private final ForkJoinPool pool;
+
+  /** The share of the largest value two neighbours must differ by to be sampled. */
+  private final double contrast;
+
+  /** The number of pixels sampled again in the last pass. */
+  private int sampledPixels;
+
+  /** True if the passes should stop until the cancellation is cleared. */
+  private volatile boolean cancelled;
+
+  /**
+   * Constructor for an AdaptiveSupersampler with the default samples and contrast,
+   * using one thread for each available processor.
+   */
+  public AdaptiveSupersampler() {
+    this(Runtime.getRuntime().availableProcessors(), DEFAULT_SAMPLES, DEFAULT_CONTRAST);
+  }
+
+  /**
+   * Constructor for the AdaptiveSupersampler class.
+   *
+   * @param threads  the number of threads to sample with.
+   * @param samples  the number of samples along each side of a pixel.
+   * @param contrast the share of the largest value two neighbours must differ by
+   *                 for both to be sampled again.
+   */
+  public AdaptiveSupersampler(int threads, int samples, double contrast) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Threads must be positive");
+    }
+    if (samples <= 0) {
+      throw new IllegalArgumentException("Samples must be positive");
+    }
+    if (!(contrast >= 0)) {
+      throw new IllegalArgumentException("Contrast cannot be negative");
+    }
+    this.samples = samples;
+    this.contrast = contrast;
+    this.pool = new ForkJoinPool(threads);
+  }
+
+  /**
+   * Get the number of samples along each side of a pixel.
+   *
+   * @return the number of samples.
+   */
+  public int getSamples() {
+    return samples;
+  }
+
+  /**
+   * Cancel the running pass, and any pass started before the cancellation is cleared.
+   * The chunks of pixels that have not been started are skipped, and the
+   * canvas is left as it was rendered.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Clear the cancellation, so the next pass runs to the end.
+   */
+  public void clearCancellation() {
+    cancelled = false;
+  }
+
+  /**
+   * Check if the passs are cancelled.
+   *
+   * @return true if the passs are cancelled.
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Get the number of pixels sampled again in the last pass.
+   *
+   * @return the number of sampled pixels.
+   */
+  public int getSampledPixels() {
+    return sampledPixels;
+  }
+
+  /**
+   * Get the viewport of the samples of every pixel of a viewport.
+   * Each pixel is covered by an N×N grid of cells, and the samples are their centres,
+   * so the sample grid has the same centre and N times as many points along each side.
+   *
+   * @param viewport the viewport of the pixels.
+   * @param samples  the number of samples along each side of a pixel.
+   * @return the viewport of the samples.
+   */
+  static Viewport sampleViewport(Viewport viewport, int samples) {
+    double extension = (samples - 1.0) / samples;
+    return new Viewport(viewport.getCenterRe(), viewport.getCenterIm(),
+        viewport.getSpanRe() + extension * viewport.getReStep(),
+        viewport.getSpanIm() - extension * viewport.getImStep(),
+        samples * viewport.getWidth(), samples * viewport.getHeight());
+  }
+
+  /**
+   * Sample the edge pixels of a rendered canvas again, and replace their values with
+   * the mean of their samples.
+   *
+   * @param canvas   the canvas holding the rendered pixels.
+   * @param viewport the region of the complex plane shown on the canvas.
+   * @param kernels  the function making the kernel of the samples for their viewport.
+   * @throws IllegalArgumentException if an argument is null, or the viewport
+   *                                  does not fit the canvas.
+   */
+  public void supersample(ChaosCanvas canvas, Viewport viewport,
+                          Function<Viewport, EscapeTimeKernel> kernels) {
+    if (canvas == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (kernels == null) {
+      throw new IllegalArgumentException("Kernels cannot be null");
+    }
+    if (viewport.getWidth() != canvas.getWidth() || viewport.getHeight() != canvas.getHeight()) {
+      throw new IllegalArgumentException("Viewport does not fit the canvas");
+    }
+
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    float[][] values = new float[height][width];
+    float maxValue = 0;
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        values[i][j] = (float) canvas.getPixelValue(i, j);
+        maxValue = Math.max(maxValue, values[i][j]);
+      }
+    }
+    int[] marked = markEdges(values, contrast * maxValue);
+    sampledPixels = marked.length;
+    if (marked.length == 0 || samples == 1) {
+      return;
+    }
+
+    EscapeTimeKernel kernel = kernels.apply(sampleViewport(viewport, samples));
+    float[] means = new float[marked.length];
+    pool.invoke(new SampleTask(kernel, marked, means, width, 0, marked.length));
+    if (cancelled) {
+      return;
+    }
+    for (int k = 0; k < marked.length; k++) {
+      values[marked[k] / width][marked[k] % width] = means[k];
+    }
+
+    canvas.clearPixels();
+    CanvasStatistics statistics = new CanvasStatistics();
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        canvas.putPixel(i, j, values[i][j], statistics);
+      }
+    }
+    canvas.mergeStatistics(statistics);
+  }
+
+  /**
+   * Find the pixels that differ from a neighbour to their right or below by more
+   * than a threshold. Both pixels of such a pair are marked.
+   *
+   * @param values    the values of the pixels.
+   * @param threshold the largest difference between neighbours left unmarked.
+   * @return the indices of the marked pixels, row by row, as i * width + j.
+   */
+  static int[] markEdges(float[][] values, double threshold) {
+    int height = values.length;
+    int width = height == 0 ? 0 : values[0].length;
+    boolean[] edge = new boolean[height * width];
+    int count = 0;
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        float value = values[i][j];
+        if (j + 1 < width && Math.abs(value - values[i][j + 1]) > threshold) {
+          count += mark(edge, i * width + j) + mark(edge, i * width + j + 1);
+        }
+        if (i + 1 < height && Math.abs(value - values[i + 1][j]) > threshold) {
+          count += mark(edge, i * width + j) + mark(edge, (i + 1) * width + j);
+        }
+      }
+    }
+
+    int[] marked = new int[count];
+    int next = 0;
+    for (int index = 0; index < edge.length; index++) {
+      if (edge[index]) {
+        marked[next++] = index;
+      }
+    }
+    return marked;
+  }
+
+  /**
+   * Mark a pixel as an edge.
+   *
+   * @param edge  the marks of the pixels.
+   * @param index the index of the pixel.
+   * @return 1 if the pixel was not marked before, 0 otherwise.
+   */
+  private static int mark(boolean[] edge, int index) {
+    if (edge[index]) {
+      return 0;
+    }
+    edge[index] = true;
+    return 1;
+  }
+
+  /**
+   * A task computing the mean of the samples of a range of the marked pixels.
+   * Ranges longer than a chunk are split in half, so idle workers can steal them.
+   */
+  @SuppressWarnings("serial")
+  private final class SampleTask extends RecursiveAction {
+
+    /** The kernel computing the value of each sample. */
+    private final EscapeTimeKernel kernel;
+
+    /** The indices of the marked pixels. */
+    private final int[] marked;
+
+    /** The array to write the means to, one for each marked pixel. */
+    private final float[] means;
+
+    /** The number of columns of pixels. */
+    private final int width;
+
+    /** The first marked pixel of the range. */
+    private final int start;
+
+    /** The marked pixel after the last one of the range. */
+    private final int end;
+
+    /**
+     * Constructor for the SampleTask class.
+     *
+     * @param kernel the kernel computing the value of each sample.
+     * @param marked the indices of the marked pixels.
+     * @param means  the array to write the means to.
+     * @param width  the number of columns of pixels.
+     * @param start  the first marked pixel of the range.
+     * @param end    the marked pixel after the last one of the range.
+     */
+    SampleTask(EscapeTimeKernel kernel, int[] marked, float[] means, int width, int start,
+               int end) {
+      this.kernel = kernel;
+      this.marked = marked;
+      this.means = means;
+      this.width = width;
+      this.start = start;
+      this.end = end;
+    }
+
+    /**
+     * Sample the range, splitting it if it is longer than a chunk.
+     */
+    @Override
+    protected void compute() {
+      if (cancelled) {
+        return;
+      }
+      if (end - start > CHUNK_SIZE) {
+        int middle = start + (end - start) / 2;
+        invokeAll(new SampleTask(kernel, marked, means, width, start, middle),
+            new SampleTask(kernel, marked, means, width, middle, end));
+        return;
+      }
+      float[] run = new float[samples];
+      for (int k = start; k < end; k++) {
+        int row = marked[k] / width * samples;
+        int column = marked[k] % width * samples;
+        double sum = 0;
+        for (int a = 0; a < samples; a++) {
+          kernel.computeRow(row + a, column, column + samples, run);
+          for (float sample : run) {
+            sum += sample;
+          }
+        }
+        means[k] = (float) (sum / (samples * samples));
+      }
+    }
+  }
+}
@@ -0,0 +1,542 @@
+package edu.ntnu.stud.chaos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * This class represents a renderer of the Buddhabrot, the density of the orbits
+ * of the points that escape the Mandelbrot set.
+ * Points c are sampled from the square around the set, z is iterated as z = z² + c
+ * from 0, and if it escapes within the iteration limit, every point of its orbit
+ * is counted in the pixel it lands in. The orbit of the conjugate of c is the
+ * conjugate of the orbit, so the mirrored points are counted too.
+ * The iteration limits are bands: an orbit is counted in the histogram of every
+ * band whose limit it escaped within, so the bands of a Nebulabrot, which are
+ * shown as its red, green and blue channels, come from the same orbits in one pass.
+ * The samples are spread over one chain per thread on a {@link ForkJoinPool}.
+ * Every chain counts in its own histograms, so no writes are shared, and the
+ * histograms are added to the canvases after every batch of samples, when a
+ * snapshot of each canvas is published.
+ * In a zoomed view almost every uniform sample misses the view, so the chains can
+ * instead walk by {@link BuddhabrotSampling#METROPOLIS} among the orbits that hit it.
+ * Goal: render the Buddhabrot and the Nebulabrot of any view in parallel,
+ * spending the samples on the orbits that are seen.
+ */
+public class BuddhabrotEngine {
+
+  /** The number of points sampled between two published snapshots. */
+  public static final int BATCH_SAMPLES = 250_000;
+
+  /** Half the side of the square the points are sampled from, around the Mandelbrot set. */
+  static final double SAMPLE_RADIUS = 2;
+
+  /**
+   * The share of the proposals of a Metropolis chain drawn from the whole square.
+   * The rest are small steps from the current point, which keep the chain among
+   * the orbits that hit the view, while the jumps keep it from being stuck in one.
+   */
+  static final double JUMP_SHARE = 0.2;
+
+  /**
+   * The standard deviation of the small steps of a Metropolis chain, as a share of
+   * the larger span of the view. Orbits stretch the distances between points,
+   * so the steps are small next to the view itself.
+   */
+  static final double STEP_SHARE = 0.01;
+
+  /** The number of threads to render with. */
+  private final int threads;
+
+  /** The pool the chains run on, kept between renders. */
+  private final ForkJoinPool pool;
+
+  /** The way the points are sampled. */
+  private BuddhabrotSampling sampling = BuddhabrotSampling.UNIFORM;
+
+  /** The action run after every batch, or null. */
+  private Runnable batchListener;
+
+  /** The number of sampled points whose orbits hit the view in the last render. */
+  private long hittingSamples;
+
+  /** True if the renders should stop until the cancellation is cleared. */
+  private volatile boolean cancelled;
+
+  /**
+   * Constructor for a BuddhabrotEngine using one thread for each available processor.
+   */
+  public BuddhabrotEngine() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructor for the BuddhabrotEngine class.
+   *
+   * @param threads the number of threads to render with.
+   */
+  public BuddhabrotEngine(int threads) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Threads must be positive");
+    }
+    this.threads = threads;
+    this.pool = new ForkJoinPool(threads);
+  }
+
+  /**
+   * Get the way the points are sampled.
+   *
+   * @return the sampling.
+   */
+  public BuddhabrotSampling getSampling() {
+    return sampling;
+  }
+
+  /**
+   * Set the way the points are sampled.
+   *
+   * @param sampling the sampling.
+   */
+  public void setSampling(BuddhabrotSampling sampling) {
+    if (sampling == null) {
+      throw new IllegalArgumentException("Sampling cannot be null");
+    }
+    this.sampling = sampling;
+  }
+
+  /**
+   * Set the action to run after every batch, once its snapshots are published.
+   * The action runs on the rendering thread.
+   *
+   * @param batchListener the action, or null for none.
+   */
+  public void setBatchListener(Runnable batchListener) {
+    this.batchListener = batchListener;
+  }
+
+  /**
+   * Cancel the running render, and any render started before the cancellation is cleared.
+   * The chains stop before their next sample, and the canvases keep the
+   * orbits of the batches published so far.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Clear the cancellation, so the next render runs to the end.
+   */
+  public void clearCancellation() {
+    cancelled = false;
+  }
+
+  /**
+   * Check if the renders are cancelled.
+   *
+   * @return true if the renders are cancelled.
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Get the number of sampled points whose orbits hit the view in the last render.
+   *
+   * @return the number of hitting samples.
+   */
+  public long getHittingSamples() {
+    return hittingSamples;
+  }
+
+  /**
+   * Render the orbits of a number of sampled points, one iteration band on each canvas.
+   * The counts are added to the canvases, so the canvases are normally cleared first.
+   * If the rendering thread is interrupted, the render stops after the current batch,
+   * and the canvases keep the orbits counted so far. If the render is cancelled,
+   * it stops within the current batch, which is not counted.
+   *
+   * @param canvases the canvases to count the orbits on, one for each band.
+   * @param viewport the region of the complex plane shown on the canvases.
+   * @param limits   the iteration limit of each band.
+   * @param samples  the number of points to sample.
+   * @throws IllegalArgumentException if an argument is null or invalid,
+   *                                  or the viewport does not fit a canvas.
+   */
+  public void render(ChaosCanvas[] canvases, Viewport viewport, int[] limits, long samples) {
+    if (canvases == null || limits == null) {
+      throw new IllegalArgumentException("Canvases and limits cannot be null");
+    }
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (canvases.length == 0 || canvases.length != limits.length) {
+      throw new IllegalArgumentException("There must be one canvas for each limit");
+    }
+    for (int k = 0; k < canvases.length; k++) {
+      if (canvases[k] == null) {
+        throw new IllegalArgumentException("Canvas cannot be null");
+      }
+      if (canvases[k].getWidth() != viewport.getWidth()
+          || canvases[k].getHeight() != viewport.getHeight()) {
+        throw new IllegalArgumentException("Viewport must be the size of the canvas");
+      }
+      if (limits[k] <= 0) {
+        throw new IllegalArgumentException("Max iterations must be positive");
+      }
+    }
+    if (samples < 0) {
+      throw new IllegalArgumentException("Samples cannot be negative");
+    }
+
+    Chain[] chains = new Chain[threads];
+    SplittableRandom seeds = new SplittableRandom();
+    for (int t = 0; t < threads; t++) {
+      chains[t] = new Chain(viewport, limits, seeds.split());
+    }
+    hittingSamples = 0;
+    for (long done = 0; done < samples; done += BATCH_SAMPLES) {
+      long batch = Math.min(BATCH_SAMPLES, samples - done);
+      List<ForkJoinTask<?>> tasks = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        Chain chain = chains[t];
+        long share = batch / threads + (t < batch % threads ? 1 : 0);
+        tasks.add(pool.submit(() -> chain.run(share)));
+      }
+      tasks.forEach(ForkJoinTask::join);
+      if (cancelled) {
+        return;
+      }
+      for (Chain chain : chains) {
+        hittingSamples += chain.drain(canvases);
+      }
+      for (ChaosCanvas canvas : canvases) {
+        canvas.publishSnapshot();
+      }
+      if (batchListener != null) {
+        batchListener.run();
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * A chain of samples run by one thread, counting the orbits in its own histograms.
+   * A Metropolis chain keeps its current point from one batch to the next.
+   */
+  private final class Chain {
+
+    /** The iteration limit of each band. */
+    private final int[] limits;
+
+    /** The largest iteration limit. */
+    private final int maxLimit;
+
+    /** The histograms of the bands, row by row. */
+    private final float[][] histograms;
+
+    /** The source of the random samples of the chain. */
+    private final SplittableRandom random;
+
+    /** The real part of the points in column 0. */
+    private final double re0;
+
+    /** The number of columns for each unit of the real part. */
+    private final double reScale;
+
+    /** The imaginary part of the points in row 0. */
+    private final double im0;
+
+    /** The number of rows for each unit of the imaginary part, negative down the canvas. */
+    private final double imScale;
+
+    /** The number of columns of pixels. */
+    private final int width;
+
+    /** The number of rows of pixels. */
+    private final int height;
+
+    /** The standard deviation of the small steps of the chain. */
+    private final double stepSize;
+
+    /** The real parts of the orbit of the current point. */
+    private double[] orbitRe;
+
+    /** The imaginary parts of the orbit of the current point. */
+    private double[] orbitIm;
+
+    /** The real parts of the orbit of the proposed point. */
+    private double[] candidateRe;
+
+    /** The imaginary parts of the orbit of the proposed point. */
+    private double[] candidateIm;
+
+    /** The real part of the current point of a Metropolis chain. */
+    private double currentRe;
+
+    /** The imaginary part of the current point of a Metropolis chain. */
+    private double currentIm;
+
+    /** The length of the orbit of the current point. */
+    private int currentLength;
+
+    /** The number of orbit points of the current point in view, or 0 if there is none. */
+    private int currentHits;
+
+    /** The number of steps the chain has stayed at the current point, not yet counted. */
+    private int repeats;
+
+    /** The number of samples whose orbits hit the view since the last drain. */
+    private long hitting;
+
+    /**
+     * Constructor for the Chain class.
+     *
+     * @param viewport the region of the complex plane shown on the canvases.
+     * @param limits   the iteration limit of each band.
+     * @param random   the source of the random samples.
+     */
+    Chain(Viewport viewport, int[] limits, SplittableRandom random) {
+      this.limits = limits;
+      int max = 0;
+      for (int limit : limits) {
+        max = Math.max(max, limit);
+      }
+      this.maxLimit = max;
+      this.width = viewport.getWidth();
+      this.height = viewport.getHeight();
+      this.histograms = new float[limits.length][width * height];
+      this.random = random;
+      this.re0 = viewport.getMinRe();
+      this.reScale = 1 / viewport.getReStep();
+      this.im0 = viewport.getMaxIm();
+      this.imScale = 1 / viewport.getImStep();
+      this.stepSize = STEP_SHARE * Math.max(viewport.getSpanRe(), viewport.getSpanIm());
+      this.orbitRe = new double[maxLimit];
+      this.orbitIm = new double[maxLimit];
+      this.candidateRe = new double[maxLimit];
+      this.candidateIm = new double[maxLimit];
+    }
+
+    /**
+     * Sample a number of points.
+     *
+     * @param samples the number of points.
+     */
+    void run(long samples) {
+      if (sampling == BuddhabrotSampling.METROPOLIS) {
+        runMetropolis(samples);
+        return;
+      }
+      for (long s = 0; s < samples && !cancelled; s++) {
+        double cx = uniform();
+        double cy = uniform();
+        int length = iterate(cx, cy, orbitRe, orbitIm);
+        if (length > 0 && count(orbitRe, orbitIm, length) > 0) {
+          plot(orbitRe, orbitIm, length, 1);
+          hitting++;
+        }
+      }
+    }
+
+    /**
+     * Sample a number of points by a Metropolis chain over the orbits that hit the view.
+     * A proposed point is accepted with the ratio of its hits to the hits of the
+     * current point, so the chain visits points in proportion to their hits.
+     * The current point is counted with a weight of one over its hits for every
+     * step it is kept, which removes that bias from the histogram. Until the chain
+     * has found a point that hits the view, the proposals are drawn uniformly.
+     *
+     * @param samples the number of points.
+     */
+    private void runMetropolis(long samples) {
+      for (long s = 0; s < samples && !cancelled; s++) {
+        double cx;
+        double cy;
+        if (currentHits == 0 || random.nextDouble() < JUMP_SHARE) {
+          cx = uniform();
+          cy = uniform();
+        } else {
+          cx = currentRe + stepSize * random.nextGaussian();
+          cy = currentIm + stepSize * random.nextGaussian();
+          if (Math.abs(cx) > SAMPLE_RADIUS || Math.abs(cy) > SAMPLE_RADIUS) {
+            repeats++;
+            continue;
+          }
+        }
+        int length = iterate(cx, cy, candidateRe, candidateIm);
+        int hits = length > 0 ? count(candidateRe, candidateIm, length) : 0;
+        if (hits > 0) {
+          hitting++;
+        }
+        if (hits > 0 && (currentHits == 0 || random.nextDouble() * currentHits < hits)) {
+          flush();
+          double[] swap = orbitRe;
+          orbitRe = candidateRe;
+          candidateRe = swap;
+          swap = orbitIm;
+          orbitIm = candidateIm;
+          candidateIm = swap;
+          currentRe = cx;
+          currentIm = cy;
+          currentLength = length;
+          currentHits = hits;
+          repeats = 1;
+        } else if (currentHits > 0) {
+          repeats++;
+        }
+      }
+      flush();
+    }
+
+    /**
+     * Count the current point of a Metropolis chain for the steps it has stayed there.
+     */
+    private void flush() {
+      if (currentHits > 0 && repeats > 0) {
+        plot(orbitRe, orbitIm, currentLength, (float) repeats / currentHits);
+      }
+      repeats = 0;
+    }
+
+    /**
+     * Draw a coordinate uniformly from the sampled square.
+     *
+     * @return the coordinate.
+     */
+    private double uniform() {
+      return (2 * random.nextDouble() - 1) * SAMPLE_RADIUS;
+    }
+
+    /**
+     * Iterate a point and keep its orbit.
+     *
+     * @param cx the real part of the point.
+     * @param cy the imaginary part of the point.
+     * @param re the array to write the real parts of the orbit to.
+     * @param im the array to write the imaginary parts of the orbit to.
+     * @return the number of points of the orbit up to the one that escaped,
+     *         or 0 if the point did not escape within the largest limit.
+     */
+    private int iterate(double cx, double cy, double[] re, double[] im) {
+      if (MandelbrotKernel.isInCardioidOrBulb(cx, cy)) {
+        return 0;
+      }
+      double x = 0;
+      double y = 0;
+      double x2 = 0;
+      double y2 = 0;
+      for (int n = 0; n < maxLimit; n++) {
+        y = 2 * x * y + cy;
+        x = x2 - y2 + cx;
+        x2 = x * x;
+        y2 = y * y;
+        re[n] = x;
+        im[n] = y;
+        if (x2 + y2 > EscapeTimeConstants.ESCAPE_RADIUS_SQUARED) {
+          return n + 1;
+        }
+      }
+      return 0;
+    }
+
+    /**
+     * Count the points of an orbit and of its mirror that land in the view.
+     *
+     * @param re     the real parts of the orbit.
+     * @param im     the imaginary parts of the orbit.
+     * @param length the number of points of the orbit.
+     * @return the number of points in view.
+     */
+    private int count(double[] re, double[] im, int length) {
+      int hits = 0;
+      for (int n = 0; n < length; n++) {
+        int column = column(re[n]);
+        if (column >= 0) {
+          hits += (row(im[n]) >= 0 ? 1 : 0) + (row(-im[n]) >= 0 ? 1 : 0);
+        }
+      }
+      return hits;
+    }
+
+    /**
+     * Add the points of an orbit and of its mirror that land in the view to the
+     * histograms of the bands the orbit escaped within.
+     *
+     * @param re     the real parts of the orbit.
+     * @param im     the imaginary parts of the orbit.
+     * @param length the number of points of the orbit.
+     * @param weight the amount to add for each point.
+     */
+    private void plot(double[] re, double[] im, int length, float weight) {
+      for (int k = 0; k < limits.length; k++) {
+        if (length > limits[k]) {
+          continue;
+        }
+        float[] histogram = histograms[k];
+        for (int n = 0; n < length; n++) {
+          int column = column(re[n]);
+          if (column < 0) {
+            continue;
+          }
+          int row = row(im[n]);
+          if (row >= 0) {
+            histogram[row * width + column] += weight;
+          }
+          row = row(-im[n]);
+          if (row >= 0) {
+            histogram[row * width + column] += weight;
+          }
+        }
+      }
+    }
+
+    /**
+     * Get the column a real part lands in.
+     *
+     * @param re the real part.
+     * @return the nearest column, or -1 if it is outside the view.
+     */
+    private int column(double re) {
+      double u = (re - re0) * reScale + 0.5;
+      return u >= 0 && u < width ? (int) u : -1;
+    }
+
+    /**
+     * Get the row an imaginary part lands in.
+     *
+     * @param im the imaginary part.
+     * @return the nearest row, or -1 if it is outside the view.
+     */
+    private int row(double im) {
+      double v = (im - im0) * imScale + 0.5;
+      return v >= 0 && v < height ? (int) v : -1;
+    }
+
+    /**
+     * Add the histograms to the canvases and clear them.
+     *
+     * @param canvases the canvases of the bands.
+     * @return the number of samples that hit the view since the last drain.
+     */
+    long drain(ChaosCanvas[] canvases) {
+      for (int k = 0; k < canvases.length; k++) {
+        float[] histogram = histograms[k];
+        CanvasStatistics statistics = new CanvasStatistics();
+        for (int index = 0; index < histogram.length; index++) {
+          if (histogram[index] != 0) {
+            canvases[k].putPixel(index / width, index % width, histogram[index], statistics);
+            histogram[index] = 0;
+          }
+        }
+        canvases[k].mergeStatistics(statistics);
+      }
+      long drained = hitting;
+      hitting = 0;
+      return drained;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package edu.ntnu.stud.chaos;
+
+/**
+ * Enumeration of the ways a {@link BuddhabrotEngine} can choose the points whose orbits it plots.
+ */
+public enum BuddhabrotSampling {
+  /**
+   * Points are drawn uniformly from the square around the Mandelbrot set.
+   * Every orbit counts the same, so this is simple and unbiased, but in a
+   * zoomed view almost every orbit misses the view and is wasted.
+   */
+  UNIFORM,
+
+  /**
+   * Points are chosen by a Metropolis chain whose samples are spread by the number
+   * of orbit points that land in the view, so the chain stays among orbits
+   * that hit the view. Each orbit is plotted with a weight of one over that number,
+   * so the image converges to the same histogram as uniform sampling.
+   */
+  METROPOLIS
+}
@@ -0,0 +1,60 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+
+/**
+ * This class represents the formula of the Burning Ship fractal.
+ * z is iterated as z = (|Re z| + i |Im z|)² + c from 0, which is the Mandelbrot
+ * iteration with the parts of z folded into the first quadrant first.
+ * The fold breaks the symmetry about the real axis. The imaginary part of c is
+ * negated, so the ship is upright with the imaginary part growing up the canvas.
+ * Goal: compute the points of the Burning Ship.
+ */
+public final class BurningShipFormula implements EscapeTimeFormula {
+
+  /**
+   * Compute the smooth iteration count of a point c.
+   *
+   * @param re            the real part of the point.
+   * @param im            the imaginary part of the point.
+   * @param maxIterations the iteration limit.
+   * @return the value of the point.
+   */
+  @Override
+  public float computeValue(double re, double im, int maxIterations) {
+    double cy = -im;
+    double x = 0;
+    double y = 0;
+    double x2 = 0;
+    double y2 = 0;
+    int iteration = 0;
+    while (x2 + y2 <= EscapeTimeConstants.ESCAPE_RADIUS_SQUARED && iteration < maxIterations) {
+      y = 2 * Math.abs(x * y) + cy;
+      x = x2 - y2 + re;
+      x2 = x * x;
+      y2 = y * y;
+      iteration++;
+    }
+    return EscapeTimeKernel.pixelValue(x, y, iteration, maxIterations);
+  }
+
+  /**
+   * Get the smallest coordinates of the region showing the whole Burning Ship.
+   *
+   * @return the minimum coordinates.
+   */
+  @Override
+  public Vector2D getMinCoords() {
+    return new Vector2D(-2.5, -0.8);
+  }
+
+  /**
+   * Get the largest coordinates of the region showing the whole Burning Ship.
+   *
+   * @return the maximum coordinates.
+   */
+  @Override
+  public Vector2D getMaxCoords() {
+    return new Vector2D(1.5, 2.2);
+  }
+}
@@ -0,0 +1,134 @@
+package edu.ntnu.stud.chaos;
+
+/**
+ * This class represents a published snapshot of a {@link ChaosCanvas}.
+ * A snapshot never changes after it is published, so renderers and exporters
+ * can read it on any thread while the canvas keeps being written to.
+ * Goal: act as a consistent, read-only view of a canvas.
+ */
+public class CanvasSnapshot {
+
+  /** The width of the snapshot. */
+  private final int width;
+
+  /** The height of the snapshot. */
+  private final int height;
+
+  /** The counter type of the canvas the snapshot was taken from. */
+  private final PixelDepth pixelDepth;
+
+  /**
+   * A copy of the pixels of the canvas, or null if the canvas was empty.
+   * Rows that did not change between snapshots are shared between them.
+   */
+  private final PixelBuffer pixels;
+
+  /** The statistics of the canvas when the snapshot was taken. */
+  private final CanvasStatistics statistics;
+
+  /** The mipmap pyramid of the snapshot, built the first time it is asked for. */
+  private DensityPyramid pyramid;
+
+  /**
+   * Constructor for the CanvasSnapshot class.
+   *
+   * @param width      the width of the snapshot.
+   * @param height     the height of the snapshot.
+   * @param pixelDepth the counter type of the canvas.
+   * @param pixels     a copy of the pixels, or null if the canvas was empty.
+   * @param statistics the statistics of the canvas.
+   */
+  CanvasSnapshot(int width, int height, PixelDepth pixelDepth, PixelBuffer pixels,
+                 CanvasStatistics statistics) {
+    this.width = width;
+    this.height = height;
+    this.pixelDepth = pixelDepth;
+    this.pixels = pixels;
+    this.statistics = statistics;
+  }
+
+  /**
+   * Get the width of the snapshot.
+   *
+   * @return the width of the snapshot.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Get the height of the snapshot.
+   *
+   * @return the height of the snapshot.
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Get the counter type of the canvas the snapshot was taken from.
+   *
+   * @return the pixel depth of the canvas.
+   */
+  public PixelDepth getPixelDepth() {
+    return pixelDepth;
+  }
+
+  /**
+   * Get the value of a pixel in the snapshot.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return the value of the pixel.
+   */
+  public double getPixelValue(int i, int j) {
+    if (i < 0 || j < 0 || i >= height || j >= width) {
+      throw new ArrayIndexOutOfBoundsException("Pixel is outside the snapshot");
+    }
+    return pixels == null ? 0 : pixels.get(i, j);
+  }
+
+  /**
+   * Get the statistics of the canvas when the snapshot was taken.
+   *
+   * @return a copy of the statistics of the snapshot.
+   */
+  public CanvasStatistics getStatistics() {
+    return new CanvasStatistics(statistics);
+  }
+
+  /**
+   * Get the pixels of the snapshot as a new array of integers.
+   *
+   * @return the pixels of the snapshot.
+   */
+  public int[][] getCanvasArray() {
+    if (pixels == null) {
+      return new int[height][width];
+    }
+    // An INT buffer hands out its live array, so copy it to keep the snapshot unchanged.
+    return pixelDepth == PixelDepth.INT ? pixels.copy().toIntArray() : pixels.toIntArray();
+  }
+
+  /**
+   * Get the pixels of the snapshot, which are never written to.
+   *
+   * @return the pixels, or null if the snapshot is empty.
+   */
+  PixelBuffer getPixels() {
+    return pixels;
+  }
+
+  /**
+   * Get the sum and max mipmap pyramid of the snapshot.
+   *
+   * @return the mipmap pyramid of the snapshot.
+   */
+  public synchronized DensityPyramid getPyramid() {
+    if (pyramid == null) {
+      pyramid = new DensityPyramid(pixels == null
+          ? new PixelBuffer(pixelDepth, width, height) : pixels);
+    }
+    return pyramid;
+  }
+}
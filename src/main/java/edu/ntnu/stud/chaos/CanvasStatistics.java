@@ -0,0 +1,145 @@
+package edu.ntnu.stud.chaos;
+
+/**
+ * This class represents statistics of the pixels on a {@link ChaosCanvas}.
+ * It contains the maximum pixel value, the total number of hits
+ * and the number of pixels that are not 0.
+ * The statistics are updated as pixels are written, so they can be read
+ * without scanning the canvas. Writers on different threads keep a partial
+ * each, which is merged into the canvas when they are done.
+ * Goal: act as a model for the statistics of a canvas.
+ */
+public class CanvasStatistics {
+
+  /** The largest pixel value written.*/
+  private double maxValue;
+
+  /** The sum of all pixel values.*/
+  private double totalHits;
+
+  /** The number of pixels that are not 0.*/
+  private long nonzeroCount;
+
+  /**
+   * Whether the maximum value is known to be exact.
+   * It becomes inexact when the largest pixel is decreased.
+   */
+  private boolean maxExact = true;
+
+  /**
+   * Constructor for the CanvasStatistics class.
+   * Creates empty statistics, as for a cleared canvas.
+   */
+  public CanvasStatistics() {
+    // All statistics start at 0
+  }
+
+  /**
+   * Copy constructor for the CanvasStatistics class.
+   *
+   * @param statistics the statistics to copy.
+   */
+  public CanvasStatistics(CanvasStatistics statistics) {
+    if (statistics == null) {
+      throw new IllegalArgumentException("Statistics cannot be null");
+    }
+    this.maxValue = statistics.maxValue;
+    this.totalHits = statistics.totalHits;
+    this.nonzeroCount = statistics.nonzeroCount;
+    this.maxExact = statistics.maxExact;
+  }
+
+  /**
+   * Get the largest pixel value on the canvas.
+   *
+   * @return the largest pixel value.
+   */
+  public double getMaxValue() {
+    return maxValue;
+  }
+
+  /**
+   * Get the sum of all pixel values on the canvas.
+   *
+   * @return the total number of hits.
+   */
+  public double getTotalHits() {
+    return totalHits;
+  }
+
+  /**
+   * Get the number of pixels on the canvas that are not 0.
+   *
+   * @return the number of nonzero pixels.
+   */
+  public long getNonzeroCount() {
+    return nonzeroCount;
+  }
+
+  /**
+   * Record that a pixel changed value.
+   *
+   * @param oldValue the value of the pixel before the write.
+   * @param newValue the value of the pixel after the write.
+   */
+  public void record(double oldValue, double newValue) {
+    totalHits += newValue - oldValue;
+
+    if (oldValue == 0 && newValue != 0) {
+      nonzeroCount++;
+    } else if (oldValue != 0 && newValue == 0) {
+      nonzeroCount--;
+    }
+
+    if (newValue > maxValue) {
+      maxValue = newValue;
+    } else if (oldValue >= maxValue && newValue < oldValue) {
+      maxExact = false;
+    }
+  }
+
+  /**
+   * Merge a partial into these statistics.
+   * The partial must describe writes to the same canvas.
+   *
+   * @param partial the statistics to merge.
+   */
+  public void merge(CanvasStatistics partial) {
+    if (partial == null) {
+      throw new IllegalArgumentException("Statistics cannot be null");
+    }
+    this.totalHits += partial.totalHits;
+    this.nonzeroCount += partial.nonzeroCount;
+    this.maxValue = Math.max(this.maxValue, partial.maxValue);
+    this.maxExact = this.maxExact && partial.maxExact;
+  }
+
+  /**
+   * Reset the statistics to those of a cleared canvas.
+   */
+  public void reset() {
+    this.maxValue = 0;
+    this.totalHits = 0;
+    this.nonzeroCount = 0;
+    this.maxExact = true;
+  }
+
+  /**
+   * Check whether the maximum value is known to be exact.
+   *
+   * @return true if the maximum value is exact.
+   */
+  boolean isMaxExact() {
+    return maxExact;
+  }
+
+  /**
+   * Set the maximum value after it has been found by scanning the canvas.
+   *
+   * @param maxValue the largest pixel value on the canvas.
+   */
+  void setExactMax(double maxValue) {
+    this.maxValue = maxValue;
+    this.maxExact = true;
+  }
+}
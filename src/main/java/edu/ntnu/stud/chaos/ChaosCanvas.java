@@ -3,16 +3,22 @@ package edu.ntnu.stud.chaos;
 import edu.ntnu.stud.math.Matrix2x2;
 import edu.ntnu.stud.math.Vector2D;
 import edu.ntnu.stud.transform.AffineTransform2D;
+import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * This class represents a canvas for a chaos game.
- * It contains a 2D array of integers representing the canvas.
+ * It contains a 2D array of counters representing the canvas,
+ * stored with the counter type given by its {@link PixelDepth}.
  * Goal: act as a model for a canvas.
  */
 public class ChaosCanvas {
 
-  /** A 2D array representing the canvas.*/
-  private final int[][] canvas;
+  /** The number of pixels from which the canvas is cleared in parallel.*/
+  private static final int PARALLEL_CLEAR_THRESHOLD = 1 << 18;
+
+  /** The typed buffer holding the pixels of the canvas.*/
+  private final PixelBuffer canvas;
 
   /**
    * The width of the canvas.
@@ -31,14 +37,14 @@ public class ChaosCanvas {
    * This represents the lower bound of the coordinate
    * space mapped to the canvas.
    */
-  private final Vector2D minCoords;
+  private Vector2D minCoords;
 
   /**
    * The maximum coordinates in the coordinate system.
    * This represents the upper bound of the coordinate
    * space mapped to the canvas.
    */
-  private final Vector2D maxCoords;
+  private Vector2D maxCoords;
 
   /**
    * The transformation applied to convert coordinates
@@ -47,10 +53,36 @@ public class ChaosCanvas {
    * coordinate space (defined by minCoords and maxCoords)
    * to the array indices of the canvas.
    */
-  private final AffineTransform2D transformCoordsToIndices;
+  private AffineTransform2D transformCoordsToIndices;
+
+  /**
+   * The number of writes made to the canvas.
+   * Derived structures remember the version they were built from,
+   * and are rebuilt when it no longer matches.
+   */
+  private long version;
+
+  /** The mipmap pyramid of the canvas, built the first time it is asked for.*/
+  private DensityPyramid pyramid;
+
+  /** The version of the canvas the pyramid was built from.*/
+  private long pyramidVersion;
+
+  /** The summed-area table of the canvas, built the first time it is asked for.*/
+  private SummedAreaTable summedAreaTable;
+
+  /** The version of the canvas the summed-area table was built from.*/
+  private long summedAreaTableVersion;
+
+  /** The statistics of the pixels, updated as they are written.*/
+  private final CanvasStatistics statistics = new CanvasStatistics();
+
+  /** The last snapshot published for readers, or null if none has been published.*/
+  private volatile CanvasSnapshot snapshot;
 
   /**
    * Constructor for the ChaosCanvas class.
+   * The pixels are stored as {@link PixelDepth#INT} counters.
    *
    * @param width     the width of the canvas.
    * @param height    the height of the canvas.
@@ -58,9 +90,23 @@ public class ChaosCanvas {
    * @param maxCoords the maximum coordinates of the canvas.
    */
   public ChaosCanvas(int width, int height, Vector2D minCoords, Vector2D maxCoords) {
+    this(width, height, minCoords, maxCoords, PixelDepth.INT);
+  }
+
+  /**
+   * Constructor for the ChaosCanvas class with a given pixel depth.
+   *
+   * @param width      the width of the canvas.
+   * @param height     the height of the canvas.
+   * @param minCoords  the minimum coordinates of the canvas.
+   * @param maxCoords  the maximum coordinates of the canvas.
+   * @param pixelDepth the counter type used to store the pixels.
+   */
+  public ChaosCanvas(int width, int height, Vector2D minCoords, Vector2D maxCoords,
+                     PixelDepth pixelDepth) {
     this.width = (width <= 0) ? 500 : width;
     this.height = (height <= 0) ? 500 : height;
-    this.canvas = new int[this.height][this.width];
+    this.canvas = new PixelBuffer(pixelDepth, this.width, this.height);
     this.minCoords = minCoords;
     this.maxCoords = maxCoords;
 
@@ -88,6 +134,15 @@ public class ChaosCanvas {
     return this.height;
   }
 
+  /**
+   * Get the counter type used to store the pixels.
+   *
+   * @return the pixel depth of the canvas.
+   */
+  public PixelDepth getPixelDepth() {
+    return this.canvas.getDepth();
+  }
+
   /**
    * Get the pixel value at a given point.
    *
@@ -96,20 +151,38 @@ public class ChaosCanvas {
    */
   public int getPixel(Vector2D point) {
     Vector2D canvasCoords = convertToCanvasCoords(point);
-    return this.canvas[(int) canvasCoords.getX0()][(int) canvasCoords.getX1()];
+    return (int) this.canvas.get((int) canvasCoords.getX0(), (int) canvasCoords.getX1());
+  }
+
+  /**
+   * Get the pixel value at a given list placement.
+   * Unlike {@link #getPixel(Vector2D)} this keeps fractional values
+   * of a {@link PixelDepth#FLOAT} canvas.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return the pixel value at the given placement.
+   */
+  public double getPixelValue(int i, int j) {
+    return this.canvas.get(i, j);
   }
 
   /**
    * Put a pixel at a given point indicated by a Vector.
    * The point will be converted to canvas coordinates before
-   * being placed on the canvas.
+   * being placed on the canvas. A pixel is only marked once,
+   * so hitting it again leaves its value at 1.
    *
    * @param point the point to put the pixel at.
    */
   public void putPixel(Vector2D point) {
     Vector2D canvasCoords = convertToCanvasCoords(point);
-    this.canvas[(int) canvasCoords.getX0()][(int) canvasCoords.getX1()]
-        += 1 / (this.canvas[(int) canvasCoords.getX0()][(int) canvasCoords.getX1()] + 1);
+    int i = (int) canvasCoords.getX0();
+    int j = (int) canvasCoords.getX1();
+    if (this.canvas.get(i, j) == 0) {
+      this.statistics.record(0, this.canvas.add(i, j, 1));
+      this.version++;
+    }
   }
 
   /**
@@ -120,27 +193,278 @@ public class ChaosCanvas {
    * @param amount  the amount to add to pixel on the canvas.
    */
   public void putPixel(int i, int j, int amount) {
-    this.canvas[i][j] += amount;
+    this.statistics.record(this.canvas.get(i, j), this.canvas.add(i, j, amount));
+    this.version++;
+  }
+
+  /**
+   * Put a pixel at a given list placement and record the write in a partial.
+   * Writers running in parallel on separate pixels each pass their own partial,
+   * and merge it with {@link #mergeStatistics(CanvasStatistics)} when done.
+   *
+   * @param i       the row to place the pixel.
+   * @param j       the column to place the pixel.
+   * @param amount  the amount to add to pixel on the canvas.
+   * @param partial the statistics to record the write in.
+   */
+  public void putPixel(int i, int j, int amount, CanvasStatistics partial) {
+    double oldValue = this.canvas.get(i, j);
+    partial.record(oldValue, this.canvas.add(i, j, amount));
+  }
+
+  /**
+   * Atomically put a pixel that other threads may be writing to at the same time.
+   * The write is recorded in the partial of the calling thread, which is
+   * merged with {@link #mergeStatistics(CanvasStatistics)} when done.
+   *
+   * @param i       the row to place the pixel.
+   * @param j       the column to place the pixel.
+   * @param amount  the amount to add to pixel on the canvas.
+   * @param partial the statistics to record the write in.
+   */
+  public void putPixelAtomic(int i, int j, int amount, CanvasStatistics partial) {
+    this.canvas.addAtomic(i, j, amount, partial);
+  }
+
+  /**
+   * Put a pixel that other threads may be writing to at the same time,
+   * without atomic instructions. A write can be lost when another thread
+   * hits the same pixel at the same moment.
+   *
+   * @param i       the row to place the pixel.
+   * @param j       the column to place the pixel.
+   * @param amount  the amount to add to pixel on the canvas.
+   * @param partial the statistics to record the write in.
+   * @see AccumulationMode#SHARED_APPROXIMATE
+   */
+  public void putPixelApproximate(int i, int j, int amount, CanvasStatistics partial) {
+    this.canvas.addOpaque(i, j, amount, partial);
+  }
+
+  /**
+   * Add the pixels of replicated canvases to this canvas.
+   * The rows are added in parallel, with every replica added to a row before moving on.
+   *
+   * @param replicas the canvases to add, with the same size and depth as this canvas.
+   * @throws IllegalArgumentException if a replica does not match this canvas.
+   */
+  public void mergeReplicas(List<ChaosCanvas> replicas) {
+    for (ChaosCanvas replica : replicas) {
+      if (replica.width != this.width || replica.height != this.height
+          || replica.getPixelDepth() != this.getPixelDepth()) {
+        throw new IllegalArgumentException("Replica does not match the canvas");
+      }
+    }
+
+    IntStream.range(0, this.height).parallel().forEach(i -> {
+      CanvasStatistics partial = new CanvasStatistics();
+      for (ChaosCanvas replica : replicas) {
+        this.canvas.addRow(replica.canvas, i, partial);
+      }
+      mergeStatistics(partial);
+    });
+  }
+
+  /**
+   * Put a fractional amount at a given list placement.
+   * Canvases with an integer depth round the amount to the nearest whole number.
+   *
+   * @param i       the row to place the pixel.
+   * @param j       the column to place the pixel.
+   * @param amount  the amount to add to pixel on the canvas.
+   */
+  public void putPixel(int i, int j, float amount) {
+    this.statistics.record(this.canvas.get(i, j), this.canvas.add(i, j, amount));
+    this.version++;
+  }
+
+  /**
+   * Put a fractional amount at a given list placement and record the write in a partial.
+   *
+   * @param i       the row to place the pixel.
+   * @param j       the column to place the pixel.
+   * @param amount  the amount to add to pixel on the canvas.
+   * @param partial the statistics to record the write in.
+   * @see #putPixel(int, int, int, CanvasStatistics)
+   */
+  public void putPixel(int i, int j, float amount, CanvasStatistics partial) {
+    double oldValue = this.canvas.get(i, j);
+    partial.record(oldValue, this.canvas.add(i, j, amount));
+  }
+
+  /**
+   * Merge the statistics of a parallel writer into the canvas statistics.
+   * Parallel writes do not mark the canvas as changed one by one,
+   * so merging also marks the pyramid and summed-area table as out of date.
+   *
+   * @param partial the statistics recorded by the writer.
+   */
+  public synchronized void mergeStatistics(CanvasStatistics partial) {
+    this.statistics.merge(partial);
+    this.version++;
+  }
+
+  /**
+   * Get the statistics of the pixels on the canvas.
+   * The statistics are kept up to date as pixels are written, so the
+   * canvas is only scanned if its largest pixel has been decreased.
+   * Changes made directly to the array from {@link #getCanvasArray()}
+   * are not seen by the statistics.
+   *
+   * @return a copy of the statistics of the canvas.
+   */
+  public synchronized CanvasStatistics getStatistics() {
+    if (!this.statistics.isMaxExact()) {
+      double maxValue = 0;
+      for (int i = 0; i < this.height; i++) {
+        for (int j = 0; j < this.width; j++) {
+          maxValue = Math.max(maxValue, this.canvas.get(i, j));
+        }
+      }
+      this.statistics.setExactMax(maxValue);
+    }
+    return new CanvasStatistics(this.statistics);
   }
 
   /**
    * Get the canvas array.
+   * For an {@link PixelDepth#INT} canvas this is the backing array itself,
+   * so every row is copied by the next snapshot in case it is written through.
+   * Canvases with any other depth return a converted copy.
    *
    * @return the canvas array.
    */
   public int[][] getCanvasArray() {
-    return this.canvas;
+    if (getPixelDepth() == PixelDepth.INT) {
+      this.canvas.markAllDirty();
+    }
+    return this.canvas.toIntArray();
   }
 
   /**
    * Clear the canvas and set all pixels to 0.
+   * Every pixel is zeroed, including the ones written through the backing array
+   * that the statistics do not see. Large canvases are zeroed in parallel,
+   * one row at a time.
    */
   public void clear() {
-    for (int i = 0; i < this.width; i++) {
-      for (int j = 0; j < this.height; j++) {
-        this.canvas[i][j] = 0;
-      }
+    clearPixels();
+    if (this.snapshot != null) {
+      this.snapshot = emptySnapshot();
+    }
+  }
+
+  /**
+   * Clear the canvas without replacing the published snapshot.
+   * Readers keep the last image until the writer has filled in the next one
+   * and publishes it, so an image that is redrawn in place never shows up blank.
+   */
+  void clearPixels() {
+    if ((long) this.width * this.height >= PARALLEL_CLEAR_THRESHOLD) {
+      IntStream.range(0, this.height).parallel().forEach(this.canvas::clearRow);
+    } else {
+      this.canvas.clear();
+    }
+    this.statistics.reset();
+    this.version++;
+  }
+
+  /**
+   * Reset the canvas for a new coordinate system, keeping the pixel buffer.
+   * This lets a canvas be reused when only the coordinates change,
+   * without allocating a new buffer of the same size.
+   *
+   * @param minCoords the new minimum coordinates of the canvas.
+   * @param maxCoords the new maximum coordinates of the canvas.
+   */
+  public void reset(Vector2D minCoords, Vector2D maxCoords) {
+    if (minCoords == null || maxCoords == null) {
+      throw new IllegalArgumentException("Coordinates cannot be null");
+    }
+    this.minCoords = minCoords;
+    this.maxCoords = maxCoords;
+    this.transformCoordsToIndices = initializeTransform();
+    clear();
+  }
+
+  /**
+   * Get the sum and max mipmap pyramid of the canvas.
+   * The pyramid is rebuilt in parallel when the canvas has been
+   * written to since the last call, and reused otherwise.
+   *
+   * @return the mipmap pyramid of the canvas.
+   */
+  public DensityPyramid getPyramid() {
+    if (this.pyramid == null || this.pyramidVersion != this.version) {
+      this.pyramid = new DensityPyramid(this);
+      this.pyramidVersion = this.version;
     }
+    return this.pyramid;
+  }
+
+  /**
+   * Get the summed-area table of the canvas.
+   * The table is rebuilt in parallel when the canvas has been
+   * written to since the last call, and reused otherwise.
+   *
+   * @return the summed-area table of the canvas.
+   */
+  public SummedAreaTable getSummedAreaTable() {
+    if (this.summedAreaTable == null || this.summedAreaTableVersion != this.version) {
+      this.summedAreaTable = new SummedAreaTable(this);
+      this.summedAreaTableVersion = this.version;
+    }
+    return this.summedAreaTable;
+  }
+
+  /**
+   * Publish a snapshot of the canvas for readers on other threads.
+   * Writers call this at consistent points, such as the end of a run, so a
+   * reader never sees a canvas that is half written. Only the rows written since
+   * the last snapshot are copied, in parallel, and the rest are shared with it,
+   * so publishing often while a few rows change stays cheap. An empty canvas is
+   * published without copying anything.
+   *
+   * @return the published snapshot.
+   */
+  public synchronized CanvasSnapshot publishSnapshot() {
+    CanvasStatistics current = getStatistics();
+    CanvasSnapshot previous = this.snapshot;
+    this.snapshot = current.getNonzeroCount() == 0 ? emptySnapshot()
+        : new CanvasSnapshot(this.width, this.height, getPixelDepth(),
+            this.canvas.snapshot(previous == null ? null : previous.getPixels()), current);
+    return this.snapshot;
+  }
+
+  /**
+   * Get the last published snapshot of the canvas.
+   * The snapshot never changes, so it can be read while the canvas is written to.
+   * If no snapshot has been published yet, one is published first.
+   *
+   * @return the last published snapshot.
+   */
+  public CanvasSnapshot getSnapshot() {
+    CanvasSnapshot published = this.snapshot;
+    return published != null ? published : publishSnapshot();
+  }
+
+  /**
+   * Get the buffer holding the pixels of the canvas.
+   *
+   * @return the pixel buffer of the canvas.
+   */
+  PixelBuffer getPixelBuffer() {
+    return this.canvas;
+  }
+
+  /**
+   * Make a snapshot of an empty canvas, without copying the pixels.
+   *
+   * @return an empty snapshot with the size and depth of the canvas.
+   */
+  private CanvasSnapshot emptySnapshot() {
+    return new CanvasSnapshot(this.width, this.height, getPixelDepth(), null,
+        new CanvasStatistics());
   }
 
   /**
@@ -4,11 +4,15 @@ import edu.ntnu.stud.math.Vector2D;
 import edu.ntnu.stud.observer.Observer;
 import edu.ntnu.stud.observer.Subject;
 import edu.ntnu.stud.transform.JuliaTransform;
+import edu.ntnu.stud.transform.Transform2D;
 import edu.ntnu.stud.utils.ButtonEnum;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This class represents a chaos game.
@@ -22,17 +26,26 @@ public class ChaosGame implements Subject {
   private final EnumMap<ButtonEnum, List<Observer>> observersEnumMap
       = new EnumMap<>(ButtonEnum.class);
 
-  /** The maximum number of iterations for fractal calculations.*/
-  private static final int MAX_ITERATIONS = 1000;
+  /** The default iteration limit for fractal calculations when the whole set is shown.*/
+  private static final int DEFAULT_MAX_ITERATIONS = 1000;
 
-  /** The logarithm of 2, used for fractal calculations.*/
-  private static final double LOG_2 = Math.log(2);
+  /** The width of the region showing the whole Mandelbrot set.*/
+  private static final double MANDELBROT_WIDTH = 2.00 + 0.47;
 
   /** The escape radius for fractal calculations.*/
   private static final int ESCAPE_RADIUS = 2;
 
-  /** The canvas on which the chaos game is played.*/
-  private ChaosCanvas canvas;
+  /** The number of points sampled for a Buddhabrot render.*/
+  public static final long DEFAULT_BUDDHABROT_SAMPLES = 10_000_000;
+
+  /** The ratio between the iteration limits of neighbouring Nebulabrot channels.*/
+  private static final int NEBULABROT_BAND_RATIO = 10;
+
+  /**
+   * The canvas on which the chaos game is played.
+   * A run may replace it on a render thread while the views read it.
+   */
+  private volatile ChaosCanvas canvas;
 
   /** The description of the chaos game.*/
   private final ChaosGameDescription description;
@@ -52,6 +65,51 @@ public class ChaosGame implements Subject {
   /** The name of the chaos game. */
   private String chaosGameName;
 
+  /** The counter type used for the pixels of the canvas. */
+  private PixelDepth pixelDepth;
+
+  /**
+   * The engine rendering the escape-time fractals in parallel.
+   * It may be swapped on the render thread while another thread cancels the render.
+   */
+  private volatile EscapeTimeEngine escapeTimeEngine;
+
+  /** The engine publishing a rough image first, used when rendering is progressive. */
+  private final ProgressiveEngine progressiveEngine;
+
+  /** The iteration limit for fractal calculations when the whole set is shown. */
+  private int maxIterations;
+
+  /** The orbits of the pixels of the last escape-time render, resumed or shifted by the next. */
+  private final OrbitState orbitState;
+
+  /** Whether escape-time fractals show their distance estimate instead of iteration counts. */
+  private boolean distanceEstimation;
+
+  /** The engine rendering distance estimates, skipping the pixels far from the boundary. */
+  private final DistanceEstimateEngine distanceEstimateEngine;
+
+  /** The pool the chains of the parallel chaos game run on, or null before the first run. */
+  private ForkJoinPool chainPool;
+
+  /** Whether the edges of escape-time fractals are supersampled. */
+  private boolean antialiasing;
+
+  /** The pass supersampling the edges of escape-time fractals. */
+  private final AdaptiveSupersampler supersampler;
+
+  /** The engine rendering the orbits of the Buddhabrot. */
+  private final BuddhabrotEngine buddhabrotEngine;
+
+  /** Whether the Buddhabrot is rendered as a Nebulabrot, in three iteration bands. */
+  private boolean nebulabrot;
+
+  /**
+   * The red, green and blue channels of the last Nebulabrot render, or null.
+   * A run may replace them on a render thread while the views read them.
+   */
+  private volatile ChaosCanvas[] nebulabrotChannels;
+
   /**
    * Constructor for the ChaosGame class.
    *
@@ -66,8 +124,20 @@ public class ChaosGame implements Subject {
 
     this.width = (width <= 0) ? 500 : width;
     this.height = (height <= 0) ? 500 : height;
-    this.canvas = new ChaosCanvas(
-        this.width, this.height, description.getMinCoords(), description.getMaxCoords());
+    this.pixelDepth = PixelDepth.INT;
+    this.progressiveEngine = new ProgressiveEngine();
+    this.progressiveEngine.setPassListener(
+        () -> notifyObservers(ButtonEnum.RENDER_PASS, "Rendered pass"));
+    this.escapeTimeEngine = new EscapeTimeEngine();
+    this.maxIterations = DEFAULT_MAX_ITERATIONS;
+    this.orbitState = new OrbitState();
+    this.distanceEstimateEngine = new DistanceEstimateEngine();
+    this.supersampler = new AdaptiveSupersampler();
+    this.buddhabrotEngine = new BuddhabrotEngine();
+    this.buddhabrotEngine.setBatchListener(
+        () -> notifyObservers(ButtonEnum.RENDER_PASS, "Rendered batch"));
+    this.canvas = new ChaosCanvas(this.width, this.height,
+        description.getMinCoords(), description.getMaxCoords(), this.pixelDepth);
     this.description = description;
     this.currentPoint = new Vector2D(0, 0);
     this.random = new Random();
@@ -137,6 +207,229 @@ public class ChaosGame implements Subject {
     this.height = height;
   }
 
+  /**
+   * Get the counter type used for the pixels of the canvas.
+   *
+   * @return the pixel depth of the canvas
+   */
+  public PixelDepth getPixelDepth() {
+    return this.pixelDepth;
+  }
+
+  /**
+   * Sets the counter type used for the pixels of the canvas.
+   * The canvas is recreated with the new depth, so any drawn pixels are lost.
+   *
+   * @param pixelDepth the pixel depth of the canvas
+   */
+  public void setPixelDepth(PixelDepth pixelDepth) {
+    if (pixelDepth == null) {
+      throw new IllegalArgumentException("Pixel depth cannot be null");
+    }
+    if (this.pixelDepth == pixelDepth) {
+      return;
+    }
+
+    this.pixelDepth = pixelDepth;
+    this.canvas = new ChaosCanvas(this.width, this.height,
+        description.getMinCoords(), description.getMaxCoords(), this.pixelDepth);
+  }
+
+  /**
+   * Get the engine rendering the escape-time fractals.
+   *
+   * @return the escape-time engine
+   */
+  public EscapeTimeEngine getEscapeTimeEngine() {
+    return this.escapeTimeEngine;
+  }
+
+  /**
+   * Sets the engine rendering the escape-time fractals.
+   *
+   * @param escapeTimeEngine the escape-time engine
+   */
+  public void setEscapeTimeEngine(EscapeTimeEngine escapeTimeEngine) {
+    if (escapeTimeEngine == null) {
+      throw new IllegalArgumentException("Escape-time engine cannot be null");
+    }
+    this.escapeTimeEngine = escapeTimeEngine;
+  }
+
+  /**
+   * Check if escape-time fractals are rendered progressively.
+   *
+   * @return true if the escape-time engine is the progressive engine
+   */
+  public boolean isProgressive() {
+    return this.escapeTimeEngine == this.progressiveEngine;
+  }
+
+  /**
+   * Sets whether escape-time fractals are rendered progressively.
+   * A progressive render publishes a rough image after every pass, but guesses
+   * the pixels inside uniform regions, so a thin filament can be missed.
+   * Otherwise every pixel is computed by the tiled engine, which is exact.
+   *
+   * @param progressive true to render progressively
+   */
+  public void setProgressive(boolean progressive) {
+    if (progressive) {
+      this.escapeTimeEngine = this.progressiveEngine;
+    } else if (isProgressive()) {
+      this.escapeTimeEngine = new EscapeTimeEngine();
+    }
+  }
+
+  /**
+   * Cancel the running render of an escape-time fractal or a Buddhabrot.
+   * The render can be cancelled from any thread, and returns soon after with the
+   * canvas partly drawn. Renders started later are cancelled too, until the
+   * cancellation is cleared.
+   */
+  public void cancelRendering() {
+    this.escapeTimeEngine.cancel();
+    this.progressiveEngine.cancel();
+    this.distanceEstimateEngine.cancel();
+    this.supersampler.cancel();
+    this.buddhabrotEngine.cancel();
+  }
+
+  /**
+   * Clear the cancellation of the renders, so the next render runs to the end.
+   */
+  public void clearCancellation() {
+    this.escapeTimeEngine.clearCancellation();
+    this.progressiveEngine.clearCancellation();
+    this.distanceEstimateEngine.clearCancellation();
+    this.supersampler.clearCancellation();
+    this.buddhabrotEngine.clearCancellation();
+  }
+
+  /**
+   * Get the iteration limit for fractal calculations when the whole set is shown.
+   *
+   * @return the iteration limit
+   */
+  public int getMaxIterations() {
+    return this.maxIterations;
+  }
+
+  /**
+   * Sets the iteration limit for fractal calculations when the whole set is shown.
+   * The limit grows from this as the view is zoomed in. If the same view is
+   * rendered again with a higher limit, only the pixels that reached the old
+   * limit are iterated, from where they stopped.
+   *
+   * @param maxIterations the iteration limit
+   */
+  public void setMaxIterations(int maxIterations) {
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("Max iterations must be positive");
+    }
+    this.maxIterations = maxIterations;
+  }
+
+  /**
+   * Get the orbits of the pixels of the last escape-time render.
+   *
+   * @return the orbit state
+   */
+  public OrbitState getOrbitState() {
+    return this.orbitState;
+  }
+
+  /**
+   * Check if escape-time fractals show their distance estimate.
+   *
+   * @return true if the distance estimation mode is on
+   */
+  public boolean isDistanceEstimation() {
+    return this.distanceEstimation;
+  }
+
+  /**
+   * Sets whether escape-time fractals show their distance estimate instead of
+   * iteration counts. In this mode every pixel gets its coverage by the set, from
+   * 1 inside it to 0 one pixel away, so filaments thinner than a pixel are drawn as
+   * hairlines, and the blocks far from the boundary are filled without iterating them.
+   * The mode needs double precision, so deeper zooms are rendered as before.
+   *
+   * @param distanceEstimation true to show the distance estimate
+   */
+  public void setDistanceEstimation(boolean distanceEstimation) {
+    this.distanceEstimation = distanceEstimation;
+  }
+
+  /**
+   * Check if the edges of escape-time fractals are supersampled.
+   *
+   * @return true if antialiasing is on
+   */
+  public boolean isAntialiasing() {
+    return this.antialiasing;
+  }
+
+  /**
+   * Sets whether the edges of escape-time fractals are supersampled.
+   * After a render, the pixels that differ strongly from a neighbour get the mean
+   * of a grid of samples, and the rest of the pixels are kept as they are.
+   * Views deep enough to need perturbation are not supersampled.
+   *
+   * @param antialiasing true to supersample the edges
+   */
+  public void setAntialiasing(boolean antialiasing) {
+    this.antialiasing = antialiasing;
+  }
+
+  /**
+   * Get the pass supersampling the edges of escape-time fractals.
+   *
+   * @return the supersampler
+   */
+  public AdaptiveSupersampler getSupersampler() {
+    return this.supersampler;
+  }
+
+  /**
+   * Get the engine rendering the orbits of the Buddhabrot.
+   *
+   * @return the Buddhabrot engine
+   */
+  public BuddhabrotEngine getBuddhabrotEngine() {
+    return this.buddhabrotEngine;
+  }
+
+  /**
+   * Check if the Buddhabrot is rendered as a Nebulabrot.
+   *
+   * @return true if the Nebulabrot mode is on
+   */
+  public boolean isNebulabrot() {
+    return this.nebulabrot;
+  }
+
+  /**
+   * Sets whether the Buddhabrot is rendered as a Nebulabrot. The orbits are then
+   * counted in three bands, each with a tenth of the iteration limit of the one
+   * before, which are shown as the red, green and blue channels.
+   *
+   * @param nebulabrot true to render a Nebulabrot
+   */
+  public void setNebulabrot(boolean nebulabrot) {
+    this.nebulabrot = nebulabrot;
+  }
+
+  /**
+   * Get the channels of the last Nebulabrot render.
+   * The red channel is the canvas itself, with the full iteration limit.
+   *
+   * @return the red, green and blue channels, or null if the last run was not a Nebulabrot
+   */
+  public ChaosCanvas[] getNebulabrotChannels() {
+    return this.nebulabrotChannels;
+  }
+
   /**
    * Update the minimum and maximum coordinates of the chaos game.
    *
@@ -160,8 +453,7 @@ public class ChaosGame implements Subject {
 
     this.description.setMinCoords(minX0, minX1);
     this.description.setMaxCoords(maxX0, maxX1);
-    this.canvas = new ChaosCanvas(
-        this.width, this.height, description.getMinCoords(), description.getMaxCoords());
+    resetCanvas();
 
     notifyObservers(ButtonEnum.COORDS, "Updated coordinates");
   }
@@ -177,8 +469,7 @@ public class ChaosGame implements Subject {
     }
 
     if (this.description.equals(description)) {
-      this.canvas = new ChaosCanvas(
-          this.width, this.height, description.getMinCoords(), description.getMaxCoords());
+      resetCanvas();
 
       notifyObservers(ButtonEnum.CANVAS_CHANGE, "Updated canvas");
       return;
@@ -189,13 +480,46 @@ public class ChaosGame implements Subject {
         description.getMinCoords().getX1());
     this.description.setMaxCoords(description.getMaxCoords().getX0(),
         description.getMaxCoords().getX1());
-    this.canvas = new ChaosCanvas(
-        this.width, this.height, description.getMinCoords(), description.getMaxCoords());
+    resetCanvas();
 
     notifyObservers(ButtonEnum.TRANSFORM, "Updated description");
     notifyObservers(ButtonEnum.CANVAS_CHANGE, "Updated canvas");
   }
 
+  /**
+   * Prepare an empty canvas for the current description.
+   * The existing canvas and its buffer are kept when the size is unchanged,
+   * so only the coordinates are updated and the pixels cleared. Otherwise a
+   * new canvas is created. Every run prepares the pixel depth it draws with,
+   * so a kept canvas may still have the depth of the last run.
+   */
+  private void resetCanvas() {
+    if (this.canvas.getWidth() == this.width && this.canvas.getHeight() == this.height) {
+      this.canvas.reset(description.getMinCoords(), description.getMaxCoords());
+    } else {
+      this.canvas = new ChaosCanvas(this.width, this.height,
+          description.getMinCoords(), description.getMaxCoords(), this.pixelDepth);
+    }
+  }
+
+  /**
+   * Prepare an empty canvas with a given pixel depth for a run.
+   * The canvas is cleared if it already has the depth, and otherwise replaced
+   * by a canvas of the same size and coordinates with the depth.
+   * The channels of an earlier Nebulabrot are dropped.
+   *
+   * @param depth the pixel depth the run draws with.
+   */
+  private void prepareCanvas(PixelDepth depth) {
+    this.nebulabrotChannels = null;
+    if (this.canvas.getPixelDepth() == depth) {
+      this.canvas.clear();
+    } else {
+      this.canvas = new ChaosCanvas(this.canvas.getWidth(), this.canvas.getHeight(),
+          description.getMinCoords(), description.getMaxCoords(), depth);
+    }
+  }
+
   /**
    * Set the name of the chaos game.
    *
@@ -215,7 +539,7 @@ public class ChaosGame implements Subject {
    * @param steps  the number of steps to run the chaos game.
    */
   public void runSteps(int steps) {
-    canvas.clear();
+    prepareCanvas(pixelDepth);
     currentPoint = new Vector2D(0, 0);
     if (steps < 0) {
       throw new IllegalArgumentException("Steps cannot be negative");
@@ -230,119 +554,394 @@ public class ChaosGame implements Subject {
     } catch (ArrayIndexOutOfBoundsException e) {
       throw new IllegalArgumentException("Could not run steps: " + e.getMessage());
     }
+    canvas.publishSnapshot();
+  }
+
+  /**
+   * Run the chaos game on the canvas with several threads.
+   * Uses one thread for each available processor.
+   *
+   * @param steps  the total number of steps to run the chaos game.
+   * @param mode   how the threads accumulate their hits on the canvas.
+   * @see #runStepsParallel(int, AccumulationMode, int)
+   */
+  public void runStepsParallel(int steps, AccumulationMode mode) {
+    runStepsParallel(steps, mode, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Run the chaos game on the canvas with several threads.
+   * Every thread runs its own chain of random transformations from the origin,
+   * and the steps are divided evenly between the chains. Unlike
+   * {@link #runSteps(int)}, every hit is counted, so the canvas becomes a
+   * density histogram of the fractal.
+   *
+   * @param steps    the total number of steps to run the chaos game.
+   * @param mode     how the threads accumulate their hits on the canvas.
+   * @param threads  the number of threads to run the chains on.
+   */
+  public void runStepsParallel(int steps, AccumulationMode mode, int threads) {
+    if (steps < 0) {
+      throw new IllegalArgumentException("Steps cannot be negative");
+    }
+    if (mode == null) {
+      throw new IllegalArgumentException("Accumulation mode cannot be null");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Threads must be positive");
+    }
+    prepareCanvas(pixelDepth);
+    List<Transform2D> transforms = List.copyOf(description.getTransforms());
+
+    List<ChaosCanvas> replicas = new ArrayList<>();
+    ForkJoinPool pool = getChainPool(threads);
+    try {
+      List<ForkJoinTask<ChaosCanvas>> chains = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int chainSteps = steps / threads + (t < steps % threads ? 1 : 0);
+        chains.add(pool.submit(() -> runChain(chainSteps, transforms, mode)));
+      }
+      for (ForkJoinTask<ChaosCanvas> chain : chains) {
+        replicas.add(chain.join());
+      }
+    } catch (ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Could not run steps: " + e.getMessage());
+    }
+
+    if (mode == AccumulationMode.REPLICATED) {
+      canvas.mergeReplicas(replicas);
+    }
+    canvas.publishSnapshot();
+  }
+
+  /**
+   * Get a pool with a thread for each chain of the parallel chaos game.
+   * The pool is kept between runs, and only replaced when another number
+   * of threads is asked for.
+   *
+   * @param threads the number of threads to run the chains on.
+   * @return the pool.
+   */
+  private ForkJoinPool getChainPool(int threads) {
+    if (chainPool == null || chainPool.getParallelism() != threads) {
+      if (chainPool != null) {
+        chainPool.shutdown();
+      }
+      chainPool = new ForkJoinPool(threads);
+    }
+    return chainPool;
+  }
+
+  /**
+   * Run one chain of the parallel chaos game.
+   *
+   * @param steps       the number of steps in the chain.
+   * @param transforms  the transformations to choose from.
+   * @param mode        how the chain accumulates its hits.
+   * @return the replica the chain drew on, or null if it drew on the shared canvas.
+   */
+  private ChaosCanvas runChain(int steps, List<Transform2D> transforms, AccumulationMode mode) {
+    ChaosCanvas target = (mode == AccumulationMode.REPLICATED)
+        ? new ChaosCanvas(canvas.getWidth(), canvas.getHeight(),
+            description.getMinCoords(), description.getMaxCoords(), pixelDepth)
+        : canvas;
+    CanvasStatistics partial = new CanvasStatistics();
+    ThreadLocalRandom chainRandom = ThreadLocalRandom.current();
+    Vector2D point = new Vector2D(0, 0);
+
+    for (int step = 0; step < steps; step++) {
+      point = transforms.get(chainRandom.nextInt(transforms.size())).transform(point);
+      Vector2D canvasCoords = target.convertToCanvasCoords(point);
+      int i = (int) canvasCoords.getX0();
+      int j = (int) canvasCoords.getX1();
+      switch (mode) {
+        case REPLICATED -> target.putPixel(i, j, 1, partial);
+        case SHARED_ATOMIC -> target.putPixelAtomic(i, j, 1, partial);
+        case SHARED_APPROXIMATE -> target.putPixelApproximate(i, j, 1, partial);
+        default -> throw new IllegalStateException("Unknown accumulation mode: " + mode);
+      }
+    }
+
+    if (mode == AccumulationMode.REPLICATED) {
+      return target;
+    }
+    target.mergeStatistics(partial);
+    return null;
   }
 
   /**
    * Run the iterative Julia method on the canvas.
-   * The method will iterate over all pixels in the canvas and
-   * apply the iterative Julia method to each pixel.
+   * The method will apply the iterative Julia method to every pixel
+   * in the canvas, in parallel tiles on the escape-time engine.
+   * The pixels show the region between the minimum and maximum coordinates
+   * of the description, and the iteration limit grows as the region shrinks.
    *
    * @throws IllegalArgumentException if the transformation type is not Julia.
    */
   public void runIterativeJuliaMethod() throws IllegalArgumentException {
-    canvas.clear();
+    runIterativeJuliaMethod(getViewport());
+  }
+
+  /**
+   * Run the iterative Julia method on a region of the complex plane.
+   * The points are iterated in the cheapest {@link PrecisionTier} that can
+   * tell the pixels apart, from double precision to perturbation from a
+   * reference orbit in arbitrary precision. Up to double precision the orbits
+   * are kept in double precision, so a higher limit for the same view resumes them,
+   * and a view moved by whole pixels only iterates the pixels moved into view.
+   * The smooth values of the pixels are kept on a {@link PixelDepth#FLOAT} canvas,
+   * so they can be coloured again without iterating the points.
+   *
+   * @param viewport the region of the complex plane to show on the canvas.
+   * @throws IllegalArgumentException if the transformation type is not Julia,
+   *                                  or the viewport does not fit the canvas.
+   */
+  public void runIterativeJuliaMethod(Viewport viewport) throws IllegalArgumentException {
+    prepareCanvas(PixelDepth.FLOAT);
     if (description.getTransformationType() != JuliaTransform.class) {
       throw new IllegalArgumentException("Transformation type is not Julia");
     }
+    checkViewport(viewport);
 
     JuliaTransform juliaTransform = (JuliaTransform) description.getTransforms().getFirst();
     double cx = juliaTransform.getPoint().getX0();
     double cy = juliaTransform.getPoint().getX1();
 
-    for (int i = 0; i < canvas.getWidth(); i++) {
-      for (int j = 0; j < canvas.getHeight(); j++) {
-        iterativeJuliaMethod(i, j, cx, cy);
+    int limit = viewport.getIterationBudget(maxIterations, 2.0 * ESCAPE_RADIUS);
+    PrecisionTier tier = PrecisionTier.select(viewport);
+    switch (tier) {
+      case DOUBLE -> {
+        if (distanceEstimation) {
+          distanceEstimateEngine.render(canvas,
+              new DistanceEstimateKernel(viewport, cx, cy, limit));
+        } else {
+          orbitState.prepareJulia(viewport, cx, cy, limit);
+          escapeTimeEngine.render(canvas,
+              VectorSupport.juliaKernel(orbitState, viewport, cx, cy, limit));
+        }
       }
+      case DOUBLE_DOUBLE -> escapeTimeEngine.render(canvas,
+          new DoubleDoubleKernel(viewport, cx, cy, limit));
+      default -> new PerturbationRenderer(escapeTimeEngine)
+          .renderJulia(canvas, viewport, cx, cy, limit);
     }
+    if (antialiasing && tier != PrecisionTier.PERTURBATION) {
+      supersampler.supersample(canvas, viewport,
+          samples -> juliaSampleKernel(tier, samples, cx, cy, limit));
+    }
+    canvas.publishSnapshot();
   }
 
   /**
-   * Apply the iterative Julia method to a pixel on the canvas.
-   *
-   * @param i   the row of the pixel
-   * @param j   the column of the pixel
-   * @param cx  the real part of the Julia set
-   * @param cy  the imaginary of the Julia set
+   * Run the Mandelbrot method on the canvas.
+   * The method will generate a Mandelbrot set by applying the
+   * Mandelbrot method to every pixel in the canvas, in parallel
+   * tiles on the escape-time engine.
+   * The pixels show the region between the minimum and maximum coordinates
+   * of the description, and the iteration limit grows as the region shrinks.
    */
-  private void iterativeJuliaMethod(int i, int j, double cx, double cy) {
-    double zx = (double) (i * (2 * ESCAPE_RADIUS)) / width - ESCAPE_RADIUS;
-    double zy = (double) (j * (2 * ESCAPE_RADIUS)) / height - ESCAPE_RADIUS;
-
-    int iteration = 0;
+  public void runMandelbrotMethod() {
+    runMandelbrotMethod(getViewport());
+  }
 
-    while (Math.pow(zx, 2) + Math.pow(zy, 2) < ESCAPE_RADIUS * ESCAPE_RADIUS
-        && iteration < MAX_ITERATIONS) {
-      double tempX = Math.pow(zx, 2) - Math.pow(zy, 2);
-      zy = 2.0 * zx * zy + cy;
-      zx = tempX + cx;
-      iteration++;
+  /**
+   * Run the Mandelbrot method on a region of the complex plane.
+   * The points are iterated in the cheapest {@link PrecisionTier} that can
+   * tell the pixels apart, so a deep zoom around an exact centre is iterated
+   * in double-double, or by perturbation from a reference orbit in arbitrary precision.
+   * Up to double precision the orbits are kept in double precision, so a higher
+   * limit for the same view resumes them, and a view moved by whole pixels only
+   * iterates the pixels moved into view.
+   * The smooth values of the pixels are kept on a {@link PixelDepth#FLOAT} canvas,
+   * so they can be coloured again without iterating the points.
+   *
+   * @param viewport the region of the complex plane to show on the canvas.
+   * @throws IllegalArgumentException if the viewport does not fit the canvas.
+   */
+  public void runMandelbrotMethod(Viewport viewport) throws IllegalArgumentException {
+    prepareCanvas(PixelDepth.FLOAT);
+    checkViewport(viewport);
+    int limit = viewport.getIterationBudget(maxIterations, MANDELBROT_WIDTH);
+    PrecisionTier tier = PrecisionTier.select(viewport);
+    switch (tier) {
+      case DOUBLE -> {
+        if (distanceEstimation) {
+          distanceEstimateEngine.render(canvas, new DistanceEstimateKernel(viewport, limit));
+        } else {
+          orbitState.prepareMandelbrot(viewport, limit);
+          escapeTimeEngine.render(canvas,
+              VectorSupport.mandelbrotKernel(orbitState, viewport, limit));
+        }
+      }
+      case DOUBLE_DOUBLE -> escapeTimeEngine.render(canvas,
+          new DoubleDoubleKernel(viewport, limit));
+      default -> new PerturbationRenderer(escapeTimeEngine)
+          .renderMandelbrot(canvas, viewport, limit);
     }
-
-    placePixel(i, j, zx, zy, iteration);
+    if (antialiasing && tier != PrecisionTier.PERTURBATION) {
+      supersampler.supersample(canvas, viewport,
+          samples -> mandelbrotSampleKernel(tier, samples, limit));
+    }
+    canvas.publishSnapshot();
   }
 
   /**
-   * Run the Mandelbrot method on the canvas.
-   * The method will iterate over all pixels in the canvas and
-   * generate a Mandelbrot set.
+   * Make the kernel of the samples of a supersampled Julia set.
+   * The samples are closer together than the pixels, so they may need a deeper
+   * precision tier than the render they refine. Distance estimates are only
+   * sampled if the render showed them, which it does up to double precision.
+   *
+   * @param tier    the precision tier of the render.
+   * @param samples the viewport of the samples.
+   * @param cx      the real part of the Julia constant.
+   * @param cy      the imaginary part of the Julia constant.
+   * @param limit   the iteration limit.
+   * @return the kernel of the samples.
    */
-  public void runMandelbrotMethod() {
-    canvas.clear();
-    for (int i = 0; i < canvas.getWidth(); i++) {
-      for (int j = 0; j < canvas.getHeight(); j++) {
-        mandelbrotMethod(i, j);
-      }
+  private EscapeTimeKernel juliaSampleKernel(PrecisionTier tier, Viewport samples, double cx,
+                                             double cy, int limit) {
+    if (distanceEstimation && tier != PrecisionTier.DOUBLE_DOUBLE) {
+      return new DistanceEstimateKernel(samples, cx, cy, limit);
     }
+    return switch (PrecisionTier.select(samples)) {
+      case DOUBLE -> VectorSupport.juliaKernel(samples, cx, cy, limit);
+      default -> new DoubleDoubleKernel(samples, cx, cy, limit);
+    };
   }
 
   /**
-   * Run the Mandelbrot method on a specific pixel on the canvas.
-   * The method will apply the Mandelbrot method to the pixel at the specified
-   * row and column.
+   * Make the kernel of the samples of a supersampled Mandelbrot set.
    *
-   * @param i the row of the pixel
-   * @param j the column of the pixel
+   * @param tier    the precision tier of the render.
+   * @param samples the viewport of the samples.
+   * @param limit   the iteration limit.
+   * @return the kernel of the samples.
+   * @see #juliaSampleKernel(PrecisionTier, Viewport, double, double, int)
    */
-  private void mandelbrotMethod(int i, int j) {
-    double scaleX = 2.00 + 0.47;
-    double scaleY = 1.12 + 1.12;
+  private EscapeTimeKernel mandelbrotSampleKernel(PrecisionTier tier, Viewport samples,
+                                                  int limit) {
+    if (distanceEstimation && tier != PrecisionTier.DOUBLE_DOUBLE) {
+      return new DistanceEstimateKernel(samples, limit);
+    }
+    return switch (PrecisionTier.select(samples)) {
+      case DOUBLE -> VectorSupport.mandelbrotKernel(samples, limit);
+      default -> new DoubleDoubleKernel(samples, limit);
+    };
+  }
 
-    double x0 = i * scaleX / width - 2.00;
-    double y0 = j * scaleY / height - 1.12;
+  /**
+   * Run an escape-time formula on the canvas.
+   * The pixels show the region between the minimum and maximum coordinates
+   * of the description, and the iteration limit grows as the region shrinks.
+   *
+   * @param formula the formula computing the fractal.
+   * @throws IllegalArgumentException if the formula is null.
+   */
+  public void runFormulaMethod(EscapeTimeFormula formula) throws IllegalArgumentException {
+    runFormulaMethod(formula, getViewport());
+  }
 
-    double x = 0;
-    double y = 0;
+  /**
+   * Run an escape-time formula on a region of the complex plane.
+   * The pixels are computed in parallel tiles on the escape-time engine, by a
+   * {@link FormulaKernel} calling the formula once for every pixel. The iteration
+   * limit grows with the zoom relative to the region the formula shows the whole
+   * fractal in. Formulas are computed in double precision.
+   *
+   * @param formula  the formula computing the fractal.
+   * @param viewport the region of the complex plane to show on the canvas.
+   * @throws IllegalArgumentException if the formula is null, or the viewport
+   *                                  does not fit the canvas.
+   */
+  public void runFormulaMethod(EscapeTimeFormula formula, Viewport viewport)
+      throws IllegalArgumentException {
+    if (formula == null) {
+      throw new IllegalArgumentException("Formula cannot be null");
+    }
+    prepareCanvas(PixelDepth.FLOAT);
+    checkViewport(viewport);
+    int limit = viewport.getIterationBudget(maxIterations,
+        formula.getMaxCoords().getX0() - formula.getMinCoords().getX0());
+    escapeTimeEngine.render(canvas, new FormulaKernel(formula, viewport, limit));
+    if (antialiasing) {
+      supersampler.supersample(canvas, viewport,
+          samples -> new FormulaKernel(formula, samples, limit));
+    }
+    canvas.publishSnapshot();
+  }
 
-    int iteration = 0;
+  /**
+   * Run the Buddhabrot method on the canvas.
+   * The canvas gets the density of the orbits of points escaping the Mandelbrot set,
+   * in the region between the minimum and maximum coordinates of the description.
+   */
+  public void runBuddhabrotMethod() {
+    runBuddhabrotMethod(getViewport(), DEFAULT_BUDDHABROT_SAMPLES);
+  }
 
-    while (Math.pow(x, 2) + Math.pow(y, 2) <= 4 && iteration < MAX_ITERATIONS) {
-      double tempX = Math.pow(x, 2) - Math.pow(y, 2) + x0;
-      y = 2 * x * y + y0;
-      x = tempX;
-      iteration++;
+  /**
+   * Run the Buddhabrot method on a region of the complex plane.
+   * The orbits are counted in parallel chains, and a snapshot is published after
+   * every batch, so the image fills in while it is rendered. In the Nebulabrot mode
+   * the lower iteration bands are counted from the same orbits on two more canvases.
+   * The sampling of the {@link BuddhabrotEngine} decides which points are sampled,
+   * and a zoomed view needs {@link BuddhabrotSampling#METROPOLIS} to be rendered quickly.
+   *
+   * @param viewport the region of the complex plane to show on the canvas.
+   * @param samples  the number of points to sample.
+   * @throws IllegalArgumentException if the viewport does not fit the canvas,
+   *                                  or the number of samples is negative.
+   */
+  public void runBuddhabrotMethod(Viewport viewport, long samples)
+      throws IllegalArgumentException {
+    prepareCanvas(PixelDepth.FLOAT);
+    checkViewport(viewport);
+
+    ChaosCanvas[] channels = {canvas};
+    int[] limits = {maxIterations};
+    if (nebulabrot) {
+      channels = new ChaosCanvas[] {canvas, createChannel(), createChannel()};
+      limits = new int[] {maxIterations, Math.max(1, maxIterations / NEBULABROT_BAND_RATIO),
+          Math.max(1, maxIterations / (NEBULABROT_BAND_RATIO * NEBULABROT_BAND_RATIO))};
+      nebulabrotChannels = channels;
     }
+    buddhabrotEngine.render(channels, viewport, limits, samples);
+    canvas.publishSnapshot();
+  }
 
-    placePixel(i, j, x0, y0, iteration);
+  /**
+   * Create an empty canvas of the size of the canvas to count a Nebulabrot channel on.
+   *
+   * @return the channel.
+   */
+  private ChaosCanvas createChannel() {
+    return new ChaosCanvas(canvas.getWidth(), canvas.getHeight(),
+        description.getMinCoords(), description.getMaxCoords(), PixelDepth.FLOAT);
   }
 
   /**
-   * Place a pixel on the canvas based on the given
-   * coordinates and iteration count.
+   * Get the region of the complex plane shown on the canvas,
+   * from the minimum and maximum coordinates of the description.
    *
-   * @param i         the row of the pixel
-   * @param j         the column of the pixel
-   * @param x0        the initial x-coordinate
-   * @param y0        the initial y-coordinate
-   * @param iteration the number of iterations
+   * @return the viewport of the canvas.
    */
-  private void placePixel(int i, int j, double x0, double y0, int iteration) {
-    if (iteration == MAX_ITERATIONS) {
-      canvas.putPixel(i, j, MAX_ITERATIONS);
+  private Viewport getViewport() {
+    return new Viewport(description.getMinCoords(), description.getMaxCoords(),
+        canvas.getWidth(), canvas.getHeight());
+  }
 
-    } else {
-      double absZ = Math.pow(x0, 2) + Math.pow(y0, 2);
-      iteration += (int) (1 - Math.log(Math.log(absZ)) / LOG_2);
-      canvas.putPixel(i, j, iteration);
+  /**
+   * Check that a viewport has one pixel for every pixel of the canvas.
+   *
+   * @param viewport the viewport to check.
+   * @throws IllegalArgumentException if the viewport is null or of another size.
+   */
+  private void checkViewport(Viewport viewport) {
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (viewport.getWidth() != canvas.getWidth() || viewport.getHeight() != canvas.getHeight()) {
+      throw new IllegalArgumentException("Viewport must be the size of the canvas");
     }
   }
 
@@ -0,0 +1,321 @@
+package edu.ntnu.stud.chaos;
+
+import java.util.stream.IntStream;
+
+/**
+ * This class represents a sum and max mipmap pyramid of a {@link ChaosCanvas}.
+ * Level 0 holds the pixels of the canvas, and every following level halves the width
+ * and height of the level before it. Each cell stores the sum and the maximum
+ * of the 2x2 cells it covers on the finer level.
+ * Goal: let reduced-resolution views and region queries read a few coarse
+ * cells instead of scanning the full histogram again.
+ */
+public class DensityPyramid {
+
+  /** The pixels at level 0 of the pyramid. */
+  private final PixelBuffer pixels;
+
+  /** The sums of each level above level 0, indexed as [level - 1][row][column]. */
+  private final double[][][] sums;
+
+  /** The maxima of each level above level 0, indexed as [level - 1][row][column]. */
+  private final double[][][] maxima;
+
+  /**
+   * Constructor for the DensityPyramid class.
+   * Level 0 is a copy of the canvas, so all levels show the canvas as it was
+   * when the pyramid was built, even if the canvas is written to afterwards.
+   * The levels are built in parallel, one row of a level at a time.
+   *
+   * @param canvas the canvas to build the pyramid from.
+   */
+  public DensityPyramid(ChaosCanvas canvas) {
+    this(canvas == null ? null : canvas.getPixelBuffer().copy());
+  }
+
+  /**
+   * Constructor for a DensityPyramid over a pixel buffer.
+   * The buffer is kept as level 0, so it must not be written to afterwards.
+   *
+   * @param pixels the pixels to build the pyramid from.
+   */
+  DensityPyramid(PixelBuffer pixels) {
+    if (pixels == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+    this.pixels = pixels;
+
+    int levels = 0;
+    for (int w = pixels.getWidth(), h = pixels.getHeight(); w > 1 || h > 1;
+        w = half(w), h = half(h)) {
+      levels++;
+    }
+    this.sums = new double[levels][][];
+    this.maxima = new double[levels][][];
+
+    for (int level = 1; level <= levels; level++) {
+      buildLevel(level);
+    }
+  }
+
+  /**
+   * Get the number of levels in the pyramid, including the canvas itself.
+   *
+   * @return the number of levels in the pyramid.
+   */
+  public int getLevelCount() {
+    return sums.length + 1;
+  }
+
+  /**
+   * Get the width of a level.
+   *
+   * @param level the level of the pyramid.
+   * @return the number of columns in the level.
+   */
+  public int getLevelWidth(int level) {
+    checkLevel(level);
+    return level == 0 ? pixels.getWidth() : sums[level - 1][0].length;
+  }
+
+  /**
+   * Get the height of a level.
+   *
+   * @param level the level of the pyramid.
+   * @return the number of rows in the level.
+   */
+  public int getLevelHeight(int level) {
+    checkLevel(level);
+    return level == 0 ? pixels.getHeight() : sums[level - 1].length;
+  }
+
+  /**
+   * Get the sum of the canvas pixels covered by a cell.
+   *
+   * @param level the level of the cell.
+   * @param i     the row of the cell.
+   * @param j     the column of the cell.
+   * @return the sum of the pixels covered by the cell.
+   */
+  public double getSum(int level, int i, int j) {
+    checkLevel(level);
+    return level == 0 ? pixels.get(i, j) : sums[level - 1][i][j];
+  }
+
+  /**
+   * Get the largest canvas pixel covered by a cell.
+   *
+   * @param level the level of the cell.
+   * @param i     the row of the cell.
+   * @param j     the column of the cell.
+   * @return the largest pixel covered by the cell.
+   */
+  public double getMax(int level, int i, int j) {
+    checkLevel(level);
+    return level == 0 ? pixels.get(i, j) : maxima[level - 1][i][j];
+  }
+
+  /**
+   * Get the finest level that fits within the given size.
+   * Drawing this level needs at most one cell per output pixel.
+   *
+   * @param width  the largest number of columns wanted.
+   * @param height the largest number of rows wanted.
+   * @return the finest level that fits within the given size.
+   */
+  public int getLevelFor(int width, int height) {
+    int level = 0;
+    while (level < sums.length
+        && (getLevelWidth(level) > width || getLevelHeight(level) > height)) {
+      level++;
+    }
+    return level;
+  }
+
+  /**
+   * Get a reduced-resolution view of the canvas that fits within the given size.
+   * The view is a level of the pyramid, so no pixels of the canvas are read.
+   *
+   * @param width  the largest number of columns wanted.
+   * @param height the largest number of rows wanted.
+   * @param useMax true for the maxima of each cell, false for the sums.
+   * @return the cells of the finest level that fits, indexed as [row][column].
+   */
+  public double[][] getReducedView(int width, int height, boolean useMax) {
+    int level = getLevelFor(width, height);
+    double[][] view = new double[getLevelHeight(level)][getLevelWidth(level)];
+    for (int i = 0; i < view.length; i++) {
+      for (int j = 0; j < view[i].length; j++) {
+        view[i][j] = useMax ? getMax(level, i, j) : getSum(level, i, j);
+      }
+    }
+    return view;
+  }
+
+  /**
+   * Get the largest pixel in a region of the canvas.
+   * The region is covered by the coarsest aligned cells that fit inside it,
+   * so only the cells along its border on each level are read.
+   *
+   * @param row0 the first row of the region.
+   * @param col0 the first column of the region.
+   * @param row1 the row after the last row of the region.
+   * @param col1 the column after the last column of the region.
+   * @return the largest pixel in the region, or 0 if the region is empty.
+   */
+  public double getRegionMax(int row0, int col0, int row1, int col1) {
+    checkRegion(row0, col0, row1, col1);
+    return Math.max(0, queryRegion(0, row0, col0, row1, col1, true));
+  }
+
+  /**
+   * Get the sum of the pixels in a region of the canvas.
+   *
+   * @param row0 the first row of the region.
+   * @param col0 the first column of the region.
+   * @param row1 the row after the last row of the region.
+   * @param col1 the column after the last column of the region.
+   * @return the sum of the pixels in the region.
+   */
+  public double getRegionSum(int row0, int col0, int row1, int col1) {
+    checkRegion(row0, col0, row1, col1);
+    return queryRegion(0, row0, col0, row1, col1, false);
+  }
+
+  /**
+   * Query a region on a level. The part of the region made up of whole cells
+   * on the next level is queried there, and the remaining border strips are read here.
+   *
+   * @param level  the level of the region.
+   * @param row0   the first row of the region on the level.
+   * @param col0   the first column of the region on the level.
+   * @param row1   the row after the last row of the region on the level.
+   * @param col1   the column after the last column of the region on the level.
+   * @param useMax true to combine cells by maximum, false to combine by sum.
+   * @return the combined value of the region.
+   */
+  private double queryRegion(int level, int row0, int col0, int row1, int col1,
+                             boolean useMax) {
+    double empty = useMax ? Double.NEGATIVE_INFINITY : 0;
+    if (row0 >= row1 || col0 >= col1) {
+      return empty;
+    }
+
+    int innerRow0 = (row0 + 1) / 2;
+    int innerCol0 = (col0 + 1) / 2;
+    int innerRow1 = row1 / 2;
+    int innerCol1 = col1 / 2;
+    if (level == sums.length || innerRow0 >= innerRow1 || innerCol0 >= innerCol1) {
+      return readCells(level, row0, col0, row1, col1, useMax);
+    }
+
+    double inner = queryRegion(level + 1, innerRow0, innerCol0, innerRow1, innerCol1, useMax);
+    int top = innerRow0 * 2;
+    int bottom = innerRow1 * 2;
+    int left = innerCol0 * 2;
+    int right = innerCol1 * 2;
+    double[] border = {
+        readCells(level, row0, col0, top, col1, useMax),
+        readCells(level, bottom, col0, row1, col1, useMax),
+        readCells(level, top, col0, bottom, left, useMax),
+        readCells(level, top, right, bottom, col1, useMax)
+    };
+
+    double result = inner;
+    for (double value : border) {
+      result = useMax ? Math.max(result, value) : result + value;
+    }
+    return result;
+  }
+
+  /**
+   * Combine every cell in a region of a level.
+   *
+   * @param level  the level of the region.
+   * @param row0   the first row of the region.
+   * @param col0   the first column of the region.
+   * @param row1   the row after the last row of the region.
+   * @param col1   the column after the last column of the region.
+   * @param useMax true to combine cells by maximum, false to combine by sum.
+   * @return the combined value of the region.
+   */
+  private double readCells(int level, int row0, int col0, int row1, int col1, boolean useMax) {
+    double result = useMax ? Double.NEGATIVE_INFINITY : 0;
+    for (int i = row0; i < row1; i++) {
+      for (int j = col0; j < col1; j++) {
+        result = useMax ? Math.max(result, getMax(level, i, j)) : result + getSum(level, i, j);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Build a level from the level below it, one row at a time in parallel.
+   *
+   * @param level the level to build.
+   */
+  private void buildLevel(int level) {
+    int finerWidth = getLevelWidth(level - 1);
+    int finerHeight = getLevelHeight(level - 1);
+    int levelWidth = half(finerWidth);
+    int levelHeight = half(finerHeight);
+    double[][] levelSums = new double[levelHeight][levelWidth];
+    double[][] levelMaxima = new double[levelHeight][levelWidth];
+
+    IntStream.range(0, levelHeight).parallel().forEach(i -> {
+      for (int j = 0; j < levelWidth; j++) {
+        double sum = 0;
+        double max = 0;
+        for (int di = 0; di < 2 && 2 * i + di < finerHeight; di++) {
+          for (int dj = 0; dj < 2 && 2 * j + dj < finerWidth; dj++) {
+            sum += getSum(level - 1, 2 * i + di, 2 * j + dj);
+            max = Math.max(max, getMax(level - 1, 2 * i + di, 2 * j + dj));
+          }
+        }
+        levelSums[i][j] = sum;
+        levelMaxima[i][j] = max;
+      }
+    });
+
+    sums[level - 1] = levelSums;
+    maxima[level - 1] = levelMaxima;
+  }
+
+  /**
+   * Check that a level exists in the pyramid.
+   *
+   * @param level the level to check.
+   * @throws IllegalArgumentException if the level does not exist.
+   */
+  private void checkLevel(int level) {
+    if (level < 0 || level > sums.length) {
+      throw new IllegalArgumentException("Level must be between 0 and " + sums.length);
+    }
+  }
+
+  /**
+   * Check that a region lies within the canvas.
+   *
+   * @param row0 the first row of the region.
+   * @param col0 the first column of the region.
+   * @param row1 the row after the last row of the region.
+   * @param col1 the column after the last column of the region.
+   * @throws IllegalArgumentException if the region is outside the canvas.
+   */
+  private void checkRegion(int row0, int col0, int row1, int col1) {
+    if (row0 < 0 || col0 < 0 || row1 > pixels.getHeight() || col1 > pixels.getWidth()
+        || row0 > row1 || col0 > col1) {
+      throw new IllegalArgumentException("Region is outside the canvas");
+    }
+  }
+
+  /**
+   * Get the size of a dimension on the next level.
+   *
+   * @param size the size of the dimension.
+   * @return the size of the dimension on the next level.
+   */
+  private static int half(int size) {
+    return (size + 1) / 2;
+  }
+}
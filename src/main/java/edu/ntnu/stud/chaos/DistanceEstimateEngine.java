@@ -0,0 +1,190 @@
+package edu.ntnu.stud.chaos;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class represents a renderer that skips the pixels far from the boundary
+ * of an escape-time fractal, using the distance estimates of a {@link DistanceEstimateKernel}.
+ * The canvas is cut into blocks, and the distance is estimated at the centre of a block.
+ * The estimate is a lower bound, so no point of the set lies closer to the centre.
+ * If the bound clears the farthest pixel of the block by {@link #FILL_MARGIN} pixels,
+ * every pixel of the block is at least that far from the set, and its own estimate,
+ * at least a quarter of its true distance, is at least a pixel. Such a block has
+ * a coverage of 0 everywhere and is filled without computing it.
+ * Other blocks are cut into four on a work-stealing {@link ForkJoinPool}, down to
+ * blocks no larger than a tile, which are computed pixel by pixel. Kernels that
+ * do not estimate distances are rendered like on an {@link EscapeTimeEngine}.
+ * Goal: make the cost of a distance-estimated render follow the length of the
+ * boundary in view instead of the number of pixels.
+ */
+public class DistanceEstimateEngine extends EscapeTimeEngine {
+
+  /**
+   * The number of pixels the distance bound at the centre of a block must clear
+   * its farthest pixel by for the block to be filled. The estimate of a pixel can
+   * be a quarter of its true distance, so four pixels leave every estimate above one.
+   */
+  static final double FILL_MARGIN = 4;
+
+  /** The number of pixels filled without computing them in the last render. */
+  private volatile int filledPixels;
+
+  /**
+   * Constructor for a DistanceEstimateEngine using one thread for each available processor.
+   */
+  public DistanceEstimateEngine() {
+    super();
+  }
+
+  /**
+   * Constructor for the DistanceEstimateEngine class.
+   *
+   * @param threads  the number of threads to render with.
+   * @param tileSize the number of pixels along each side of a block
+   *                 that is computed pixel by pixel.
+   */
+  public DistanceEstimateEngine(int threads, int tileSize) {
+    super(threads, tileSize);
+  }
+
+  /**
+   * Get the number of pixels filled without computing them in the last render.
+   *
+   * @return the number of filled pixels.
+   */
+  public int getFilledPixels() {
+    return filledPixels;
+  }
+
+  /**
+   * Render every pixel of the canvas with a kernel, filling the blocks far from the boundary.
+   * The values are gathered in a buffer, where filled blocks are left at 0,
+   * and then added to the canvas.
+   *
+   * @param canvas the canvas to render on.
+   * @param kernel the kernel computing the value of each pixel.
+   */
+  @Override
+  public void render(ChaosCanvas canvas, EscapeTimeKernel kernel) {
+    if (!(kernel instanceof DistanceEstimateKernel distanceKernel)) {
+      filledPixels = 0;
+      super.render(canvas, kernel);
+      return;
+    }
+    if (canvas == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    float[][] values = new float[height][width];
+    filledPixels = getPool().invoke(new BlockTask(distanceKernel, values, 0, 0, height, width));
+    if (isCancelled()) {
+      return;
+    }
+    distanceKernel.getSymmetry().copy(values);
+
+    CanvasStatistics statistics = new CanvasStatistics();
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        canvas.putPixel(i, j, values[i][j], statistics);
+      }
+    }
+    canvas.mergeStatistics(statistics);
+  }
+
+  /**
+   * A task rendering a block of the buffer, filling it if it is far from the boundary
+   * and cutting it into four otherwise.
+   */
+  @SuppressWarnings("serial")
+  private final class BlockTask extends RecursiveTask<Integer> {
+
+    /** The kernel estimating the distance of each pixel. */
+    private final DistanceEstimateKernel kernel;
+
+    /** The buffer to write the values to. */
+    private final float[][] values;
+
+    /** The first row of the block. */
+    private final int row0;
+
+    /** The first column of the block. */
+    private final int col0;
+
+    /** The row after the last row of the block. */
+    private final int row1;
+
+    /** The column after the last column of the block. */
+    private final int col1;
+
+    /**
+     * Constructor for the BlockTask class.
+     *
+     * @param kernel the kernel estimating the distance of each pixel.
+     * @param values the buffer to write the values to.
+     * @param row0   the first row of the block.
+     * @param col0   the first column of the block.
+     * @param row1   the row after the last row of the block.
+     * @param col1   the column after the last column of the block.
+     */
+    BlockTask(DistanceEstimateKernel kernel, float[][] values, int row0, int col0,
+              int row1, int col1) {
+      this.kernel = kernel;
+      this.values = values;
+      this.row0 = row0;
+      this.col0 = col0;
+      this.row1 = row1;
+      this.col1 = col1;
+    }
+
+    /**
+     * Render the block.
+     *
+     * @return the number of pixels filled without computing them.
+     */
+    @Override
+    protected Integer compute() {
+      if (isCancelled()) {
+        return 0;
+      }
+      Symmetry symmetry = kernel.getSymmetry();
+      if (row0 >= row1 || col0 >= col1 || symmetry.isCopy(row0, col0, row1, col1)) {
+        return 0;
+      }
+      int centerRow = (row0 + row1) / 2;
+      int centerColumn = (col0 + col1) / 2;
+      double reach = Math.hypot(
+          Math.max(centerRow - row0, row1 - 1 - centerRow) * kernel.getImStep(),
+          Math.max(centerColumn - col0, col1 - 1 - centerColumn) * kernel.getReStep());
+      double clearance = kernel.estimateDistance(centerRow, centerColumn) - reach;
+      if (clearance >= FILL_MARGIN * kernel.getPixelSpacing()) {
+        return (row1 - row0) * (col1 - col0);
+      }
+
+      if (row1 - row0 <= getTileSize() && col1 - col0 <= getTileSize()) {
+        for (int i = row0; i < row1; i++) {
+          for (int j = col0; j < col1; j++) {
+            if (!symmetry.isCopy(i, j)) {
+              values[i][j] = kernel.computePixel(i, j);
+            }
+          }
+        }
+        return 0;
+      }
+
+      BlockTask[] parts = {
+          new BlockTask(kernel, values, row0, col0, centerRow, centerColumn),
+          new BlockTask(kernel, values, row0, centerColumn, centerRow, col1),
+          new BlockTask(kernel, values, centerRow, col0, row1, centerColumn),
+          new BlockTask(kernel, values, centerRow, centerColumn, row1, col1)};
+      invokeAll(parts);
+      int filled = 0;
+      for (BlockTask part : parts) {
+        filled += part.join();
+      }
+      return filled;
+    }
+  }
+}
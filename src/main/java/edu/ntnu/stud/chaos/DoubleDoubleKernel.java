@@ -0,0 +1,358 @@
+package edu.ntnu.stud.chaos;
+
+import static edu.ntnu.stud.chaos.EscapeTimeConstants.ESCAPE_RADIUS_SQUARED;
+
+import java.math.BigDecimal;
+
+/**
+ * This class represents an escape-time kernel iterating in double-double precision.
+ * A double-double number is the unevaluated sum of two doubles, a high part
+ * and a low part holding the rounding error of the high part, which gives
+ * about 106 bits of precision. The parts are kept in local variables and
+ * combined with exact sums and fused multiply-adds, so no objects are created
+ * while a pixel is iterated.
+ * The kernel serves both the Mandelbrot set and Julia sets, and covers zooms
+ * just past double precision, where setting up a reference orbit for
+ * {@link PerturbationKernel} is not yet worth it.
+ * Goal: compute the pixels of a moderately deep zoom without arbitrary precision.
+ */
+public final class DoubleDoubleKernel implements EscapeTimeKernel {
+
+  /** The high part of the real part of the centre of the viewport. */
+  private final double centerReHi;
+
+  /** The low part of the real part of the centre of the viewport. */
+  private final double centerReLo;
+
+  /** The high part of the imaginary part of the centre of the viewport. */
+  private final double centerImHi;
+
+  /** The low part of the imaginary part of the centre of the viewport. */
+  private final double centerImLo;
+
+  /** The region of the complex plane to compute. */
+  private final Viewport viewport;
+
+  /** Whether the pixels are points c of the Mandelbrot set, or starting points of a Julia set. */
+  private final boolean mandelbrot;
+
+  /** The real part of the Julia constant. */
+  private final double cx;
+
+  /** The imaginary part of the Julia constant. */
+  private final double cy;
+
+  /** The iteration limit. */
+  private final int maxIterations;
+
+  /** The symmetry of the pixels, about the real axis or the origin. */
+  private final Symmetry symmetry;
+
+  /**
+   * Constructor for a DoubleDoubleKernel of the Mandelbrot set.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param maxIterations the iteration limit.
+   */
+  public DoubleDoubleKernel(Viewport viewport, int maxIterations) {
+    this(viewport, true, 0, 0, maxIterations);
+  }
+
+  /**
+   * Constructor for a DoubleDoubleKernel of a Julia set.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   */
+  public DoubleDoubleKernel(Viewport viewport, double cx, double cy, int maxIterations) {
+    this(viewport, false, cx, cy, maxIterations);
+  }
+
+  /**
+   * Constructor for the DoubleDoubleKernel class.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param mandelbrot    true for the Mandelbrot set, false for a Julia set.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   */
+  private DoubleDoubleKernel(Viewport viewport, boolean mandelbrot, double cx, double cy,
+                             int maxIterations) {
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("Max iterations must be positive");
+    }
+    this.viewport = viewport;
+    this.mandelbrot = mandelbrot;
+    this.cx = cx;
+    this.cy = cy;
+    this.maxIterations = maxIterations;
+    this.centerReHi = viewport.getCenterRe().doubleValue();
+    this.centerReLo = lowPart(viewport.getCenterRe(), centerReHi);
+    this.centerImHi = viewport.getCenterIm().doubleValue();
+    this.centerImLo = lowPart(viewport.getCenterIm(), centerImHi);
+    this.symmetry = mandelbrot
+        ? Symmetry.aboutRealAxis(viewport) : Symmetry.aboutOrigin(viewport);
+  }
+
+  /**
+   * Get the part of an exact number that its nearest double leaves out.
+   *
+   * @param value the exact number.
+   * @param high  the nearest double to the number.
+   * @return the low part of the number.
+   */
+  private static double lowPart(BigDecimal value, double high) {
+    return value.subtract(new BigDecimal(high)).doubleValue();
+  }
+
+  /**
+   * Get the symmetry of the set on the pixels of the kernel.
+   *
+   * @return the symmetry about the real axis for the Mandelbrot set,
+   *         or about the origin for a Julia set.
+   */
+  @Override
+  public Symmetry getSymmetry() {
+    return symmetry;
+  }
+
+  /**
+   * Compute the value of a pixel on the canvas.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return the value of the pixel.
+   */
+  @Override
+  public float computePixel(int i, int j) {
+    double reHi = pointHi(centerReHi, centerReLo, viewport.getDeltaRe(j));
+    double reLo = pointLo(centerReHi, centerReLo, viewport.getDeltaRe(j), reHi);
+    double imHi = pointHi(centerImHi, centerImLo, viewport.getDeltaIm(i));
+    double imLo = pointLo(centerImHi, centerImLo, viewport.getDeltaIm(i), imHi);
+    if (mandelbrot) {
+      return iterate(0, 0, 0, 0, reHi, reLo, imHi, imLo);
+    }
+    return iterate(reHi, reLo, imHi, imLo, cx, 0, cy, 0);
+  }
+
+  /**
+   * Compute the values of a run of pixels in a row, two pixels at a time.
+   * A double-double iteration is a long chain of dependent operations,
+   * so the operations of one pixel fill the wait on the other.
+   *
+   * @param i      the row of the pixels.
+   * @param j0     the first column of the run.
+   * @param j1     the column after the last column of the run.
+   * @param values the array to write the values to, starting at index 0.
+   */
+  @Override
+  public void computeRow(int i, int j0, int j1, float[] values) {
+    double imHi = pointHi(centerImHi, centerImLo, viewport.getDeltaIm(i));
+    double imLo = pointLo(centerImHi, centerImLo, viewport.getDeltaIm(i), imHi);
+    int j = j0;
+    for (; j + 1 < j1; j += 2) {
+      double reHi0 = pointHi(centerReHi, centerReLo, viewport.getDeltaRe(j));
+      double reLo0 = pointLo(centerReHi, centerReLo, viewport.getDeltaRe(j), reHi0);
+      double reHi1 = pointHi(centerReHi, centerReLo, viewport.getDeltaRe(j + 1));
+      double reLo1 = pointLo(centerReHi, centerReLo, viewport.getDeltaRe(j + 1), reHi1);
+      iteratePair(reHi0, reLo0, reHi1, reLo1, imHi, imLo, values, j - j0);
+    }
+    if (j < j1) {
+      values[j - j0] = computePixel(i, j);
+    }
+  }
+
+  /**
+   * Get the high part of a double-double centre plus a double offset.
+   *
+   * @param centerHi the high part of the centre.
+   * @param centerLo the low part of the centre.
+   * @param delta    the offset.
+   * @return the high part of the sum.
+   */
+  private static double pointHi(double centerHi, double centerLo, double delta) {
+    double sum = centerHi + delta;
+    double back = sum - centerHi;
+    return sum + ((centerHi - (sum - back)) + (delta - back) + centerLo);
+  }
+
+  /**
+   * Get the low part of a double-double centre plus a double offset.
+   *
+   * @param centerHi the high part of the centre.
+   * @param centerLo the low part of the centre.
+   * @param delta    the offset.
+   * @param high     the high part of the sum.
+   * @return the low part of the sum.
+   */
+  private static double pointLo(double centerHi, double centerLo, double delta, double high) {
+    double sum = centerHi + delta;
+    double back = sum - centerHi;
+    double error = (centerHi - (sum - back)) + (delta - back) + centerLo;
+    return error - (high - sum);
+  }
+
+  /**
+   * Iterate z = z² + c in double-double precision until z escapes.
+   * Each product is split into its rounded value and its exact rounding error
+   * with a fused multiply-add, and each sum with the two-sum of Knuth,
+   * so the low parts carry what the high parts lose.
+   *
+   * @param xHi  the high part of the real part of the starting point.
+   * @param xLo  the low part of the real part of the starting point.
+   * @param yHi  the high part of the imaginary part of the starting point.
+   * @param yLo  the low part of the imaginary part of the starting point.
+   * @param cxHi the high part of the real part of c.
+   * @param cxLo the low part of the real part of c.
+   * @param cyHi the high part of the imaginary part of c.
+   * @param cyLo the low part of the imaginary part of c.
+   * @return the value of the pixel.
+   */
+  private float iterate(double xHi, double xLo, double yHi, double yLo, double cxHi,
+                        double cxLo, double cyHi, double cyLo) {
+    int iteration = 0;
+    while (iteration < maxIterations) {
+      // x² and y², each as a rounded product and its exact error.
+      double xxHi = xHi * xHi;
+      double xxLo = Math.fma(xHi, xHi, -xxHi) + 2 * xHi * xLo;
+      double yyHi = yHi * yHi;
+      double yyLo = Math.fma(yHi, yHi, -yyHi) + 2 * yHi * yLo;
+      double size = xxHi + yyHi;
+      if (mandelbrot ? size > ESCAPE_RADIUS_SQUARED : size >= ESCAPE_RADIUS_SQUARED) {
+        break;
+      }
+
+      // 2xy + cy.
+      double xyHi = xHi * yHi;
+      double xyLo = Math.fma(xHi, yHi, -xyHi) + xHi * yLo + xLo * yHi;
+      double sum = 2 * xyHi + cyHi;
+      double back = sum - 2 * xyHi;
+      double error = (2 * xyHi - (sum - back)) + (cyHi - back) + 2 * xyLo + cyLo;
+      yHi = sum + error;
+      yLo = error - (yHi - sum);
+
+      // x² - y² + cx.
+      double differenceHi = xxHi - yyHi;
+      back = differenceHi - xxHi;
+      double differenceLo = (xxHi - (differenceHi - back)) + (-yyHi - back) + xxLo - yyLo;
+      sum = differenceHi + cxHi;
+      back = sum - differenceHi;
+      error = (differenceHi - (sum - back)) + (cxHi - back) + differenceLo + cxLo;
+      xHi = sum + error;
+      xLo = error - (xHi - sum);
+
+      iteration++;
+    }
+    return mandelbrot
+        ? EscapeTimeKernel.pixelValue(cxHi, cyHi, iteration, maxIterations)
+        : EscapeTimeKernel.pixelValue(xHi, yHi, iteration, maxIterations);
+  }
+
+  /**
+   * Iterate two points with the same imaginary part in double-double precision, interleaved.
+   * A point that has escaped stops changing while the other one is iterated.
+   *
+   * @param reHi0  the high part of the real part of the first point.
+   * @param reLo0  the low part of the real part of the first point.
+   * @param reHi1  the high part of the real part of the second point.
+   * @param reLo1  the low part of the real part of the second point.
+   * @param imHi   the high part of the imaginary part of the points.
+   * @param imLo   the low part of the imaginary part of the points.
+   * @param values the array to write the two values to.
+   * @param index  the index of the first value in the array.
+   * @see #iterate(double, double, double, double, double, double, double, double)
+   */
+  private void iteratePair(double reHi0, double reLo0, double reHi1, double reLo1,
+                           double imHi, double imLo, float[] values, int index) {
+    double xHi0 = mandelbrot ? 0 : reHi0;
+    double xLo0 = mandelbrot ? 0 : reLo0;
+    double yHi0 = mandelbrot ? 0 : imHi;
+    double yLo0 = mandelbrot ? 0 : imLo;
+    double xHi1 = mandelbrot ? 0 : reHi1;
+    double xLo1 = mandelbrot ? 0 : reLo1;
+    double yHi1 = yHi0;
+    double yLo1 = yLo0;
+    double cxHi0 = mandelbrot ? reHi0 : cx;
+    double cxLo0 = mandelbrot ? reLo0 : 0;
+    double cxHi1 = mandelbrot ? reHi1 : cx;
+    double cxLo1 = mandelbrot ? reLo1 : 0;
+    double cyHi = mandelbrot ? imHi : cy;
+    double cyLo = mandelbrot ? imLo : 0;
+    int iteration0 = maxIterations;
+    int iteration1 = maxIterations;
+    boolean escaped0 = false;
+    boolean escaped1 = false;
+
+    for (int iteration = 0; iteration < maxIterations; iteration++) {
+      if (!escaped0) {
+        double xxHi = xHi0 * xHi0;
+        double xxLo = Math.fma(xHi0, xHi0, -xxHi) + 2 * xHi0 * xLo0;
+        double yyHi = yHi0 * yHi0;
+        double yyLo = Math.fma(yHi0, yHi0, -yyHi) + 2 * yHi0 * yLo0;
+        double size = xxHi + yyHi;
+        if (mandelbrot ? size > ESCAPE_RADIUS_SQUARED : size >= ESCAPE_RADIUS_SQUARED) {
+          escaped0 = true;
+          iteration0 = iteration;
+        } else {
+          double xyHi = xHi0 * yHi0;
+          double xyLo = Math.fma(xHi0, yHi0, -xyHi) + xHi0 * yLo0 + xLo0 * yHi0;
+          double sum = 2 * xyHi + cyHi;
+          double back = sum - 2 * xyHi;
+          double error = (2 * xyHi - (sum - back)) + (cyHi - back) + 2 * xyLo + cyLo;
+          yHi0 = sum + error;
+          yLo0 = error - (yHi0 - sum);
+          double differenceHi = xxHi - yyHi;
+          back = differenceHi - xxHi;
+          double differenceLo = (xxHi - (differenceHi - back)) + (-yyHi - back) + xxLo - yyLo;
+          sum = differenceHi + cxHi0;
+          back = sum - differenceHi;
+          error = (differenceHi - (sum - back)) + (cxHi0 - back) + differenceLo + cxLo0;
+          xHi0 = sum + error;
+          xLo0 = error - (xHi0 - sum);
+        }
+      }
+      if (!escaped1) {
+        double xxHi = xHi1 * xHi1;
+        double xxLo = Math.fma(xHi1, xHi1, -xxHi) + 2 * xHi1 * xLo1;
+        double yyHi = yHi1 * yHi1;
+        double yyLo = Math.fma(yHi1, yHi1, -yyHi) + 2 * yHi1 * yLo1;
+        double size = xxHi + yyHi;
+        if (mandelbrot ? size > ESCAPE_RADIUS_SQUARED : size >= ESCAPE_RADIUS_SQUARED) {
+          escaped1 = true;
+          iteration1 = iteration;
+        } else {
+          double xyHi = xHi1 * yHi1;
+          double xyLo = Math.fma(xHi1, yHi1, -xyHi) + xHi1 * yLo1 + xLo1 * yHi1;
+          double sum = 2 * xyHi + cyHi;
+          double back = sum - 2 * xyHi;
+          double error = (2 * xyHi - (sum - back)) + (cyHi - back) + 2 * xyLo + cyLo;
+          yHi1 = sum + error;
+          yLo1 = error - (yHi1 - sum);
+          double differenceHi = xxHi - yyHi;
+          back = differenceHi - xxHi;
+          double differenceLo = (xxHi - (differenceHi - back)) + (-yyHi - back) + xxLo - yyLo;
+          sum = differenceHi + cxHi1;
+          back = sum - differenceHi;
+          error = (differenceHi - (sum - back)) + (cxHi1 - back) + differenceLo + cxLo1;
+          xHi1 = sum + error;
+          xLo1 = error - (xHi1 - sum);
+        }
+      }
+      if (escaped0 && escaped1) {
+        break;
+      }
+    }
+    values[index] = mandelbrot
+        ? EscapeTimeKernel.pixelValue(cxHi0, cyHi, iteration0, maxIterations)
+        : EscapeTimeKernel.pixelValue(xHi0, yHi0, iteration0, maxIterations);
+    values[index + 1] = mandelbrot
+        ? EscapeTimeKernel.pixelValue(cxHi1, cyHi, iteration1, maxIterations)
+        : EscapeTimeKernel.pixelValue(xHi1, yHi1, iteration1, maxIterations);
+  }
+}
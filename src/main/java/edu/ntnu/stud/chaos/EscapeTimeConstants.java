@@ -0,0 +1,21 @@
+package edu.ntnu.stud.chaos;
+
+/**
+ * This class holds the constants shared by the escape-time kernels and formulas.
+ * Goal: keep the numbers every escape-time computation agrees on in one place.
+ */
+public final class EscapeTimeConstants {
+
+  /** The square of the escape radius of the quadratic escape-time fractals. */
+  public static final double ESCAPE_RADIUS_SQUARED = 4;
+
+  /** The logarithm of 2, used to adjust the value of escaped pixels. */
+  static final double LOG_2 = Math.log(2);
+
+  /**
+   * Private constructor, as this class only has static members.
+   */
+  private EscapeTimeConstants() {
+    // This class is not instantiated
+  }
+}
@@ -0,0 +1,317 @@
+package edu.ntnu.stud.chaos;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class represents a parallel renderer for escape-time fractals.
+ * The canvas is split into small square tiles that are computed on a
+ * work-stealing {@link ForkJoinPool}. Tiles are handed out as the workers
+ * become free, so a worker that gets tiles in the slow interior of a set does
+ * not hold up the others. Pixels that the {@link Symmetry} of the kernel marks
+ * as copies are not computed, but copied from their mirror once the tiles are done.
+ * The pool is made once for the engine and kept between renders, so a frame
+ * rendered in several parts does not start a new set of workers for each part.
+ * A render can be cancelled from another thread, and then skips the tiles not
+ * yet started, so it returns soon after without waiting for the whole canvas.
+ * Goal: spread the pixels of an escape-time fractal over every available core.
+ */
+public class EscapeTimeEngine {
+
+  /** The default number of pixels along each side of a tile. */
+  public static final int DEFAULT_TILE_SIZE = 16;
+
+  /** The number of threads to render with. */
+  private final int threads;
+
+  /** The number of pixels along each side of a tile. */
+  private final int tileSize;
+
+  /** The pool the tiles are computed on. */
+  private final ForkJoinPool pool;
+
+  /** True if the renders should stop until the cancellation is cleared. */
+  private volatile boolean cancelled;
+
+  /**
+   * Constructor for an EscapeTimeEngine using one thread for each available processor.
+   */
+  public EscapeTimeEngine() {
+    this(Runtime.getRuntime().availableProcessors(), DEFAULT_TILE_SIZE);
+  }
+
+  /**
+   * Constructor for the EscapeTimeEngine class.
+   *
+   * @param threads  the number of threads to render with.
+   * @param tileSize the number of pixels along each side of a tile.
+   */
+  public EscapeTimeEngine(int threads, int tileSize) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Threads must be positive");
+    }
+    if (tileSize <= 0) {
+      throw new IllegalArgumentException("Tile size must be positive");
+    }
+    this.threads = threads;
+    this.tileSize = tileSize;
+    this.pool = new ForkJoinPool(threads);
+  }
+
+  /**
+   * Get the number of threads the engine renders with.
+   *
+   * @return the number of threads.
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Get the pool the engine renders on.
+   * Its workers are daemon threads that end when they have been idle for a while.
+   *
+   * @return the pool of the engine.
+   */
+  protected ForkJoinPool getPool() {
+    return pool;
+  }
+
+  /**
+   * Cancel the running render, and any render started before the cancellation is cleared.
+   * The tiles that have not been started are skipped, and the canvas is left
+   * with the pixels written so far.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Clear the cancellation, so the next render runs to the end.
+   */
+  public void clearCancellation() {
+    cancelled = false;
+  }
+
+  /**
+   * Check if the renders of the engine are cancelled.
+   *
+   * @return true if the renders are cancelled.
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Get the number of pixels along each side of a tile.
+   *
+   * @return the tile size.
+   */
+  public int getTileSize() {
+    return tileSize;
+  }
+
+  /**
+   * Render every pixel of the canvas with a kernel.
+   * The value of each pixel is added to the canvas, so the canvas is normally
+   * cleared first. Every pixel is written by exactly one tile, or copied from its
+   * mirror after the tiles, and the statistics are merged into the canvas once
+   * the render is done.
+   *
+   * @param canvas the canvas to render on.
+   * @param kernel the kernel computing the value of each pixel.
+   */
+  public void render(ChaosCanvas canvas, EscapeTimeKernel kernel) {
+    if (canvas == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+    if (kernel == null) {
+      throw new IllegalArgumentException("Kernel cannot be null");
+    }
+
+    CanvasStatistics statistics = pool.invoke(
+        new TileTask(canvas, null, kernel, 0, 0, canvas.getHeight(), canvas.getWidth()));
+    if (cancelled) {
+      return;
+    }
+    Symmetry symmetry = kernel.getSymmetry();
+    if (symmetry.hasCopies()) {
+      for (int i = 0; i < canvas.getHeight(); i++) {
+        for (int j = 0; j < canvas.getWidth(); j++) {
+          if (symmetry.isCopy(i, j)) {
+            float value = (float) canvas.getPixelValue(symmetry.getMirrorRow(i),
+                symmetry.getMirrorColumn(j));
+            canvas.putPixel(i, j, value, statistics);
+          }
+        }
+      }
+    }
+    canvas.mergeStatistics(statistics);
+  }
+
+  /**
+   * Compute every pixel of a grid with a kernel, in parallel tiles, into a buffer.
+   * Unlike {@link #render(ChaosCanvas, EscapeTimeKernel)} nothing is written to a canvas,
+   * so the values can be checked or corrected first.
+   *
+   * @param values the buffer to write the values to, one array for each row.
+   * @param kernel the kernel computing the value of each pixel.
+   */
+  public void computeValues(float[][] values, EscapeTimeKernel kernel) {
+    if (values == null) {
+      throw new IllegalArgumentException("Values cannot be null");
+    }
+    if (kernel == null) {
+      throw new IllegalArgumentException("Kernel cannot be null");
+    }
+    if (values.length == 0) {
+      return;
+    }
+
+    pool.invoke(new TileTask(null, values, kernel, 0, 0, values.length, values[0].length));
+    kernel.getSymmetry().copy(values);
+  }
+
+  /**
+   * A task rendering a rectangle of the canvas, or of a buffer.
+   * Rectangles larger than a tile are split in half along their longest side,
+   * so idle workers can steal the halves that have not been started yet.
+   */
+  @SuppressWarnings("serial")
+  private final class TileTask extends RecursiveTask<CanvasStatistics> {
+
+    /** The canvas to render on, or null if the values go to a buffer. */
+    private final ChaosCanvas canvas;
+
+    /** The buffer to write the values to, or null if they go to the canvas. */
+    private final float[][] values;
+
+    /** The kernel computing the value of each pixel. */
+    private final EscapeTimeKernel kernel;
+
+    /** The first row of the rectangle. */
+    private final int row0;
+
+    /** The first column of the rectangle. */
+    private final int col0;
+
+    /** The row after the last row of the rectangle. */
+    private final int row1;
+
+    /** The column after the last column of the rectangle. */
+    private final int col1;
+
+    /**
+     * Constructor for the TileTask class.
+     *
+     * @param canvas the canvas to render on, or null.
+     * @param values the buffer to write the values to, or null.
+     * @param kernel the kernel computing the value of each pixel.
+     * @param row0   the first row of the rectangle.
+     * @param col0   the first column of the rectangle.
+     * @param row1   the row after the last row of the rectangle.
+     * @param col1   the column after the last column of the rectangle.
+     */
+    TileTask(ChaosCanvas canvas, float[][] values, EscapeTimeKernel kernel, int row0,
+             int col0, int row1, int col1) {
+      this.canvas = canvas;
+      this.values = values;
+      this.kernel = kernel;
+      this.row0 = row0;
+      this.col0 = col0;
+      this.row1 = row1;
+      this.col1 = col1;
+    }
+
+    /**
+     * Render the rectangle, splitting it if it is larger than a tile.
+     * Nothing is rendered once the render is cancelled.
+     *
+     * @return the statistics of the pixels written in the rectangle.
+     */
+    @Override
+    protected CanvasStatistics compute() {
+      if (cancelled) {
+        return new CanvasStatistics();
+      }
+      int rows = row1 - row0;
+      int cols = col1 - col0;
+      if (rows <= tileSize && cols <= tileSize) {
+        return renderTile();
+      }
+
+      TileTask first;
+      TileTask second;
+      if (rows >= cols) {
+        int middle = row0 + rows / 2;
+        first = new TileTask(canvas, values, kernel, row0, col0, middle, col1);
+        second = new TileTask(canvas, values, kernel, middle, col0, row1, col1);
+      } else {
+        int middle = col0 + cols / 2;
+        first = new TileTask(canvas, values, kernel, row0, col0, row1, middle);
+        second = new TileTask(canvas, values, kernel, row0, middle, row1, col1);
+      }
+      second.fork();
+      CanvasStatistics statistics = first.compute();
+      statistics.merge(second.join());
+      return statistics;
+    }
+
+    /**
+     * Compute and write every pixel of the tile, one row at a time.
+     * The pixels that are copies of their mirror are left out, and the rest
+     * of a row is computed in runs. No more rows are started once the render
+     * is cancelled.
+     *
+     * @return the statistics of the pixels written in the tile.
+     */
+    private CanvasStatistics renderTile() {
+      CanvasStatistics partial = new CanvasStatistics();
+      Symmetry symmetry = kernel.getSymmetry();
+      if (symmetry.isCopy(row0, col0, row1, col1)) {
+        return partial;
+      }
+      float[] run = new float[col1 - col0];
+      for (int i = row0; i < row1 && !cancelled; i++) {
+        int j0 = col0;
+        while (j0 < col1) {
+          if (symmetry.isCopy(i, j0)) {
+            j0++;
+            continue;
+          }
+          int j1 = j0 + 1;
+          while (j1 < col1 && !symmetry.isCopy(i, j1)) {
+            j1++;
+          }
+          writeRun(i, j0, j1, run, partial);
+          j0 = j1;
+        }
+      }
+      return partial;
+    }
+
+    /**
+     * Compute and write a run of pixels in a row of the tile.
+     * A run computed after the render is cancelled is not written.
+     *
+     * @param i       the row of the pixels.
+     * @param j0      the first column of the run.
+     * @param j1      the column after the last column of the run.
+     * @param run     the array to compute the values in.
+     * @param partial the statistics of the pixels written in the tile.
+     */
+    private void writeRun(int i, int j0, int j1, float[] run, CanvasStatistics partial) {
+      kernel.computeRow(i, j0, j1, run);
+      if (cancelled) {
+        return;
+      }
+      if (canvas == null) {
+        System.arraycopy(run, 0, values[i], j0, j1 - j0);
+        return;
+      }
+      for (int j = j0; j < j1; j++) {
+        canvas.putPixel(i, j, run[j - j0], partial);
+      }
+    }
+  }
+}
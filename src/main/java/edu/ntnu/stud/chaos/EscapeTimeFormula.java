@@ -0,0 +1,54 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+
+/**
+ * This interface represents the formula of an escape-time fractal that is not
+ * built into its own kernel, such as the Burning Ship or a Multibrot set.
+ * A formula iterates a single point through its whole loop in one call, so the loop
+ * is compiled on its own for every formula. A {@link FormulaKernel} only calls the
+ * formula once for each pixel, and the call site of the iteration itself never sees
+ * another formula, so the JIT can inline its arithmetic as if it were the only one.
+ * Adding a formula only adds a class, and the kernels of the Mandelbrot set and
+ * Julia sets do not go through formulas at all.
+ * Goal: let new escape-time fractals be added without touching the renderers.
+ */
+public interface EscapeTimeFormula {
+
+  /**
+   * Compute the value of a point of the complex plane.
+   * What the point is depends on the formula, such as the constant c of the
+   * Burning Ship or the starting point of Newton's method.
+   *
+   * @param re            the real part of the point.
+   * @param im            the imaginary part of the point.
+   * @param maxIterations the iteration limit.
+   * @return the value of the point, higher for points that take longer to escape.
+   */
+  float computeValue(double re, double im, int maxIterations);
+
+  /**
+   * Get the smallest real and imaginary parts of the region showing the whole fractal.
+   *
+   * @return the minimum coordinates of the region.
+   */
+  Vector2D getMinCoords();
+
+  /**
+   * Get the largest real and imaginary parts of the region showing the whole fractal.
+   *
+   * @return the maximum coordinates of the region.
+   */
+  Vector2D getMaxCoords();
+
+  /**
+   * Get the symmetry of the fractal on the pixels of a viewport.
+   * A formula must only report a symmetry its values have.
+   *
+   * @param viewport the region of the complex plane to compute.
+   * @return the symmetry, {@link Symmetry#NONE} by default.
+   */
+  default Symmetry getSymmetry(Viewport viewport) {
+    return Symmetry.NONE;
+  }
+}
@@ -0,0 +1,74 @@
+package edu.ntnu.stud.chaos;
+
+/**
+ * This interface represents the computation of a single pixel of an escape-time fractal.
+ * The pixels of an escape-time fractal do not depend on each other,
+ * so a kernel can be called for any pixel on any thread.
+ * Goal: act as the per-pixel work of an {@link EscapeTimeEngine}.
+ */
+@FunctionalInterface
+public interface EscapeTimeKernel {
+
+  /**
+   * Compute the value of a pixel on the canvas.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return the value of the pixel.
+   */
+  float computePixel(int i, int j);
+
+  /**
+   * Compute the values of a run of pixels in a row of the canvas.
+   * Kernels can override this to iterate several pixels at once,
+   * so the arithmetic of one pixel runs while another waits on its results.
+   *
+   * @param i      the row of the pixels.
+   * @param j0     the first column of the run.
+   * @param j1     the column after the last column of the run.
+   * @param values the array to write the values to, starting at index 0.
+   */
+  default void computeRow(int i, int j0, int j1, float[] values) {
+    for (int j = j0; j < j1; j++) {
+      values[j - j0] = computePixel(i, j);
+    }
+  }
+
+  /**
+   * Get the symmetry of the fractal on the pixels of the kernel.
+   * An engine may copy the pixels the symmetry marks as copies instead of
+   * computing them, so a kernel must only report a symmetry its values have.
+   *
+   * @return the symmetry, {@link Symmetry#NONE} by default.
+   */
+  default Symmetry getSymmetry() {
+    return Symmetry.NONE;
+  }
+
+  /**
+   * Get the value of a pixel from the number of iterations before it escaped.
+   * Pixels that never escaped get the iteration limit, and escaped pixels
+   * get a smooth, fractional count from the size of the given point, so the
+   * value changes continuously across the bands of equal iteration counts.
+   * Points no farther than 1 from 0 have no adjustment, since the double
+   * logarithm is undefined there, and points far outside the escape radius
+   * are kept from going below 0.
+   *
+   * @param x             the real part of the point.
+   * @param y             the imaginary part of the point.
+   * @param iteration     the number of iterations before the pixel escaped.
+   * @param maxIterations the iteration limit.
+   * @return the value of the pixel.
+   */
+  static float pixelValue(double x, double y, int iteration, int maxIterations) {
+    if (iteration == maxIterations) {
+      return maxIterations;
+    }
+    double absZ = x * x + y * y;
+    if (absZ <= 1) {
+      return iteration;
+    }
+    return (float) Math.max(0,
+        iteration + 1 - Math.log(Math.log(absZ)) / EscapeTimeConstants.LOG_2);
+  }
+}
@@ -0,0 +1,80 @@
+package edu.ntnu.stud.chaos;
+
+/**
+ * This class represents the escape-time kernel of an {@link EscapeTimeFormula}.
+ * Each pixel is mapped to a point through a {@link Viewport}, and the formula
+ * iterates the point. The formula is called once for each pixel and runs its
+ * own loop, so the cost of the call is spread over all the iterations of the pixel.
+ * Goal: render any escape-time formula on the engines of the Mandelbrot set.
+ */
+public final class FormulaKernel implements EscapeTimeKernel {
+
+  /** The formula iterating the points. */
+  private final EscapeTimeFormula formula;
+
+  /** The real part of the points in column 0. */
+  private final double re0;
+
+  /** The change in the real part from one column to the next. */
+  private final double reStep;
+
+  /** The imaginary part of the points in row 0. */
+  private final double im0;
+
+  /** The change in the imaginary part from one row to the next. */
+  private final double imStep;
+
+  /** The iteration limit. */
+  private final int maxIterations;
+
+  /** The symmetry of the formula on the pixels. */
+  private final Symmetry symmetry;
+
+  /**
+   * Constructor for the FormulaKernel class.
+   *
+   * @param formula       the formula iterating the points.
+   * @param viewport      the region of the complex plane to compute.
+   * @param maxIterations the iteration limit.
+   */
+  public FormulaKernel(EscapeTimeFormula formula, Viewport viewport, int maxIterations) {
+    if (formula == null) {
+      throw new IllegalArgumentException("Formula cannot be null");
+    }
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("Max iterations must be positive");
+    }
+    this.formula = formula;
+    this.re0 = viewport.getMinRe();
+    this.reStep = viewport.getReStep();
+    this.im0 = viewport.getMaxIm();
+    this.imStep = viewport.getImStep();
+    this.maxIterations = maxIterations;
+    this.symmetry = formula.getSymmetry(viewport);
+  }
+
+  /**
+   * Get the symmetry of the formula on the pixels of the kernel.
+   *
+   * @return the symmetry.
+   */
+  @Override
+  public Symmetry getSymmetry() {
+    return symmetry;
+  }
+
+  /**
+   * Compute the value of a pixel on the canvas.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return the value of the pixel.
+   */
+  @Override
+  public float computePixel(int i, int j) {
+    return formula.computeValue(re0 + j * reStep, im0 + i * imStep, maxIterations);
+  }
+}
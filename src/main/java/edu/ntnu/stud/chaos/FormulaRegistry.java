@@ -0,0 +1,62 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.utils.FractalType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class keeps the escape-time formulas of the fractal types computed by a formula.
+ * Names are stored in lower case, like the names of the {@link FractalType} set,
+ * so a formula is found whatever case its name is written in.
+ * Goal: let escape-time formulas be looked up and added by the name of their fractal.
+ */
+public final class FormulaRegistry {
+
+  /** The formulas, by the lower-case name of their fractal. */
+  private static final Map<String, EscapeTimeFormula> formulas = new HashMap<>(Map.of(
+      FractalType.BURNING_SHIP, new BurningShipFormula(),
+      FractalType.MULTIBROT, new MultibrotFormula(3),
+      FractalType.TRICORN, new TricornFormula(),
+      FractalType.NEWTON, new NewtonFormula()));
+
+  /**
+   * Private constructor, as this class only has static members.
+   */
+  private FormulaRegistry() {
+    // This class is not instantiated
+  }
+
+  /**
+   * Register an escape-time formula as a fractal type.
+   * The name is added to the set of fractals in lower case, and the formula
+   * replaces any formula registered under it before.
+   *
+   * @param fractal the name of the fractal, in any case.
+   * @param formula the formula computing the fractal.
+   * @throws IllegalArgumentException if the name is null or blank, or the formula is null.
+   */
+  public static synchronized void register(String fractal, EscapeTimeFormula formula) {
+    if (fractal == null || fractal.isBlank()) {
+      throw new IllegalArgumentException("Fractal cannot be null or blank");
+    }
+    if (formula == null) {
+      throw new IllegalArgumentException("Formula cannot be null");
+    }
+    String name = fractal.toLowerCase();
+    formulas.put(name, formula);
+    FractalType.addFractal(name);
+  }
+
+  /**
+   * Get the escape-time formula of a fractal type.
+   *
+   * @param fractal the name of the fractal, in any case.
+   * @return the formula of the fractal, or null if it is not computed by a formula.
+   */
+  public static synchronized EscapeTimeFormula getFormula(String fractal) {
+    if (fractal == null) {
+      return null;
+    }
+    return formulas.get(fractal.toLowerCase());
+  }
+}
@@ -0,0 +1,187 @@
+package edu.ntnu.stud.chaos;
+
+import static edu.ntnu.stud.chaos.EscapeTimeConstants.ESCAPE_RADIUS_SQUARED;
+
+/**
+ * This class represents the escape-time kernel of a Julia set.
+ * Each pixel is mapped to a starting point z through a {@link Viewport},
+ * which is iterated as z = z² + c for a fixed constant c until it escapes
+ * or the iteration limit is reached.
+ * Like {@link MandelbrotKernel}, the squares of z are kept between iterations,
+ * and rows are computed two pixels at a time.
+ * Goal: compute the pixels of a Julia set as fast as the precision allows.
+ */
+public final class JuliaKernel implements EscapeTimeKernel {
+
+  /** The real part of the starting points in column 0. */
+  private final double re0;
+
+  /** The change in the real part from one column to the next. */
+  private final double reStep;
+
+  /** The imaginary part of the starting points in row 0. */
+  private final double im0;
+
+  /** The change in the imaginary part from one row to the next. */
+  private final double imStep;
+
+  /** The real part of the Julia constant. */
+  private final double cx;
+
+  /** The imaginary part of the Julia constant. */
+  private final double cy;
+
+  /** The iteration limit. */
+  private final int maxIterations;
+
+  /** The symmetry of the pixels under a half turn about the origin. */
+  private final Symmetry symmetry;
+
+  /**
+   * Constructor for the JuliaKernel class.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   */
+  public JuliaKernel(Viewport viewport, double cx, double cy, int maxIterations) {
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("Max iterations must be positive");
+    }
+    this.re0 = viewport.getMinRe();
+    this.reStep = viewport.getReStep();
+    this.im0 = viewport.getMaxIm();
+    this.imStep = viewport.getImStep();
+    this.cx = cx;
+    this.cy = cy;
+    this.maxIterations = maxIterations;
+    this.symmetry = Symmetry.aboutOrigin(viewport);
+  }
+
+  /**
+   * Get the symmetry of the Julia set on the pixels of the kernel.
+   *
+   * @return the symmetry under a half turn about the origin.
+   */
+  @Override
+  public Symmetry getSymmetry() {
+    return symmetry;
+  }
+
+  /**
+   * Compute the value of a pixel on the canvas.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return the value of the pixel.
+   */
+  @Override
+  public float computePixel(int i, int j) {
+    double zx = re0 + j * reStep;
+    double zy = im0 + i * imStep;
+    return iterate(zx, zy);
+  }
+
+  /**
+   * Compute the values of a run of pixels in a row, two pixels at a time.
+   *
+   * @param i      the row of the pixels.
+   * @param j0     the first column of the run.
+   * @param j1     the column after the last column of the run.
+   * @param values the array to write the values to, starting at index 0.
+   */
+  @Override
+  public void computeRow(int i, int j0, int j1, float[] values) {
+    double zy = im0 + i * imStep;
+    int j = j0;
+    for (; j + 1 < j1; j += 2) {
+      double zx0 = re0 + j * reStep;
+      double zx1 = re0 + (j + 1) * reStep;
+      iteratePair(zx0, zx1, zy, values, j - j0);
+    }
+    if (j < j1) {
+      values[j - j0] = computePixel(i, j);
+    }
+  }
+
+  /**
+   * Iterate a starting point.
+   *
+   * @param x the real part of the starting point.
+   * @param y the imaginary part of the starting point.
+   * @return the value of the pixel.
+   */
+  private float iterate(double x, double y) {
+    double x2 = x * x;
+    double y2 = y * y;
+    int iteration = 0;
+
+    while (x2 + y2 < ESCAPE_RADIUS_SQUARED && iteration < maxIterations) {
+      y = 2 * x * y + cy;
+      x = x2 - y2 + cx;
+      x2 = x * x;
+      y2 = y * y;
+      iteration++;
+    }
+    return EscapeTimeKernel.pixelValue(x, y, iteration, maxIterations);
+  }
+
+  /**
+   * Iterate two starting points with the same imaginary part, interleaved.
+   * A point that has escaped stops changing while the other one is iterated.
+   *
+   * @param zx0    the real part of the first starting point.
+   * @param zx1    the real part of the second starting point.
+   * @param zy     the imaginary part of the starting points.
+   * @param values the array to write the two values to.
+   * @param index  the index of the first value in the array.
+   */
+  private void iteratePair(double zx0, double zx1, double zy, float[] values, int index) {
+    double x0 = zx0;
+    double y0 = zy;
+    double xx0 = x0 * x0;
+    double yy0 = y0 * y0;
+    double x1 = zx1;
+    double y1 = zy;
+    double xx1 = x1 * x1;
+    double yy1 = y1 * y1;
+    int iteration0 = maxIterations;
+    int iteration1 = maxIterations;
+    boolean escaped0 = false;
+    boolean escaped1 = false;
+
+    for (int iteration = 0; iteration < maxIterations; iteration++) {
+      if (!escaped0) {
+        if (xx0 + yy0 < ESCAPE_RADIUS_SQUARED) {
+          y0 = 2 * x0 * y0 + cy;
+          x0 = xx0 - yy0 + cx;
+          xx0 = x0 * x0;
+          yy0 = y0 * y0;
+        } else {
+          escaped0 = true;
+          iteration0 = iteration;
+        }
+      }
+      if (!escaped1) {
+        if (xx1 + yy1 < ESCAPE_RADIUS_SQUARED) {
+          y1 = 2 * x1 * y1 + cy;
+          x1 = xx1 - yy1 + cx;
+          xx1 = x1 * x1;
+          yy1 = y1 * y1;
+        } else {
+          escaped1 = true;
+          iteration1 = iteration;
+        }
+      }
+      if (escaped0 && escaped1) {
+        break;
+      }
+    }
+    values[index] = EscapeTimeKernel.pixelValue(x0, y0, iteration0, maxIterations);
+    values[index + 1] = EscapeTimeKernel.pixelValue(x1, y1, iteration1, maxIterations);
+  }
+}
@@ -0,0 +1,252 @@
+package edu.ntnu.stud.chaos;
+
+import static edu.ntnu.stud.chaos.EscapeTimeConstants.ESCAPE_RADIUS_SQUARED;
+
+/**
+ * This class represents the escape-time kernel of the Mandelbrot set.
+ * Each pixel is mapped to a point c through a {@link Viewport}, and z is
+ * iterated as z = z² + c from 0 until it escapes or the iteration limit is reached.
+ * The squares of z are kept between iterations and tested against the squared
+ * escape radius, so an iteration costs three multiplications. Rows are computed
+ * two pixels at a time, so the multiplications of one pixel fill the wait on
+ * the other.
+ * Points inside the set never escape and would run to the iteration limit,
+ * so points in the main cardioid and the period-2 bulb are found without
+ * iterating, and the orbits of other points are checked for cycles.
+ * Goal: compute the pixels of a Mandelbrot set as fast as the precision allows.
+ */
+public final class MandelbrotKernel implements EscapeTimeKernel {
+
+  /**
+   * The distance within which an orbit is taken to have returned to a saved point.
+   * Orbits of escaping points do not come back this close.
+   */
+  static final double PERIODICITY_TOLERANCE = 1e-13;
+
+  /** The number of iterations before the first point of an orbit is saved. */
+  static final int FIRST_CHECKPOINT = 8;
+
+  /** The real part of the points in column 0. */
+  private final double re0;
+
+  /** The change in the real part from one column to the next. */
+  private final double reStep;
+
+  /** The imaginary part of the points in row 0. */
+  private final double im0;
+
+  /** The change in the imaginary part from one row to the next. */
+  private final double imStep;
+
+  /** The iteration limit. */
+  private final int maxIterations;
+
+  /** The symmetry of the pixels about the real axis. */
+  private final Symmetry symmetry;
+
+  /**
+   * Constructor for the MandelbrotKernel class.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param maxIterations the iteration limit.
+   */
+  public MandelbrotKernel(Viewport viewport, int maxIterations) {
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("Max iterations must be positive");
+    }
+    this.re0 = viewport.getMinRe();
+    this.reStep = viewport.getReStep();
+    this.im0 = viewport.getMaxIm();
+    this.imStep = viewport.getImStep();
+    this.maxIterations = maxIterations;
+    this.symmetry = Symmetry.aboutRealAxis(viewport);
+  }
+
+  /**
+   * Check if a point is in the main cardioid or the period-2 bulb of the Mandelbrot set.
+   * Together they cover most of the interior of the set, and their points
+   * never escape, so they need not be iterated.
+   *
+   * @param cx the real part of the point.
+   * @param cy the imaginary part of the point.
+   * @return true if the point is in the main cardioid or the period-2 bulb.
+   */
+  public static boolean isInCardioidOrBulb(double cx, double cy) {
+    double y2 = cy * cy;
+    double bulbX = cx + 1;
+    if (bulbX * bulbX + y2 < 0.0625) {
+      return true;
+    }
+    double cardioidX = cx - 0.25;
+    double q = cardioidX * cardioidX + y2;
+    return q * (q + cardioidX) < 0.25 * y2;
+  }
+
+  /**
+   * Get the symmetry of the Mandelbrot set on the pixels of the kernel.
+   *
+   * @return the symmetry about the real axis.
+   */
+  @Override
+  public Symmetry getSymmetry() {
+    return symmetry;
+  }
+
+  /**
+   * Compute the value of a pixel on the canvas.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return the value of the pixel.
+   */
+  @Override
+  public float computePixel(int i, int j) {
+    double cx = re0 + j * reStep;
+    double cy = im0 + i * imStep;
+    if (isInCardioidOrBulb(cx, cy)) {
+      return maxIterations;
+    }
+    int iteration = iterate(cx, cy);
+    return EscapeTimeKernel.pixelValue(cx, cy, iteration, maxIterations);
+  }
+
+  /**
+   * Compute the values of a run of pixels in a row, two pixels at a time.
+   *
+   * @param i      the row of the pixels.
+   * @param j0     the first column of the run.
+   * @param j1     the column after the last column of the run.
+   * @param values the array to write the values to, starting at index 0.
+   */
+  @Override
+  public void computeRow(int i, int j0, int j1, float[] values) {
+    double cy = im0 + i * imStep;
+    int j = j0;
+    for (; j + 1 < j1; j += 2) {
+      int k = j - j0;
+      double cx0 = re0 + j * reStep;
+      double cx1 = re0 + (j + 1) * reStep;
+      if (isInCardioidOrBulb(cx0, cy) || isInCardioidOrBulb(cx1, cy)) {
+        values[k] = computePixel(i, j);
+        values[k + 1] = computePixel(i, j + 1);
+        continue;
+      }
+      iteratePair(cx0, cx1, cy, values, k);
+      values[k] = EscapeTimeKernel.pixelValue(cx0, cy, (int) values[k], maxIterations);
+      values[k + 1] = EscapeTimeKernel.pixelValue(cx1, cy, (int) values[k + 1], maxIterations);
+    }
+    if (j < j1) {
+      values[j - j0] = computePixel(i, j);
+    }
+  }
+
+  /**
+   * Iterate a point.
+   *
+   * @param cx the real part of the point.
+   * @param cy the imaginary part of the point.
+   * @return the number of iterations before the point escaped.
+   */
+  private int iterate(double cx, double cy) {
+    double x = 0;
+    double y = 0;
+    double x2 = 0;
+    double y2 = 0;
+    double savedX = 0;
+    double savedY = 0;
+    int checkpoint = FIRST_CHECKPOINT;
+    int iteration = 0;
+
+    while (x2 + y2 <= ESCAPE_RADIUS_SQUARED && iteration < maxIterations) {
+      y = 2 * x * y + cy;
+      x = x2 - y2 + cx;
+      x2 = x * x;
+      y2 = y * y;
+      iteration++;
+      if (Math.abs(x - savedX) + Math.abs(y - savedY) < PERIODICITY_TOLERANCE) {
+        return maxIterations;
+      }
+      if (iteration == checkpoint) {
+        savedX = x;
+        savedY = y;
+        checkpoint *= 2;
+      }
+    }
+    return iteration;
+  }
+
+  /**
+   * Iterate two points with the same imaginary part, interleaved.
+   * A point that has escaped stops changing while the other one is iterated,
+   * and a point whose orbit has returned to its saved point is counted as
+   * never escaping. The saved points move to the orbit at every checkpoint,
+   * and the checkpoints double in distance, so cycles of any period are found.
+   *
+   * @param cx0    the real part of the first point.
+   * @param cx1    the real part of the second point.
+   * @param cy     the imaginary part of the points.
+   * @param counts the array to write the two iteration counts to.
+   * @param index  the index of the first count in the array.
+   */
+  private void iteratePair(double cx0, double cx1, double cy, float[] counts, int index) {
+    double x0 = 0;
+    double y0 = 0;
+    double xx0 = 0;
+    double yy0 = 0;
+    double x1 = 0;
+    double y1 = 0;
+    double xx1 = 0;
+    double yy1 = 0;
+    double savedX0 = 0;
+    double savedY0 = 0;
+    double savedX1 = 0;
+    double savedY1 = 0;
+    int checkpoint = FIRST_CHECKPOINT;
+    int iteration0 = maxIterations;
+    int iteration1 = maxIterations;
+    boolean done0 = false;
+    boolean done1 = false;
+
+    for (int iteration = 0; iteration < maxIterations; iteration++) {
+      if (!done0) {
+        if (xx0 + yy0 <= ESCAPE_RADIUS_SQUARED) {
+          y0 = 2 * x0 * y0 + cy;
+          x0 = xx0 - yy0 + cx0;
+          xx0 = x0 * x0;
+          yy0 = y0 * y0;
+          done0 = Math.abs(x0 - savedX0) + Math.abs(y0 - savedY0) < PERIODICITY_TOLERANCE;
+        } else {
+          done0 = true;
+          iteration0 = iteration;
+        }
+      }
+      if (!done1) {
+        if (xx1 + yy1 <= ESCAPE_RADIUS_SQUARED) {
+          y1 = 2 * x1 * y1 + cy;
+          x1 = xx1 - yy1 + cx1;
+          xx1 = x1 * x1;
+          yy1 = y1 * y1;
+          done1 = Math.abs(x1 - savedX1) + Math.abs(y1 - savedY1) < PERIODICITY_TOLERANCE;
+        } else {
+          done1 = true;
+          iteration1 = iteration;
+        }
+      }
+      if (done0 && done1) {
+        break;
+      }
+      if (iteration + 1 == checkpoint) {
+        savedX0 = x0;
+        savedY0 = y0;
+        savedX1 = x1;
+        savedY1 = y1;
+        checkpoint *= 2;
+      }
+    }
+    counts[index] = iteration0;
+    counts[index + 1] = iteration1;
+  }
+}
@@ -0,0 +1,110 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+
+/**
+ * This class represents the formula of a Multibrot set of a whole degree n.
+ * z is iterated as z = zⁿ + c from 0, with the power taken by repeated
+ * multiplication. Points beyond 2 from 0 escape for every degree from 2 up,
+ * so the escape radius is the one of the Mandelbrot set. The smooth count uses
+ * the logarithm of the degree, since |z| grows to its n-th power in each iteration.
+ * Goal: compute the points of a Multibrot set.
+ */
+public final class MultibrotFormula implements EscapeTimeFormula {
+
+  /** The degree of the power of z. */
+  private final int degree;
+
+  /** The logarithm of the degree. */
+  private final double logDegree;
+
+  /**
+   * Constructor for the MultibrotFormula class.
+   *
+   * @param degree the degree of the power of z, at least 2.
+   */
+  public MultibrotFormula(int degree) {
+    if (degree < 2) {
+      throw new IllegalArgumentException("Degree must be at least 2");
+    }
+    this.degree = degree;
+    this.logDegree = Math.log(degree);
+  }
+
+  /**
+   * Get the degree of the power of z.
+   *
+   * @return the degree.
+   */
+  public int getDegree() {
+    return degree;
+  }
+
+  /**
+   * Compute the smooth iteration count of a point c.
+   *
+   * @param re            the real part of the point.
+   * @param im            the imaginary part of the point.
+   * @param maxIterations the iteration limit.
+   * @return the value of the point.
+   */
+  @Override
+  public float computeValue(double re, double im, int maxIterations) {
+    double x = 0;
+    double y = 0;
+    int iteration = 0;
+    while (x * x + y * y <= EscapeTimeConstants.ESCAPE_RADIUS_SQUARED
+        && iteration < maxIterations) {
+      double powerX = x;
+      double powerY = y;
+      for (int k = 1; k < degree; k++) {
+        double nextX = powerX * x - powerY * y;
+        powerY = powerX * y + powerY * x;
+        powerX = nextX;
+      }
+      x = powerX + re;
+      y = powerY + im;
+      iteration++;
+    }
+    if (iteration == maxIterations) {
+      return maxIterations;
+    }
+    double absZ = x * x + y * y;
+    if (absZ <= 1) {
+      return iteration;
+    }
+    return (float) Math.max(0, iteration + 1 - Math.log(Math.log(absZ)) / logDegree);
+  }
+
+  /**
+   * Get the smallest coordinates of the region showing the whole Multibrot set.
+   *
+   * @return the minimum coordinates.
+   */
+  @Override
+  public Vector2D getMinCoords() {
+    return new Vector2D(-1.6, -1.6);
+  }
+
+  /**
+   * Get the largest coordinates of the region showing the whole Multibrot set.
+   *
+   * @return the maximum coordinates.
+   */
+  @Override
+  public Vector2D getMaxCoords() {
+    return new Vector2D(1.6, 1.6);
+  }
+
+  /**
+   * Get the symmetry of the Multibrot set on the pixels of a viewport.
+   * The set has real coefficients, so it is symmetric about the real axis.
+   *
+   * @param viewport the region of the complex plane to compute.
+   * @return the symmetry about the real axis.
+   */
+  @Override
+  public Symmetry getSymmetry(Viewport viewport) {
+    return Symmetry.aboutRealAxis(viewport);
+  }
+}
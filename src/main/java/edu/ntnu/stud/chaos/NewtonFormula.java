@@ -0,0 +1,113 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+
+/**
+ * This class represents the basins of Newton's method for z³ = 1.
+ * A point is the starting point z, which is iterated as z = z - (z³ - 1) / (3z²)
+ * until it is close to one of the three cube roots of 1. The value of a point
+ * tells which root it reached, as the band from the index of the root to the
+ * next whole number, and is lower in the band the more iterations it took,
+ * so the basins are told apart by brightness and their boundaries are shaded.
+ * Points that reach no root within the limit, such as 0, get the value 0.
+ * The roots are symmetric about the real axis, and so are their basins.
+ * Goal: compute the basins of Newton's method.
+ */
+public final class NewtonFormula implements EscapeTimeFormula {
+
+  /** The squared distance to a root within which a point has converged. */
+  static final double TOLERANCE_SQUARED = 1e-12;
+
+  /** The number of iterations over which the brightness of a basin falls to half. */
+  private static final double SHADE_ITERATIONS = 16;
+
+  /** The imaginary part of the two complex cube roots of 1. */
+  private static final double ROOT_IM = Math.sqrt(3) / 2;
+
+  /**
+   * Compute the basin value of a starting point.
+   *
+   * @param re            the real part of the starting point.
+   * @param im            the imaginary part of the starting point.
+   * @param maxIterations the iteration limit.
+   * @return the index of the root reached plus a shade from 0.5 to 1,
+   *         or 0 if no root was reached.
+   */
+  @Override
+  public float computeValue(double re, double im, int maxIterations) {
+    double x = re;
+    double y = im;
+    for (int iteration = 0; iteration < maxIterations; iteration++) {
+      int root = findRoot(x, y);
+      if (root >= 0) {
+        return (float) (root + 0.5 + 0.5 * Math.exp(-iteration / SHADE_ITERATIONS));
+      }
+      double x2 = x * x;
+      double y2 = y * y;
+      double denominator = 3 * (x2 + y2) * (x2 + y2);
+      if (denominator == 0) {
+        return 0;
+      }
+      // z - (z³ - 1) / (3z²) = (2z³ + 1) / (3z²) = 2z / 3 + conj(z)² / (3|z|⁴).
+      double newX = 2 * x / 3 + (x2 - y2) / denominator;
+      y = 2 * y / 3 - 2 * x * y / denominator;
+      x = newX;
+    }
+    return 0;
+  }
+
+  /**
+   * Find the cube root of 1 a point has converged to.
+   *
+   * @param x the real part of the point.
+   * @param y the imaginary part of the point.
+   * @return the index of the root, which is 0 for the real root and 1 or 2 for the complex ones,
+   *         or -1 if the point is not close to any root.
+   */
+  private static int findRoot(double x, double y) {
+    if ((x - 1) * (x - 1) + y * y < TOLERANCE_SQUARED) {
+      return 0;
+    }
+    double dx = (x + 0.5) * (x + 0.5);
+    if (dx + (y - ROOT_IM) * (y - ROOT_IM) < TOLERANCE_SQUARED) {
+      return 1;
+    }
+    if (dx + (y + ROOT_IM) * (y + ROOT_IM) < TOLERANCE_SQUARED) {
+      return 2;
+    }
+    return -1;
+  }
+
+  /**
+   * Get the smallest coordinates of the region showing the basins.
+   *
+   * @return the minimum coordinates.
+   */
+  @Override
+  public Vector2D getMinCoords() {
+    return new Vector2D(-2.0, -2.0);
+  }
+
+  /**
+   * Get the largest coordinates of the region showing the basins.
+   *
+   * @return the maximum coordinates.
+   */
+  @Override
+  public Vector2D getMaxCoords() {
+    return new Vector2D(2.0, 2.0);
+  }
+
+  /**
+   * Get the symmetry of the basins on the pixels of a viewport.
+   * Mirrored points reach mirrored roots, which are roots 1 and 2 swapped,
+   * so the symmetry is not reported and every pixel is computed.
+   *
+   * @param viewport the region of the complex plane to compute.
+   * @return {@link Symmetry#NONE}.
+   */
+  @Override
+  public Symmetry getSymmetry(Viewport viewport) {
+    return Symmetry.NONE;
+  }
+}
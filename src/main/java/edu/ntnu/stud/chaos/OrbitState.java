@@ -0,0 +1,429 @@
+package edu.ntnu.stud.chaos;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * This class represents the state of the orbit of every pixel of an escape-time render.
+ * A pixel that escaped keeps its value, a pixel found inside the set keeps that,
+ * and a pixel that reached the iteration limit keeps its z, its iteration count and
+ * the point its orbit is checked for cycles against. The state is kept in primitive
+ * arrays with one element for each pixel, in rows.
+ * When the same view is rendered again with a higher limit, a {@link ResumableKernel}
+ * or a {@link VectorKernel} continues the pixels that reached the old limit from
+ * where they stopped, and the rest are not iterated at all. When the view is moved
+ * by a whole number of pixels, the arrays are shifted along with it, and only the
+ * strips of pixels moved into view are iterated.
+ * Goal: make raising the iteration limit or panning a view cost only the new work.
+ */
+public final class OrbitState {
+
+  /** The status of a pixel that has not been iterated. */
+  static final byte NOT_STARTED = 0;
+
+  /** The status of a pixel that reached the iteration limit without escaping. */
+  static final byte RUNNING = 1;
+
+  /** The status of a pixel that escaped, with its value kept. */
+  static final byte ESCAPED = 2;
+
+  /** The status of a pixel found to be inside the set, which never escapes. */
+  static final byte INTERIOR = 3;
+
+  /**
+   * The largest distance, as a part of a pixel, between the grid of a view and
+   * the grid of the last view for the pixels of the last view to be reused.
+   */
+  private static final double TOLERANCE = 1e-6;
+
+  /** The real part of the centre of the view. */
+  private BigDecimal centerRe;
+
+  /** The imaginary part of the centre of the view. */
+  private BigDecimal centerIm;
+
+  /** The width of the view along the real axis. */
+  private double spanRe;
+
+  /** The height of the view along the imaginary axis. */
+  private double spanIm;
+
+  /** Whether the view is of the Mandelbrot set, or of a Julia set. */
+  private boolean mandelbrot;
+
+  /** The real part of the Julia constant. */
+  private double cx;
+
+  /** The imaginary part of the Julia constant. */
+  private double cy;
+
+  /** The iteration limit the pixels were last iterated to. */
+  private int maxIterations;
+
+  /** The number of columns of pixels. */
+  private int width;
+
+  /** The number of rows of pixels. */
+  private int height;
+
+  /** The status of every pixel. */
+  private byte[] status = new byte[0];
+
+  /** The value of every escaped pixel. */
+  private float[] values = new float[0];
+
+  /** The number of iterations of every pixel. */
+  private int[] iterations = new int[0];
+
+  /** The real part of z of every running pixel. */
+  private double[] x = new double[0];
+
+  /** The imaginary part of z of every running pixel. */
+  private double[] y = new double[0];
+
+  /** The real part of the point the orbit of every running pixel is checked against. */
+  private double[] savedX = new double[0];
+
+  /** The imaginary part of the point the orbit of every running pixel is checked against. */
+  private double[] savedY = new double[0];
+
+  /**
+   * Prepare the state for a render of the Mandelbrot set.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param maxIterations the iteration limit of the render.
+   * @return true if the state of the last render is kept and resumed.
+   */
+  public boolean prepareMandelbrot(Viewport viewport, int maxIterations) {
+    return prepare(viewport, true, 0, 0, maxIterations);
+  }
+
+  /**
+   * Prepare the state for a render of a Julia set.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit of the render.
+   * @return true if the state of the last render is kept and resumed.
+   */
+  public boolean prepareJulia(Viewport viewport, double cx, double cy, int maxIterations) {
+    return prepare(viewport, false, cx, cy, maxIterations);
+  }
+
+  /**
+   * Prepare the state for a render.
+   * The state is kept if the render shows the same fractal with a limit no lower
+   * than before, on the same grid of pixels as the last view moved by a whole number
+   * of rows and columns. The state is then shifted with the view, and the pixels
+   * moved into view are set to not started. Otherwise every pixel is set to not started.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param mandelbrot    true for the Mandelbrot set, false for a Julia set.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit of the render.
+   * @return true if the state of the last render is kept.
+   */
+  private boolean prepare(Viewport viewport, boolean mandelbrot, double cx, double cy,
+                          int maxIterations) {
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("Max iterations must be positive");
+    }
+    boolean kept = centerRe != null
+        && viewport.getWidth() == width && viewport.getHeight() == height
+        && mandelbrot == this.mandelbrot && cx == this.cx && cy == this.cy
+        && maxIterations >= this.maxIterations && shiftTo(viewport);
+    if (!kept) {
+      width = viewport.getWidth();
+      height = viewport.getHeight();
+      this.mandelbrot = mandelbrot;
+      this.cx = cx;
+      this.cy = cy;
+      allocate(width * height);
+    }
+    centerRe = viewport.getCenterRe();
+    centerIm = viewport.getCenterIm();
+    spanRe = viewport.getSpanRe();
+    spanIm = viewport.getSpanIm();
+    this.maxIterations = maxIterations;
+    return kept;
+  }
+
+  /**
+   * Shift the state to a view on the same grid of pixels as the last view.
+   * The offset between the centres is measured exactly, in pixels of the view,
+   * and must be a whole number of rows and columns smaller than the view.
+   *
+   * @param viewport the region of the complex plane to compute, the size of the last view.
+   * @return true if the state was shifted, or false if the view is not on the same grid.
+   */
+  private boolean shiftTo(Viewport viewport) {
+    double reStep = viewport.getReStep();
+    double imStep = viewport.getImStep();
+    if (Math.abs(viewport.getSpanRe() - spanRe) > TOLERANCE * reStep
+        || Math.abs(viewport.getSpanIm() - spanIm) > TOLERANCE * -imStep) {
+      return false;
+    }
+    double columns = viewport.getCenterRe().subtract(centerRe).doubleValue() / reStep;
+    double rows = viewport.getCenterIm().subtract(centerIm).doubleValue() / imStep;
+    double columnOffset = Math.rint(columns);
+    double rowOffset = Math.rint(rows);
+    if (!(Math.abs(columns - columnOffset) <= TOLERANCE)
+        || !(Math.abs(rows - rowOffset) <= TOLERANCE)
+        || Math.abs(columnOffset) >= width || Math.abs(rowOffset) >= height) {
+      return false;
+    }
+    shift((int) rowOffset, (int) columnOffset);
+    return true;
+  }
+
+  /**
+   * Shift every pixel of the state so the pixel at row i + rowOffset and
+   * column j + columnOffset is moved to row i and column j.
+   * The pixels with no pixel to move to them are set to not started.
+   *
+   * @param rowOffset    the number of rows the view moved down.
+   * @param columnOffset the number of columns the view moved right.
+   */
+  private void shift(int rowOffset, int columnOffset) {
+    if (rowOffset == 0 && columnOffset == 0) {
+      return;
+    }
+    for (Object array : new Object[] {status, values, iterations, x, y, savedX, savedY}) {
+      shiftArray(array, rowOffset, columnOffset);
+    }
+    int keptColumn0 = Math.max(0, -columnOffset);
+    int keptColumn1 = Math.min(width, width - columnOffset);
+    for (int i = 0; i < height; i++) {
+      int start = i * width;
+      if (i + rowOffset < 0 || i + rowOffset >= height) {
+        Arrays.fill(status, start, start + width, NOT_STARTED);
+      } else {
+        Arrays.fill(status, start, start + keptColumn0, NOT_STARTED);
+        Arrays.fill(status, start + keptColumn1, start + width, NOT_STARTED);
+      }
+    }
+  }
+
+  /**
+   * Shift the rows of one array of the state in place, a row at a time.
+   * The rows are visited in the order that reads every row before it is overwritten.
+   *
+   * @param array        the array to shift.
+   * @param rowOffset    the number of rows the view moved down.
+   * @param columnOffset the number of columns the view moved right.
+   */
+  private void shiftArray(Object array, int rowOffset, int columnOffset) {
+    int length = width - Math.abs(columnOffset);
+    int from = Math.max(0, columnOffset);
+    int to = Math.max(0, -columnOffset);
+    int first = Math.max(0, -rowOffset);
+    int last = Math.min(height, height - rowOffset) - 1;
+    int step = rowOffset >= 0 ? 1 : -1;
+    for (int i = step > 0 ? first : last; i >= first && i <= last; i += step) {
+      System.arraycopy(array, (i + rowOffset) * width + from, array, i * width + to, length);
+    }
+  }
+
+  /**
+   * Set every pixel to not started, reusing the arrays if they have the right length.
+   *
+   * @param length the number of pixels.
+   */
+  private void allocate(int length) {
+    if (status.length != length) {
+      status = new byte[length];
+      values = new float[length];
+      iterations = new int[length];
+      x = new double[length];
+      y = new double[length];
+      savedX = new double[length];
+      savedY = new double[length];
+    } else {
+      Arrays.fill(status, NOT_STARTED);
+    }
+  }
+
+  /**
+   * Get the number of columns of pixels.
+   *
+   * @return the width.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Get the number of rows of pixels.
+   *
+   * @return the height.
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Get the iteration limit the pixels were last iterated to.
+   *
+   * @return the iteration limit.
+   */
+  public int getMaxIterations() {
+    return maxIterations;
+  }
+
+  /**
+   * Count the pixels that reached the iteration limit without escaping,
+   * which a higher limit would continue.
+   *
+   * @return the number of running pixels.
+   */
+  public int countRunning() {
+    int count = 0;
+    for (byte pixelStatus : status) {
+      if (pixelStatus == RUNNING) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Count the pixels that have not been iterated, such as the pixels moved into view.
+   *
+   * @return the number of pixels that are not started.
+   */
+  int countNotStarted() {
+    int count = 0;
+    for (byte pixelStatus : status) {
+      if (pixelStatus == NOT_STARTED) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Get the index of a pixel in the arrays.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return the index of the pixel.
+   */
+  int index(int i, int j) {
+    return i * width + j;
+  }
+
+  /**
+   * Get the status of a pixel.
+   *
+   * @param index the index of the pixel.
+   * @return the status of the pixel.
+   */
+  byte getStatus(int index) {
+    return status[index];
+  }
+
+  /**
+   * Get the value of an escaped pixel.
+   *
+   * @param index the index of the pixel.
+   * @return the value of the pixel.
+   */
+  float getValue(int index) {
+    return values[index];
+  }
+
+  /**
+   * Get the number of iterations of a running pixel.
+   *
+   * @param index the index of the pixel.
+   * @return the number of iterations.
+   */
+  int getIterations(int index) {
+    return iterations[index];
+  }
+
+  /**
+   * Get the real part of z of a running pixel.
+   *
+   * @param index the index of the pixel.
+   * @return the real part of z.
+   */
+  double getX(int index) {
+    return x[index];
+  }
+
+  /**
+   * Get the imaginary part of z of a running pixel.
+   *
+   * @param index the index of the pixel.
+   * @return the imaginary part of z.
+   */
+  double getY(int index) {
+    return y[index];
+  }
+
+  /**
+   * Get the real part of the saved point of a running pixel.
+   *
+   * @param index the index of the pixel.
+   * @return the real part of the saved point.
+   */
+  double getSavedX(int index) {
+    return savedX[index];
+  }
+
+  /**
+   * Get the imaginary part of the saved point of a running pixel.
+   *
+   * @param index the index of the pixel.
+   * @return the imaginary part of the saved point.
+   */
+  double getSavedY(int index) {
+    return savedY[index];
+  }
+
+  /**
+   * Mark a pixel as escaped with its value.
+   *
+   * @param index the index of the pixel.
+   * @param value the value of the pixel.
+   */
+  void setEscaped(int index, float value) {
+    status[index] = ESCAPED;
+    values[index] = value;
+  }
+
+  /**
+   * Mark a pixel as inside the set.
+   *
+   * @param index the index of the pixel.
+   */
+  void setInterior(int index) {
+    status[index] = INTERIOR;
+  }
+
+  /**
+   * Keep the orbit of a pixel that reached the iteration limit.
+   *
+   * @param index      the index of the pixel.
+   * @param iteration  the number of iterations.
+   * @param zx         the real part of z.
+   * @param zy         the imaginary part of z.
+   * @param savedZx    the real part of the saved point.
+   * @param savedZy    the imaginary part of the saved point.
+   */
+  void setRunning(int index, int iteration, double zx, double zy, double savedZx,
+                  double savedZy) {
+    status[index] = RUNNING;
+    iterations[index] = iteration;
+    x[index] = zx;
+    y[index] = zy;
+    savedX[index] = savedZx;
+    savedY[index] = savedZy;
+  }
+}
@@ -0,0 +1,223 @@
+package edu.ntnu.stud.chaos;
+
+import static edu.ntnu.stud.chaos.EscapeTimeConstants.ESCAPE_RADIUS_SQUARED;
+
+/**
+ * This class represents an escape-time kernel for deep zooms using perturbation.
+ * Every pixel is iterated as a small offset δ from a {@link ReferenceOrbit} Z,
+ * with δ = 2Zδ + δ² + δc, so the pixel z = Z + δ is never formed while it
+ * still needs more precision than a double holds. Each iteration costs a few
+ * double operations, however deep the zoom.
+ * Where z comes much closer to 0 than Z does, the offset loses its precision.
+ * Mandelbrot pixels then move their offset back to the start of the orbit,
+ * and Julia pixels are reported as glitches to be computed again from another reference.
+ * A {@link SeriesApproximation} can give the offset after the first iterations
+ * directly, so those are not iterated for every pixel.
+ * The kernel serves both the Mandelbrot set, where the offset is in c and z
+ * starts at 0, and Julia sets, where the offset is in the starting point.
+ * Goal: compute the pixels of a deep zoom at the cost of double precision.
+ */
+public final class PerturbationKernel implements EscapeTimeKernel {
+
+  /**
+   * The value of a Julia pixel whose offset lost its precision.
+   * Glitches must be computed again before they are written to a canvas.
+   */
+  public static final float GLITCH = Float.NaN;
+
+  /**
+   * The ratio of |z|² to |Z|² below which a pixel is taken to have glitched.
+   * This is Pauldelbrot's criterion with a tolerance of 1e-3 on |z|.
+   */
+  private static final double GLITCH_TOLERANCE = 1e-6;
+
+  /** The orbit of the reference point. */
+  private final ReferenceOrbit orbit;
+
+  /** Whether the offsets are in c, as in the Mandelbrot set, or in the starting point. */
+  private final boolean mandelbrot;
+
+  /** The real part of the reference point relative to the centre of the viewport. */
+  private final double referenceRe;
+
+  /** The imaginary part of the reference point relative to the centre of the viewport. */
+  private final double referenceIm;
+
+  /** The real part of the centre of the viewport, for adjusting the value of escaped pixels. */
+  private final double centerRe;
+
+  /** The imaginary part of the centre of the viewport. */
+  private final double centerIm;
+
+  /** The region of the complex plane to compute. */
+  private final Viewport viewport;
+
+  /** The iteration limit. */
+  private final int maxIterations;
+
+  /** The series giving the offsets after the first iterations. */
+  private final SeriesApproximation series;
+
+  /**
+   * Constructor for a PerturbationKernel iterating every pixel from the start.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param orbit         the orbit of the reference point.
+   * @param referenceRe   the real part of the reference point relative to the
+   *                      centre of the viewport.
+   * @param referenceIm   the imaginary part of the reference point relative to the
+   *                      centre of the viewport.
+   * @param mandelbrot    true if the pixels are points c of the Mandelbrot set,
+   *                      false if they are starting points of a Julia set.
+   * @param maxIterations the iteration limit.
+   */
+  public PerturbationKernel(Viewport viewport, ReferenceOrbit orbit, double referenceRe,
+                            double referenceIm, boolean mandelbrot, int maxIterations) {
+    this(viewport, orbit, referenceRe, referenceIm, mandelbrot, maxIterations,
+        SeriesApproximation.NONE);
+  }
+
+  /**
+   * Constructor for a PerturbationKernel skipping the iterations of a series approximation.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param orbit         the orbit of the reference point.
+   * @param referenceRe   the real part of the reference point relative to the
+   *                      centre of the viewport.
+   * @param referenceIm   the imaginary part of the reference point relative to the
+   *                      centre of the viewport.
+   * @param mandelbrot    true if the pixels are points c of the Mandelbrot set,
+   *                      false if they are starting points of a Julia set.
+   * @param maxIterations the iteration limit.
+   * @param series        the series approximation computed for the same orbit and pixels.
+   */
+  public PerturbationKernel(Viewport viewport, ReferenceOrbit orbit, double referenceRe,
+                            double referenceIm, boolean mandelbrot, int maxIterations,
+                            SeriesApproximation series) {
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (orbit == null) {
+      throw new IllegalArgumentException("Reference orbit cannot be null");
+    }
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("Max iterations must be positive");
+    }
+    if (series == null) {
+      throw new IllegalArgumentException("Series approximation cannot be null");
+    }
+    this.viewport = viewport;
+    this.series = series;
+    this.orbit = orbit;
+    this.referenceRe = referenceRe;
+    this.referenceIm = referenceIm;
+    this.mandelbrot = mandelbrot;
+    this.centerRe = viewport.getCenterRe().doubleValue();
+    this.centerIm = viewport.getCenterIm().doubleValue();
+    this.maxIterations = maxIterations;
+  }
+
+  /**
+   * Get the number of iterations every pixel skips with the series approximation.
+   *
+   * @return the number of skipped iterations.
+   */
+  public int getSkippedIterations() {
+    return series.getSkip();
+  }
+
+  /**
+   * Compute the value of a pixel on the canvas.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return the value of the pixel, or {@link #GLITCH} if it must be computed again.
+   */
+  @Override
+  public float computePixel(int i, int j) {
+    double offsetRe = viewport.getDeltaRe(j) - referenceRe;
+    double offsetIm = viewport.getDeltaIm(i) - referenceIm;
+    if (mandelbrot) {
+      int iteration = iterateMandelbrot(offsetRe, offsetIm);
+      return EscapeTimeKernel.pixelValue(centerRe + viewport.getDeltaRe(j),
+          centerIm + viewport.getDeltaIm(i), iteration, maxIterations);
+    }
+    return iterateJulia(offsetRe, offsetIm);
+  }
+
+  /**
+   * Iterate the offset in c of a Mandelbrot pixel from the reference orbit.
+   * When z comes closer to 0 than to the reference, the offset is moved back
+   * to the start of the orbit, where Z is 0 and the offset is z itself.
+   * The same is done when the reference escapes before the pixel does, so
+   * glitches are corrected as they occur, with the one reference orbit.
+   *
+   * @param dcx the real part of the offset in c.
+   * @param dcy the imaginary part of the offset in c.
+   * @return the number of iterations before the pixel escaped.
+   */
+  private int iterateMandelbrot(double dcx, double dcy) {
+    double[] re = orbit.getReArray();
+    double[] im = orbit.getImArray();
+    int length = orbit.getLength();
+    int m = series.getSkip();
+    double dx = series.getOffsetRe(dcx, dcy);
+    double dy = series.getOffsetIm(dcx, dcy);
+
+    for (int n = m; n < maxIterations; n++) {
+      double zx = re[m] + dx;
+      double zy = im[m] + dy;
+      double z2 = zx * zx + zy * zy;
+      if (z2 > ESCAPE_RADIUS_SQUARED) {
+        return n;
+      }
+      if (z2 < dx * dx + dy * dy || m == length - 1) {
+        dx = zx;
+        dy = zy;
+        m = 0;
+      }
+      double nextDx = 2 * (re[m] * dx - im[m] * dy) + dx * dx - dy * dy + dcx;
+      dy = 2 * (re[m] * dy + im[m] * dx) + 2 * dx * dy + dcy;
+      dx = nextDx;
+      m++;
+    }
+    return maxIterations;
+  }
+
+  /**
+   * Iterate the offset in the starting point of a Julia pixel from the reference orbit.
+   * The orbit of a Julia set does not pass through 0, so a pixel whose z comes
+   * much closer to 0 than Z does is reported as a glitch instead.
+   *
+   * @param dx0 the real part of the starting offset.
+   * @param dy0 the imaginary part of the starting offset.
+   * @return the value of the pixel, or {@link #GLITCH}.
+   */
+  private float iterateJulia(double dx0, double dy0) {
+    double[] re = orbit.getReArray();
+    double[] im = orbit.getImArray();
+    int length = orbit.getLength();
+    int skip = series.getSkip();
+    double dx = skip == 0 ? dx0 : series.getOffsetRe(dx0, dy0);
+    double dy = skip == 0 ? dy0 : series.getOffsetIm(dx0, dy0);
+
+    for (int n = skip; n < maxIterations; n++) {
+      if (n >= length) {
+        return GLITCH;
+      }
+      double zx = re[n] + dx;
+      double zy = im[n] + dy;
+      double z2 = zx * zx + zy * zy;
+      if (z2 >= ESCAPE_RADIUS_SQUARED) {
+        return EscapeTimeKernel.pixelValue(zx, zy, n, maxIterations);
+      }
+      if (z2 < GLITCH_TOLERANCE * (re[n] * re[n] + im[n] * im[n])) {
+        return GLITCH;
+      }
+      double nextDx = 2 * (re[n] * dx - im[n] * dy) + dx * dx - dy * dy;
+      dy = 2 * (re[n] * dy + im[n] * dx) + 2 * dx * dy;
+      dx = nextDx;
+    }
+    return maxIterations;
+  }
+}
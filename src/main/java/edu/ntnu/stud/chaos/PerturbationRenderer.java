@@ -0,0 +1,240 @@
+package edu.ntnu.stud.chaos;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * This class represents a renderer for deep zooms into the Mandelbrot set and Julia sets.
+ * One reference orbit is iterated in arbitrary precision at the centre of
+ * the viewport, and every pixel is iterated as a double offset from it by a
+ * {@link PerturbationKernel} on an {@link EscapeTimeEngine}, after the
+ * iterations a {@link SeriesApproximation} can skip for all of them.
+ * Pixels that glitch are computed again from a new reference orbit placed
+ * among them, until no glitches are left or the number of references runs out.
+ * Goal: render zooms far beyond double precision at about the cost per pixel of a shallow zoom.
+ */
+public class PerturbationRenderer {
+
+  /** The largest number of reference orbits used for one render. */
+  public static final int MAX_REFERENCES = 16;
+
+  /** The engine computing the pixels in parallel. */
+  private final EscapeTimeEngine engine;
+
+  /** The number of reference orbits used in the last render. */
+  private int references;
+
+  /** The number of glitched pixels left after the last render. */
+  private int glitches;
+
+  /** The number of iterations skipped by the series of the first reference in the last render. */
+  private int skippedIterations;
+
+  /**
+   * Constructor for the PerturbationRenderer class.
+   *
+   * @param engine the engine computing the pixels in parallel.
+   */
+  public PerturbationRenderer(EscapeTimeEngine engine) {
+    if (engine == null) {
+      throw new IllegalArgumentException("Escape-time engine cannot be null");
+    }
+    this.engine = engine;
+  }
+
+  /**
+   * Get the number of reference orbits used in the last render.
+   *
+   * @return the number of references.
+   */
+  public int getReferences() {
+    return references;
+  }
+
+  /**
+   * Get the number of glitched pixels left after the last render.
+   * These pixels are given the iteration limit.
+   *
+   * @return the number of glitches.
+   */
+  public int getGlitches() {
+    return glitches;
+  }
+
+  /**
+   * Get the number of iterations every pixel skipped with the series
+   * approximation of the first reference in the last render.
+   *
+   * @return the number of skipped iterations per pixel.
+   */
+  public int getSkippedIterations() {
+    return skippedIterations;
+  }
+
+  /**
+   * Render a viewport of the Mandelbrot set on the canvas.
+   *
+   * @param canvas        the canvas to render on.
+   * @param viewport      the region of the complex plane to render.
+   * @param maxIterations the iteration limit.
+   */
+  public void renderMandelbrot(ChaosCanvas canvas, Viewport viewport, int maxIterations) {
+    render(canvas, viewport, true, 0, 0, maxIterations);
+  }
+
+  /**
+   * Render a viewport of a Julia set on the canvas.
+   *
+   * @param canvas        the canvas to render on.
+   * @param viewport      the region of the complex plane to render.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   */
+  public void renderJulia(ChaosCanvas canvas, Viewport viewport, double cx, double cy,
+                          int maxIterations) {
+    render(canvas, viewport, false, cx, cy, maxIterations);
+  }
+
+  /**
+   * Render a viewport, computing glitched pixels again from new references.
+   * If the engine is cancelled, no more references are made, and the canvas
+   * is left as it was.
+   *
+   * @param canvas        the canvas to render on.
+   * @param viewport      the region of the complex plane to render.
+   * @param mandelbrot    true for the Mandelbrot set, false for a Julia set.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   */
+  private void render(ChaosCanvas canvas, Viewport viewport, boolean mandelbrot, double cx,
+                      double cy, int maxIterations) {
+    if (canvas == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("Max iterations must be positive");
+    }
+
+    MathContext context = ReferenceOrbit.precisionFor(viewport);
+    float[][] values = new float[canvas.getHeight()][canvas.getWidth()];
+    PerturbationKernel first = createKernel(viewport, 0, 0, mandelbrot, cx, cy, maxIterations,
+        context);
+    engine.computeValues(values, first);
+    skippedIterations = first.getSkippedIterations();
+    references = 1;
+    glitches = countGlitches(values);
+
+    while (glitches > 0 && references < MAX_REFERENCES && !engine.isCancelled()) {
+      int[] pixel = findReferencePixel(values);
+      PerturbationKernel kernel = createKernel(viewport, viewport.getDeltaRe(pixel[1]),
+          viewport.getDeltaIm(pixel[0]), mandelbrot, cx, cy, maxIterations, context);
+      float[][] previous = values;
+      values = new float[previous.length][previous[0].length];
+      engine.computeValues(values, (i, j) -> Float.isNaN(previous[i][j])
+          ? kernel.computePixel(i, j) : previous[i][j]);
+      references++;
+      glitches = countGlitches(values);
+    }
+    if (engine.isCancelled()) {
+      return;
+    }
+
+    CanvasStatistics statistics = new CanvasStatistics();
+    for (int i = 0; i < values.length; i++) {
+      for (int j = 0; j < values[i].length; j++) {
+        float value = Float.isNaN(values[i][j]) ? maxIterations : values[i][j];
+        canvas.putPixel(i, j, value, statistics);
+      }
+    }
+    canvas.mergeStatistics(statistics);
+  }
+
+  /**
+   * Create a kernel with a reference orbit at a point of the viewport,
+   * and a series approximation for the pixels around it.
+   *
+   * @param viewport      the region of the complex plane to render.
+   * @param referenceRe   the real part of the reference relative to the centre.
+   * @param referenceIm   the imaginary part of the reference relative to the centre.
+   * @param mandelbrot    true for the Mandelbrot set, false for a Julia set.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   * @param context       the precision of the reference orbit.
+   * @return the kernel.
+   */
+  private static PerturbationKernel createKernel(Viewport viewport, double referenceRe,
+                                                 double referenceIm, boolean mandelbrot,
+                                                 double cx, double cy, int maxIterations,
+                                                 MathContext context) {
+    BigDecimal x = viewport.getCenterRe().add(new BigDecimal(referenceRe), context);
+    BigDecimal y = viewport.getCenterIm().add(new BigDecimal(referenceIm), context);
+    ReferenceOrbit orbit = mandelbrot
+        ? ReferenceOrbit.mandelbrot(x, y, maxIterations, context)
+        : ReferenceOrbit.julia(x, y, cx, cy, maxIterations, context);
+    SeriesApproximation series = SeriesApproximation.compute(viewport, orbit, referenceRe,
+        referenceIm, mandelbrot, maxIterations);
+    return new PerturbationKernel(viewport, orbit, referenceRe, referenceIm, mandelbrot,
+        maxIterations, series);
+  }
+
+  /**
+   * Count the glitched pixels.
+   *
+   * @param values the computed values.
+   * @return the number of glitches.
+   */
+  private static int countGlitches(float[][] values) {
+    int count = 0;
+    for (float[] row : values) {
+      for (float value : row) {
+        if (Float.isNaN(value)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Find the glitched pixel closest to the middle of all glitched pixels.
+   * A reference there is likely to fit the largest group of glitches.
+   *
+   * @param values the computed values, with at least one glitch.
+   * @return the row and column of the pixel.
+   */
+  private static int[] findReferencePixel(float[][] values) {
+    double sumI = 0;
+    double sumJ = 0;
+    int count = 0;
+    for (int i = 0; i < values.length; i++) {
+      for (int j = 0; j < values[i].length; j++) {
+        if (Float.isNaN(values[i][j])) {
+          sumI += i;
+          sumJ += j;
+          count++;
+        }
+      }
+    }
+
+    double middleI = sumI / count;
+    double middleJ = sumJ / count;
+    int[] closest = null;
+    double closestDistance = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < values.length; i++) {
+      for (int j = 0; j < values[i].length; j++) {
+        double distance = (i - middleI) * (i - middleI) + (j - middleJ) * (j - middleJ);
+        if (Float.isNaN(values[i][j]) && distance < closestDistance) {
+          closest = new int[] {i, j};
+          closestDistance = distance;
+        }
+      }
+    }
+    return closest;
+  }
+}
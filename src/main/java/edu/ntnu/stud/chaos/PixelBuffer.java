@@ -0,0 +1,473 @@
+package edu.ntnu.stud.chaos;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * This class represents the pixel storage of a {@link ChaosCanvas}.
+ * Only the array matching the {@link PixelDepth} of the buffer is allocated.
+ * Every access switches on the depth instead of dispatching to a subclass,
+ * so the write path stays monomorphic no matter how many depths are in use.
+ * Goal: act as the typed storage behind a canvas.
+ */
+final class PixelBuffer {
+
+  /** The largest value an unsigned byte counter can hold. */
+  private static final int BYTE_MAX = 0xFF;
+
+  /** The largest value an unsigned short counter can hold. */
+  private static final int SHORT_MAX = 0xFFFF;
+
+  /** Handle for concurrent access to the elements of a byte row. */
+  private static final VarHandle BYTE_ELEMENT = MethodHandles.arrayElementVarHandle(byte[].class);
+
+  /** Handle for concurrent access to the elements of a short row. */
+  private static final VarHandle SHORT_ELEMENT =
+      MethodHandles.arrayElementVarHandle(short[].class);
+
+  /** Handle for concurrent access to the elements of an int row. */
+  private static final VarHandle INT_ELEMENT = MethodHandles.arrayElementVarHandle(int[].class);
+
+  /** Handle for concurrent access to the elements of a long row. */
+  private static final VarHandle LONG_ELEMENT = MethodHandles.arrayElementVarHandle(long[].class);
+
+  /** Handle for concurrent access to the elements of a float row. */
+  private static final VarHandle FLOAT_ELEMENT =
+      MethodHandles.arrayElementVarHandle(float[].class);
+
+  /** The counter type of the buffer. */
+  private final PixelDepth depth;
+
+  /** The number of columns in the buffer. */
+  private final int width;
+
+  /** The number of rows in the buffer. */
+  private final int height;
+
+  /** The pixels when the depth is {@link PixelDepth#BYTE}. */
+  private final byte[][] bytePixels;
+
+  /** The pixels when the depth is {@link PixelDepth#SHORT}. */
+  private final short[][] shortPixels;
+
+  /** The pixels when the depth is {@link PixelDepth#INT}. */
+  private final int[][] intPixels;
+
+  /** The pixels when the depth is {@link PixelDepth#LONG}. */
+  private final long[][] longPixels;
+
+  /** The pixels when the depth is {@link PixelDepth#FLOAT}. */
+  private final float[][] floatPixels;
+
+  /** Whether each row has been written since the last snapshot was taken of it. */
+  private final boolean[] dirtyRows;
+
+  /**
+   * Constructor for the PixelBuffer class.
+   *
+   * @param depth  the counter type of the buffer.
+   * @param width  the number of columns in the buffer.
+   * @param height the number of rows in the buffer.
+   */
+  PixelBuffer(PixelDepth depth, int width, int height) {
+    this(depth, width, height, true);
+  }
+
+  /**
+   * Constructor for a PixelBuffer whose rows may be filled in later.
+   *
+   * @param depth    the counter type of the buffer.
+   * @param width    the number of columns in the buffer.
+   * @param height   the number of rows in the buffer.
+   * @param withRows whether to allocate the rows, or leave them to be filled in.
+   */
+  private PixelBuffer(PixelDepth depth, int width, int height, boolean withRows) {
+    if (depth == null) {
+      throw new IllegalArgumentException("Pixel depth cannot be null");
+    }
+    this.depth = depth;
+    this.width = width;
+    this.height = height;
+    boolean isByte = depth == PixelDepth.BYTE;
+    boolean isShort = depth == PixelDepth.SHORT;
+    boolean isInt = depth == PixelDepth.INT;
+    boolean isLong = depth == PixelDepth.LONG;
+    boolean isFloat = depth == PixelDepth.FLOAT;
+    this.bytePixels = !isByte ? null : withRows ? new byte[height][width] : new byte[height][];
+    this.shortPixels = !isShort ? null : withRows ? new short[height][width] : new short[height][];
+    this.intPixels = !isInt ? null : withRows ? new int[height][width] : new int[height][];
+    this.longPixels = !isLong ? null : withRows ? new long[height][width] : new long[height][];
+    this.floatPixels = !isFloat ? null
+        : withRows ? new float[height][width] : new float[height][];
+    this.dirtyRows = new boolean[height];
+    Arrays.fill(this.dirtyRows, true);
+  }
+
+  /**
+   * Get the counter type of the buffer.
+   *
+   * @return the counter type of the buffer.
+   */
+  PixelDepth getDepth() {
+    return depth;
+  }
+
+  /**
+   * Get the number of columns in the buffer.
+   *
+   * @return the number of columns in the buffer.
+   */
+  int getWidth() {
+    return width;
+  }
+
+  /**
+   * Get the number of rows in the buffer.
+   *
+   * @return the number of rows in the buffer.
+   */
+  int getHeight() {
+    return height;
+  }
+
+  /**
+   * Add an amount to a pixel. Byte and short counters saturate instead of wrapping.
+   *
+   * @param i      the row of the pixel.
+   * @param j      the column of the pixel.
+   * @param amount the amount to add to the pixel.
+   * @return the value of the pixel after the addition.
+   */
+  double add(int i, int j, int amount) {
+    markDirty(i);
+    return switch (depth) {
+      case BYTE -> {
+        int value = saturate((bytePixels[i][j] & BYTE_MAX) + amount, BYTE_MAX);
+        bytePixels[i][j] = (byte) value;
+        yield value;
+      }
+      case SHORT -> {
+        int value = saturate((shortPixels[i][j] & SHORT_MAX) + amount, SHORT_MAX);
+        shortPixels[i][j] = (short) value;
+        yield value;
+      }
+      case INT -> intPixels[i][j] += amount;
+      case LONG -> longPixels[i][j] += amount;
+      case FLOAT -> floatPixels[i][j] += amount;
+    };
+  }
+
+  /**
+   * Add a fractional amount to a pixel.
+   * Integer depths round the amount to the nearest whole number.
+   *
+   * @param i      the row of the pixel.
+   * @param j      the column of the pixel.
+   * @param amount the amount to add to the pixel.
+   * @return the value of the pixel after the addition.
+   */
+  double add(int i, int j, float amount) {
+    if (depth == PixelDepth.FLOAT) {
+      markDirty(i);
+      return floatPixels[i][j] += amount;
+    }
+    return add(i, j, Math.round(amount));
+  }
+
+  /**
+   * Atomically add an amount to a pixel that other threads may be writing to.
+   * No update is lost, and byte and short counters still saturate.
+   *
+   * @param i       the row of the pixel.
+   * @param j       the column of the pixel.
+   * @param amount  the amount to add to the pixel.
+   * @param partial the statistics of the calling thread to record the write in.
+   */
+  void addAtomic(int i, int j, int amount, CanvasStatistics partial) {
+    markDirty(i);
+    switch (depth) {
+      case BYTE -> {
+        byte[] row = bytePixels[i];
+        int oldValue;
+        int value;
+        do {
+          oldValue = (byte) BYTE_ELEMENT.getVolatile(row, j) & BYTE_MAX;
+          value = saturate(oldValue + amount, BYTE_MAX);
+        } while (oldValue != value
+            && !BYTE_ELEMENT.compareAndSet(row, j, (byte) oldValue, (byte) value));
+        partial.record(oldValue, value);
+      }
+      case SHORT -> {
+        short[] row = shortPixels[i];
+        int oldValue;
+        int value;
+        do {
+          oldValue = (short) SHORT_ELEMENT.getVolatile(row, j) & SHORT_MAX;
+          value = saturate(oldValue + amount, SHORT_MAX);
+        } while (oldValue != value
+            && !SHORT_ELEMENT.compareAndSet(row, j, (short) oldValue, (short) value));
+        partial.record(oldValue, value);
+      }
+      case INT -> {
+        int oldValue = (int) INT_ELEMENT.getAndAdd(intPixels[i], j, amount);
+        partial.record(oldValue, oldValue + amount);
+      }
+      case LONG -> {
+        long oldValue = (long) LONG_ELEMENT.getAndAdd(longPixels[i], j, (long) amount);
+        partial.record(oldValue, oldValue + amount);
+      }
+      case FLOAT -> {
+        float oldValue = (float) FLOAT_ELEMENT.getAndAdd(floatPixels[i], j, (float) amount);
+        partial.record(oldValue, oldValue + amount);
+      }
+      default -> throw new IllegalStateException("Unknown pixel depth: " + depth);
+    }
+  }
+
+  /**
+   * Add an amount to a pixel that other threads may be writing to,
+   * using opaque reads and writes instead of atomic updates.
+   * This avoids the cost of atomic instructions, but when two threads hit the same
+   * pixel at the same time one of the updates can be lost. That is acceptable for
+   * density histograms where rare lost hits do not change the image.
+   *
+   * @param i       the row of the pixel.
+   * @param j       the column of the pixel.
+   * @param amount  the amount to add to the pixel.
+   * @param partial the statistics of the calling thread to record the write in.
+   */
+  void addOpaque(int i, int j, int amount, CanvasStatistics partial) {
+    markDirty(i);
+    switch (depth) {
+      case BYTE -> {
+        int oldValue = (byte) BYTE_ELEMENT.getOpaque(bytePixels[i], j) & BYTE_MAX;
+        int value = saturate(oldValue + amount, BYTE_MAX);
+        BYTE_ELEMENT.setOpaque(bytePixels[i], j, (byte) value);
+        partial.record(oldValue, value);
+      }
+      case SHORT -> {
+        int oldValue = (short) SHORT_ELEMENT.getOpaque(shortPixels[i], j) & SHORT_MAX;
+        int value = saturate(oldValue + amount, SHORT_MAX);
+        SHORT_ELEMENT.setOpaque(shortPixels[i], j, (short) value);
+        partial.record(oldValue, value);
+      }
+      case INT -> {
+        int oldValue = (int) INT_ELEMENT.getOpaque(intPixels[i], j);
+        INT_ELEMENT.setOpaque(intPixels[i], j, oldValue + amount);
+        partial.record(oldValue, oldValue + amount);
+      }
+      case LONG -> {
+        long oldValue = (long) LONG_ELEMENT.getOpaque(longPixels[i], j);
+        LONG_ELEMENT.setOpaque(longPixels[i], j, oldValue + amount);
+        partial.record(oldValue, oldValue + amount);
+      }
+      case FLOAT -> {
+        float oldValue = (float) FLOAT_ELEMENT.getOpaque(floatPixels[i], j);
+        FLOAT_ELEMENT.setOpaque(floatPixels[i], j, oldValue + amount);
+        partial.record(oldValue, oldValue + amount);
+      }
+      default -> throw new IllegalStateException("Unknown pixel depth: " + depth);
+    }
+  }
+
+  /**
+   * Add every pixel in a row of another buffer to the same row of this buffer.
+   * Both buffers must have the same size and depth. Long counters are added at their
+   * full width, since they hold the counts too large for an int.
+   *
+   * @param other   the buffer to add.
+   * @param i       the row to add.
+   * @param partial the statistics to record the changed pixels in.
+   */
+  void addRow(PixelBuffer other, int i, CanvasStatistics partial) {
+    markDirty(i);
+    if (depth == PixelDepth.LONG) {
+      for (int j = 0; j < width; j++) {
+        long amount = other.longPixels[i][j];
+        if (amount != 0) {
+          long oldValue = longPixels[i][j];
+          longPixels[i][j] = oldValue + amount;
+          partial.record(oldValue, longPixels[i][j]);
+        }
+      }
+      return;
+    }
+    for (int j = 0; j < width; j++) {
+      double amount = other.get(i, j);
+      if (amount != 0) {
+        double oldValue = get(i, j);
+        double value = depth == PixelDepth.FLOAT
+            ? add(i, j, (float) amount) : add(i, j, (int) Math.min(amount, Integer.MAX_VALUE));
+        partial.record(oldValue, value);
+      }
+    }
+  }
+
+  /**
+   * Get the value of a pixel.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return the value of the pixel.
+   */
+  double get(int i, int j) {
+    return switch (depth) {
+      case BYTE -> bytePixels[i][j] & BYTE_MAX;
+      case SHORT -> shortPixels[i][j] & SHORT_MAX;
+      case INT -> intPixels[i][j];
+      case LONG -> longPixels[i][j];
+      case FLOAT -> floatPixels[i][j];
+    };
+  }
+
+  /**
+   * Set all pixels in a row to 0.
+   *
+   * @param i the row to clear.
+   */
+  void clearRow(int i) {
+    markDirty(i);
+    switch (depth) {
+      case BYTE -> Arrays.fill(bytePixels[i], (byte) 0);
+      case SHORT -> Arrays.fill(shortPixels[i], (short) 0);
+      case INT -> Arrays.fill(intPixels[i], 0);
+      case LONG -> Arrays.fill(longPixels[i], 0L);
+      case FLOAT -> Arrays.fill(floatPixels[i], 0f);
+      default -> throw new IllegalStateException("Unknown pixel depth: " + depth);
+    }
+  }
+
+  /**
+   * Set all pixels in the buffer to 0.
+   */
+  void clear() {
+    for (int i = 0; i < height; i++) {
+      clearRow(i);
+    }
+  }
+
+  /**
+   * Copy the buffer into a new buffer of the same size and depth.
+   * The rows are copied in parallel.
+   *
+   * @return a copy of the buffer.
+   */
+  PixelBuffer copy() {
+    PixelBuffer copy = new PixelBuffer(depth, width, height, false);
+    IntStream.range(0, height).parallel().forEach(i -> copyRow(i, copy));
+    return copy;
+  }
+
+  /**
+   * Copy the buffer for a snapshot, sharing the rows that have not been written
+   * since the last snapshot was taken. The rows of a snapshot are never written,
+   * so a row the writer has left alone can be shared by every snapshot until it
+   * is written again. The written rows are copied in parallel, and all rows are
+   * counted as unwritten afterwards. No other thread may write to the buffer meanwhile.
+   *
+   * @param previous the last snapshot taken of this buffer, or null to copy every row.
+   * @return a buffer with the pixels of this buffer that is never written to.
+   */
+  PixelBuffer snapshot(PixelBuffer previous) {
+    boolean sharable = previous != null && previous.depth == depth
+        && previous.width == width && previous.height == height;
+    PixelBuffer snapshot = new PixelBuffer(depth, width, height, false);
+    IntStream.range(0, height).parallel().forEach(i -> {
+      if (sharable && !dirtyRows[i]) {
+        previous.shareRow(i, snapshot);
+      } else {
+        copyRow(i, snapshot);
+      }
+      dirtyRows[i] = false;
+    });
+    return snapshot;
+  }
+
+  /**
+   * Count every row as written, for when the rows may be written without this buffer.
+   */
+  void markAllDirty() {
+    Arrays.fill(dirtyRows, true);
+  }
+
+  /**
+   * Count a row as written since the last snapshot.
+   * The flag is only stored when it changes, so threads writing to the same
+   * rows do not keep invalidating each other's caches.
+   *
+   * @param i the row that is written.
+   */
+  private void markDirty(int i) {
+    if (!dirtyRows[i]) {
+      dirtyRows[i] = true;
+    }
+  }
+
+  /**
+   * Copy a row into a new row of another buffer of the same size and depth.
+   *
+   * @param i      the row to copy.
+   * @param target the buffer to copy the row into.
+   */
+  private void copyRow(int i, PixelBuffer target) {
+    switch (depth) {
+      case BYTE -> target.bytePixels[i] = bytePixels[i].clone();
+      case SHORT -> target.shortPixels[i] = shortPixels[i].clone();
+      case INT -> target.intPixels[i] = intPixels[i].clone();
+      case LONG -> target.longPixels[i] = longPixels[i].clone();
+      case FLOAT -> target.floatPixels[i] = floatPixels[i].clone();
+      default -> throw new IllegalStateException("Unknown pixel depth: " + depth);
+    }
+  }
+
+  /**
+   * Let another buffer of the same size and depth use a row of this buffer.
+   *
+   * @param i      the row to share.
+   * @param target the buffer to share the row with.
+   */
+  private void shareRow(int i, PixelBuffer target) {
+    switch (depth) {
+      case BYTE -> target.bytePixels[i] = bytePixels[i];
+      case SHORT -> target.shortPixels[i] = shortPixels[i];
+      case INT -> target.intPixels[i] = intPixels[i];
+      case LONG -> target.longPixels[i] = longPixels[i];
+      case FLOAT -> target.floatPixels[i] = floatPixels[i];
+      default -> throw new IllegalStateException("Unknown pixel depth: " + depth);
+    }
+  }
+
+  /**
+   * Get the pixels as an array of integers.
+   * For the {@link PixelDepth#INT} depth the backing array itself is returned.
+   * Any other depth is converted into a new array, where long values
+   * saturate at the integer range and float values are truncated.
+   *
+   * @return the pixels as an array of integers.
+   */
+  int[][] toIntArray() {
+    if (depth == PixelDepth.INT) {
+      return intPixels;
+    }
+    int[][] result = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        result[i][j] = (int) Math.min(get(i, j), Integer.MAX_VALUE);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Clamp a value to the range between 0 and a maximum value.
+   *
+   * @param value the value to clamp.
+   * @param max   the maximum value.
+   * @return the clamped value.
+   */
+  private static int saturate(int value, int max) {
+    return Math.max(0, Math.min(value, max));
+  }
+}
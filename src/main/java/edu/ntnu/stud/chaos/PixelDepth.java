@@ -0,0 +1,44 @@
+package edu.ntnu.stud.chaos;
+
+/**
+ * Enumeration of the counter types a {@link ChaosCanvas} can store its pixels in.
+ * Goal: let the memory and bandwidth of a canvas match the job, for example
+ * 8-bit counters for previews and 64-bit counters for deep accumulations.
+ */
+public enum PixelDepth {
+  /** Unsigned 8-bit counters that saturate at 255. */
+  BYTE(Byte.BYTES),
+
+  /** Unsigned 16-bit counters that saturate at 65535. */
+  SHORT(Short.BYTES),
+
+  /** Signed 32-bit counters. This is the default depth of a canvas. */
+  INT(Integer.BYTES),
+
+  /** Signed 64-bit counters for deep accumulations. */
+  LONG(Long.BYTES),
+
+  /** Single precision values, used for smooth escape-time values. */
+  FLOAT(Float.BYTES);
+
+  /** The number of bytes used to store one pixel. */
+  private final int bytesPerPixel;
+
+  /**
+   * Constructor for the PixelDepth enumeration.
+   *
+   * @param bytesPerPixel the number of bytes used to store one pixel.
+   */
+  PixelDepth(int bytesPerPixel) {
+    this.bytesPerPixel = bytesPerPixel;
+  }
+
+  /**
+   * Get the number of bytes used to store one pixel.
+   *
+   * @return the number of bytes used to store one pixel.
+   */
+  public int getBytesPerPixel() {
+    return bytesPerPixel;
+  }
+}
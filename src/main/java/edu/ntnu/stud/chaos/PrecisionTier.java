@@ -0,0 +1,81 @@
+package edu.ntnu.stud.chaos;
+
+/**
+ * Enumeration of the arithmetic an escape-time fractal can be iterated in,
+ * from the cheapest to the most expensive.
+ * The cheapest tier that can tell neighbouring pixels apart is chosen for a viewport.
+ */
+public enum PrecisionTier {
+  /**
+   * Double precision, down to a pixel spacing of a few double ulps.
+   */
+  DOUBLE,
+
+  /**
+   * Double-double precision, about 106 bits in a pair of doubles.
+   * Each iteration costs two to four times a perturbation iteration, which is
+   * plain double arithmetic, but no reference orbit is needed, and no pixel can
+   * glitch. It only pays off just past double precision, while the reference orbit
+   * in arbitrary precision costs more than the extra time of the pixels.
+   */
+  DOUBLE_DOUBLE,
+
+  /**
+   * Perturbation from a reference orbit in arbitrary precision, for any deeper zoom.
+   */
+  PERTURBATION;
+
+  /**
+   * The time of one iteration of the reference orbit for each digit of its precision,
+   * in nanoseconds. Measured on the Seahorse Valley with 20000 iterations:
+   * about 2.7 microseconds at 30 digits, 3.0 at 50 and 6.0 at 120.
+   */
+  private static final double REFERENCE_NANOS_PER_DIGIT = 80;
+
+  /**
+   * The extra time of a pixel in double-double over perturbation for each
+   * iteration of the limit, in nanoseconds. Measured on the Seahorse Valley with
+   * the iteration budget of the zoom: 3.3 on a 48 by 48 canvas at a span of
+   * 1e-15, where the limit is 13250, and 3.4 at 1e-17. The two tiers take the
+   * same time on a 24 by 24 canvas at 1e-15, and perturbation is faster on 32 by 32.
+   */
+  private static final double DOUBLE_DOUBLE_EXTRA_NANOS = 3;
+
+  /**
+   * The smallest pixel spacing, relative to the magnitude, double-double is used for.
+   * Perturbation skips more iterations the deeper the zoom, so below a spacing
+   * of about 2^-60 of the escape radius it is faster than the cost estimate says,
+   * and twice as fast as double-double on a 32 by 32 canvas at a span of 1e-20.
+   * This is far above the spacing double-double can still resolve.
+   */
+  private static final double DOUBLE_DOUBLE_MIN_SPACING = 0x1p-60;
+
+  /**
+   * Get the cheapest tier that can tell the neighbouring pixels of a viewport apart.
+   * Past double precision, double-double is chosen while the reference orbit of
+   * perturbation costs more than the extra time of the pixels in double-double.
+   * The reference orbit and the pixels both run up to the iteration limit,
+   * so the choice depends on the precision of the orbit and the number of pixels.
+   * For a canvas of a few hundred pixels a side, perturbation is always faster.
+   *
+   * @param viewport the region of the complex plane to compute.
+   * @return the precision tier for the viewport.
+   * @throws IllegalArgumentException if the viewport is null.
+   */
+  public static PrecisionTier select(Viewport viewport) {
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (viewport.isResolvable()) {
+      return DOUBLE;
+    }
+    double magnitude = Math.max(EscapeTimeConstants.ESCAPE_RADIUS_SQUARED, viewport.getMagnitude());
+    long pixels = (long) viewport.getWidth() * viewport.getHeight();
+    int digits = ReferenceOrbit.precisionFor(viewport).getPrecision();
+    if (pixels * DOUBLE_DOUBLE_EXTRA_NANOS < digits * REFERENCE_NANOS_PER_DIGIT
+        && viewport.getPixelSpacing() > DOUBLE_DOUBLE_MIN_SPACING * magnitude) {
+      return DOUBLE_DOUBLE;
+    }
+    return PERTURBATION;
+  }
+}
@@ -0,0 +1,345 @@
+package edu.ntnu.stud.chaos;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class represents a renderer for escape-time fractals that draws a rough image first.
+ * The first pass computes every 8th pixel in both directions, and each following
+ * pass halves the step, down to every pixel. A pixel of a later pass lies in a
+ * cell between pixels of the pass before, and if those pixels and the ones around
+ * the cell all have the same value, the pixel is guessed to have it too. Only the
+ * pixels near differing neighbours, along the edges of the regions of the image,
+ * are computed. Under the {@link Symmetry} of the kernel, the pixels of a pass
+ * are done in two rounds, and a copy in the second round takes the value of its
+ * mirror if the mirror was done in the first.
+ * After every pass the canvas is filled with blocks of the pixels known so far
+ * and a snapshot is published, so a view can show the image while it is refined.
+ * Like {@link SubdivisionEngine}, the guesses rely on the regions being connected,
+ * so a filament thinner than the step of a pass can be missed.
+ * Goal: show a usable image of an escape-time fractal at once, and iterate fewer pixels.
+ */
+public class ProgressiveEngine extends EscapeTimeEngine {
+
+  /** The distance between the pixels computed in the first pass. */
+  public static final int COARSEST_STEP = 8;
+
+  /** The action run after every pass, or null. */
+  private Runnable passListener;
+
+  /** The number of pixels computed in the last render. */
+  private int computedPixels;
+
+  /**
+   * Constructor for a ProgressiveEngine using one thread for each available processor.
+   */
+  public ProgressiveEngine() {
+    super();
+  }
+
+  /**
+   * Constructor for the ProgressiveEngine class.
+   *
+   * @param threads  the number of threads to render with.
+   * @param tileSize the number of rows handed to a worker at a time.
+   */
+  public ProgressiveEngine(int threads, int tileSize) {
+    super(threads, tileSize);
+  }
+
+  /**
+   * Set the action to run after every pass, once its snapshot is published.
+   * The action runs on the rendering thread.
+   *
+   * @param passListener the action, or null for none.
+   */
+  public void setPassListener(Runnable passListener) {
+    this.passListener = passListener;
+  }
+
+  /**
+   * Get the number of pixels computed by the kernel in the last render.
+   * The rest of the pixels were guessed.
+   *
+   * @return the number of computed pixels.
+   */
+  public int getComputedPixels() {
+    return computedPixels;
+  }
+
+  /**
+   * Render every pixel of the canvas with a kernel, from coarse to fine.
+   * The canvas is cleared and filled again after every pass, while readers keep
+   * the snapshot of the pass before until the new pass is published.
+   * If the rendering thread is interrupted, the render stops after the current
+   * pass, and the canvas keeps the image of that pass. If the render is cancelled,
+   * it stops within the current pass, which is not published.
+   *
+   * @param canvas the canvas to render on.
+   * @param kernel the kernel computing the value of each pixel.
+   */
+  @Override
+  public void render(ChaosCanvas canvas, EscapeTimeKernel kernel) {
+    if (canvas == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+    if (kernel == null) {
+      throw new IllegalArgumentException("Kernel cannot be null");
+    }
+
+    float[][] values = new float[canvas.getHeight()][canvas.getWidth()];
+    boolean mirrored = kernel.getSymmetry().hasCopies();
+    computedPixels = 0;
+    for (int step = COARSEST_STEP; step >= 1; step /= 2) {
+      computedPixels += getPool().invoke(
+          new PassTask(kernel, values, step, false, 0, values.length));
+      if (mirrored) {
+        computedPixels += getPool().invoke(
+            new PassTask(kernel, values, step, true, 0, values.length));
+      }
+      if (isCancelled()) {
+        return;
+      }
+      publish(canvas, values, step);
+      if (Thread.currentThread().isInterrupted()) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Fill the canvas with the pixels known after a pass and publish a snapshot.
+   * Each known pixel fills the block of the step below and to the right of it.
+   *
+   * @param canvas the canvas to fill.
+   * @param values the values known so far.
+   * @param step   the distance between the known pixels.
+   */
+  private void publish(ChaosCanvas canvas, float[][] values, int step) {
+    canvas.clearPixels();
+    CanvasStatistics statistics = new CanvasStatistics();
+    for (int i = 0; i < values.length; i++) {
+      float[] known = values[i - i % step];
+      for (int j = 0; j < known.length; j++) {
+        canvas.putPixel(i, j, known[j - j % step], statistics);
+      }
+    }
+    canvas.mergeStatistics(statistics);
+    canvas.publishSnapshot();
+    if (passListener != null) {
+      passListener.run();
+    }
+  }
+
+  /**
+   * Guess the value of a pixel from the pixels of the pass before around it.
+   * The pixel lies in a cell between four pixels of the pass before, and the
+   * guess is only made if they and the ring of pixels around the cell all agree,
+   * so a feature reaching into the cell from outside is not painted over.
+   *
+   * @param values the values known so far.
+   * @param i      the row of the pixel.
+   * @param j      the column of the pixel.
+   * @param step   the step of the pass of the pixel.
+   * @return the value of the pixels around it, or NaN if they differ or the cell is cut off.
+   */
+  private static float guess(float[][] values, int i, int j, int step) {
+    int coarse = 2 * step;
+    int top = i - i % coarse;
+    int left = j - j % coarse;
+    int bottom = top + coarse;
+    int right = left + coarse;
+    if (bottom >= values.length && top != i || right >= values[0].length && left != j) {
+      return Float.NaN;
+    }
+    float value = values[top][left];
+    int lastRow = Math.min(bottom + coarse, values.length - 1);
+    int lastColumn = Math.min(right + coarse, values[0].length - 1);
+    for (int r = Math.max(0, top - coarse); r <= lastRow; r += coarse) {
+      for (int c = Math.max(0, left - coarse); c <= lastColumn; c += coarse) {
+        if (values[r][c] != value) {
+          return Float.NaN;
+        }
+      }
+    }
+    return value;
+  }
+
+  /**
+   * A task computing or guessing the new pixels of a pass in a range of rows.
+   * The guesses only read pixels of earlier passes, so the rows can be done in any order.
+   * A task does either the pixels that are copies under the symmetry of the kernel,
+   * or the rest, so the copies can read the pixels of the same pass done before them.
+   */
+  @SuppressWarnings("serial")
+  private final class PassTask extends RecursiveTask<Integer> {
+
+    /** The kernel computing the value of each pixel. */
+    private final EscapeTimeKernel kernel;
+
+    /** The buffer of values known so far. */
+    private final float[][] values;
+
+    /** The distance between the pixels of the pass. */
+    private final int step;
+
+    /** Whether the task does the copies, or the pixels that are not copies. */
+    private final boolean copies;
+
+    /** The symmetry of the kernel. */
+    private final Symmetry symmetry;
+
+    /** The first row of the range. */
+    private final int row0;
+
+    /** The row after the last row of the range. */
+    private final int row1;
+
+    /**
+     * Constructor for the PassTask class.
+     *
+     * @param kernel the kernel computing the value of each pixel.
+     * @param values the buffer of values known so far.
+     * @param step   the distance between the pixels of the pass.
+     * @param copies true to do the copies, false to do the rest.
+     * @param row0   the first row of the range.
+     * @param row1   the row after the last row of the range.
+     */
+    PassTask(EscapeTimeKernel kernel, float[][] values, int step, boolean copies, int row0,
+             int row1) {
+      this.kernel = kernel;
+      this.values = values;
+      this.step = step;
+      this.copies = copies;
+      this.symmetry = kernel.getSymmetry();
+      this.row0 = row0;
+      this.row1 = row1;
+    }
+
+    /**
+     * Do the rows of the range, splitting it while it is larger than a tile.
+     *
+     * @return the number of pixels computed.
+     */
+    @Override
+    protected Integer compute() {
+      if (isCancelled()) {
+        return 0;
+      }
+      if (row1 - row0 > getTileSize()) {
+        int middle = (row0 + row1) / 2;
+        PassTask second = new PassTask(kernel, values, step, copies, middle, row1);
+        second.fork();
+        int computed = new PassTask(kernel, values, step, copies, row0, middle).compute();
+        return computed + second.join();
+      }
+
+      int computed = 0;
+      for (int i = row0; i < row1; i++) {
+        if (i % step == 0) {
+          computed += step == COARSEST_STEP ? computeRow(i) : refineRow(i);
+        }
+      }
+      return computed;
+    }
+
+    /**
+     * Compute every pixel of a row in the first pass.
+     *
+     * @param i the row.
+     * @return the number of pixels computed.
+     */
+    private int computeRow(int i) {
+      int computed = 0;
+      for (int j = 0; j < values[i].length; j += step) {
+        if (symmetry.isCopy(i, j) != copies) {
+          continue;
+        }
+        float value = copies ? mirror(i, j) : Float.NaN;
+        if (Float.isNaN(value)) {
+          value = kernel.computePixel(i, j);
+          computed++;
+        }
+        values[i][j] = value;
+      }
+      return computed;
+    }
+
+    /**
+     * Get the value of the mirror of a copy, if the mirror is a pixel of the pass.
+     *
+     * @param i the row of the copy.
+     * @param j the column of the copy.
+     * @return the value of the mirror, or NaN if it is not known yet.
+     */
+    private float mirror(int i, int j) {
+      int mirrorRow = symmetry.getMirrorRow(i);
+      int mirrorColumn = symmetry.getMirrorColumn(j);
+      if (mirrorRow % step != 0 || mirrorColumn % step != 0) {
+        return Float.NaN;
+      }
+      return values[mirrorRow][mirrorColumn];
+    }
+
+    /**
+     * Guess or compute the new pixels of a row in a later pass.
+     * In a row of the pass before, only every other pixel is new. In a new row
+     * every pixel is, and the pixels that cannot be guessed are computed in runs.
+     *
+     * @param i the row.
+     * @return the number of pixels computed.
+     */
+    private int refineRow(int i) {
+      boolean rowKnown = i % (2 * step) == 0;
+      int first = rowKnown ? step : 0;
+      int stride = rowKnown ? 2 * step : step;
+      int computed = 0;
+      int runStart = -1;
+      for (int j = first; j < values[i].length; j += stride) {
+        if (symmetry.isCopy(i, j) != copies) {
+          if (runStart >= 0) {
+            computed += computeRun(i, runStart, j);
+            runStart = -1;
+          }
+          continue;
+        }
+        float value = copies ? mirror(i, j) : Float.NaN;
+        if (Float.isNaN(value)) {
+          value = guess(values, i, j, step);
+        }
+        if (Float.isNaN(value)) {
+          if (stride > 1) {
+            values[i][j] = kernel.computePixel(i, j);
+            computed++;
+          } else if (runStart < 0) {
+            runStart = j;
+          }
+          continue;
+        }
+        values[i][j] = value;
+        if (runStart >= 0) {
+          computed += computeRun(i, runStart, j);
+          runStart = -1;
+        }
+      }
+      if (runStart >= 0) {
+        computed += computeRun(i, runStart, values[i].length);
+      }
+      return computed;
+    }
+
+    /**
+     * Compute a run of neighbouring pixels in a row.
+     *
+     * @param i  the row.
+     * @param j0 the first column of the run.
+     * @param j1 the column after the last column of the run.
+     * @return the number of pixels computed.
+     */
+    private int computeRun(int i, int j0, int j1) {
+      float[] run = new float[j1 - j0];
+      kernel.computeRow(i, j0, j1, run);
+      System.arraycopy(run, 0, values[i], j0, run.length);
+      return run.length;
+    }
+  }
+}
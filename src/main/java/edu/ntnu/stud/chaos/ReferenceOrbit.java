@@ -0,0 +1,186 @@
+package edu.ntnu.stud.chaos;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * This class represents the orbit of a single reference point, iterated in
+ * arbitrary precision and stored as doubles.
+ * In a deep zoom the points of neighbouring pixels cannot be told apart
+ * in double precision, but their distance from a nearby orbit can.
+ * The orbit is iterated once with {@link BigDecimal}, and every pixel is then
+ * iterated as a small double offset from it by a {@link PerturbationKernel}.
+ * Goal: give the pixels of a deep zoom an exact orbit to be measured against.
+ */
+public final class ReferenceOrbit {
+
+  /** The number of digits kept beyond those needed to tell the pixels apart. */
+  private static final int GUARD_DIGITS = 12;
+
+  /** The smallest number of digits the orbit is iterated with. */
+  private static final int MIN_DIGITS = 20;
+
+  /** The real parts of the points of the orbit. */
+  private final double[] re;
+
+  /** The imaginary parts of the points of the orbit. */
+  private final double[] im;
+
+  /** The number of points in the orbit. */
+  private final int length;
+
+  /**
+   * Constructor for the ReferenceOrbit class.
+   *
+   * @param re     the real parts of the points of the orbit.
+   * @param im     the imaginary parts of the points of the orbit.
+   * @param length the number of points in the orbit.
+   */
+  private ReferenceOrbit(double[] re, double[] im, int length) {
+    this.re = re;
+    this.im = im;
+    this.length = length;
+  }
+
+  /**
+   * Iterate the Mandelbrot orbit z = z² + c of a point from z = 0.
+   *
+   * @param cx            the real part of the point.
+   * @param cy            the imaginary part of the point.
+   * @param maxIterations the iteration limit.
+   * @param context       the precision to iterate with.
+   * @return the orbit of the point.
+   */
+  public static ReferenceOrbit mandelbrot(BigDecimal cx, BigDecimal cy, int maxIterations,
+                                          MathContext context) {
+    return iterate(BigDecimal.ZERO, BigDecimal.ZERO, cx, cy, maxIterations, context);
+  }
+
+  /**
+   * Iterate the Julia orbit z = z² + c of a starting point.
+   *
+   * @param zx            the real part of the starting point.
+   * @param zy            the imaginary part of the starting point.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   * @param context       the precision to iterate with.
+   * @return the orbit of the starting point.
+   */
+  public static ReferenceOrbit julia(BigDecimal zx, BigDecimal zy, double cx, double cy,
+                                     int maxIterations, MathContext context) {
+    return iterate(zx, zy, new BigDecimal(cx), new BigDecimal(cy), maxIterations, context);
+  }
+
+  /**
+   * Get the precision a reference orbit needs for the pixels of a viewport.
+   * The orbit must keep every digit down to the spacing of the pixels,
+   * with some to spare for the rounding errors of the iteration.
+   *
+   * @param viewport the region of the complex plane to compute.
+   * @return the precision to iterate the orbit with.
+   */
+  public static MathContext precisionFor(Viewport viewport) {
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    double scale = Math.max(1, viewport.getMagnitude()) / viewport.getPixelSpacing();
+    int digits = (int) Math.ceil(Math.log10(scale)) + GUARD_DIGITS;
+    return new MathContext(Math.max(MIN_DIGITS, digits));
+  }
+
+  /**
+   * Iterate z = z² + c until z escapes or the iteration limit is reached.
+   * The point where z escapes is kept, so pixels can tell that they have
+   * escaped at the same iteration.
+   *
+   * @param zx            the real part of the starting point.
+   * @param zy            the imaginary part of the starting point.
+   * @param cx            the real part of the constant.
+   * @param cy            the imaginary part of the constant.
+   * @param maxIterations the iteration limit.
+   * @param context       the precision to iterate with.
+   * @return the orbit.
+   */
+  private static ReferenceOrbit iterate(BigDecimal zx, BigDecimal zy, BigDecimal cx,
+                                        BigDecimal cy, int maxIterations, MathContext context) {
+    if (zx == null || zy == null || cx == null || cy == null) {
+      throw new IllegalArgumentException("Coordinates cannot be null");
+    }
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("Max iterations must be positive");
+    }
+    if (context == null) {
+      throw new IllegalArgumentException("Precision cannot be null");
+    }
+
+    double[] re = new double[maxIterations];
+    double[] im = new double[maxIterations];
+    BigDecimal x = zx;
+    BigDecimal y = zy;
+    int length = 0;
+    while (length < maxIterations) {
+      re[length] = x.doubleValue();
+      im[length] = y.doubleValue();
+      length++;
+      if (re[length - 1] * re[length - 1] + im[length - 1] * im[length - 1]
+          > EscapeTimeConstants.ESCAPE_RADIUS_SQUARED) {
+        break;
+      }
+      BigDecimal x2 = x.multiply(x, context);
+      BigDecimal y2 = y.multiply(y, context);
+      y = x.multiply(y, context).multiply(BigDecimal.valueOf(2)).add(cy, context);
+      x = x2.subtract(y2).add(cx, context);
+    }
+    return new ReferenceOrbit(re, im, length);
+  }
+
+  /**
+   * Get the number of points in the orbit.
+   * The orbit is shorter than the iteration limit if the reference point escaped.
+   *
+   * @return the length of the orbit.
+   */
+  public int getLength() {
+    return length;
+  }
+
+  /**
+   * Get the real part of a point of the orbit.
+   *
+   * @param n the iteration of the point.
+   * @return the real part.
+   */
+  public double getRe(int n) {
+    return re[n];
+  }
+
+  /**
+   * Get the imaginary part of a point of the orbit.
+   *
+   * @param n the iteration of the point.
+   * @return the imaginary part.
+   */
+  public double getIm(int n) {
+    return im[n];
+  }
+
+  /**
+   * Get the real parts of the points of the orbit.
+   * The array is shared, so kernels can read it without a call per iteration.
+   *
+   * @return the real parts, of which the first {@link #getLength()} are set.
+   */
+  double[] getReArray() {
+    return re;
+  }
+
+  /**
+   * Get the imaginary parts of the points of the orbit.
+   *
+   * @return the imaginary parts, of which the first {@link #getLength()} are set.
+   */
+  double[] getImArray() {
+    return im;
+  }
+}
@@ -0,0 +1,261 @@
+package edu.ntnu.stud.chaos;
+
+import static edu.ntnu.stud.chaos.EscapeTimeConstants.ESCAPE_RADIUS_SQUARED;
+
+/**
+ * This class represents an escape-time kernel that keeps the orbit of every pixel
+ * in an {@link OrbitState}, so a render with a higher iteration limit resumes it.
+ * A pixel that escaped or was found inside the set gives its kept value at once,
+ * and a pixel that reached the old limit is iterated on from its kept z.
+ * The kernel serves both the Mandelbrot set and Julia sets in double precision,
+ * with the same results as {@link MandelbrotKernel} and {@link JuliaKernel},
+ * including the cardioid and cycle checks of the Mandelbrot set.
+ * A pixel is only written by the render that computes it, so the kernel can be
+ * called from any thread as long as each pixel is computed once per render.
+ * Goal: spend only the new iterations when the iteration limit of a view is raised.
+ */
+public final class ResumableKernel implements EscapeTimeKernel {
+
+  /**
+   * The largest checkpoint, past which the saved point of an orbit is kept.
+   * Doubling it again would overflow.
+   */
+  private static final int LAST_CHECKPOINT = 1 << 30;
+
+  /** The real part of the points in column 0. */
+  private final double re0;
+
+  /** The change in the real part from one column to the next. */
+  private final double reStep;
+
+  /** The imaginary part of the points in row 0. */
+  private final double im0;
+
+  /** The change in the imaginary part from one row to the next. */
+  private final double imStep;
+
+  /** Whether the pixels are points c of the Mandelbrot set, or starting points of a Julia set. */
+  private final boolean mandelbrot;
+
+  /** The real part of the Julia constant. */
+  private final double cx;
+
+  /** The imaginary part of the Julia constant. */
+  private final double cy;
+
+  /** The iteration limit. */
+  private final int maxIterations;
+
+  /** The state of the orbit of every pixel. */
+  private final OrbitState state;
+
+  /** The symmetry of the pixels, about the real axis or the origin. */
+  private final Symmetry symmetry;
+
+  /**
+   * Constructor for a ResumableKernel of the Mandelbrot set.
+   *
+   * @param state         the state of the orbits, prepared for the viewport.
+   * @param viewport      the region of the complex plane to compute.
+   * @param maxIterations the iteration limit.
+   */
+  public ResumableKernel(OrbitState state, Viewport viewport, int maxIterations) {
+    this(state, viewport, true, 0, 0, maxIterations);
+  }
+
+  /**
+   * Constructor for a ResumableKernel of a Julia set.
+   *
+   * @param state         the state of the orbits, prepared for the viewport.
+   * @param viewport      the region of the complex plane to compute.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   */
+  public ResumableKernel(OrbitState state, Viewport viewport, double cx, double cy,
+                         int maxIterations) {
+    this(state, viewport, false, cx, cy, maxIterations);
+  }
+
+  /**
+   * Constructor for the ResumableKernel class.
+   *
+   * @param state         the state of the orbits, prepared for the viewport.
+   * @param viewport      the region of the complex plane to compute.
+   * @param mandelbrot    true for the Mandelbrot set, false for a Julia set.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   */
+  private ResumableKernel(OrbitState state, Viewport viewport, boolean mandelbrot, double cx,
+                          double cy, int maxIterations) {
+    if (state == null) {
+      throw new IllegalArgumentException("Orbit state cannot be null");
+    }
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("Max iterations must be positive");
+    }
+    if (state.getWidth() != viewport.getWidth() || state.getHeight() != viewport.getHeight()) {
+      throw new IllegalArgumentException("Orbit state must be prepared for the viewport");
+    }
+    this.re0 = viewport.getMinRe();
+    this.reStep = viewport.getReStep();
+    this.im0 = viewport.getMaxIm();
+    this.imStep = viewport.getImStep();
+    this.mandelbrot = mandelbrot;
+    this.cx = cx;
+    this.cy = cy;
+    this.maxIterations = maxIterations;
+    this.state = state;
+    this.symmetry = mandelbrot
+        ? Symmetry.aboutRealAxis(viewport) : Symmetry.aboutOrigin(viewport);
+  }
+
+  /**
+   * Get the symmetry of the set on the pixels of the kernel.
+   *
+   * @return the symmetry about the real axis for the Mandelbrot set,
+   *         or about the origin for a Julia set.
+   */
+  @Override
+  public Symmetry getSymmetry() {
+    return symmetry;
+  }
+
+  /**
+   * Compute the value of a pixel on the canvas, resuming its orbit if it has one.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return the value of the pixel.
+   */
+  @Override
+  public float computePixel(int i, int j) {
+    int index = state.index(i, j);
+    double re = re0 + j * reStep;
+    double im = im0 + i * imStep;
+    return switch (state.getStatus(index)) {
+      case OrbitState.ESCAPED -> state.getValue(index);
+      case OrbitState.INTERIOR -> maxIterations;
+      case OrbitState.RUNNING -> mandelbrot
+          ? iterateMandelbrot(index, re, im, state.getIterations(index), state.getX(index),
+              state.getY(index), state.getSavedX(index), state.getSavedY(index))
+          : iterateJulia(index, state.getIterations(index), state.getX(index),
+              state.getY(index));
+      default -> start(index, re, im);
+    };
+  }
+
+  /**
+   * Start the orbit of a pixel that has not been iterated.
+   *
+   * @param index the index of the pixel in the state.
+   * @param re    the real part of the point of the pixel.
+   * @param im    the imaginary part of the point of the pixel.
+   * @return the value of the pixel.
+   */
+  private float start(int index, double re, double im) {
+    if (!mandelbrot) {
+      return iterateJulia(index, 0, re, im);
+    }
+    if (MandelbrotKernel.isInCardioidOrBulb(re, im)) {
+      state.setInterior(index);
+      return maxIterations;
+    }
+    return iterateMandelbrot(index, re, im, 0, 0, 0, 0, 0);
+  }
+
+  /**
+   * Iterate a Mandelbrot orbit z = z² + c on from a point of it, up to the limit.
+   * The orbit is checked for cycles against the point saved at the last checkpoint.
+   *
+   * @param index     the index of the pixel in the state.
+   * @param re        the real part of c.
+   * @param im        the imaginary part of c.
+   * @param iteration the number of iterations done.
+   * @param x         the real part of z.
+   * @param y         the imaginary part of z.
+   * @param savedX    the real part of the saved point.
+   * @param savedY    the imaginary part of the saved point.
+   * @return the value of the pixel.
+   */
+  private float iterateMandelbrot(int index, double re, double im, int iteration, double x,
+                                  double y, double savedX, double savedY) {
+    double x2 = x * x;
+    double y2 = y * y;
+    int checkpoint = MandelbrotKernel.FIRST_CHECKPOINT;
+    while (checkpoint <= iteration && checkpoint < LAST_CHECKPOINT) {
+      checkpoint *= 2;
+    }
+
+    while (x2 + y2 <= ESCAPE_RADIUS_SQUARED && iteration < maxIterations) {
+      y = 2 * x * y + im;
+      x = x2 - y2 + re;
+      x2 = x * x;
+      y2 = y * y;
+      iteration++;
+      if (Math.abs(x - savedX) + Math.abs(y - savedY) < MandelbrotKernel.PERIODICITY_TOLERANCE) {
+        state.setInterior(index);
+        return maxIterations;
+      }
+      if (iteration == checkpoint) {
+        savedX = x;
+        savedY = y;
+        checkpoint *= 2;
+      }
+    }
+    return finish(index, iteration, x, y, savedX, savedY,
+        EscapeTimeKernel.pixelValue(re, im, iteration, maxIterations));
+  }
+
+  /**
+   * Iterate a Julia orbit z = z² + c on from a point of it, up to the limit.
+   *
+   * @param index     the index of the pixel in the state.
+   * @param iteration the number of iterations done.
+   * @param x         the real part of z.
+   * @param y         the imaginary part of z.
+   * @return the value of the pixel.
+   */
+  private float iterateJulia(int index, int iteration, double x, double y) {
+    double x2 = x * x;
+    double y2 = y * y;
+
+    while (x2 + y2 < ESCAPE_RADIUS_SQUARED && iteration < maxIterations) {
+      y = 2 * x * y + cy;
+      x = x2 - y2 + cx;
+      x2 = x * x;
+      y2 = y * y;
+      iteration++;
+    }
+    return finish(index, iteration, x, y, 0, 0,
+        EscapeTimeKernel.pixelValue(x, y, iteration, maxIterations));
+  }
+
+  /**
+   * Keep the end of an orbit in the state.
+   * An orbit that stopped at the limit is kept as running, even if its last
+   * step escaped, since a higher limit would give it another value.
+   *
+   * @param index     the index of the pixel in the state.
+   * @param iteration the number of iterations done.
+   * @param x         the real part of z.
+   * @param y         the imaginary part of z.
+   * @param savedX    the real part of the saved point.
+   * @param savedY    the imaginary part of the saved point.
+   * @param value     the value of the pixel.
+   * @return the value of the pixel.
+   */
+  private float finish(int index, int iteration, double x, double y, double savedX,
+                       double savedY, float value) {
+    if (iteration == maxIterations) {
+      state.setRunning(index, iteration, x, y, savedX, savedY);
+    } else {
+      state.setEscaped(index, value);
+    }
+    return value;
+  }
+}
@@ -0,0 +1,233 @@
+package edu.ntnu.stud.chaos;
+
+/**
+ * This class represents a series approximation of the offsets from a {@link ReferenceOrbit}.
+ * While the offset δ of a pixel is small, it is close to a polynomial
+ * Aδ₀ + Bδ₀² + Cδ₀³ in its starting offset δ₀, whose coefficients are
+ * iterated once along the reference orbit for all pixels together.
+ * The offset of every pixel after the first iterations can then be
+ * evaluated directly, and only the rest are iterated by a {@link PerturbationKernel}.
+ * The terms left out of the polynomial are bounded along the way, and the
+ * series stops before their bound reaches a small part of the distance
+ * between neighbouring pixels, or before any pixel could escape.
+ * Goal: skip the early iterations every pixel of a deep zoom shares.
+ */
+public final class SeriesApproximation {
+
+  /** A series that skips no iterations. */
+  public static final SeriesApproximation NONE =
+      new SeriesApproximation(0, 1, 0, 0, 0, 0, 0, 0);
+
+  /**
+   * The largest error allowed in an offset, as a part of the difference
+   * between the offsets of neighbouring pixels.
+   * Pixels near the boundary magnify any error, so the series is held far
+   * below the pixel spacing, which costs only a few of the skipped iterations.
+   */
+  private static final double TOLERANCE = 1e-9;
+
+  /** The number of iterations the series skips. */
+  private final int skip;
+
+  /**
+   * The largest starting offset of any pixel.
+   * The coefficients are scaled by its powers, so they stay within the range
+   * of a double however deep the zoom.
+   */
+  private final double radius;
+
+  /** The real part of the linear coefficient, times the radius. */
+  private final double aRe;
+
+  /** The imaginary part of the linear coefficient, times the radius. */
+  private final double aIm;
+
+  /** The real part of the quadratic coefficient, times the radius squared. */
+  private final double bRe;
+
+  /** The imaginary part of the quadratic coefficient, times the radius squared. */
+  private final double bIm;
+
+  /** The real part of the cubic coefficient, times the radius cubed. */
+  private final double cRe;
+
+  /** The imaginary part of the cubic coefficient, times the radius cubed. */
+  private final double cIm;
+
+  /**
+   * Constructor for the SeriesApproximation class.
+   *
+   * @param skip   the number of iterations the series skips.
+   * @param radius the largest starting offset of any pixel.
+   * @param aRe    the real part of the scaled linear coefficient.
+   * @param aIm    the imaginary part of the scaled linear coefficient.
+   * @param bRe    the real part of the scaled quadratic coefficient.
+   * @param bIm    the imaginary part of the scaled quadratic coefficient.
+   * @param cRe    the real part of the scaled cubic coefficient.
+   * @param cIm    the imaginary part of the scaled cubic coefficient.
+   */
+  private SeriesApproximation(int skip, double radius, double aRe, double aIm, double bRe,
+                              double bIm, double cRe, double cIm) {
+    this.skip = skip;
+    this.radius = radius;
+    this.aRe = aRe;
+    this.aIm = aIm;
+    this.bRe = bRe;
+    this.bIm = bIm;
+    this.cRe = cRe;
+    this.cIm = cIm;
+  }
+
+  /**
+   * Compute the series for the pixels of a viewport around a reference point.
+   * The series is valid for every pixel, so its error is bounded at the pixel
+   * farthest from the reference, and kept below a small part of the pixel spacing
+   * as it grows along the orbit.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param orbit         the orbit of the reference point.
+   * @param referenceRe   the real part of the reference point relative to the
+   *                      centre of the viewport.
+   * @param referenceIm   the imaginary part of the reference point relative to the
+   *                      centre of the viewport.
+   * @param mandelbrot    true if the offsets are in c, as in the Mandelbrot set,
+   *                      false if they are in the starting point of a Julia set.
+   * @param maxIterations the iteration limit.
+   * @return the series.
+   */
+  public static SeriesApproximation compute(Viewport viewport, ReferenceOrbit orbit,
+                                            double referenceRe, double referenceIm,
+                                            boolean mandelbrot, int maxIterations) {
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (orbit == null) {
+      throw new IllegalArgumentException("Reference orbit cannot be null");
+    }
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("Max iterations must be positive");
+    }
+    double radiusRe = Math.max(Math.abs(viewport.getDeltaRe(0) - referenceRe),
+        Math.abs(viewport.getDeltaRe(viewport.getWidth() - 1) - referenceRe));
+    double radiusIm = Math.max(Math.abs(viewport.getDeltaIm(0) - referenceIm),
+        Math.abs(viewport.getDeltaIm(viewport.getHeight() - 1) - referenceIm));
+    return compute(orbit, mandelbrot, Math.hypot(radiusRe, radiusIm),
+        viewport.getPixelSpacing(), maxIterations);
+  }
+
+  /**
+   * Iterate the coefficients along the orbit for as long as the series stays accurate.
+   * With δ = 2Zδ + δ² (+ δc), the coefficients follow A = 2ZA (+ 1),
+   * B = 2ZB + A² and C = 2ZC + 2AB. The error E of the series follows
+   * E = 2|Z|E + 2|P|E + E² plus the terms of P² of degree four and higher,
+   * where |P| is the largest offset the series gives.
+   * Each coefficient is kept multiplied by the power of the radius of its term,
+   * so the terms are iterated at the size of the offsets themselves.
+   *
+   * @param orbit         the orbit of the reference point.
+   * @param mandelbrot    true if the offsets are in c.
+   * @param radius        the largest starting offset of any pixel.
+   * @param spacing       the distance between neighbouring pixels.
+   * @param maxIterations the iteration limit.
+   * @return the series.
+   */
+  private static SeriesApproximation compute(ReferenceOrbit orbit, boolean mandelbrot,
+                                             double radius, double spacing,
+                                             int maxIterations) {
+    if (!(radius > 0)) {
+      return NONE;
+    }
+    double[] re = orbit.getReArray();
+    double[] im = orbit.getImArray();
+    int last = Math.min(orbit.getLength() - 1, maxIterations);
+    double constant = mandelbrot ? radius : 0;
+    double relativeSpacing = spacing / radius;
+
+    double aRe = mandelbrot ? 0 : radius;
+    double aIm = 0;
+    double bRe = 0;
+    double bIm = 0;
+    double cRe = 0;
+    double cIm = 0;
+    double error = 0;
+    SeriesApproximation series = NONE;
+
+    for (int n = 0; n < last; n++) {
+      double zRe = 2 * re[n];
+      double zIm = 2 * im[n];
+      double a = Math.hypot(aRe, aIm);
+      double b = Math.hypot(bRe, bIm);
+      double c = Math.hypot(cRe, cIm);
+      double truncated = b * b + 2 * a * c + 2 * b * c + c * c;
+      error = Math.hypot(zRe, zIm) * error + 2 * (a + b + c) * error + error * error
+          + truncated;
+
+      double nextARe = zRe * aRe - zIm * aIm + constant;
+      double nextAIm = zRe * aIm + zIm * aRe;
+      double nextBRe = zRe * bRe - zIm * bIm + aRe * aRe - aIm * aIm;
+      double nextBIm = zRe * bIm + zIm * bRe + 2 * aRe * aIm;
+      double nextCRe = zRe * cRe - zIm * cIm + 2 * (aRe * bRe - aIm * bIm);
+      double nextCIm = zRe * cIm + zIm * cRe + 2 * (aRe * bIm + aIm * bRe);
+      aRe = nextARe;
+      aIm = nextAIm;
+      bRe = nextBRe;
+      bIm = nextBIm;
+      cRe = nextCRe;
+      cIm = nextCIm;
+
+      a = Math.hypot(aRe, aIm);
+      double largest = a + Math.hypot(bRe, bIm) + Math.hypot(cRe, cIm);
+      boolean accurate = error <= TOLERANCE * a * relativeSpacing;
+      boolean bounded = Math.hypot(re[n + 1], im[n + 1]) + largest + error
+          <= Math.sqrt(EscapeTimeConstants.ESCAPE_RADIUS_SQUARED);
+      if (!accurate || !bounded) {
+        break;
+      }
+      series = new SeriesApproximation(n + 1, radius, aRe, aIm, bRe, bIm, cRe, cIm);
+    }
+    return series;
+  }
+
+  /**
+   * Get the number of iterations the series skips.
+   *
+   * @return the number of skipped iterations, 0 if the series is not used.
+   */
+  public int getSkip() {
+    return skip;
+  }
+
+  /**
+   * Get the real part of the offset after the skipped iterations.
+   *
+   * @param re the real part of the starting offset.
+   * @param im the imaginary part of the starting offset.
+   * @return the real part of the offset.
+   */
+  public double getOffsetRe(double re, double im) {
+    double uRe = re / radius;
+    double uIm = im / radius;
+    double sRe = cRe * uRe - cIm * uIm + bRe;
+    double sIm = cRe * uIm + cIm * uRe + bIm;
+    double tRe = sRe * uRe - sIm * uIm + aRe;
+    double tIm = sRe * uIm + sIm * uRe + aIm;
+    return tRe * uRe - tIm * uIm;
+  }
+
+  /**
+   * Get the imaginary part of the offset after the skipped iterations.
+   *
+   * @param re the real part of the starting offset.
+   * @param im the imaginary part of the starting offset.
+   * @return the imaginary part of the offset.
+   */
+  public double getOffsetIm(double re, double im) {
+    double uRe = re / radius;
+    double uIm = im / radius;
+    double sRe = cRe * uRe - cIm * uIm + bRe;
+    double sIm = cRe * uIm + cIm * uRe + bIm;
+    double tRe = sRe * uRe - sIm * uIm + aRe;
+    double tIm = sRe * uIm + sIm * uRe + aIm;
+    return tRe * uIm + tIm * uRe;
+  }
+}
@@ -0,0 +1,317 @@
+package edu.ntnu.stud.chaos;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class represents a renderer for escape-time fractals that skips uniform regions.
+ * It uses Mariani–Silver subdivision: the border of a rectangle is computed first,
+ * and if every border pixel has the same value, the whole rectangle is filled with it.
+ * Otherwise the rectangle is cut into four by a computed cross, and the four parts
+ * are rendered the same way on a work-stealing {@link ForkJoinPool}.
+ * Rectangles no larger than a tile are computed pixel by pixel. Rectangles
+ * holding only copies under the {@link Symmetry} of the kernel are skipped,
+ * and the copies are taken from their mirror at the end.
+ * The fill relies on the set being connected, so a thin filament that crosses
+ * a rectangle without touching its border can be missed. The engine can
+ * compare every render with a full computation to measure this.
+ * Goal: render escape-time fractals without iterating the pixels of uniform regions.
+ */
+public class SubdivisionEngine extends EscapeTimeEngine {
+
+  /** Whether every render is compared with a full computation. */
+  private boolean verifying;
+
+  /** The number of pixels that differed from the full computation in the last render. */
+  private volatile int mismatches;
+
+  /**
+   * Constructor for a SubdivisionEngine using one thread for each available processor.
+   */
+  public SubdivisionEngine() {
+    super();
+  }
+
+  /**
+   * Constructor for the SubdivisionEngine class.
+   *
+   * @param threads  the number of threads to render with.
+   * @param tileSize the number of pixels along each side of a rectangle
+   *                 that is computed pixel by pixel.
+   */
+  public SubdivisionEngine(int threads, int tileSize) {
+    super(threads, tileSize);
+  }
+
+  /**
+   * Check if every render is compared with a full computation.
+   *
+   * @return true if renders are verified.
+   */
+  public boolean isVerifying() {
+    return verifying;
+  }
+
+  /**
+   * Set whether every render is compared with a full computation.
+   * Verifying computes every pixel, so it costs more than the full render it is compared with.
+   *
+   * @param verifying true to verify renders.
+   */
+  public void setVerifying(boolean verifying) {
+    this.verifying = verifying;
+  }
+
+  /**
+   * Get the number of pixels that differed from the full computation in the last verified render.
+   *
+   * @return the number of wrongly filled pixels.
+   */
+  public int getMismatches() {
+    return mismatches;
+  }
+
+  /**
+   * Render every pixel of the canvas with a kernel, filling uniform rectangles.
+   * The values are gathered in a buffer first, since a rectangle is only known
+   * to be uniform once its border is done, and then added to the canvas.
+   *
+   * @param canvas the canvas to render on.
+   * @param kernel the kernel computing the value of each pixel.
+   */
+  @Override
+  public void render(ChaosCanvas canvas, EscapeTimeKernel kernel) {
+    if (canvas == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+    if (kernel == null) {
+      throw new IllegalArgumentException("Kernel cannot be null");
+    }
+
+    int height = canvas.getHeight();
+    int width = canvas.getWidth();
+    float[][] values = new float[height][width];
+    computeRow(kernel, values, 0, 0, width);
+    if (height > 1) {
+      computeRow(kernel, values, height - 1, 0, width);
+    }
+    computeColumn(kernel, values, 0, 1, height - 1);
+    if (width > 1) {
+      computeColumn(kernel, values, width - 1, 1, height - 1);
+    }
+    getPool().invoke(new RectangleTask(kernel, values, 0, 0, height - 1, width - 1));
+    if (isCancelled()) {
+      return;
+    }
+    kernel.getSymmetry().copy(values);
+    if (verifying) {
+      mismatches = countMismatches(kernel, values);
+    }
+
+    CanvasStatistics statistics = new CanvasStatistics();
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        canvas.putPixel(i, j, values[i][j], statistics);
+      }
+    }
+    canvas.mergeStatistics(statistics);
+  }
+
+  /**
+   * Count the pixels of a render that differ from the kernel.
+   *
+   * @param kernel the kernel computing the value of each pixel.
+   * @param values the rendered values.
+   * @return the number of differing pixels.
+   */
+  private static int countMismatches(EscapeTimeKernel kernel, float[][] values) {
+    int count = 0;
+    float[] expected = new float[values[0].length];
+    for (int i = 0; i < values.length; i++) {
+      kernel.computeRow(i, 0, expected.length, expected);
+      for (int j = 0; j < expected.length; j++) {
+        if (expected[j] != values[i][j]) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Compute a run of pixels in a row of the buffer.
+   *
+   * @param kernel the kernel computing the value of each pixel.
+   * @param values the buffer to write the values to.
+   * @param i      the row of the pixels.
+   * @param j0     the first column of the run.
+   * @param j1     the column after the last column of the run.
+   */
+  private static void computeRow(EscapeTimeKernel kernel, float[][] values, int i,
+                                 int j0, int j1) {
+    if (j0 >= j1) {
+      return;
+    }
+    float[] run = new float[j1 - j0];
+    kernel.computeRow(i, j0, j1, run);
+    System.arraycopy(run, 0, values[i], j0, run.length);
+  }
+
+  /**
+   * Compute the pixels of a run in a row of the buffer that are not copies of their mirror.
+   *
+   * @param kernel the kernel computing the value of each pixel.
+   * @param values the buffer to write the values to.
+   * @param i      the row of the pixels.
+   * @param j0     the first column of the run.
+   * @param j1     the column after the last column of the run.
+   */
+  private static void computeMirroredRow(EscapeTimeKernel kernel, float[][] values, int i,
+                                         int j0, int j1) {
+    Symmetry symmetry = kernel.getSymmetry();
+    int start = j0;
+    while (start < j1) {
+      if (symmetry.isCopy(i, start)) {
+        start++;
+        continue;
+      }
+      int end = start + 1;
+      while (end < j1 && !symmetry.isCopy(i, end)) {
+        end++;
+      }
+      computeRow(kernel, values, i, start, end);
+      start = end;
+    }
+  }
+
+  /**
+   * Compute a run of pixels in a column of the buffer.
+   *
+   * @param kernel the kernel computing the value of each pixel.
+   * @param values the buffer to write the values to.
+   * @param j      the column of the pixels.
+   * @param i0     the first row of the run.
+   * @param i1     the row after the last row of the run.
+   */
+  private static void computeColumn(EscapeTimeKernel kernel, float[][] values, int j,
+                                    int i0, int i1) {
+    for (int i = i0; i < i1; i++) {
+      values[i][j] = kernel.computePixel(i, j);
+    }
+  }
+
+  /**
+   * A task rendering the inside of a rectangle whose border is already computed.
+   * Neighbouring rectangles share their borders, so the insides written by
+   * different tasks never overlap.
+   */
+  @SuppressWarnings("serial")
+  private final class RectangleTask extends RecursiveAction {
+
+    /** The kernel computing the value of each pixel. */
+    private final EscapeTimeKernel kernel;
+
+    /** The buffer to write the values to. */
+    private final float[][] values;
+
+    /** The row of the top border. */
+    private final int top;
+
+    /** The column of the left border. */
+    private final int left;
+
+    /** The row of the bottom border. */
+    private final int bottom;
+
+    /** The column of the right border. */
+    private final int right;
+
+    /**
+     * Constructor for the RectangleTask class.
+     *
+     * @param kernel the kernel computing the value of each pixel.
+     * @param values the buffer to write the values to.
+     * @param top    the row of the top border.
+     * @param left   the column of the left border.
+     * @param bottom the row of the bottom border.
+     * @param right  the column of the right border.
+     */
+    RectangleTask(EscapeTimeKernel kernel, float[][] values, int top, int left,
+                  int bottom, int right) {
+      this.kernel = kernel;
+      this.values = values;
+      this.top = top;
+      this.left = left;
+      this.bottom = bottom;
+      this.right = right;
+    }
+
+    /**
+     * Render the inside of the rectangle, filling it if the border is uniform
+     * and cutting it into four otherwise. Nothing is rendered once the render is cancelled.
+     */
+    @Override
+    protected void compute() {
+      if (isCancelled()) {
+        return;
+      }
+      if (bottom - top < 2 || right - left < 2
+          || kernel.getSymmetry().isCopy(top + 1, left + 1, bottom, right)) {
+        return;
+      }
+      if (isBorderUniform()) {
+        fill(values[top][left]);
+        return;
+      }
+      if (bottom - top - 1 <= getTileSize() && right - left - 1 <= getTileSize()) {
+        for (int i = top + 1; i < bottom; i++) {
+          computeMirroredRow(kernel, values, i, left + 1, right);
+        }
+        return;
+      }
+
+      int middleRow = (top + bottom) / 2;
+      int middleColumn = (left + right) / 2;
+      computeRow(kernel, values, middleRow, left + 1, right);
+      computeColumn(kernel, values, middleColumn, top + 1, middleRow);
+      computeColumn(kernel, values, middleColumn, middleRow + 1, bottom);
+      invokeAll(
+          new RectangleTask(kernel, values, top, left, middleRow, middleColumn),
+          new RectangleTask(kernel, values, top, middleColumn, middleRow, right),
+          new RectangleTask(kernel, values, middleRow, left, bottom, middleColumn),
+          new RectangleTask(kernel, values, middleRow, middleColumn, bottom, right));
+    }
+
+    /**
+     * Check if every pixel on the border of the rectangle has the same value.
+     *
+     * @return true if the border is uniform.
+     */
+    private boolean isBorderUniform() {
+      float value = values[top][left];
+      for (int j = left; j <= right; j++) {
+        if (values[top][j] != value || values[bottom][j] != value) {
+          return false;
+        }
+      }
+      for (int i = top + 1; i < bottom; i++) {
+        if (values[i][left] != value || values[i][right] != value) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Fill the inside of the rectangle with a value.
+     *
+     * @param value the value of the border.
+     */
+    private void fill(float value) {
+      for (int i = top + 1; i < bottom; i++) {
+        Arrays.fill(values[i], left + 1, right, value);
+      }
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package edu.ntnu.stud.chaos;
+
+import java.util.stream.IntStream;
+
+/**
+ * This class represents a summed-area table of a {@link ChaosCanvas}.
+ * Each entry holds the sum of every pixel above and to the left of it,
+ * so the sum of any rectangle can be read from four entries.
+ * Goal: let region sums, mean densities and box filters be read
+ * in constant time per query instead of rescanning the region.
+ */
+public class SummedAreaTable {
+
+  /** The width of the canvas the table was built from. */
+  private final int width;
+
+  /** The height of the canvas the table was built from. */
+  private final int height;
+
+  /**
+   * The table of prefix sums, with one extra leading row and column of zeros.
+   * The entry [i][j] holds the sum of the pixels in rows below i and columns below j.
+   */
+  private final double[][] table;
+
+  /**
+   * Constructor for the SummedAreaTable class.
+   * The rows are summed in parallel first, and then the columns
+   * are summed in parallel in strips of neighbouring columns.
+   *
+   * @param canvas the canvas to build the table from.
+   */
+  public SummedAreaTable(ChaosCanvas canvas) {
+    this(canvas == null ? null : canvas.getPixelBuffer());
+  }
+
+  /**
+   * Constructor for a SummedAreaTable over a pixel buffer.
+   *
+   * @param pixels the pixels to build the table from.
+   */
+  SummedAreaTable(PixelBuffer pixels) {
+    if (pixels == null) {
+      throw new IllegalArgumentException("Canvas cannot be null");
+    }
+    this.width = pixels.getWidth();
+    this.height = pixels.getHeight();
+    this.table = new double[height + 1][width + 1];
+
+    IntStream.range(0, height).parallel().forEach(i -> {
+      double[] row = table[i + 1];
+      for (int j = 0; j < width; j++) {
+        row[j + 1] = row[j] + pixels.get(i, j);
+      }
+    });
+
+    int stripWidth = 64;
+    int strips = (width + stripWidth - 1) / stripWidth;
+    IntStream.range(0, strips).parallel().forEach(strip -> {
+      int firstColumn = strip * stripWidth + 1;
+      int lastColumn = Math.min(firstColumn + stripWidth, width + 1);
+      for (int i = 1; i <= height; i++) {
+        double[] above = table[i - 1];
+        double[] row = table[i];
+        for (int j = firstColumn; j < lastColumn; j++) {
+          row[j] += above[j];
+        }
+      }
+    });
+  }
+
+  /**
+   * Get the width of the canvas the table was built from.
+   *
+   * @return the width of the canvas.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Get the height of the canvas the table was built from.
+   *
+   * @return the height of the canvas.
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Get the sum of the pixels in a rectangle of the canvas.
+   *
+   * @param row0 the first row of the rectangle.
+   * @param col0 the first column of the rectangle.
+   * @param row1 the row after the last row of the rectangle.
+   * @param col1 the column after the last column of the rectangle.
+   * @return the sum of the pixels in the rectangle.
+   * @throws IllegalArgumentException if the rectangle is outside the canvas.
+   */
+  public double getSum(int row0, int col0, int row1, int col1) {
+    if (row0 < 0 || col0 < 0 || row1 > height || col1 > width || row0 > row1 || col0 > col1) {
+      throw new IllegalArgumentException("Rectangle is outside the canvas");
+    }
+    return table[row1][col1] - table[row0][col1] - table[row1][col0] + table[row0][col0];
+  }
+
+  /**
+   * Get the mean density of the pixels in a rectangle of the canvas.
+   *
+   * @param row0 the first row of the rectangle.
+   * @param col0 the first column of the rectangle.
+   * @param row1 the row after the last row of the rectangle.
+   * @param col1 the column after the last column of the rectangle.
+   * @return the mean pixel value in the rectangle, or 0 if it is empty.
+   * @throws IllegalArgumentException if the rectangle is outside the canvas.
+   */
+  public double getMean(int row0, int col0, int row1, int col1) {
+    double sum = getSum(row0, col0, row1, col1);
+    long area = (long) (row1 - row0) * (col1 - col0);
+    return area == 0 ? 0 : sum / area;
+  }
+
+  /**
+   * Get the mean density of the square box centered on a pixel.
+   * The box is clipped to the canvas, so pixels near the edge
+   * are averaged over the part of the box inside the canvas.
+   *
+   * @param i      the row of the center pixel.
+   * @param j      the column of the center pixel.
+   * @param radius the number of pixels from the center to the edge of the box.
+   * @return the mean pixel value in the box.
+   */
+  public double getBoxMean(int i, int j, int radius) {
+    return getMean(Math.max(0, i - radius), Math.max(0, j - radius),
+        Math.min(height, i + radius + 1), Math.min(width, j + radius + 1));
+  }
+
+  /**
+   * Box filter the canvas down to a smaller size.
+   * Each output cell holds the mean density of the block of pixels it covers,
+   * so the cost depends only on the size of the output.
+   *
+   * @param targetWidth  the number of columns in the output.
+   * @param targetHeight the number of rows in the output.
+   * @return the mean densities, indexed as [row][column].
+   * @throws IllegalArgumentException if the target size is not between 1 and the canvas size.
+   */
+  public double[][] downsample(int targetWidth, int targetHeight) {
+    if (targetWidth <= 0 || targetHeight <= 0 || targetWidth > width || targetHeight > height) {
+      throw new IllegalArgumentException("Target size must be between 1 and the canvas size");
+    }
+    double[][] result = new double[targetHeight][targetWidth];
+    IntStream.range(0, targetHeight).parallel().forEach(i -> {
+      int row0 = (int) ((long) i * height / targetHeight);
+      int row1 = (int) ((long) (i + 1) * height / targetHeight);
+      for (int j = 0; j < targetWidth; j++) {
+        int col0 = (int) ((long) j * width / targetWidth);
+        int col1 = (int) ((long) (j + 1) * width / targetWidth);
+        result[i][j] = getMean(row0, col0, row1, col1);
+      }
+    });
+    return result;
+  }
+}
@@ -0,0 +1,230 @@
+package edu.ntnu.stud.chaos;
+
+/**
+ * This class represents a symmetry of an escape-time fractal on the pixels of a viewport.
+ * The Mandelbrot set is symmetric about the real axis, since the orbit of the
+ * conjugate of c is the conjugate of the orbit of c, and a Julia set is symmetric
+ * under a half turn about the origin, since -z and z have the same square.
+ * If the axis or the origin falls on the pixel grid, the pixels mirrored inside
+ * the viewport have the same value as the pixels they mirror, and only one of
+ * each pair needs to be computed. The later pixel of each pair is the copy.
+ * Goal: let an {@link EscapeTimeEngine} copy the mirrored half of a view instead of iterating it.
+ */
+public final class Symmetry {
+
+  /** A symmetry that copies no pixels. */
+  public static final Symmetry NONE = new Symmetry(1, 0, 0, 0, -1, -1, false);
+
+  /**
+   * The largest distance, as a part of a pixel, between the axis of a symmetry
+   * and the grid for the pixels to be mirrored onto each other.
+   */
+  private static final double TOLERANCE = 1e-6;
+
+  /** The first row holding copies. */
+  private final int firstRow;
+
+  /** The last row holding copies. */
+  private final int lastRow;
+
+  /** The first column holding copies in the rows of copies. */
+  private final int firstColumn;
+
+  /** The last column holding copies in the rows of copies. */
+  private final int lastColumn;
+
+  /** The sum of the row of a pixel and the row of its mirror. */
+  private final int rowSum;
+
+  /** The sum of the column of a pixel and the column of its mirror, if columns are mirrored. */
+  private final int columnSum;
+
+  /** Whether the columns are mirrored too, as in a half turn. */
+  private final boolean halfTurn;
+
+  /**
+   * Constructor for the Symmetry class.
+   *
+   * @param firstRow    the first row holding copies.
+   * @param lastRow     the last row holding copies.
+   * @param firstColumn the first column holding copies.
+   * @param lastColumn  the last column holding copies.
+   * @param rowSum      the sum of the rows of a pixel and its mirror.
+   * @param columnSum   the sum of the columns of a pixel and its mirror.
+   * @param halfTurn    true if the columns are mirrored too.
+   */
+  private Symmetry(int firstRow, int lastRow, int firstColumn, int lastColumn, int rowSum,
+                   int columnSum, boolean halfTurn) {
+    this.firstRow = firstRow;
+    this.lastRow = lastRow;
+    this.firstColumn = firstColumn;
+    this.lastColumn = lastColumn;
+    this.rowSum = rowSum;
+    this.columnSum = columnSum;
+    this.halfTurn = halfTurn;
+  }
+
+  /**
+   * Get the symmetry about the real axis, as in the Mandelbrot set.
+   * A row is mirrored onto the row with the opposite imaginary part.
+   *
+   * @param viewport the region of the complex plane to compute.
+   * @return the symmetry, or {@link #NONE} if the real axis is not on the grid of rows.
+   */
+  public static Symmetry aboutRealAxis(Viewport viewport) {
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    int rowSum = getAxisSum(viewport.getCenterIm().doubleValue(), viewport.getSpanIm(),
+        viewport.getHeight());
+    return create(rowSum, viewport.getHeight(), 0, viewport.getWidth(), false);
+  }
+
+  /**
+   * Get the symmetry under a half turn about the origin, as in a Julia set.
+   * A pixel is mirrored onto the pixel with the opposite real and imaginary part.
+   *
+   * @param viewport the region of the complex plane to compute.
+   * @return the symmetry, or {@link #NONE} if the origin is not on the grid of pixels.
+   */
+  public static Symmetry aboutOrigin(Viewport viewport) {
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    int rowSum = getAxisSum(viewport.getCenterIm().doubleValue(), viewport.getSpanIm(),
+        viewport.getHeight());
+    int columnSum = getAxisSum(-viewport.getCenterRe().doubleValue(), viewport.getSpanRe(),
+        viewport.getWidth());
+    if (columnSum < 0) {
+      return NONE;
+    }
+    return create(rowSum, viewport.getHeight(), columnSum, viewport.getWidth(), true);
+  }
+
+  /**
+   * Get the sum of the indexes of two pixels mirrored about 0 along one side of a viewport.
+   * The pixels run from centre + span / 2 at index 0 to centre - span / 2 at the last index,
+   * so the sum is twice the index where the coordinate is 0.
+   *
+   * @param center the coordinate of the centre of the side.
+   * @param span   the length of the side.
+   * @param length the number of pixels along the side.
+   * @return the sum of the indexes, or -1 if 0 is not on or halfway between pixels.
+   */
+  private static int getAxisSum(double center, double span, int length) {
+    if (length < 2) {
+      return -1;
+    }
+    double sum = (length - 1) * (1 + 2 * center / span);
+    double rounded = Math.rint(sum);
+    if (!(Math.abs(sum - rounded) <= TOLERANCE) || rounded < 1 || rounded > 2 * length - 3) {
+      return -1;
+    }
+    return (int) rounded;
+  }
+
+  /**
+   * Create a symmetry from the sums of mirrored rows and columns.
+   * The copies are the rows after the axis whose mirror is inside the viewport,
+   * and, in a half turn, the columns whose mirror is inside the viewport.
+   *
+   * @param rowSum    the sum of the rows of a pixel and its mirror, or -1.
+   * @param height    the number of rows.
+   * @param columnSum the sum of the columns of a pixel and its mirror.
+   * @param width     the number of columns.
+   * @param halfTurn  true if the columns are mirrored too.
+   * @return the symmetry.
+   */
+  private static Symmetry create(int rowSum, int height, int columnSum, int width,
+                                 boolean halfTurn) {
+    if (rowSum < 0) {
+      return NONE;
+    }
+    int firstColumn = halfTurn ? Math.max(0, columnSum - (width - 1)) : 0;
+    int lastColumn = halfTurn ? Math.min(width - 1, columnSum) : width - 1;
+    return new Symmetry(rowSum / 2 + 1, Math.min(height - 1, rowSum), firstColumn, lastColumn,
+        rowSum, columnSum, halfTurn);
+  }
+
+  /**
+   * Check if the symmetry copies any pixels.
+   *
+   * @return true if some pixels are copies.
+   */
+  public boolean hasCopies() {
+    return firstRow <= lastRow;
+  }
+
+  /**
+   * Check if a pixel is a copy of its mirror.
+   * In a half turn, the row on the real axis is mirrored onto itself,
+   * and the pixels after the origin in that row are copies too.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return true if the pixel is a copy.
+   */
+  public boolean isCopy(int i, int j) {
+    if (halfTurn && 2 * i == rowSum) {
+      return 2 * j > columnSum && j <= lastColumn;
+    }
+    return i >= firstRow && i <= lastRow && j >= firstColumn && j <= lastColumn;
+  }
+
+  /**
+   * Check if every pixel of a rectangle is a copy of its mirror.
+   *
+   * @param row0 the first row of the rectangle.
+   * @param col0 the first column of the rectangle.
+   * @param row1 the row after the last row of the rectangle.
+   * @param col1 the column after the last column of the rectangle.
+   * @return true if every pixel of the rectangle is a copy.
+   */
+  public boolean isCopy(int row0, int col0, int row1, int col1) {
+    return row0 >= firstRow && row1 - 1 <= lastRow
+        && col0 >= firstColumn && col1 - 1 <= lastColumn;
+  }
+
+  /**
+   * Get the row of the mirror of a pixel.
+   *
+   * @param i the row of the pixel.
+   * @return the row of its mirror.
+   */
+  public int getMirrorRow(int i) {
+    return rowSum - i;
+  }
+
+  /**
+   * Get the column of the mirror of a pixel.
+   *
+   * @param j the column of the pixel.
+   * @return the column of its mirror.
+   */
+  public int getMirrorColumn(int j) {
+    return halfTurn ? columnSum - j : j;
+  }
+
+  /**
+   * Copy the value of every mirrored pixel of a buffer to its copy.
+   *
+   * @param values the buffer of values, with every pixel that is not a copy computed.
+   */
+  public void copy(float[][] values) {
+    if (values == null) {
+      throw new IllegalArgumentException("Values cannot be null");
+    }
+    for (int i = firstRow; i <= lastRow; i++) {
+      float[] mirror = values[getMirrorRow(i)];
+      for (int j = firstColumn; j <= lastColumn; j++) {
+        values[i][j] = mirror[getMirrorColumn(j)];
+      }
+    }
+    if (halfTurn && rowSum % 2 == 0) {
+      float[] row = values[rowSum / 2];
+      for (int j = columnSum / 2 + 1; j <= lastColumn; j++) {
+        row[j] = row[getMirrorColumn(j)];
+      }
+    }
+  }
+}
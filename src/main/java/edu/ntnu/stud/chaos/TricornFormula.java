@@ -0,0 +1,68 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+
+/**
+ * This class represents the formula of the Tricorn, or Mandelbar set.
+ * z is iterated as z = conj(z)² + c from 0. The orbit of the conjugate of c
+ * is the conjugate of the orbit of c, so the set is symmetric about the real axis.
+ * Goal: compute the points of the Tricorn.
+ */
+public final class TricornFormula implements EscapeTimeFormula {
+
+  /**
+   * Compute the smooth iteration count of a point c.
+   *
+   * @param re            the real part of the point.
+   * @param im            the imaginary part of the point.
+   * @param maxIterations the iteration limit.
+   * @return the value of the point.
+   */
+  @Override
+  public float computeValue(double re, double im, int maxIterations) {
+    double x = 0;
+    double y = 0;
+    double x2 = 0;
+    double y2 = 0;
+    int iteration = 0;
+    while (x2 + y2 <= EscapeTimeConstants.ESCAPE_RADIUS_SQUARED && iteration < maxIterations) {
+      y = -2 * x * y + im;
+      x = x2 - y2 + re;
+      x2 = x * x;
+      y2 = y * y;
+      iteration++;
+    }
+    return EscapeTimeKernel.pixelValue(x, y, iteration, maxIterations);
+  }
+
+  /**
+   * Get the smallest coordinates of the region showing the whole Tricorn.
+   *
+   * @return the minimum coordinates.
+   */
+  @Override
+  public Vector2D getMinCoords() {
+    return new Vector2D(-2.0, -1.6);
+  }
+
+  /**
+   * Get the largest coordinates of the region showing the whole Tricorn.
+   *
+   * @return the maximum coordinates.
+   */
+  @Override
+  public Vector2D getMaxCoords() {
+    return new Vector2D(1.2, 1.6);
+  }
+
+  /**
+   * Get the symmetry of the Tricorn on the pixels of a viewport.
+   *
+   * @param viewport the region of the complex plane to compute.
+   * @return the symmetry about the real axis.
+   */
+  @Override
+  public Symmetry getSymmetry(Viewport viewport) {
+    return Symmetry.aboutRealAxis(viewport);
+  }
+}
@@ -0,0 +1,401 @@
+package edu.ntnu.stud.chaos;
+
+import static edu.ntnu.stud.chaos.EscapeTimeConstants.ESCAPE_RADIUS_SQUARED;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This class represents an escape-time kernel iterating a segment of a row
+ * in the lanes of a SIMD vector.
+ * Every lane holds one pixel, a mask keeps track of the lanes still iterating,
+ * and a counter per lane counts their iterations, so the segment is done
+ * when every lane has escaped or reached the iteration limit.
+ * The kernel serves both the Mandelbrot set and Julia sets in double precision,
+ * with the same results as {@link MandelbrotKernel} and {@link JuliaKernel}.
+ * Given an {@link OrbitState}, the kernel keeps the end of the orbit of every lane,
+ * and leaves runs holding pixels of an earlier render to a {@link ResumableKernel}.
+ * It uses the incubating Vector API, so it must only be created when
+ * {@link VectorSupport#isAvailable()} is true.
+ * Goal: compute as many pixels per instruction as the processor allows.
+ */
+public final class VectorKernel implements EscapeTimeKernel {
+
+  /** The widest vector of doubles the processor supports. */
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+  /** The index of every lane, for the columns of a segment. */
+  private static final double[] LANE_INDEXES = new double[SPECIES.length()];
+
+  static {
+    for (int lane = 0; lane < LANE_INDEXES.length; lane++) {
+      LANE_INDEXES[lane] = lane;
+    }
+  }
+
+  /** The real part of the points in column 0. */
+  private final double re0;
+
+  /** The change in the real part from one column to the next. */
+  private final double reStep;
+
+  /** The imaginary part of the points in row 0. */
+  private final double im0;
+
+  /** The change in the imaginary part from one row to the next. */
+  private final double imStep;
+
+  /** Whether the pixels are points c of the Mandelbrot set, or starting points of a Julia set. */
+  private final boolean mandelbrot;
+
+  /** The real part of the Julia constant. */
+  private final double cx;
+
+  /** The imaginary part of the Julia constant. */
+  private final double cy;
+
+  /** The iteration limit. */
+  private final int maxIterations;
+
+  /** The kernel computing single pixels. */
+  private final EscapeTimeKernel scalarKernel;
+
+  /** The state of the orbits, or null if they are not kept. */
+  private final OrbitState state;
+
+  /** The symmetry of the pixels, about the real axis or the origin. */
+  private final Symmetry symmetry;
+
+  /**
+   * Constructor for a VectorKernel of the Mandelbrot set.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param maxIterations the iteration limit.
+   */
+  public VectorKernel(Viewport viewport, int maxIterations) {
+    this(null, viewport, true, 0, 0, maxIterations);
+  }
+
+  /**
+   * Constructor for a VectorKernel of the Mandelbrot set keeping the orbits of the pixels.
+   *
+   * @param state         the state of the orbits, prepared for the viewport.
+   * @param viewport      the region of the complex plane to compute.
+   * @param maxIterations the iteration limit.
+   */
+  public VectorKernel(OrbitState state, Viewport viewport, int maxIterations) {
+    this(requireState(state), viewport, true, 0, 0, maxIterations);
+  }
+
+  /**
+   * Constructor for a VectorKernel of a Julia set.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   */
+  public VectorKernel(Viewport viewport, double cx, double cy, int maxIterations) {
+    this(null, viewport, false, cx, cy, maxIterations);
+  }
+
+  /**
+   * Constructor for a VectorKernel of a Julia set keeping the orbits of the pixels.
+   *
+   * @param state         the state of the orbits, prepared for the viewport.
+   * @param viewport      the region of the complex plane to compute.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   */
+  public VectorKernel(OrbitState state, Viewport viewport, double cx, double cy,
+                      int maxIterations) {
+    this(requireState(state), viewport, false, cx, cy, maxIterations);
+  }
+
+  /**
+   * Constructor for the VectorKernel class.
+   *
+   * @param state         the state of the orbits, or null.
+   * @param viewport      the region of the complex plane to compute.
+   * @param mandelbrot    true for the Mandelbrot set, false for a Julia set.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   */
+  private VectorKernel(OrbitState state, Viewport viewport, boolean mandelbrot, double cx,
+                       double cy, int maxIterations) {
+    if (viewport == null) {
+      throw new IllegalArgumentException("Viewport cannot be null");
+    }
+    if (maxIterations <= 0) {
+      throw new IllegalArgumentException("Max iterations must be positive");
+    }
+    this.re0 = viewport.getMinRe();
+    this.reStep = viewport.getReStep();
+    this.im0 = viewport.getMaxIm();
+    this.imStep = viewport.getImStep();
+    this.mandelbrot = mandelbrot;
+    this.cx = cx;
+    this.cy = cy;
+    this.maxIterations = maxIterations;
+    this.state = state;
+    if (state != null) {
+      this.scalarKernel = mandelbrot
+          ? new ResumableKernel(state, viewport, maxIterations)
+          : new ResumableKernel(state, viewport, cx, cy, maxIterations);
+    } else {
+      this.scalarKernel = mandelbrot
+          ? new MandelbrotKernel(viewport, maxIterations)
+          : new JuliaKernel(viewport, cx, cy, maxIterations);
+    }
+    this.symmetry = scalarKernel.getSymmetry();
+  }
+
+  /**
+   * Check that an orbit state is given.
+   *
+   * @param state the state of the orbits.
+   * @return the state.
+   */
+  private static OrbitState requireState(OrbitState state) {
+    if (state == null) {
+      throw new IllegalArgumentException("Orbit state cannot be null");
+    }
+    return state;
+  }
+
+  /**
+   * Get the number of pixels iterated together.
+   *
+   * @return the number of lanes of a vector.
+   */
+  public static int getLaneCount() {
+    return SPECIES.length();
+  }
+
+  /**
+   * Get the symmetry of the set on the pixels of the kernel.
+   *
+   * @return the symmetry about the real axis for the Mandelbrot set,
+   *         or about the origin for a Julia set.
+   */
+  @Override
+  public Symmetry getSymmetry() {
+    return symmetry;
+  }
+
+  /**
+   * Compute the value of a pixel on the canvas.
+   * A single pixel gains nothing from the vector, so it is computed in scalar code.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return the value of the pixel.
+   */
+  @Override
+  public float computePixel(int i, int j) {
+    return scalarKernel.computePixel(i, j);
+  }
+
+  /**
+   * Compute the values of a run of pixels in a row, one vector of pixels at a time.
+   * The lanes past the end of the run are masked off in the last segment.
+   * Pixels holding orbits of an earlier render are resumed one pixel at a time,
+   * and the runs of pixels between them, such as the strips a pan moved into view,
+   * are still iterated in vectors.
+   *
+   * @param i      the row of the pixels.
+   * @param j0     the first column of the run.
+   * @param j1     the column after the last column of the run.
+   * @param values the array to write the values to, starting at index 0.
+   */
+  @Override
+  public void computeRow(int i, int j0, int j1, float[] values) {
+    if (state == null) {
+      computeVectors(i, j0, j1, values, 0);
+      return;
+    }
+    int j = j0;
+    while (j < j1) {
+      boolean started = isStarted(i, j);
+      int end = j + 1;
+      while (end < j1 && isStarted(i, end) == started) {
+        end++;
+      }
+      if (started) {
+        for (int k = j; k < end; k++) {
+          values[k - j0] = scalarKernel.computePixel(i, k);
+        }
+      } else {
+        computeVectors(i, j, end, values, j - j0);
+      }
+      j = end;
+    }
+  }
+
+  /**
+   * Iterate a run of pixels in a row from the start, one vector of pixels at a time,
+   * and keep the orbit of every pixel in the state if the kernel has one.
+   *
+   * @param i      the row of the pixels.
+   * @param j0     the first column of the run.
+   * @param j1     the column after the last column of the run.
+   * @param values the array to write the values to.
+   * @param offset the index of the value of the first pixel of the run.
+   */
+  private void computeVectors(int i, int j0, int j1, float[] values, int offset) {
+    double im = im0 + i * imStep;
+    double[] counts = new double[SPECIES.length()];
+    double[] xs = new double[SPECIES.length()];
+    double[] ys = new double[SPECIES.length()];
+    double[] savedXs = new double[SPECIES.length()];
+    double[] savedYs = new double[SPECIES.length()];
+    boolean[] interior = new boolean[SPECIES.length()];
+    double[] res = new double[SPECIES.length()];
+
+    for (int j = j0; j < j1; j += SPECIES.length()) {
+      VectorMask<Double> inRun = SPECIES.indexInRange(j, j1);
+      DoubleVector re = DoubleVector.fromArray(SPECIES, LANE_INDEXES, 0).add(j)
+          .mul(reStep).add(re0);
+      re.intoArray(res, 0);
+      if (mandelbrot) {
+        iterateMandelbrot(re, im, inRun, counts, xs, ys, savedXs, savedYs, interior);
+      } else {
+        iterateJulia(re, im, inRun, counts, xs, ys);
+      }
+
+      for (int lane = 0; lane < SPECIES.length() && j + lane < j1; lane++) {
+        int iteration = (int) counts[lane];
+        float value = mandelbrot
+            ? EscapeTimeKernel.pixelValue(res[lane], im, iteration, maxIterations)
+            : EscapeTimeKernel.pixelValue(xs[lane], ys[lane], iteration, maxIterations);
+        values[offset + j - j0 + lane] = value;
+        if (state == null) {
+          continue;
+        }
+        int index = state.index(i, j + lane);
+        if (interior[lane]) {
+          state.setInterior(index);
+        } else if (iteration == maxIterations) {
+          state.setRunning(index, iteration, xs[lane], ys[lane], savedXs[lane], savedYs[lane]);
+        } else {
+          state.setEscaped(index, value);
+        }
+      }
+    }
+  }
+
+  /**
+   * Check if a pixel was iterated by an earlier render.
+   *
+   * @param i the row of the pixel.
+   * @param j the column of the pixel.
+   * @return true if the pixel has a kept orbit or value.
+   */
+  private boolean isStarted(int i, int j) {
+    return state.getStatus(state.index(i, j)) != OrbitState.NOT_STARTED;
+  }
+
+  /**
+   * Iterate a segment of Mandelbrot points z = z² + c from z = 0.
+   * Lanes in the main cardioid or the period-2 bulb start out finished,
+   * and lanes whose orbit returns to its saved point are finished at the limit,
+   * as in {@link MandelbrotKernel}.
+   *
+   * @param re       the real parts of the points.
+   * @param im       the imaginary part of the points.
+   * @param inRun    the lanes holding pixels of the run.
+   * @param counts   the array to write the iteration counts to.
+   * @param xs       the array to write the real parts of the last z to.
+   * @param ys       the array to write the imaginary parts of the last z to.
+   * @param savedXs  the array to write the real parts of the saved points to.
+   * @param savedYs  the array to write the imaginary parts of the saved points to.
+   * @param interior the array to write which lanes were found inside the set to.
+   */
+  private void iterateMandelbrot(DoubleVector re, double im, VectorMask<Double> inRun,
+                                 double[] counts, double[] xs, double[] ys, double[] savedXs,
+                                 double[] savedYs, boolean[] interior) {
+    for (int lane = 0; lane < interior.length; lane++) {
+      interior[lane] = MandelbrotKernel.isInCardioidOrBulb(re.lane(lane), im);
+    }
+    VectorMask<Double> inside = VectorMask.fromArray(SPECIES, interior, 0);
+    VectorMask<Double> active = inRun.andNot(inside);
+    DoubleVector count = DoubleVector.zero(SPECIES).blend(maxIterations, inside);
+
+    DoubleVector x = DoubleVector.zero(SPECIES);
+    DoubleVector y = DoubleVector.zero(SPECIES);
+    DoubleVector xx = DoubleVector.zero(SPECIES);
+    DoubleVector yy = DoubleVector.zero(SPECIES);
+    DoubleVector savedX = DoubleVector.zero(SPECIES);
+    DoubleVector savedY = DoubleVector.zero(SPECIES);
+    int checkpoint = MandelbrotKernel.FIRST_CHECKPOINT;
+
+    for (int iteration = 0; iteration < maxIterations; iteration++) {
+      active = active.and(xx.add(yy).compare(VectorOperators.LE, ESCAPE_RADIUS_SQUARED));
+      if (!active.anyTrue()) {
+        break;
+      }
+      y = x.mul(y).mul(2).add(im);
+      x = xx.sub(yy).add(re);
+      xx = x.mul(x);
+      yy = y.mul(y);
+      count = count.add(1, active);
+
+      VectorMask<Double> periodic = x.sub(savedX).abs().add(y.sub(savedY).abs())
+          .compare(VectorOperators.LT, MandelbrotKernel.PERIODICITY_TOLERANCE).and(active);
+      if (periodic.anyTrue()) {
+        count = count.blend(maxIterations, periodic);
+        active = active.andNot(periodic);
+        inside = inside.or(periodic);
+      }
+      if (iteration + 1 == checkpoint) {
+        savedX = x;
+        savedY = y;
+        checkpoint *= 2;
+      }
+    }
+    count.intoArray(counts, 0);
+    x.intoArray(xs, 0);
+    y.intoArray(ys, 0);
+    savedX.intoArray(savedXs, 0);
+    savedY.intoArray(savedYs, 0);
+    inside.intoArray(interior, 0);
+  }
+
+  /**
+   * Iterate a segment of Julia starting points z = z² + c.
+   * The last z of each lane is kept as the lane escapes, for the value of its pixel.
+   *
+   * @param re     the real parts of the starting points.
+   * @param im     the imaginary part of the starting points.
+   * @param inRun  the lanes holding pixels of the run.
+   * @param counts the array to write the iteration counts to.
+   * @param xs     the array to write the real parts of the last z to.
+   * @param ys     the array to write the imaginary parts of the last z to.
+   */
+  private void iterateJulia(DoubleVector re, double im, VectorMask<Double> inRun,
+                            double[] counts, double[] xs, double[] ys) {
+    DoubleVector count = DoubleVector.zero(SPECIES);
+    VectorMask<Double> active = inRun;
+    DoubleVector x = re;
+    DoubleVector y = DoubleVector.broadcast(SPECIES, im);
+
+    for (int iteration = 0; iteration < maxIterations; iteration++) {
+      DoubleVector xx = x.mul(x);
+      DoubleVector yy = y.mul(y);
+      active = active.and(xx.add(yy).compare(VectorOperators.LT, ESCAPE_RADIUS_SQUARED));
+      if (!active.anyTrue()) {
+        break;
+      }
+      y = x.mul(y).mul(2).add(cy).blend(y, active.not());
+      x = xx.sub(yy).add(cx).blend(x, active.not());
+      count = count.add(1, active);
+    }
+    count.intoArray(counts, 0);
+    x.intoArray(xs, 0);
+    y.intoArray(ys, 0);
+  }
+}
@@ -0,0 +1,116 @@
+package edu.ntnu.stud.chaos;
+
+/**
+ * This class represents the choice between the SIMD kernel and the scalar kernels.
+ * The Vector API is an incubating module, which is only there if the JVM was
+ * started with {@code --add-modules jdk.incubator.vector}, so it is looked up
+ * at runtime, and the scalar kernels are used when it is missing.
+ * This class does not touch the Vector API itself, so it can always be loaded.
+ * Goal: use the SIMD kernel wherever it can run.
+ */
+public final class VectorSupport {
+
+  /** The name of the module of the Vector API. */
+  private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+  /** Whether the SIMD kernel can be used. */
+  private static final boolean AVAILABLE = detect();
+
+  /**
+   * Private constructor, as this class only has static members.
+   */
+  private VectorSupport() {
+  }
+
+  /**
+   * Check if the Vector API is present and its vectors hold more than one double.
+   *
+   * @return true if the SIMD kernel can be used.
+   */
+  private static boolean detect() {
+    if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+      return false;
+    }
+    try {
+      return VectorKernel.getLaneCount() > 1;
+    } catch (LinkageError e) {
+      return false;
+    }
+  }
+
+  /**
+   * Check if the SIMD kernel can be used.
+   *
+   * @return true if the Vector API is available.
+   */
+  public static boolean isAvailable() {
+    return AVAILABLE;
+  }
+
+  /**
+   * Create a kernel of the Mandelbrot set, iterating in SIMD lanes if possible.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param maxIterations the iteration limit.
+   * @return the kernel.
+   */
+  public static EscapeTimeKernel mandelbrotKernel(Viewport viewport, int maxIterations) {
+    if (AVAILABLE) {
+      return new VectorKernel(viewport, maxIterations);
+    }
+    return new MandelbrotKernel(viewport, maxIterations);
+  }
+
+  /**
+   * Create a kernel of the Mandelbrot set that keeps the orbits of the pixels,
+   * iterating in SIMD lanes if possible. The orbits are kept in double precision.
+   *
+   * @param state         the state of the orbits, prepared for the viewport.
+   * @param viewport      the region of the complex plane to compute.
+   * @param maxIterations the iteration limit.
+   * @return the kernel.
+   */
+  public static EscapeTimeKernel mandelbrotKernel(OrbitState state, Viewport viewport,
+                                                  int maxIterations) {
+    if (AVAILABLE) {
+      return new VectorKernel(state, viewport, maxIterations);
+    }
+    return new ResumableKernel(state, viewport, maxIterations);
+  }
+
+  /**
+   * Create a kernel of a Julia set, iterating in SIMD lanes if possible.
+   *
+   * @param viewport      the region of the complex plane to compute.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   * @return the kernel.
+   */
+  public static EscapeTimeKernel juliaKernel(Viewport viewport, double cx, double cy,
+                                             int maxIterations) {
+    if (AVAILABLE) {
+      return new VectorKernel(viewport, cx, cy, maxIterations);
+    }
+    return new JuliaKernel(viewport, cx, cy, maxIterations);
+  }
+
+  /**
+   * Create a kernel of a Julia set that keeps the orbits of the pixels,
+   * iterating in SIMD lanes if possible. The orbits are kept in double precision.
+   *
+   * @param state         the state of the orbits, prepared for the viewport.
+   * @param viewport      the region of the complex plane to compute.
+   * @param cx            the real part of the Julia constant.
+   * @param cy            the imaginary part of the Julia constant.
+   * @param maxIterations the iteration limit.
+   * @return the kernel.
+   */
+  public static EscapeTimeKernel juliaKernel(OrbitState state, Viewport viewport, double cx,
+                                             double cy, int maxIterations) {
+    if (AVAILABLE) {
+      return new VectorKernel(state, viewport, cx, cy, maxIterations);
+    }
+    return new ResumableKernel(state, viewport, cx, cy, maxIterations);
+  }
+}
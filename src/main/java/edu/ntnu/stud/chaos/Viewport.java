@@ -0,0 +1,325 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import java.math.BigDecimal;
+
+/**
+ * This class represents the region of the complex plane shown on a canvas.
+ * Columns run from the minimum to the maximum real part, and rows run from
+ * the maximum imaginary part at the top to the minimum at the bottom,
+ * the same way {@link ChaosCanvas} places the points of a chaos game.
+ * The centre of the region is kept exactly, so a viewport can be narrower
+ * than the spacing of doubles around it, as in a deep zoom.
+ * Goal: map the pixels of an escape-time fractal to points in the complex plane.
+ */
+public class Viewport {
+
+  /**
+   * The number of double ulps two neighbouring pixels must be apart.
+   * Closer pixels round to the same few points, and the image breaks up into blocks.
+   */
+  private static final double RESOLVABLE_ULPS = 8;
+
+  /** The extra iterations allowed for every doubling of the zoom. */
+  private static final int ITERATIONS_PER_OCTAVE = 250;
+
+  /**
+   * The zoom below which the base iteration limit is kept.
+   * Views this wide still show the coarse structure of the whole set.
+   */
+  private static final double UNSCALED_ZOOM = 4;
+
+  /** The exact real part of the centre of the region. */
+  private final BigDecimal centerRe;
+
+  /** The exact imaginary part of the centre of the region. */
+  private final BigDecimal centerIm;
+
+  /** The width of the region along the real axis. */
+  private final double spanRe;
+
+  /** The height of the region along the imaginary axis. */
+  private final double spanIm;
+
+  /** The smallest real part shown. */
+  private final double minRe;
+
+  /** The largest real part shown. */
+  private final double maxRe;
+
+  /** The smallest imaginary part shown. */
+  private final double minIm;
+
+  /** The largest imaginary part shown. */
+  private final double maxIm;
+
+  /** The number of columns of pixels. */
+  private final int width;
+
+  /** The number of rows of pixels. */
+  private final int height;
+
+  /**
+   * Constructor for the Viewport class.
+   *
+   * @param minCoords the smallest real and imaginary parts shown.
+   * @param maxCoords the largest real and imaginary parts shown.
+   * @param width     the number of columns of pixels.
+   * @param height    the number of rows of pixels.
+   * @throws IllegalArgumentException if the region or the size is invalid.
+   */
+  public Viewport(Vector2D minCoords, Vector2D maxCoords, int width, int height) {
+    if (minCoords == null || maxCoords == null) {
+      throw new IllegalArgumentException("Coordinates cannot be null");
+    }
+    if (minCoords.getX0() >= maxCoords.getX0() || minCoords.getX1() >= maxCoords.getX1()) {
+      throw new IllegalArgumentException(
+          "The minimum coordinate must be less than the maximum coordinate");
+    }
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Width and height must be positive");
+    }
+    this.minRe = minCoords.getX0();
+    this.maxRe = maxCoords.getX0();
+    this.minIm = minCoords.getX1();
+    this.maxIm = maxCoords.getX1();
+    this.spanRe = maxRe - minRe;
+    this.spanIm = maxIm - minIm;
+    this.centerRe = midpoint(minRe, maxRe);
+    this.centerIm = midpoint(minIm, maxIm);
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * Constructor for a Viewport around an exact centre.
+   * The spans only need to be positive doubles, so the region can be far
+   * smaller than the spacing of doubles around the centre.
+   *
+   * @param centerRe the real part of the centre of the region.
+   * @param centerIm the imaginary part of the centre of the region.
+   * @param spanRe   the width of the region along the real axis.
+   * @param spanIm   the height of the region along the imaginary axis.
+   * @param width    the number of columns of pixels.
+   * @param height   the number of rows of pixels.
+   * @throws IllegalArgumentException if the region or the size is invalid.
+   */
+  public Viewport(BigDecimal centerRe, BigDecimal centerIm, double spanRe, double spanIm,
+                  int width, int height) {
+    if (centerRe == null || centerIm == null) {
+      throw new IllegalArgumentException("Coordinates cannot be null");
+    }
+    if (!(spanRe > 0) || !(spanIm > 0) || Double.isInfinite(spanRe)
+        || Double.isInfinite(spanIm)) {
+      throw new IllegalArgumentException("Span must be positive");
+    }
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Width and height must be positive");
+    }
+    this.centerRe = centerRe;
+    this.centerIm = centerIm;
+    this.spanRe = spanRe;
+    this.spanIm = spanIm;
+    this.minRe = centerRe.doubleValue() - spanRe / 2;
+    this.maxRe = centerRe.doubleValue() + spanRe / 2;
+    this.minIm = centerIm.doubleValue() - spanIm / 2;
+    this.maxIm = centerIm.doubleValue() + spanIm / 2;
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * Get the exact midpoint of two doubles.
+   *
+   * @param min the smaller double.
+   * @param max the larger double.
+   * @return the midpoint.
+   */
+  private static BigDecimal midpoint(double min, double max) {
+    return new BigDecimal(min).add(new BigDecimal(max)).divide(BigDecimal.valueOf(2));
+  }
+
+  /**
+   * Get the number of columns of pixels.
+   *
+   * @return the width of the viewport.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Get the number of rows of pixels.
+   *
+   * @return the height of the viewport.
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Get the smallest real part shown, in column 0.
+   *
+   * @return the smallest real part.
+   */
+  public double getMinRe() {
+    return minRe;
+  }
+
+  /**
+   * Get the largest imaginary part shown, in row 0.
+   *
+   * @return the largest imaginary part.
+   */
+  public double getMaxIm() {
+    return maxIm;
+  }
+
+  /**
+   * Get the exact real part of the centre of the region.
+   *
+   * @return the real part of the centre.
+   */
+  public BigDecimal getCenterRe() {
+    return centerRe;
+  }
+
+  /**
+   * Get the exact imaginary part of the centre of the region.
+   *
+   * @return the imaginary part of the centre.
+   */
+  public BigDecimal getCenterIm() {
+    return centerIm;
+  }
+
+  /**
+   * Get the width of the region along the real axis.
+   *
+   * @return the real span.
+   */
+  public double getSpanRe() {
+    return spanRe;
+  }
+
+  /**
+   * Get the height of the region along the imaginary axis.
+   *
+   * @return the imaginary span.
+   */
+  public double getSpanIm() {
+    return spanIm;
+  }
+
+  /**
+   * Get the change in the real part from one column to the next.
+   *
+   * @return the real step between columns.
+   */
+  public double getReStep() {
+    return spanRe / Math.max(1, width - 1);
+  }
+
+  /**
+   * Get the change in the imaginary part from one row to the next.
+   * The step is negative, since the imaginary part decreases down the canvas.
+   *
+   * @return the imaginary step between rows.
+   */
+  public double getImStep() {
+    return -spanIm / Math.max(1, height - 1);
+  }
+
+  /**
+   * Get the real part of the points in a column, relative to the centre.
+   * The offset is small next to the centre in a deep zoom, so it keeps
+   * the precision that the real part itself would lose.
+   *
+   * @param j the column.
+   * @return the offset of the column from the centre.
+   */
+  public double getDeltaRe(int j) {
+    return (j - (width - 1) / 2.0) * getReStep();
+  }
+
+  /**
+   * Get the imaginary part of the points in a row, relative to the centre.
+   *
+   * @param i the row.
+   * @return the offset of the row from the centre.
+   */
+  public double getDeltaIm(int i) {
+    return (i - (height - 1) / 2.0) * getImStep();
+  }
+
+  /**
+   * Get the real part of the points in a column.
+   *
+   * @param j the column.
+   * @return the real part of the column.
+   */
+  public double getRe(int j) {
+    return minRe + j * getReStep();
+  }
+
+  /**
+   * Get the imaginary part of the points in a row.
+   *
+   * @param i the row.
+   * @return the imaginary part of the row.
+   */
+  public double getIm(int i) {
+    return maxIm + i * getImStep();
+  }
+
+  /**
+   * Get the smallest distance between two neighbouring pixels.
+   *
+   * @return the pixel spacing.
+   */
+  public double getPixelSpacing() {
+    return Math.min(Math.abs(getReStep()), Math.abs(getImStep()));
+  }
+
+  /**
+   * Get the largest absolute coordinate shown.
+   *
+   * @return the largest magnitude of a coordinate in the viewport.
+   */
+  public double getMagnitude() {
+    return Math.max(Math.max(Math.abs(minRe), Math.abs(maxRe)),
+        Math.max(Math.abs(minIm), Math.abs(maxIm)));
+  }
+
+  /**
+   * Check if neighbouring pixels can be told apart in double precision.
+   * Zooming further than this makes neighbouring pixels round to the same point.
+   *
+   * @return true if the viewport can be rendered in double precision.
+   */
+  public boolean isResolvable() {
+    return getPixelSpacing() > RESOLVABLE_ULPS * Math.ulp(getMagnitude());
+  }
+
+  /**
+   * Get the iteration limit for the zoom of the viewport.
+   * Points close to the boundary of a set take longer to escape the deeper
+   * the zoom, so once the zoom passes 4 the limit grows by a fixed amount for
+   * every whole doubling. The cost of a frame then depends on the number of
+   * pixels and the detail in view, not on how much of the full set is hidden.
+   *
+   * @param baseIterations the iteration limit when the whole set is shown.
+   * @param fullWidth      the width of the region showing the whole set.
+   * @return the iteration limit for the viewport.
+   */
+  public int getIterationBudget(int baseIterations, double fullWidth) {
+    double zoom = fullWidth / spanRe / UNSCALED_ZOOM;
+    if (zoom < 2) {
+      return baseIterations;
+    }
+    // The small margin keeps an exact doubling from rounding down to the octave below.
+    int octaves = (int) Math.floor(Math.log(zoom) / Math.log(2) + 1e-9);
+    return (int) Math.min(Integer.MAX_VALUE,
+        baseIterations + (long) ITERATIONS_PER_OCTAVE * octaves);
+  }
+}
@@ -2,11 +2,14 @@ package edu.ntnu.stud.component;
 
 import static javafx.stage.Screen.getPrimary;
 
+import edu.ntnu.stud.chaos.CanvasSnapshot;
+import edu.ntnu.stud.chaos.ChaosCanvas;
 import edu.ntnu.stud.chaos.ChaosGame;
+import edu.ntnu.stud.chaos.DensityPyramid;
 import edu.ntnu.stud.observer.Observer;
 import edu.ntnu.stud.utils.ButtonEnum;
 import edu.ntnu.stud.view.View;
-import java.util.Arrays;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
@@ -36,8 +39,8 @@ public class CanvasView extends View implements Observer {
   /** The ChaosGame associated with the canvas view. */
   private final ChaosGame chaosGame;
 
-  /** The color used for drawing the fractal. */
-  private Color fractalColor = Color.BLUE;
+  /** The lookup table of the colors used for drawing the fractal. */
+  private ColorPalette palette = new ColorPalette(Color.BLUE);
 
   /**
    * Constructs a new CanvasView object and initializes
@@ -82,51 +85,141 @@ public class CanvasView extends View implements Observer {
   }
 
   /**
-   * Renders the fractal on the canvas using the current chaos canvas data.
-   * It calculates the dimensions of each cell, determines the maximum pixel value,
-   * iterates over each cell, calculates the color, and fills the corresponding rectangle
-   * on the canvas. Finally, it adds the rendered fractal canvas to the main stack pane for display.
+   * Renders the fractal on the canvas using the last published snapshot of the chaos canvas.
+   * It calculates the dimensions of each cell, reads the maximum pixel value
+   * from the snapshot statistics, iterates over each cell, calculates the color,
+   * and fills the corresponding rectangle on the canvas. The snapshot does not change
+   * while it is drawn, even if the chaos game is writing to the canvas at the same time.
+   * A chaos canvas larger than the fractal canvas is drawn from its mipmap pyramid
+   * instead of pixel by pixel. A Nebulabrot is drawn from its three channels instead.
+   * Finally, it adds the rendered fractal canvas to the main stack pane for display.
    */
   @Override
   public void render() {
     clearCanvas();
 
-    int[][] canvasArray = chaosGame.getCanvas().getCanvasArray();
-
-    double cellWidth = fractalCanvas.getWidth() / canvasArray.length;
-    double cellHeight = fractalCanvas.getHeight() / canvasArray[0].length;
-
-    int maxValue = Arrays.stream(canvasArray)
-        .flatMapToInt(Arrays::stream)
-        .max()
-        .orElse(1);
-
     Color backgroundColor = Color.hsb(0, 0, 1);
     gc.setFill(backgroundColor);
     gc.fillRect(0, 0, fractalCanvas.getWidth(), fractalCanvas.getHeight());
 
-    for (int i = 0; i < canvasArray.length; i++) {
-      for (int j = 0; j < canvasArray[i].length; j++) {
-        if (canvasArray[i][j] >= 1) {
-          double colorValue = (double) canvasArray[i][j] / maxValue;
-          Color color = fractalColor.deriveColor(0, 1, colorValue, 1);
+    ChaosCanvas[] channels = chaosGame.getNebulabrotChannels();
+    CanvasSnapshot snapshot = chaosGame.getCanvas().getSnapshot();
+    double maxValue = snapshot.getStatistics().getMaxValue();
+    if (channels != null) {
+      renderChannels(channels);
+    } else if (maxValue > 0) {
+      if (snapshot.getWidth() > fractalCanvas.getWidth()
+          || snapshot.getHeight() > fractalCanvas.getHeight()) {
+        renderReduced(snapshot.getPyramid(), maxValue);
+      } else {
+        renderFull(snapshot, maxValue);
+      }
+    }
+
+    stackPane.getChildren().add(centerBox());
+  }
+
+  /**
+   * Draws every pixel of the chaos canvas as a cell on the fractal canvas.
+   *
+   * @param snapshot the snapshot of the chaos canvas
+   * @param maxValue the maximum pixel value on the chaos canvas
+   */
+  private void renderFull(CanvasSnapshot snapshot, double maxValue) {
+    double cellWidth = fractalCanvas.getWidth() / snapshot.getWidth();
+    double cellHeight = fractalCanvas.getHeight() / snapshot.getHeight();
+
+    for (int i = 0; i < snapshot.getHeight(); i++) {
+      for (int j = 0; j < snapshot.getWidth(); j++) {
+        fillCell(i, j, snapshot.getPixelValue(i, j), maxValue, cellWidth, cellHeight);
+      }
+    }
+  }
+
+  /**
+   * Draws the finest pyramid level that fits on the fractal canvas.
+   * Each cell is colored by the largest pixel it covers, so thin
+   * structures stay visible when the chaos canvas is reduced.
+   *
+   * @param pyramid  the mipmap pyramid of the chaos canvas
+   * @param maxValue the maximum pixel value on the chaos canvas
+   */
+  private void renderReduced(DensityPyramid pyramid, double maxValue) {
+    double[][] cells = pyramid.getReducedView(
+        (int) fractalCanvas.getWidth(), (int) fractalCanvas.getHeight(), true);
+
+    double cellWidth = fractalCanvas.getWidth() / cells[0].length;
+    double cellHeight = fractalCanvas.getHeight() / cells.length;
+
+    for (int i = 0; i < cells.length; i++) {
+      for (int j = 0; j < cells[i].length; j++) {
+        fillCell(i, j, cells[i][j], maxValue, cellWidth, cellHeight);
+      }
+    }
+  }
 
-          gc.setFill(color);
-          gc.fillRect(j * cellHeight, i * cellWidth, cellWidth, cellHeight);
+  /**
+   * Renders the red, green and blue channels of a Nebulabrot pixel by pixel.
+   * Each channel is scaled by its own maximum value, as the lower iteration
+   * bands count far fewer orbit points than the full one.
+   *
+   * @param channels the chaos canvases of the red, green and blue channels
+   */
+  private void renderChannels(ChaosCanvas[] channels) {
+    CanvasSnapshot[] snapshots = new CanvasSnapshot[channels.length];
+    double[] maxValues = new double[channels.length];
+    for (int k = 0; k < channels.length; k++) {
+      snapshots[k] = channels[k].getSnapshot();
+      maxValues[k] = snapshots[k].getStatistics().getMaxValue();
+    }
+    double cellWidth = fractalCanvas.getWidth() / snapshots[0].getWidth();
+    double cellHeight = fractalCanvas.getHeight() / snapshots[0].getHeight();
+
+    for (int i = 0; i < snapshots[0].getHeight(); i++) {
+      for (int j = 0; j < snapshots[0].getWidth(); j++) {
+        double[] levels = new double[channels.length];
+        boolean lit = false;
+        for (int k = 0; k < channels.length; k++) {
+          double value = snapshots[k].getPixelValue(i, j);
+          levels[k] = maxValues[k] > 0 ? Math.min(1, value / maxValues[k]) : 0;
+          lit |= value > 0;
+        }
+        if (lit) {
+          gc.setFill(Color.color(levels[0], levels[1], levels[2]));
+          gc.fillRect(j * cellWidth, i * cellHeight, cellWidth, cellHeight);
         }
       }
     }
+  }
 
-    stackPane.getChildren().add(centerBox());
+  /**
+   * Fills the rectangle of a cell with the palette color of its value,
+   * with a brightness relative to the maximum value. Every value above 0 is drawn,
+   * so fractional escape-time values below 1 are not left out.
+   *
+   * @param i          the row of the cell
+   * @param j          the column of the cell
+   * @param value      the value of the cell
+   * @param maxValue   the maximum value on the canvas
+   * @param cellWidth  the width of a cell
+   * @param cellHeight the height of a cell
+   */
+  private void fillCell(int i, int j, double value, double maxValue,
+                        double cellWidth, double cellHeight) {
+    if (value > 0) {
+      gc.setFill(palette.getColor(value, maxValue));
+      gc.fillRect(j * cellWidth, i * cellHeight, cellWidth, cellHeight);
+    }
   }
 
   /**
    * Updates the color used for drawing the fractal.
+   * Only the palette is rebuilt, so the next render colors the same values again.
    *
    * @param color the new color to use for the fractal
    */
   public void updateColor(Color color) {
-    this.fractalColor = color;
+    this.palette = new ColorPalette(color);
   }
 
   /**
@@ -168,16 +261,25 @@ public class CanvasView extends View implements Observer {
 
   /**
    * Update method called when the observer is notified of a change.
+   * Changes are handled on the JavaFX application thread, as the chaos game
+   * is changed and rendered on the render thread of the controller.
    *
    * @param buttonEnum the button enumeration representing the change.
    * @param string     the associated string information.
    */
   @Override
   public void update(ButtonEnum buttonEnum, String string) {
+    if (!Platform.isFxApplicationThread()) {
+      Platform.runLater(() -> update(buttonEnum, string));
+      return;
+    }
     if (buttonEnum == ButtonEnum.CANVAS_CHANGE) {
       this.fractalCanvas = new Canvas(
           chaosGame.getCanvas().getWidth(), chaosGame.getCanvas().getHeight());
       this.gc = fractalCanvas.getGraphicsContext2D();
+    } else if (buttonEnum == ButtonEnum.RENDER_PASS) {
+      resetPane();
+      render();
     } else {
       throw new IllegalArgumentException("ButtonEnum not found");
     }
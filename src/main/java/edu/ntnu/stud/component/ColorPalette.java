@@ -0,0 +1,52 @@
+package edu.ntnu.stud.component;
+
+import javafx.scene.paint.Color;
+
+/**
+ * The ColorPalette class represents a lookup table of the colors of a fractal.
+ * The table holds the fractal color at evenly spaced brightnesses, and a pixel
+ * gets the entry nearest to its value relative to the largest value on the canvas.
+ * Values may be fractional, as the smooth values of an escape-time fractal are,
+ * so they are colored continuously instead of in bands of whole iterations.
+ * Changing the palette only builds a new table, and the pixels are not computed again.
+ */
+public class ColorPalette {
+
+  /** The number of entries in the lookup table. */
+  static final int SIZE = 1024;
+
+  /** The colors of the table, from no brightness to the full fractal color. */
+  private final Color[] colors;
+
+  /**
+   * Constructs a new ColorPalette from the color of a fractal.
+   *
+   * @param color the color of the largest value.
+   * @throws IllegalArgumentException if the color is null.
+   */
+  public ColorPalette(Color color) {
+    if (color == null) {
+      throw new IllegalArgumentException("Color cannot be null");
+    }
+    colors = new Color[SIZE];
+    for (int k = 0; k < SIZE; k++) {
+      colors[k] = color.deriveColor(0, 1, k / (SIZE - 1.0), 1);
+    }
+  }
+
+  /**
+   * Returns the color of a value relative to the largest value on the canvas.
+   * Values outside the range from 0 to the largest value get the nearest end of the table.
+   *
+   * @param value    the value of the pixel
+   * @param maxValue the largest value on the canvas
+   * @return the color of the value
+   */
+  public Color getColor(double value, double maxValue) {
+    double position = value / maxValue * (SIZE - 1);
+    if (!(position > 0)) {
+      return colors[0];
+    }
+    return colors[(int) Math.min(SIZE - 1, Math.round(position))];
+  }
+}
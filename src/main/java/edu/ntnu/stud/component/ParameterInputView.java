@@ -2,7 +2,10 @@ package edu.ntnu.stud.component;
 
 import static javafx.stage.Screen.getPrimary;
 
+import edu.ntnu.stud.chaos.AccumulationMode;
 import edu.ntnu.stud.chaos.ChaosGame;
+import edu.ntnu.stud.chaos.FormulaRegistry;
+import edu.ntnu.stud.chaos.PixelDepth;
 import edu.ntnu.stud.math.Complex;
 import edu.ntnu.stud.observer.Observer;
 import edu.ntnu.stud.transform.AffineTransform2D;
@@ -12,13 +15,16 @@ import edu.ntnu.stud.utils.FillerPane;
 import edu.ntnu.stud.utils.FractalType;
 import edu.ntnu.stud.view.View;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ColorPicker;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
@@ -77,6 +83,30 @@ public class ParameterInputView extends View implements Observer {
   /** Container for organizing transformation selection elements. */
   private HBox transformsVbox;
 
+  /** Container for the options of how the fractal is rendered. */
+  private VBox renderOptionsVbox;
+
+  /** Check box for rendering escape-time fractals progressively. */
+  private CheckBox progressiveCheckBox;
+
+  /** Combo box for selecting the pixel depth of the canvas. */
+  private ComboBox<String> pixelDepthComboBox;
+
+  /** Combo box for selecting how the steps are divided between threads. */
+  private ComboBox<String> accumulationComboBox;
+
+  /** Input field for the iteration limit of escape-time fractals. */
+  private TextField maxIterationsInput;
+
+  /** Check box for showing the distance estimate of escape-time fractals. */
+  private CheckBox distanceEstimationCheckBox;
+
+  /** Check box for supersampling the edges of escape-time fractals. */
+  private CheckBox antialiasingCheckBox;
+
+  /** Check box for rendering the Buddhabrot as a Nebulabrot. */
+  private CheckBox nebulabrotCheckBox;
+
   /** Combo box for selecting the type of fractal. */
   private ComboBox<String> fractalComboBox;
 
@@ -91,6 +121,12 @@ public class ParameterInputView extends View implements Observer {
 
   private static final String BROWN = "brown";
 
+  /** Style class for render option elements. */
+  private static final String OPTION_TEXT_STYLE = "option-text";
+
+  /** The choice of running the steps on a single thread. */
+  public static final String SINGLE_THREAD = "SINGLE_THREAD";
+
   /** The type of transformation (e.g., Julia, Affine). */
   private String transformation;
 
@@ -151,6 +187,29 @@ public class ParameterInputView extends View implements Observer {
         BorderStrokeStyle.SOLID, null, new BorderWidths(2))));
     transformsVbox.setMinWidth(200);
 
+    progressiveCheckBox = createCheckBox("Progressive", chaosGame.isProgressive());
+    pixelDepthComboBox = createOptionComboBox(
+        Arrays.stream(PixelDepth.values()).map(PixelDepth::name).toList(),
+        chaosGame.getPixelDepth().name());
+
+    List<String> accumulationChoices = new ArrayList<>();
+    accumulationChoices.add(SINGLE_THREAD);
+    Arrays.stream(AccumulationMode.values()).forEach(mode ->
+        accumulationChoices.add(mode.name()));
+    accumulationComboBox = createOptionComboBox(accumulationChoices, SINGLE_THREAD);
+    maxIterationsInput = createTextFields(chaosGame.getMaxIterations());
+    distanceEstimationCheckBox = createCheckBox("Distance Estimation",
+        chaosGame.isDistanceEstimation());
+    antialiasingCheckBox = createCheckBox("Antialiasing", chaosGame.isAntialiasing());
+    nebulabrotCheckBox = createCheckBox("Nebulabrot", chaosGame.isNebulabrot());
+
+    renderOptionsVbox = new VBox();
+    renderOptionsVbox.setBorder(new Border(new BorderStroke(Color.BLACK,
+        BorderStrokeStyle.SOLID, null, new BorderWidths(2))));
+    renderOptionsVbox.setPadding(new Insets(10, 10, 10, 10));
+    renderOptionsVbox.setSpacing(10);
+    renderOptionsVbox.setAlignment(Pos.TOP_LEFT);
+
     juliaExampleValues = createExampleJuliaValues();
   }
 
@@ -161,18 +220,20 @@ public class ParameterInputView extends View implements Observer {
   public void resetPane() {
     parameterVbox.getChildren().clear();
     transformsVbox.getChildren().clear();
+    renderOptionsVbox.getChildren().clear();
     stackPane.getChildren().clear();
   }
 
   /**
    * Renders the parameter input view with various input fields and options.
    * The rendering includes setting up the fractal selection options, coordinate input fields,
-   * step selection, transformation type selection, error label, and color picker.
+   * step selection, transformation type selection, render options, error label,
+   * and color picker.
    */
   @Override
   public void render() {
 
-    if (fractalComboBox.getValue().equalsIgnoreCase(FractalType.MANDELBROT)) {
+    if (hasNoConstant()) {
       transformsVbox.getChildren().addAll(new FillerPane(), new FillerPane(), new FillerPane());
     } else if (transformation.equals(FractalType.JULIA)) {
       transformsVbox.getChildren().addAll(new FillerPane(), juliaVbox(), new FillerPane());
@@ -212,9 +273,15 @@ public class ParameterInputView extends View implements Observer {
 
     transformsVbox.setMinWidth(200);
 
+    renderOptionsVbox.getChildren().addAll(createText("Render Options"), progressiveCheckBox,
+        createOptionText("Pixel Depth"), pixelDepthComboBox,
+        createOptionText("Threads"), accumulationComboBox,
+        createOptionText("Max Iterations"), maxIterationsInput,
+        distanceEstimationCheckBox, antialiasingCheckBox, nebulabrotCheckBox);
+
     HBox mainBox = new HBox();
     mainBox.setSpacing(10);
-    mainBox.getChildren().addAll(parameterVbox, transformsVbox);
+    mainBox.getChildren().addAll(parameterVbox, transformsVbox, renderOptionsVbox);
     stackPane.getChildren().add(mainBox);
   }
 
@@ -368,6 +435,47 @@ public class ParameterInputView extends View implements Observer {
     return textField;
   }
 
+  /**
+   * Create a CheckBox for a render option.
+   *
+   * @param text     the text of the check box
+   * @param selected whether the check box starts out selected
+   * @return a CheckBox object with the specified text
+   */
+  private CheckBox createCheckBox(String text, boolean selected) {
+    CheckBox checkBox = new CheckBox(text);
+    checkBox.setSelected(selected);
+    checkBox.getStyleClass().add(OPTION_TEXT_STYLE);
+    return checkBox;
+  }
+
+  /**
+   * Create a ComboBox for a render option.
+   *
+   * @param items the items to choose from
+   * @param value the item chosen at first
+   * @return a ComboBox object with the specified items
+   */
+  private ComboBox<String> createOptionComboBox(List<String> items, String value) {
+    ComboBox<String> comboBox = new ComboBox<>();
+    comboBox.getItems().addAll(items);
+    comboBox.setValue(value);
+    comboBox.getStyleClass().add(OPTION_TEXT_STYLE);
+    return comboBox;
+  }
+
+  /**
+   * Create a Text object naming a render option.
+   *
+   * @param option the name of the option
+   * @return a Text object with the name of the option
+   */
+  private Text createOptionText(String option) {
+    Text text = new Text(option);
+    text.getStyleClass().add(OPTION_TEXT_STYLE);
+    return text;
+  }
+
   /**
    * Create an "Update" button.
    *
@@ -379,10 +487,13 @@ public class ParameterInputView extends View implements Observer {
     button.setOnAction(event -> {
       try {
         int steps = (int) Double.parseDouble(stepsInput.getText());
+        int maxIterations = (int) Double.parseDouble(maxIterationsInput.getText());
         if (steps < 0) {
           throw new IllegalArgumentException("Steps must be a positive integer");
         } else if (steps > 1000000) {
           throw new IllegalArgumentException("Steps must be less than 1000000");
+        } else if (maxIterations <= 0) {
+          throw new IllegalArgumentException("Max iterations must be a positive integer");
         } else {
           errorLabel.setText("");
           updateParameters();
@@ -410,8 +521,8 @@ public class ParameterInputView extends View implements Observer {
 
     notifyObservers(ButtonEnum.COORDS, minCoords + maxCoords);
 
-    if (fractalComboBox.getValue().equalsIgnoreCase(FractalType.MANDELBROT)) {
-      notifyObservers(ButtonEnum.TRANSFORM, FractalType.MANDELBROT);
+    if (hasNoConstant()) {
+      notifyObservers(ButtonEnum.TRANSFORM, fractalComboBox.getValue().toLowerCase());
 
     } else if (transformation.equals(FractalType.JULIA)) {
       String juliaValues = matrixInputs.getFirst().get(0).getText() + ", "
@@ -432,6 +543,15 @@ public class ParameterInputView extends View implements Observer {
       notifyObservers(ButtonEnum.TRANSFORM, affineValues.toString());
     }
 
+    notifyObservers(ButtonEnum.PROGRESSIVE, String.valueOf(progressiveCheckBox.isSelected()));
+    notifyObservers(ButtonEnum.PIXEL_DEPTH, pixelDepthComboBox.getValue());
+    notifyObservers(ButtonEnum.ACCUMULATION, accumulationComboBox.getValue());
+    notifyObservers(ButtonEnum.MAX_ITERATIONS, maxIterationsInput.getText());
+    notifyObservers(ButtonEnum.DISTANCE_ESTIMATION,
+        String.valueOf(distanceEstimationCheckBox.isSelected()));
+    notifyObservers(ButtonEnum.ANTIALIASING, String.valueOf(antialiasingCheckBox.isSelected()));
+    notifyObservers(ButtonEnum.NEBULABROT, String.valueOf(nebulabrotCheckBox.isSelected()));
+
     notifyObservers(ButtonEnum.PARAMETER_CHANGE, "Update");
   }
 
@@ -553,6 +673,20 @@ public class ParameterInputView extends View implements Observer {
     return string.substring(0, 1).toUpperCase() + string.substring(1);
   }
 
+  /**
+   * Check if the chosen fractal has no constant to enter, as the Mandelbrot set,
+   * the Buddhabrot and the fractals of escape-time formulas iterate from a point
+   * of their own instead.
+   *
+   * @return true if the chosen fractal has no constant
+   */
+  private boolean hasNoConstant() {
+    String fractal = fractalComboBox.getValue();
+    return fractal.equalsIgnoreCase(FractalType.MANDELBROT)
+        || fractal.equalsIgnoreCase(FractalType.BUDDHABROT)
+        || FormulaRegistry.getFormula(fractal) != null;
+  }
+
   /**
    * Create a VBox containing file reading and saving options.
    *
@@ -585,12 +719,18 @@ public class ParameterInputView extends View implements Observer {
   /**
    * Updates the view based on the specified button action and additional string parameter.
    * This method is invoked when an observable notifies its observers of a change.
+   * Changes made on the render thread of the controller are handled on the
+   * JavaFX application thread.
    *
    * @param buttonEnum the type of button action that triggered the update
    * @param string     additional string parameter associated with the button action
    */
   @Override
   public void update(ButtonEnum buttonEnum, String string) {
+    if (!Platform.isFxApplicationThread()) {
+      Platform.runLater(() -> update(buttonEnum, string));
+      return;
+    }
     switch (buttonEnum) {
       case COORDS:
         resetPane();
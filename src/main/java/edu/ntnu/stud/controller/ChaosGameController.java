@@ -2,9 +2,13 @@ package edu.ntnu.stud.controller;
 
 import static javafx.stage.Screen.getPrimary;
 
+import edu.ntnu.stud.chaos.AccumulationMode;
 import edu.ntnu.stud.chaos.ChaosGame;
 import edu.ntnu.stud.chaos.ChaosGameDescription;
 import edu.ntnu.stud.chaos.ChaosGameFileHandler;
+import edu.ntnu.stud.chaos.EscapeTimeFormula;
+import edu.ntnu.stud.chaos.FormulaRegistry;
+import edu.ntnu.stud.chaos.PixelDepth;
 import edu.ntnu.stud.component.CanvasView;
 import edu.ntnu.stud.component.ParameterInputView;
 import edu.ntnu.stud.factory.ChaosGameDescriptionFactory;
@@ -25,6 +29,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javafx.application.Platform;
 import javafx.scene.paint.Color;
 import javafx.stage.FileChooser;
 
@@ -53,6 +60,12 @@ public class ChaosGameController implements Observer {
   /** The type of fractal being generated. */
   private String fractalType;
 
+  /**
+   * How the threads of an iterated function system accumulate their hits,
+   * or null to run the steps on a single thread.
+   */
+  private AccumulationMode accumulationMode;
+
   /** The original width of the screen. */
   private final double originalScreenSizeWidth;
 
@@ -62,6 +75,15 @@ public class ChaosGameController implements Observer {
   /** The file chooser for selecting files to save or load. */
   private final FileChooser fileChooser;
 
+  /**
+   * The thread the chaos game is changed and run on, one task after another,
+   * so a render never sees the game change under it.
+   */
+  private final ExecutorService renderExecutor;
+
+  /** The number of renders started or stopped, so a stopped render does not update the views. */
+  private volatile int renderGeneration;
+
   /** The error message for format exceptions. */
   private static final String FORMAT_EXCEPTION = "String cannot be converted to double: ";
 
@@ -85,6 +107,12 @@ public class ChaosGameController implements Observer {
 
     originalScreenSizeWidth = getPrimary().getVisualBounds().getWidth();
 
+    renderExecutor = Executors.newSingleThreadExecutor(task -> {
+      Thread thread = new Thread(task, "fractal-render");
+      thread.setDaemon(true);
+      return thread;
+    });
+
     this.view = chaosGameView;
 
     view.setup();
@@ -110,13 +138,19 @@ public class ChaosGameController implements Observer {
         break;
 
       case COORDS:
+        stopRendering();
         try {
           List<Double> coordsValues = divide2DMatrixString(string);
-          currentGame.updateMinAndMaxCoords(coordsValues.get(0), coordsValues.get(1),
-              coordsValues.get(2), coordsValues.get(3));
-
-          view.resetPane();
-          view.render();
+          if (coordsValues.get(0) >= coordsValues.get(2)
+              || coordsValues.get(1) >= coordsValues.get(3)) {
+            throw new IllegalArgumentException("Bounds are invalid. "
+                + "The minimum coordinate must be less than the maximum coordinate.");
+          }
+          changeGame(() -> currentGame.updateMinAndMaxCoords(coordsValues.get(0),
+              coordsValues.get(1), coordsValues.get(2), coordsValues.get(3)), () -> {
+                view.resetPane();
+                view.render();
+              });
         } catch (NumberFormatException e) {
           throw new IllegalArgumentException(
               FORMAT_EXCEPTION + e.getMessage());
@@ -135,12 +169,15 @@ public class ChaosGameController implements Observer {
         break;
 
       case FRACTAL:
+        stopRendering();
         this.fractalType = string.toLowerCase();
         currentGame.setChaosGameName(this.fractalType);
-        currentGame.setDescription(ChaosGameDescriptionFactory.getDescription(this.fractalType));
-
-        view.resetPane();
-        view.render();
+        ChaosGameDescription description =
+            ChaosGameDescriptionFactory.getDescription(this.fractalType);
+        changeGame(() -> currentGame.setDescription(description), () -> {
+          view.resetPane();
+          view.render();
+        });
         break;
 
       case SCREEN_CHANGE:
@@ -148,7 +185,8 @@ public class ChaosGameController implements Observer {
         break;
 
       case TRANSFORM:
-        interpretTransformString(string);
+        List<Transform2D> transforms = interpretTransformString(string);
+        changeGame(() -> currentGame.getDescription().setTransforms(transforms));
         break;
 
       case SAVEFILE:
@@ -163,6 +201,59 @@ public class ChaosGameController implements Observer {
         updateFractalColor(string);
         break;
 
+      case PROGRESSIVE:
+        boolean progressive = Boolean.parseBoolean(string);
+        changeGame(() -> currentGame.setProgressive(progressive));
+        break;
+
+      case PIXEL_DEPTH:
+        PixelDepth pixelDepth;
+        try {
+          pixelDepth = PixelDepth.valueOf(string);
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException("Invalid pixel depth: " + string);
+        }
+        changeGame(() -> currentGame.setPixelDepth(pixelDepth));
+        break;
+
+      case ACCUMULATION:
+        try {
+          this.accumulationMode = ParameterInputView.SINGLE_THREAD.equals(string)
+              ? null : AccumulationMode.valueOf(string);
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException("Invalid accumulation mode: " + string);
+        }
+        break;
+
+      case MAX_ITERATIONS:
+        int maxIterations;
+        try {
+          maxIterations = (int) Double.parseDouble(string);
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException(
+              FORMAT_EXCEPTION + e.getMessage());
+        }
+        if (maxIterations <= 0) {
+          throw new IllegalArgumentException("Max iterations must be positive");
+        }
+        changeGame(() -> currentGame.setMaxIterations(maxIterations));
+        break;
+
+      case DISTANCE_ESTIMATION:
+        boolean distanceEstimation = Boolean.parseBoolean(string);
+        changeGame(() -> currentGame.setDistanceEstimation(distanceEstimation));
+        break;
+
+      case ANTIALIASING:
+        boolean antialiasing = Boolean.parseBoolean(string);
+        changeGame(() -> currentGame.setAntialiasing(antialiasing));
+        break;
+
+      case NEBULABROT:
+        boolean nebulabrot = Boolean.parseBoolean(string);
+        changeGame(() -> currentGame.setNebulabrot(nebulabrot));
+        break;
+
       default:
         throw new UnsupportedOperationException("ButtonEnum not supported: " + buttonEnum);
     }
@@ -189,26 +280,145 @@ public class ChaosGameController implements Observer {
 
   /**
    * Start the chaos game with the given description.
+   * The size and description are set and the game is run on the render thread,
+   * after the renders and changes queued before it. A render that has been
+   * stopped returns soon, so the new one does not wait long. The views show the
+   * new canvas when the game starts, the canvas view draws every pass as it is
+   * published, and the views are updated once more when the game is done.
    *
    * @param chaosGameDescription the description of the chaos game to start
    */
   private void startChaosGame(ChaosGameDescription chaosGameDescription) {
-    currentGame.setWidth(size);
-    currentGame.setHeight(size);
-    currentGame.setDescription(chaosGameDescription);
+    stopRendering();
+    int gameSize = size;
+    int gameSteps = steps;
+    AccumulationMode gameMode = accumulationMode;
+    String gameType = fractalType;
+    int generation = renderGeneration;
+    renderExecutor.execute(() -> {
+      currentGame.clearCancellation();
+      try {
+        currentGame.setWidth(gameSize);
+        currentGame.setHeight(gameSize);
+        currentGame.setDescription(chaosGameDescription);
+        if (generation != renderGeneration) {
+          return;
+        }
+        Platform.runLater(() -> {
+          if (generation == renderGeneration) {
+            updateViews();
+          }
+        });
+        runGame(gameType, gameSteps, gameMode);
+      } catch (RuntimeException e) {
+        Platform.runLater(() -> renderFailed(generation, e));
+        return;
+      }
+      Platform.runLater(() -> {
+        if (generation == renderGeneration) {
+          updateViews();
+        }
+      });
+    });
+  }
 
-    if (fractalType.equalsIgnoreCase(FractalType.MANDELBROT)) {
+  /**
+   * Run the chaos game as the given type of fractal.
+   * Escape-time fractals and the Buddhabrot are rendered over the region of the
+   * description, and any other description is run as an iterated function system,
+   * on a single thread or on one thread for each processor.
+   *
+   * @param gameType  the type of fractal to run.
+   * @param gameSteps the number of steps of an iterated function system.
+   * @param gameMode  how the threads of an iterated function system accumulate
+   *                  their hits, or null to run it on a single thread.
+   */
+  private void runGame(String gameType, int gameSteps, AccumulationMode gameMode) {
+    EscapeTimeFormula formula = FormulaRegistry.getFormula(gameType);
+    if (gameType.equalsIgnoreCase(FractalType.MANDELBROT)) {
       currentGame.runMandelbrotMethod();
-    } else if (Objects.equals(chaosGameDescription.getTransformationType(), JuliaTransform.class)) {
+    } else if (gameType.equalsIgnoreCase(FractalType.BUDDHABROT)) {
+      currentGame.runBuddhabrotMethod();
+    } else if (formula != null) {
+      currentGame.runFormulaMethod(formula);
+    } else if (Objects.equals(currentGame.getDescription().getTransformationType(),
+        JuliaTransform.class)) {
       currentGame.runIterativeJuliaMethod();
+    } else if (gameMode == null) {
+      currentGame.runSteps(gameSteps);
     } else {
-      currentGame.runSteps(steps);
+      currentGame.runStepsParallel(gameSteps, gameMode);
+    }
+  }
+
+  /**
+   * Change the chaos game on the render thread, after the renders and changes
+   * queued before it.
+   *
+   * @param change the change to make to the chaos game.
+   * @see #changeGame(Runnable, Runnable)
+   */
+  private void changeGame(Runnable change) {
+    changeGame(change, () -> { });
+  }
+
+  /**
+   * Change the chaos game on the render thread, after the renders and changes
+   * queued before it, and then update the views on the JavaFX application thread.
+   * The input is checked before the change is queued, so an error here means the
+   * change could not be made, and it is reported like the other errors of the controller.
+   *
+   * @param change the change to make to the chaos game.
+   * @param then   the update of the views once the change is made.
+   */
+  private void changeGame(Runnable change, Runnable then) {
+    renderExecutor.execute(() -> {
+      try {
+        change.run();
+      } catch (RuntimeException e) {
+        Platform.runLater(() -> {
+          throw new IllegalArgumentException("Could not update fractal: " + e.getMessage());
+        });
+        return;
+      }
+      Platform.runLater(then);
+    });
+  }
+
+  /**
+   * Stop the running render, if any, without waiting for it.
+   * The render skips the pixels it has not started and returns soon after,
+   * and what it draws from then on is not shown. Renders still queued are skipped.
+   */
+  private void stopRendering() {
+    renderGeneration++;
+    currentGame.cancelRendering();
+  }
+
+  /**
+   * Handle a render that failed, unless it has been stopped since it started.
+   * The views are updated with what was drawn, and the error is reported like
+   * the other errors of the controller.
+   *
+   * @param generation the generation of the render.
+   * @param e          the exception thrown by the render.
+   * @throws IllegalArgumentException with the message of the exception.
+   */
+  private void renderFailed(int generation, RuntimeException e) {
+    if (generation != renderGeneration) {
+      return;
     }
-    //Update Canvas
+    updateViews();
+    throw new IllegalArgumentException("Could not render fractal: " + e.getMessage());
+  }
+
+  /**
+   * Update the canvas view and the view with the current canvas.
+   */
+  private void updateViews() {
     canvasView.resetPane();
     canvasView.render();
 
-    //Update view
     view.resetPane();
     view.render();
   }
@@ -227,11 +437,14 @@ public class ChaosGameController implements Observer {
       }
 
       if (originalScreenSizeWidth * 0.2 <= newSize && newSize <= originalScreenSizeWidth * 0.4) {
+        stopRendering();
         size = newSize;
+        changeGame(() -> {
+          currentGame.setWidth(newSize);
+          currentGame.setHeight(newSize);
+        });
 
         canvasView.resetPane();
-        currentGame.setWidth(size);
-        currentGame.setHeight(size);
         canvasView.updateCanvasSize(size, size);
         canvasView.render();
 
@@ -288,30 +501,32 @@ public class ChaosGameController implements Observer {
   }
 
   /**
-   * Interpret the transform string and set the transforms in the current game.
+   * Interpret the transform string as the transforms of the current game.
    * The string should contain either a single complex number or a list of 2x2 matrices
    * with corresponding vectors. The values should be separated by a comma and a space.
    * The matrices should be separated by a newline.
-   * Updates the current game with the new transforms.
    *
    * @param transformString            the string to interpret
+   * @return the transforms described by the string
    * @throws IllegalArgumentException  if the string is not a valid transform string
    */
-  private void interpretTransformString(String transformString) throws IllegalArgumentException {
+  private List<Transform2D> interpretTransformString(String transformString)
+      throws IllegalArgumentException {
     try {
       List<String> transformStrings = List.of(transformString.split("\\R"));
 
       if (transformStrings.size() == 1) {
-        if (Objects.equals(transformStrings.getFirst(), FractalType.MANDELBROT)) {
-          JuliaTransform juliaTransform = new JuliaTransform(new Complex(0, 0), 1);
-          currentGame.getDescription().setTransforms(List.of(juliaTransform));
+        if (Objects.equals(transformStrings.getFirst(), FractalType.MANDELBROT)
+            || Objects.equals(transformStrings.getFirst(), FractalType.BUDDHABROT)
+            || FormulaRegistry.getFormula(transformStrings.getFirst()) != null) {
+          return List.of(new JuliaTransform(new Complex(0, 0), 1));
         } else {
           List<Double> transformValues = divideString(transformStrings.getFirst(), 2);
           JuliaTransform juliaTransform = new JuliaTransform(
               new Complex(transformValues.get(0), transformValues.get(1)), 1);
           JuliaTransform juliaTransform2 = new JuliaTransform(
               new Complex(transformValues.get(0), transformValues.get(1)), -1);
-          currentGame.getDescription().setTransforms(List.of(juliaTransform, juliaTransform2));
+          return List.of(juliaTransform, juliaTransform2);
         }
       } else {
         List<Transform2D> transforms = new ArrayList<>();
@@ -325,7 +540,10 @@ public class ChaosGameController implements Observer {
                   transformValues.get(2), transformValues.get(3)),
               new Vector2D(transformValues.get(4), transformValues.get(5))));
         });
-        currentGame.getDescription().setTransforms(transforms);
+        if (transforms.isEmpty()) {
+          throw new IllegalArgumentException("The input cannot be null");
+        }
+        return transforms;
       }
     } catch (NumberFormatException e) {
       throw new IllegalArgumentException(
@@ -1,6 +1,8 @@
 package edu.ntnu.stud.factory;
 
 import edu.ntnu.stud.chaos.ChaosGameDescription;
+import edu.ntnu.stud.chaos.EscapeTimeFormula;
+import edu.ntnu.stud.chaos.FormulaRegistry;
 import edu.ntnu.stud.math.Complex;
 import edu.ntnu.stud.math.Matrix2x2;
 import edu.ntnu.stud.math.Vector2D;
@@ -42,7 +44,10 @@ public class ChaosGameDescriptionFactory {
       case FractalType.BARNSLEY -> getBarnsleyDescription();
       case FractalType.JULIA -> getJuliaDescription();
       case FractalType.MANDELBROT -> getMandelbrotDescription();
-      default -> checkMapForDescription(description);
+      case FractalType.BUDDHABROT -> getBuddhabrotDescription();
+      default -> FormulaRegistry.getFormula(description) != null
+          ? getFormulaDescription(FormulaRegistry.getFormula(description))
+          : checkMapForDescription(description);
     };
   }
 
@@ -188,4 +193,38 @@ public class ChaosGameDescriptionFactory {
         new Complex(-2.00, -1.12),
         new Complex(0.47, 1.12));
   }
+
+  /**
+   * Get a ChaosGameDescription object for the Buddhabrot.
+   * The orbits of the Mandelbrot set reach beyond the set itself,
+   * so the region is larger than the one of the Mandelbrot set.
+   *
+   * @return a ChaosGameDescription object for the Buddhabrot.
+   */
+  private static ChaosGameDescription getBuddhabrotDescription() {
+    JuliaTransform juliaTransform = new JuliaTransform(new Complex(0, 0), 1);
+    List<Transform2D> juliaList = new ArrayList<>();
+    juliaList.add(juliaTransform);
+    return new ChaosGameDescription(
+        juliaList,
+        new Complex(-2.00, -1.50),
+        new Complex(1.00, 1.50));
+  }
+
+  /**
+   * Get a ChaosGameDescription object for a fractal computed by an escape-time formula.
+   * The region is the one the formula shows the whole fractal in.
+   *
+   * @param formula the formula computing the fractal.
+   * @return a ChaosGameDescription object for the fractal.
+   */
+  private static ChaosGameDescription getFormulaDescription(EscapeTimeFormula formula) {
+    JuliaTransform juliaTransform = new JuliaTransform(new Complex(0, 0), 1);
+    List<Transform2D> juliaList = new ArrayList<>();
+    juliaList.add(juliaTransform);
+    return new ChaosGameDescription(
+        juliaList,
+        new Complex(formula.getMinCoords().getX0(), formula.getMinCoords().getX1()),
+        new Complex(formula.getMaxCoords().getX0(), formula.getMaxCoords().getX1()));
+  }
 }
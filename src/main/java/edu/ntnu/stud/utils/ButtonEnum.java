@@ -44,5 +44,29 @@ public enum ButtonEnum {
   COLORPICKER,
 
   /** Represents a button related to the name of the game. */
-  GAME_NAME
+  GAME_NAME,
+
+  /** Represents a pass of a progressive render being published to the canvas. */
+  RENDER_PASS,
+
+  /** Represents a button related to rendering escape-time fractals progressively. */
+  PROGRESSIVE,
+
+  /** Represents a button related to the pixel depth of the canvas. */
+  PIXEL_DEPTH,
+
+  /** Represents a button related to how parallel threads accumulate their hits. */
+  ACCUMULATION,
+
+  /** Represents a button related to the iteration limit of escape-time fractals. */
+  MAX_ITERATIONS,
+
+  /** Represents a button related to showing the distance estimate of escape-time fractals. */
+  DISTANCE_ESTIMATION,
+
+  /** Represents a button related to supersampling the edges of escape-time fractals. */
+  ANTIALIASING,
+
+  /** Represents a button related to rendering the Buddhabrot as a Nebulabrot. */
+  NEBULABROT
 }
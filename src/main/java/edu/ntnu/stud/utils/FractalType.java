@@ -6,7 +6,10 @@ import java.util.Set;
 
 /**
  * This class represents the fractal types.
- * It contains the fractal types Sierpinski, Barnsley and Julia.
+ * It contains the fractal types Sierpinski, Barnsley, Julia, Mandelbrot and Buddhabrot,
+ * and the escape-time fractals computed by a formula: the Burning Ship, the Multibrot
+ * set of degree 3, the Tricorn and the basins of Newton's method. The formulas
+ * themselves are kept by the formula registry of the chaos package.
  */
 public class FractalType {
 
@@ -25,8 +28,23 @@ public class FractalType {
   /** Represents the Mandelbrot fractal type. */
   public static final String MANDELBROT = "mandelbrot";
 
-  protected static Set<String> fractalSet =
-      new HashSet<>(Arrays.asList(SIERPINSKI, BARNSLEY, JULIA, MANDELBROT));
+  /** Represents the Buddhabrot fractal type. */
+  public static final String BUDDHABROT = "buddhabrot";
+
+  /** Represents the Burning Ship fractal type. */
+  public static final String BURNING_SHIP = "burningship";
+
+  /** Represents the Multibrot fractal type, of degree 3. */
+  public static final String MULTIBROT = "multibrot";
+
+  /** Represents the Tricorn fractal type. */
+  public static final String TRICORN = "tricorn";
+
+  /** Represents the fractal type of the basins of Newton's method. */
+  public static final String NEWTON = "newton";
+
+  protected static Set<String> fractalSet = new HashSet<>(Arrays.asList(SIERPINSKI, BARNSLEY,
+      JULIA, MANDELBROT, BUDDHABROT, BURNING_SHIP, MULTIBROT, TRICORN, NEWTON));
 
   /**
    * Constructs a new FractalType. This constructor is empty because it is not needed.
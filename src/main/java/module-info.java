@@ -1,6 +1,7 @@
 module IDATT2003.ChaosGame {
   requires javafx.controls;
   requires java.xml.crypto;
+  requires static jdk.incubator.vector;
 
   opens edu.ntnu.stud;
   exports edu.ntnu.stud;
@@ -0,0 +1,51 @@
+package edu.ntnu.stud.benchmark;
+
+import edu.ntnu.stud.chaos.AccumulationMode;
+import edu.ntnu.stud.chaos.ChaosGame;
+import edu.ntnu.stud.factory.ChaosGameDescriptionFactory;
+import edu.ntnu.stud.utils.FractalType;
+
+/**
+ * Benchmark of the {@link AccumulationMode}s of the parallel chaos game.
+ * Compares the replicated canvases against the shared canvas across thread counts,
+ * on a small canvas where threads often hit the same pixels and on a large one.
+ * This is not a unit test, and is run by hand from its main method.
+ */
+public class AccumulationBenchmark {
+
+  /** The number of steps in each measured run. */
+  private static final int STEPS = 20_000_000;
+
+  /** The number of runs made before measuring, to let the JIT compile the chains. */
+  private static final int WARMUP_RUNS = 3;
+
+  /**
+   * Run the benchmark and print the throughput of every mode.
+   *
+   * @param args not used.
+   */
+  public static void main(String[] args) {
+    int maxThreads = Runtime.getRuntime().availableProcessors();
+
+    for (int size : new int[] {64, 4096}) {
+      ChaosGame chaosGame = new ChaosGame(
+          ChaosGameDescriptionFactory.getDescription(FractalType.SIERPINSKI), size, size);
+      System.out.printf("Canvas %dx%d%n", size, size);
+
+      for (AccumulationMode mode : AccumulationMode.values()) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+          chaosGame.runStepsParallel(STEPS / 10, mode, maxThreads);
+        }
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+          long start = System.nanoTime();
+          chaosGame.runStepsParallel(STEPS, mode, threads);
+          double seconds = (System.nanoTime() - start) / 1e9;
+          double lost = STEPS - chaosGame.getCanvas().getStatistics().getTotalHits();
+
+          System.out.printf("  %-18s threads=%-3d %8.1f Msteps/s  lost=%.0f%n",
+              mode, threads, STEPS / seconds / 1e6, lost);
+        }
+      }
+    }
+  }
+}
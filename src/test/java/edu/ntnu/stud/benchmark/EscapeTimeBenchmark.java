@@ -0,0 +1,229 @@
+package edu.ntnu.stud.benchmark;
+
+import edu.ntnu.stud.chaos.ChaosCanvas;
+import edu.ntnu.stud.chaos.ChaosGame;
+import edu.ntnu.stud.chaos.DoubleDoubleKernel;
+import edu.ntnu.stud.chaos.EscapeTimeEngine;
+import edu.ntnu.stud.chaos.EscapeTimeKernel;
+import edu.ntnu.stud.chaos.MandelbrotKernel;
+import edu.ntnu.stud.chaos.PerturbationRenderer;
+import edu.ntnu.stud.chaos.ProgressiveEngine;
+import edu.ntnu.stud.chaos.SubdivisionEngine;
+import edu.ntnu.stud.chaos.VectorSupport;
+import edu.ntnu.stud.chaos.Viewport;
+import edu.ntnu.stud.factory.ChaosGameDescriptionFactory;
+import edu.ntnu.stud.math.Vector2D;
+import edu.ntnu.stud.utils.FractalType;
+import java.math.BigDecimal;
+
+/**
+ * Benchmark of the {@link EscapeTimeEngine} on a full-screen Mandelbrot set.
+ * Compares the kernels on a single thread first, and then renders the set
+ * with an increasing number of threads to show how the tiled engine scales
+ * with the number of cores.
+ * This is not a unit test, and is run by hand from its main method.
+ */
+public class EscapeTimeBenchmark {
+
+  /** The width and height of the rendered canvas. */
+  private static final int SIZE = 1024;
+
+  /** The iteration limit of the compared kernels. */
+  private static final int MAX_ITERATIONS = 1000;
+
+  /** The number of renders made before measuring, to let the JIT compile the kernels. */
+  private static final int WARMUP_RUNS = 3;
+
+  /** The number of measured renders for each case. */
+  private static final int MEASURED_RUNS = 5;
+
+  /**
+   * Run the benchmark and print the render time of every case.
+   *
+   * @param args not used.
+   */
+  public static void main(String[] args) {
+    compareKernels();
+    compareEngines();
+    compareDepths();
+    compareTiers();
+    compareThreads();
+  }
+
+  /**
+   * Print the render time of the Mandelbrot kernels on a single thread.
+   */
+  private static void compareKernels() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12),
+        SIZE, SIZE);
+    ChaosCanvas canvas = new ChaosCanvas(SIZE, SIZE, new Vector2D(0, 0), new Vector2D(1, 1));
+    EscapeTimeEngine engine = new EscapeTimeEngine(1, EscapeTimeEngine.DEFAULT_TILE_SIZE);
+    System.out.printf("Mandelbrot kernels %dx%d, 1 thread%n", SIZE, SIZE);
+
+    EscapeTimeKernel[] kernels = {
+        (i, j) -> powKernel(viewport.getRe(j), viewport.getIm(i)),
+        new MandelbrotKernel(viewport, MAX_ITERATIONS),
+        VectorSupport.mandelbrotKernel(viewport, MAX_ITERATIONS)
+    };
+    String[] names = {"Math.pow", "double", "vector"};
+
+    if (!VectorSupport.isAvailable()) {
+      System.out.println("  vector falls back to double, run with --add-modules "
+          + "jdk.incubator.vector");
+    }
+    for (int k = 0; k < kernels.length; k++) {
+      EscapeTimeKernel kernel = kernels[k];
+      double millis = measure(() -> {
+        canvas.clear();
+        engine.render(canvas, kernel);
+      });
+      System.out.printf("  %-10s %8.1f ms/frame%n", names[k], millis);
+    }
+  }
+
+  /**
+   * Print the render time of the tiled, the subdivision and the progressive engine
+   * on a single thread, the number of pixels the subdivision engine filled wrongly,
+   * and the number of pixels the progressive engine computed.
+   */
+  private static void compareEngines() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12),
+        SIZE, SIZE);
+    MandelbrotKernel kernel = new MandelbrotKernel(viewport, MAX_ITERATIONS);
+    ChaosCanvas canvas = new ChaosCanvas(SIZE, SIZE, new Vector2D(0, 0), new Vector2D(1, 1));
+    SubdivisionEngine subdivision =
+        new SubdivisionEngine(1, EscapeTimeEngine.DEFAULT_TILE_SIZE);
+    ProgressiveEngine progressive =
+        new ProgressiveEngine(1, EscapeTimeEngine.DEFAULT_TILE_SIZE);
+    EscapeTimeEngine[] engines = {
+        new EscapeTimeEngine(1, EscapeTimeEngine.DEFAULT_TILE_SIZE), subdivision, progressive
+    };
+    String[] names = {"tiled", "subdivision", "progressive"};
+    System.out.printf("Mandelbrot engines %dx%d, 1 thread%n", SIZE, SIZE);
+
+    for (int k = 0; k < engines.length; k++) {
+      EscapeTimeEngine engine = engines[k];
+      double millis = measure(() -> {
+        canvas.clear();
+        engine.render(canvas, kernel);
+      });
+      System.out.printf("  %-12s %8.1f ms/frame%n", names[k], millis);
+    }
+    subdivision.setVerifying(true);
+    canvas.clear();
+    subdivision.render(canvas, kernel);
+    System.out.printf("  subdivision differs from tiled at %d pixels%n",
+        subdivision.getMismatches());
+    System.out.printf("  progressive computed %d of %d pixels%n",
+        progressive.getComputedPixels(), SIZE * SIZE);
+  }
+
+  /**
+   * Print the render time of deeper and deeper zooms into the Mandelbrot set at i,
+   * rendered by perturbation on a single thread, with the iterations per pixel
+   * the series approximation skipped.
+   */
+  private static void compareDepths() {
+    ChaosCanvas canvas = new ChaosCanvas(SIZE, SIZE, new Vector2D(0, 0), new Vector2D(1, 1));
+    PerturbationRenderer renderer =
+        new PerturbationRenderer(new EscapeTimeEngine(1, EscapeTimeEngine.DEFAULT_TILE_SIZE));
+    System.out.printf("Mandelbrot perturbation %dx%d at i, 1 thread%n", SIZE, SIZE);
+
+    for (double span : new double[] {1e-5, 1e-30, 1e-100}) {
+      Viewport viewport = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, span, span, SIZE, SIZE);
+      int maxIterations = viewport.getIterationBudget(MAX_ITERATIONS, 2.47);
+      double millis = measure(() -> {
+        canvas.clear();
+        renderer.renderMandelbrot(canvas, viewport, maxIterations);
+      });
+      double iterations = canvas.getStatistics().getTotalHits();
+      System.out.printf("  span=%-8.0e %8.1f ms/frame %6.2f ns/iteration, %d skipped of %.0f%n",
+          span, millis, millis * 1e6 / iterations, renderer.getSkippedIterations(),
+          iterations / (SIZE * SIZE));
+    }
+  }
+
+  /**
+   * Print the render time of a zoom into the Mandelbrot set at i just past double
+   * precision, in double-double and by perturbation, on a single thread.
+   */
+  private static void compareTiers() {
+    Viewport viewport = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-20, 1e-20, SIZE, SIZE);
+    int maxIterations = viewport.getIterationBudget(MAX_ITERATIONS, 2.47);
+    ChaosCanvas canvas = new ChaosCanvas(SIZE, SIZE, new Vector2D(0, 0), new Vector2D(1, 1));
+    EscapeTimeEngine engine = new EscapeTimeEngine(1, EscapeTimeEngine.DEFAULT_TILE_SIZE);
+    PerturbationRenderer renderer = new PerturbationRenderer(engine);
+    DoubleDoubleKernel kernel = new DoubleDoubleKernel(viewport, maxIterations);
+    System.out.printf("Mandelbrot tiers %dx%d at i, span=1e-20, 1 thread%n", SIZE, SIZE);
+
+    Runnable[] renders = {
+        () -> engine.render(canvas, kernel),
+        () -> renderer.renderMandelbrot(canvas, viewport, maxIterations)
+    };
+    String[] names = {"double-double", "perturbation"};
+
+    for (int k = 0; k < renders.length; k++) {
+      Runnable render = renders[k];
+      double millis = measure(() -> {
+        canvas.clear();
+        render.run();
+      });
+      System.out.printf("  %-13s %8.1f ms/frame%n", names[k], millis);
+    }
+  }
+
+  /**
+   * Print the render time of the chaos game Mandelbrot method for every thread count.
+   */
+  private static void compareThreads() {
+    int maxThreads = Runtime.getRuntime().availableProcessors();
+    ChaosGame chaosGame = new ChaosGame(
+        ChaosGameDescriptionFactory.getDescription(FractalType.MANDELBROT), SIZE, SIZE);
+    System.out.printf("Mandelbrot %dx%d%n", SIZE, SIZE);
+
+    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+      chaosGame.setEscapeTimeEngine(
+          new EscapeTimeEngine(threads, EscapeTimeEngine.DEFAULT_TILE_SIZE));
+      double millis = measure(chaosGame::runMandelbrotMethod);
+      System.out.printf("  threads=%-3d %8.1f ms/frame%n", threads, millis);
+    }
+  }
+
+  /**
+   * Measure the average time of a render after warming it up.
+   *
+   * @param render the render to measure.
+   * @return the average time of a render in milliseconds.
+   */
+  private static double measure(Runnable render) {
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      render.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_RUNS; i++) {
+      render.run();
+    }
+    return (System.nanoTime() - start) / 1e6 / MEASURED_RUNS;
+  }
+
+  /**
+   * Compute a Mandelbrot pixel the way it was computed before the kernels existed,
+   * with Math.pow for every square.
+   *
+   * @param x0 the real part of the point.
+   * @param y0 the imaginary part of the point.
+   * @return the value of the pixel.
+   */
+  private static float powKernel(double x0, double y0) {
+    double x = 0;
+    double y = 0;
+    int iteration = 0;
+    while (Math.pow(x, 2) + Math.pow(y, 2) <= 4 && iteration < MAX_ITERATIONS) {
+      double tempX = Math.pow(x, 2) - Math.pow(y, 2) + x0;
+      y = 2 * x * y + y0;
+      x = tempX;
+      iteration++;
+    }
+    return EscapeTimeKernel.pixelValue(x0, y0, iteration, MAX_ITERATIONS);
+  }
+}
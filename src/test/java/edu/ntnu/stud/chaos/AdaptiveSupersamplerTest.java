@@ -0,0 +1,157 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link AdaptiveSupersampler}.
+ */
+class AdaptiveSupersamplerTest {
+
+  /** The number of pixels along each side of the tested canvas. */
+  static final int SIZE = 80;
+
+  /** The iteration limit of the tested kernels. */
+  static final int MAX_ITERATIONS = 300;
+
+  /** The number of samples along each side of a pixel. */
+  static final int SAMPLES = 4;
+
+  private Viewport viewport;
+  private ChaosCanvas chaosCanvas;
+
+  /**
+   * Sets up a view of the Mandelbrot set rendered once.
+   */
+  @BeforeEach
+  void setUp() {
+    viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12), SIZE, SIZE);
+    chaosCanvas = new ChaosCanvas(SIZE, SIZE, new Vector2D(0, 0), new Vector2D(1, 1),
+        PixelDepth.FLOAT);
+    new EscapeTimeEngine().render(chaosCanvas, kernel(viewport));
+  }
+
+  /**
+   * Make a Mandelbrot kernel for a viewport.
+   */
+  private static EscapeTimeKernel kernel(Viewport viewport) {
+    return new MandelbrotKernel(viewport, MAX_ITERATIONS);
+  }
+
+  @Test
+  @DisplayName("Samples are centred on their pixel")
+  void samplesCentred() {
+    Viewport samples = AdaptiveSupersampler.sampleViewport(viewport, SAMPLES);
+
+    assertAll("Sample viewport",
+        () -> assertEquals(SAMPLES * SIZE, samples.getWidth(), "Incorrect width"),
+        () -> assertEquals(viewport.getReStep() / SAMPLES, samples.getReStep(), 1e-15,
+            "Incorrect real step"),
+        () -> assertEquals(viewport.getImStep() / SAMPLES, samples.getImStep(), 1e-15,
+            "Incorrect imaginary step"),
+        () -> assertEquals(viewport.getRe(7),
+            (samples.getRe(SAMPLES * 7) + samples.getRe(SAMPLES * 8 - 1)) / 2, 1e-12,
+            "Samples of column 7 should be centred on it"),
+        () -> assertEquals(viewport.getIm(3),
+            (samples.getIm(SAMPLES * 3) + samples.getIm(SAMPLES * 4 - 1)) / 2, 1e-12,
+            "Samples of row 3 should be centred on it")
+    );
+  }
+
+  @Test
+  @DisplayName("Both pixels of a differing pair are marked")
+  void marksEdges() {
+    float[][] values = new float[3][4];
+    for (float[] row : values) {
+      row[2] = 10;
+      row[3] = 10;
+    }
+    int[] marked = AdaptiveSupersampler.markEdges(values, 1);
+
+    assertAll("Marked edges",
+        () -> assertArrayEquals(new int[] {1, 2, 5, 6, 9, 10}, marked,
+            "Only the columns on each side of the step should be marked"),
+        () -> assertEquals(0, AdaptiveSupersampler.markEdges(values, 10).length,
+            "Differences at the threshold should not be marked")
+    );
+  }
+
+  @Test
+  @DisplayName("Marked pixels get the mean of their samples and others are kept")
+  void matchesUniformSupersampling() {
+    float[][] before = new float[SIZE][SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        before[i][j] = (float) chaosCanvas.getPixelValue(i, j);
+      }
+    }
+    AdaptiveSupersampler supersampler = new AdaptiveSupersampler(2, SAMPLES,
+        AdaptiveSupersampler.DEFAULT_CONTRAST);
+    supersampler.supersample(chaosCanvas, viewport, AdaptiveSupersamplerTest::kernel);
+
+    float[][] samples = new float[SAMPLES * SIZE][SAMPLES * SIZE];
+    new EscapeTimeEngine().computeValues(samples,
+        kernel(AdaptiveSupersampler.sampleViewport(viewport, SAMPLES)));
+    int changed = 0;
+    double error = 0;
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        double sum = 0;
+        for (int a = 0; a < SAMPLES; a++) {
+          for (int b = 0; b < SAMPLES; b++) {
+            sum += samples[SAMPLES * i + a][SAMPLES * j + b];
+          }
+        }
+        double mean = sum / (SAMPLES * SAMPLES);
+        double value = chaosCanvas.getPixelValue(i, j);
+        if (value != before[i][j]) {
+          changed++;
+          assertEquals(mean, value, 1e-3, "Pixel " + i + ", " + j + " is not the mean");
+        }
+        error += Math.abs(mean - value);
+      }
+    }
+
+    int sampled = supersampler.getSampledPixels();
+    double meanError = error / (SIZE * SIZE) / MAX_ITERATIONS;
+    int changedPixels = changed;
+    assertAll("Adaptive supersampling",
+        () -> assertTrue(sampled > 0, "Edge pixels should be sampled"),
+        () -> assertTrue(sampled < SIZE * SIZE / 4, "Most pixels should be kept"),
+        () -> assertTrue(changedPixels <= sampled, "Only sampled pixels should change"),
+        () -> assertTrue(meanError < 1e-3, "Image should be close to uniform supersampling")
+    );
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw IllegalArgumentException")
+  void invalidArguments() {
+    AdaptiveSupersampler supersampler = new AdaptiveSupersampler();
+    Viewport small = new Viewport(new Vector2D(-2, -1), new Vector2D(1, 1), 5, 5);
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new AdaptiveSupersampler(0, 4, 0.1), "Zero threads should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new AdaptiveSupersampler(1, 0, 0.1), "Zero samples should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new AdaptiveSupersampler(1, 4, -1), "Negative contrast should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> supersampler.supersample(null, viewport, AdaptiveSupersamplerTest::kernel),
+            "Null canvas should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> supersampler.supersample(chaosCanvas, null, AdaptiveSupersamplerTest::kernel),
+            "Null viewport should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> supersampler.supersample(chaosCanvas, viewport, null),
+            "Null kernels should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> supersampler.supersample(chaosCanvas, small, AdaptiveSupersamplerTest::kernel),
+            "Viewport of another size should throw")
+    );
+  }
+}
@@ -0,0 +1,174 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link BuddhabrotEngine}.
+ */
+class BuddhabrotEngineTest {
+
+  /** The number of pixels along each side of the tested canvases. */
+  static final int SIZE = 20;
+
+  /** The iteration limit of the tested renders. */
+  static final int MAX_ITERATIONS = 200;
+
+  /**
+   * Create an empty canvas to count orbits on.
+   */
+  private static ChaosCanvas createCanvas() {
+    return new ChaosCanvas(SIZE, SIZE, new Vector2D(0, 0), new Vector2D(1, 1), PixelDepth.FLOAT);
+  }
+
+  /**
+   * Render a view with a sampling and return the share of the counts in each pixel.
+   */
+  private static double[] renderShares(Viewport viewport, BuddhabrotSampling sampling,
+                                       long samples) {
+    ChaosCanvas canvas = createCanvas();
+    BuddhabrotEngine engine = new BuddhabrotEngine(2);
+    engine.setSampling(sampling);
+    engine.render(new ChaosCanvas[] {canvas}, viewport, new int[] {MAX_ITERATIONS}, samples);
+
+    double[] shares = new double[SIZE * SIZE];
+    double total = 0;
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        shares[i * SIZE + j] = canvas.getPixelValue(i, j);
+        total += shares[i * SIZE + j];
+      }
+    }
+    for (int k = 0; k < shares.length; k++) {
+      shares[k] /= total;
+    }
+    return shares;
+  }
+
+  @Test
+  @DisplayName("Metropolis sampling converges to the uniform histogram")
+  void metropolisMatchesUniform() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.5), new Vector2D(1, 1.5), SIZE, SIZE);
+    double[] uniform = renderShares(viewport, BuddhabrotSampling.UNIFORM, 1_000_000);
+    double[] metropolis = renderShares(viewport, BuddhabrotSampling.METROPOLIS, 1_000_000);
+
+    double distance = 0;
+    for (int k = 0; k < uniform.length; k++) {
+      distance += Math.abs(uniform[k] - metropolis[k]);
+    }
+    assertTrue(distance < 0.1, "Histograms differ by " + distance);
+  }
+
+  @Test
+  @DisplayName("Metropolis sampling finds the orbits hitting a zoomed view")
+  void metropolisHitsZoomedView() {
+    Viewport viewport = new Viewport(new Vector2D(-1.3, 0), new Vector2D(-1.2, 0.1), SIZE, SIZE);
+    BuddhabrotEngine uniform = new BuddhabrotEngine(1);
+    BuddhabrotEngine metropolis = new BuddhabrotEngine(1);
+    metropolis.setSampling(BuddhabrotSampling.METROPOLIS);
+    uniform.render(new ChaosCanvas[] {createCanvas()}, viewport, new int[] {MAX_ITERATIONS},
+        100_000);
+    metropolis.render(new ChaosCanvas[] {createCanvas()}, viewport, new int[] {MAX_ITERATIONS},
+        100_000);
+
+    assertTrue(metropolis.getHittingSamples() > 10 * uniform.getHittingSamples(),
+        "Metropolis should hit the view far more often");
+  }
+
+  @Test
+  @DisplayName("Lower bands count a subset of the orbits of higher bands")
+  void nebulabrotBands() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.5), new Vector2D(1, 1.5), SIZE, SIZE);
+    ChaosCanvas[] channels = {createCanvas(), createCanvas(), createCanvas()};
+    new BuddhabrotEngine(2).render(channels, viewport, new int[] {MAX_ITERATIONS, 20, 2},
+        100_000);
+
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        assertTrue(channels[1].getPixelValue(i, j) <= channels[0].getPixelValue(i, j),
+            "Green exceeds red at " + i + ", " + j);
+        assertTrue(channels[2].getPixelValue(i, j) <= channels[1].getPixelValue(i, j),
+            "Blue exceeds green at " + i + ", " + j);
+      }
+    }
+    assertAll("Bands",
+        () -> assertTrue(channels[0].getStatistics().getMaxValue() > 0, "Red should be counted"),
+        () -> assertTrue(channels[1].getStatistics().getMaxValue() > 0,
+            "Green should be counted")
+    );
+  }
+
+  @Test
+  @DisplayName("A snapshot is published after every batch")
+  void publishesBatches() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.5), new Vector2D(1, 1.5), SIZE, SIZE);
+    ChaosCanvas canvas = createCanvas();
+    BuddhabrotEngine engine = new BuddhabrotEngine(2);
+    AtomicInteger batches = new AtomicInteger();
+    engine.setBatchListener(batches::incrementAndGet);
+    engine.render(new ChaosCanvas[] {canvas}, viewport, new int[] {MAX_ITERATIONS},
+        2L * BuddhabrotEngine.BATCH_SAMPLES + 1);
+
+    assertAll("Batches",
+        () -> assertEquals(3, batches.get(), "Incorrect number of batches"),
+        () -> assertEquals(canvas.getStatistics().getMaxValue(),
+            canvas.getSnapshot().getStatistics().getMaxValue(),
+            "The last batch should be published")
+    );
+  }
+
+  @Test
+  @DisplayName("A cancelled render counts no batch")
+  void cancelStopsRender() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.5), new Vector2D(1, 1.5), SIZE, SIZE);
+    ChaosCanvas canvas = createCanvas();
+    BuddhabrotEngine engine = new BuddhabrotEngine(2);
+    AtomicInteger batches = new AtomicInteger();
+    engine.setBatchListener(batches::incrementAndGet);
+    engine.cancel();
+    engine.render(new ChaosCanvas[] {canvas}, viewport, new int[] {MAX_ITERATIONS},
+        100L * BuddhabrotEngine.BATCH_SAMPLES);
+
+    assertAll("Cancel",
+        () -> assertEquals(0, batches.get(), "No batch should be published"),
+        () -> assertEquals(0, engine.getHittingSamples(), "No orbit should be counted"),
+        () -> assertEquals(0, canvas.getStatistics().getMaxValue(), "The canvas should be empty")
+    );
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw IllegalArgumentException")
+  void invalidArguments() {
+    BuddhabrotEngine engine = new BuddhabrotEngine();
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.5), new Vector2D(1, 1.5), SIZE, SIZE);
+    Viewport other = new Viewport(new Vector2D(-2, -1.5), new Vector2D(1, 1.5), 5, 5);
+    ChaosCanvas[] canvases = {createCanvas()};
+    int[] limits = {MAX_ITERATIONS};
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new BuddhabrotEngine(0), "Zero threads should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.setSampling(null), "Null sampling should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.render(null, viewport, limits, 10), "Null canvases should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.render(canvases, null, limits, 10), "Null viewport should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.render(canvases, viewport, new int[] {10, 20}, 10),
+            "Mismatched limits should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.render(canvases, other, limits, 10), "Other size should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.render(canvases, viewport, new int[] {0}, 10),
+            "Zero limit should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.render(canvases, viewport, limits, -1),
+            "Negative samples should throw")
+    );
+  }
+}
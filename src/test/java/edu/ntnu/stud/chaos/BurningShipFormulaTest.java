@@ -0,0 +1,40 @@
+package edu.ntnu.stud.chaos;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link BurningShipFormula}.
+ */
+class BurningShipFormulaTest {
+
+  /** The iteration limit of the tested formula. */
+  static final int MAX_ITERATIONS = 200;
+
+  /** The formula under test. */
+  final BurningShipFormula formula = new BurningShipFormula();
+
+  @Test
+  @DisplayName("The real axis matches the Mandelbrot set")
+  void realAxisMatchesMandelbrot() {
+    MultibrotFormula mandelbrot = new MultibrotFormula(2);
+    for (double re = -2.2; re < 0.6; re += 0.01) {
+      assertEquals(mandelbrot.computeValue(re, 0, MAX_ITERATIONS),
+          formula.computeValue(re, 0, MAX_ITERATIONS), 1e-4, "Incorrect value at " + re);
+    }
+  }
+
+  @Test
+  @DisplayName("Folding the orbit breaks the symmetry about the real axis")
+  void foldingBreaksSymmetry() {
+    assertAll("Burning Ship",
+        () -> assertEquals(MAX_ITERATIONS, formula.computeValue(-1.75, 0.02, MAX_ITERATIONS),
+            "The small ship above the axis should be inside"),
+        () -> assertTrue(formula.computeValue(-1.75, -0.02, MAX_ITERATIONS) < MAX_ITERATIONS,
+            "Its mirror image should escape"),
+        () -> assertEquals(Symmetry.NONE, formula.getSymmetry(null), "There is no symmetry")
+    );
+  }
+}
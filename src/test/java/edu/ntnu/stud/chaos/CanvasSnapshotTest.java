@@ -0,0 +1,138 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link CanvasSnapshot}.
+ */
+class CanvasSnapshotTest {
+
+  /** The canvas the snapshots are taken from. */
+  ChaosCanvas chaosCanvas;
+
+  /**
+   * Sets up the test environment.
+   */
+  @BeforeEach
+  void setUp() {
+    chaosCanvas = new ChaosCanvas(20, 10, new Vector2D(0, 0), new Vector2D(1, 1));
+    chaosCanvas.putPixel(2, 3, 5);
+    chaosCanvas.putPixel(4, 7, 2);
+  }
+
+  @Test
+  @DisplayName("Published snapshot holds the written pixels")
+  void publishedSnapshot() {
+    CanvasSnapshot snapshot = chaosCanvas.publishSnapshot();
+
+    assertAll("Published snapshot",
+        () -> assertEquals(20, snapshot.getWidth(), "Incorrect width"),
+        () -> assertEquals(10, snapshot.getHeight(), "Incorrect height"),
+        () -> assertEquals(PixelDepth.INT, snapshot.getPixelDepth(), "Incorrect depth"),
+        () -> assertEquals(5, snapshot.getPixelValue(2, 3), "Incorrect pixel value"),
+        () -> assertEquals(7, snapshot.getStatistics().getTotalHits(), "Incorrect total hits"),
+        () -> assertSame(snapshot, chaosCanvas.getSnapshot(), "Snapshot should be reused")
+    );
+  }
+
+  @Test
+  @DisplayName("Later writes do not change the snapshot")
+  void laterWrites() {
+    CanvasSnapshot snapshot = chaosCanvas.publishSnapshot();
+    chaosCanvas.putPixel(2, 3, 10);
+    chaosCanvas.getCanvasArray()[0][0] = 99;
+
+    assertAll("Unchanged snapshot",
+        () -> assertEquals(5, snapshot.getPixelValue(2, 3), "Pixel should not change"),
+        () -> assertEquals(0, snapshot.getPixelValue(0, 0), "Pixel should not change"),
+        () -> assertEquals(5, snapshot.getStatistics().getMaxValue(), "Max should not change"),
+        () -> assertEquals(15, chaosCanvas.publishSnapshot().getPixelValue(2, 3),
+            "New snapshot should see the write")
+    );
+  }
+
+  @Test
+  @DisplayName("Snapshots published one after another keep their own pixels")
+  void successiveSnapshots() {
+    CanvasSnapshot first = chaosCanvas.publishSnapshot();
+    chaosCanvas.putPixel(2, 3, 1);
+    CanvasSnapshot second = chaosCanvas.publishSnapshot();
+    chaosCanvas.putPixel(4, 7, 1);
+    chaosCanvas.getCanvasArray()[9][19] = 8;
+    CanvasSnapshot third = chaosCanvas.publishSnapshot();
+
+    assertAll("Successive snapshots",
+        () -> assertEquals(5, first.getPixelValue(2, 3), "First should not change"),
+        () -> assertEquals(2, first.getPixelValue(4, 7), "First should not change"),
+        () -> assertEquals(6, second.getPixelValue(2, 3), "Second should see its write"),
+        () -> assertEquals(2, second.getPixelValue(4, 7), "Second should not change"),
+        () -> assertEquals(6, third.getPixelValue(2, 3), "Third should keep the row"),
+        () -> assertEquals(3, third.getPixelValue(4, 7), "Third should see its write"),
+        () -> assertEquals(8, third.getPixelValue(9, 19),
+            "Third should see the write through the array"),
+        () -> assertEquals(0, second.getPixelValue(9, 19), "Second should not change")
+    );
+  }
+
+  @Test
+  @DisplayName("Clearing the canvas publishes an empty snapshot")
+  void clearPublishesEmpty() {
+    chaosCanvas.publishSnapshot();
+    chaosCanvas.clear();
+    CanvasSnapshot snapshot = chaosCanvas.getSnapshot();
+
+    assertAll("Empty snapshot",
+        () -> assertEquals(0, snapshot.getPixelValue(2, 3), "Pixel should be empty"),
+        () -> assertEquals(0, snapshot.getStatistics().getNonzeroCount(),
+            "Incorrect nonzero count"),
+        () -> assertEquals(0, snapshot.getPyramid().getRegionMax(0, 0, 10, 20),
+            "Pyramid should be empty"),
+        () -> assertEquals(10, snapshot.getCanvasArray().length, "Incorrect number of rows")
+    );
+  }
+
+  @Test
+  @DisplayName("Clearing the pixels keeps the published snapshot")
+  void clearPixelsKeepsSnapshot() {
+    CanvasSnapshot snapshot = chaosCanvas.publishSnapshot();
+    chaosCanvas.clearPixels();
+
+    assertAll("Kept snapshot",
+        () -> assertSame(snapshot, chaosCanvas.getSnapshot(), "Snapshot should be kept"),
+        () -> assertEquals(5, chaosCanvas.getSnapshot().getPixelValue(2, 3),
+            "Pixel should not change"),
+        () -> assertEquals(0, chaosCanvas.getPixelValue(2, 3), "Canvas should be cleared"),
+        () -> assertEquals(0, chaosCanvas.publishSnapshot().getStatistics().getNonzeroCount(),
+            "New snapshot should be empty")
+    );
+  }
+
+  @Test
+  @DisplayName("Returned arrays and statistics are copies")
+  void returnedCopies() {
+    CanvasSnapshot snapshot = chaosCanvas.publishSnapshot();
+    snapshot.getCanvasArray()[2][3] = 100;
+    snapshot.getStatistics().record(0, 100);
+
+    assertAll("Copies",
+        () -> assertEquals(5, snapshot.getPixelValue(2, 3), "Pixel should not change"),
+        () -> assertEquals(5, snapshot.getStatistics().getMaxValue(), "Max should not change"),
+        () -> assertEquals(5, snapshot.getPyramid().getRegionMax(0, 0, 10, 20),
+            "Incorrect pyramid max")
+    );
+  }
+
+  @Test
+  @DisplayName("Pixels outside the snapshot throw")
+  void outsidePixel() {
+    CanvasSnapshot snapshot = chaosCanvas.publishSnapshot();
+
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> snapshot.getPixelValue(10, 0),
+        "Pixel is outside the snapshot");
+  }
+}
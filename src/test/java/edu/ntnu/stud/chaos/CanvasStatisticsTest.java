@@ -0,0 +1,175 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link CanvasStatistics}.
+ */
+class CanvasStatisticsTest {
+
+  /** The canvas whose statistics are tested. */
+  ChaosCanvas chaosCanvas;
+
+  /**
+   * Sets up the test environment.
+   */
+  @BeforeEach
+  void setUp() {
+    chaosCanvas = new ChaosCanvas(50, 40, new Vector2D(0, 0), new Vector2D(1, 1));
+  }
+
+  @Nested
+  @DisplayName("Recording")
+  class Recording {
+    @Test
+    @DisplayName("Empty statistics")
+    void emptyStatistics() {
+      CanvasStatistics statistics = new CanvasStatistics();
+
+      assertAll("Empty statistics",
+          () -> assertEquals(0, statistics.getMaxValue(), "Incorrect max value"),
+          () -> assertEquals(0, statistics.getTotalHits(), "Incorrect total hits"),
+          () -> assertEquals(0, statistics.getNonzeroCount(), "Incorrect nonzero count")
+      );
+    }
+
+    @Test
+    @DisplayName("Record writes")
+    void recordWrites() {
+      CanvasStatistics statistics = new CanvasStatistics();
+      statistics.record(0, 3);
+      statistics.record(3, 7);
+      statistics.record(0, 2);
+      statistics.record(2, 0);
+
+      assertAll("Record writes",
+          () -> assertEquals(7, statistics.getMaxValue(), "Incorrect max value"),
+          () -> assertEquals(7, statistics.getTotalHits(), "Incorrect total hits"),
+          () -> assertEquals(1, statistics.getNonzeroCount(), "Incorrect nonzero count")
+      );
+    }
+
+    @Test
+    @DisplayName("Merge partials")
+    void mergePartials() {
+      CanvasStatistics first = new CanvasStatistics();
+      first.record(0, 4);
+      CanvasStatistics second = new CanvasStatistics();
+      second.record(0, 9);
+      second.record(0, 1);
+      first.merge(second);
+
+      assertAll("Merge partials",
+          () -> assertEquals(9, first.getMaxValue(), "Incorrect max value"),
+          () -> assertEquals(14, first.getTotalHits(), "Incorrect total hits"),
+          () -> assertEquals(3, first.getNonzeroCount(), "Incorrect nonzero count")
+      );
+    }
+
+    @Test
+    @DisplayName("Merge null throws")
+    void mergeNull() {
+      CanvasStatistics statistics = new CanvasStatistics();
+
+      assertThrows(IllegalArgumentException.class, () -> statistics.merge(null),
+          "Partial cannot be null");
+    }
+  }
+
+  @Nested
+  @DisplayName("Canvas statistics")
+  class CanvasTracking {
+    @Test
+    @DisplayName("Statistics follow putPixel")
+    void statisticsFollowPutPixel() {
+      chaosCanvas.putPixel(1, 1, 5);
+      chaosCanvas.putPixel(1, 1, 5);
+      chaosCanvas.putPixel(2, 3, 4);
+      chaosCanvas.putPixel(new Vector2D(0.5, 0.5));
+      CanvasStatistics statistics = chaosCanvas.getStatistics();
+
+      assertAll("Canvas statistics",
+          () -> assertEquals(10, statistics.getMaxValue(), "Incorrect max value"),
+          () -> assertEquals(15, statistics.getTotalHits(), "Incorrect total hits"),
+          () -> assertEquals(3, statistics.getNonzeroCount(), "Incorrect nonzero count")
+      );
+    }
+
+    @Test
+    @DisplayName("Max value is rescanned after the largest pixel decreases")
+    void maxValueAfterDecrease() {
+      chaosCanvas.putPixel(1, 1, 10);
+      chaosCanvas.putPixel(2, 2, 6);
+      chaosCanvas.putPixel(1, 1, -8);
+
+      assertEquals(6, chaosCanvas.getStatistics().getMaxValue(), "Incorrect max value");
+    }
+
+    @Test
+    @DisplayName("Clear resets the statistics")
+    void clearResets() {
+      chaosCanvas.putPixel(1, 1, 10);
+      chaosCanvas.clear();
+      CanvasStatistics statistics = chaosCanvas.getStatistics();
+
+      assertAll("Cleared statistics",
+          () -> assertEquals(0, statistics.getMaxValue(), "Incorrect max value"),
+          () -> assertEquals(0, statistics.getTotalHits(), "Incorrect total hits"),
+          () -> assertEquals(0, statistics.getNonzeroCount(), "Incorrect nonzero count")
+      );
+    }
+
+    @Test
+    @DisplayName("Saturated pixels count the hits that were kept")
+    void saturatedPixels() {
+      chaosCanvas = new ChaosCanvas(10, 10, new Vector2D(0, 0), new Vector2D(1, 1),
+          PixelDepth.BYTE);
+      chaosCanvas.putPixel(1, 1, 200);
+      chaosCanvas.putPixel(1, 1, 200);
+
+      assertEquals(255, chaosCanvas.getStatistics().getTotalHits(), "Incorrect total hits");
+    }
+
+    @Test
+    @DisplayName("Parallel partials merge into the canvas")
+    void parallelPartials() {
+      List<CanvasStatistics> partials = new ArrayList<>();
+      for (int i = 0; i < chaosCanvas.getHeight(); i++) {
+        partials.add(new CanvasStatistics());
+      }
+      IntStream.range(0, chaosCanvas.getHeight()).parallel().forEach(i -> {
+        for (int j = 0; j < chaosCanvas.getWidth(); j++) {
+          chaosCanvas.putPixel(i, j, i + 1, partials.get(i));
+        }
+      });
+      partials.forEach(chaosCanvas::mergeStatistics);
+      CanvasStatistics statistics = chaosCanvas.getStatistics();
+
+      assertAll("Merged statistics",
+          () -> assertEquals(40, statistics.getMaxValue(), "Incorrect max value"),
+          () -> assertEquals(50.0 * 40 * 41 / 2, statistics.getTotalHits(),
+              "Incorrect total hits"),
+          () -> assertEquals(2000, statistics.getNonzeroCount(), "Incorrect nonzero count")
+      );
+    }
+
+    @Test
+    @DisplayName("Returned statistics are a copy")
+    void returnedCopy() {
+      CanvasStatistics statistics = chaosCanvas.getStatistics();
+      statistics.record(0, 100);
+
+      assertEquals(0, chaosCanvas.getStatistics().getMaxValue(), "Canvas should not change");
+    }
+  }
+}
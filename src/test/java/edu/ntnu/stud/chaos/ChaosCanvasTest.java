@@ -6,6 +6,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -240,4 +243,177 @@ class ChaosCanvasTest {
         () -> assertEquals(expectPoint.getX1(), result.getX1(), "Incorrect X1 value")
     );
   }
-}
\ No newline at end of file
+
+  /**
+   * Tests that a canvas created without a pixel depth stores integer counters.
+   */
+  @Test
+  @DisplayName("Test default pixel depth")
+  void defaultPixelDepth() {
+    assertEquals(PixelDepth.INT, chaosCanvas.getPixelDepth(), "Default depth should be INT");
+  }
+
+  /**
+   * Tests that byte counters saturate at 255 instead of wrapping around.
+   */
+  @Test
+  @DisplayName("Test byte depth saturates")
+  void byteDepthSaturates() {
+    chaosCanvas = new ChaosCanvas(width, height, minCoords, maxCoords, PixelDepth.BYTE);
+    chaosCanvas.putPixel(1, 1, 200);
+    chaosCanvas.putPixel(1, 1, 200);
+    chaosCanvas.putPixel(2, 2, 5);
+    chaosCanvas.putPixel(2, 2, -10);
+
+    assertAll("Byte saturation",
+        () -> assertEquals(255, chaosCanvas.getPixelValue(1, 1), "Pixel should saturate at 255"),
+        () -> assertEquals(0, chaosCanvas.getPixelValue(2, 2), "Pixel should saturate at 0")
+    );
+  }
+
+  /**
+   * Tests that short counters saturate at 65535 instead of wrapping around.
+   */
+  @Test
+  @DisplayName("Test short depth saturates")
+  void shortDepthSaturates() {
+    chaosCanvas = new ChaosCanvas(width, height, minCoords, maxCoords, PixelDepth.SHORT);
+    chaosCanvas.putPixel(1, 1, 40000);
+    chaosCanvas.putPixel(1, 1, 40000);
+
+    assertEquals(65535, chaosCanvas.getPixelValue(1, 1), "Pixel should saturate at 65535");
+  }
+
+  /**
+   * Tests that long counters can hold values beyond the integer range,
+   * and that the integer canvas array saturates them.
+   */
+  @Test
+  @DisplayName("Test long depth")
+  void longDepth() {
+    chaosCanvas = new ChaosCanvas(width, height, minCoords, maxCoords, PixelDepth.LONG);
+    chaosCanvas.putPixel(1, 1, Integer.MAX_VALUE);
+    chaosCanvas.putPixel(1, 1, Integer.MAX_VALUE);
+
+    assertAll("Long depth",
+        () -> assertEquals(2.0 * Integer.MAX_VALUE, chaosCanvas.getPixelValue(1, 1),
+            "Pixel should exceed the integer range"),
+        () -> assertEquals(Integer.MAX_VALUE, chaosCanvas.getCanvasArray()[1][1],
+            "Canvas array should saturate at the integer range")
+    );
+  }
+
+  /**
+   * Tests that float pixels keep fractional values,
+   * while integer pixels round them.
+   */
+  @Test
+  @DisplayName("Test float depth keeps fractions")
+  void floatDepthKeepsFractions() {
+    ChaosCanvas floatCanvas =
+        new ChaosCanvas(width, height, minCoords, maxCoords, PixelDepth.FLOAT);
+    floatCanvas.putPixel(1, 1, 2.75f);
+    chaosCanvas.putPixel(1, 1, 2.75f);
+
+    assertAll("Float depth",
+        () -> assertEquals(2.75, floatCanvas.getPixelValue(1, 1), "Fraction should be kept"),
+        () -> assertEquals(2, floatCanvas.getCanvasArray()[1][1], "Canvas array should truncate"),
+        () -> assertEquals(3, chaosCanvas.getPixelValue(1, 1), "Int depth should round")
+    );
+  }
+
+  /**
+   * Tests that marking a point works the same for every pixel depth.
+   */
+  @Test
+  @DisplayName("Test putPixel with point for every depth")
+  void putPixelWithPointForEveryDepth() {
+    Vector2D point = new Vector2D(1, 1);
+    for (PixelDepth depth : PixelDepth.values()) {
+      ChaosCanvas canvas = new ChaosCanvas(width, height, minCoords, maxCoords, depth);
+      canvas.putPixel(point);
+      canvas.putPixel(point);
+      assertEquals(1, canvas.getPixel(point), "Incorrect pixel value for " + depth);
+      canvas.clear();
+      assertEquals(0, canvas.getPixel(point), "Pixel not cleared for " + depth);
+    }
+  }
+
+  /**
+   * Tests that reset keeps the buffer, clears it and uses the new coordinates.
+   */
+  @Test
+  @DisplayName("Test reset with new coordinates")
+  void resetWithNewCoordinates() {
+    int[][] before = chaosCanvas.getCanvasArray();
+    chaosCanvas.putPixel(new Vector2D(1, 1));
+    chaosCanvas.reset(new Vector2D(0, 0), new Vector2D(2, 2));
+    Vector2D result = chaosCanvas.convertToCanvasCoords(new Vector2D(2, 0));
+
+    assertAll("Reset",
+        () -> assertSame(before, chaosCanvas.getCanvasArray(), "Buffer should be reused"),
+        () -> assertEquals(0, chaosCanvas.getStatistics().getNonzeroCount(),
+            "Canvas should be cleared"),
+        () -> assertEquals(0, before[0][99], "Pixel should be cleared"),
+        () -> assertEquals(99, result.getX0(), "Incorrect X0 value"),
+        () -> assertEquals(99, result.getX1(), "Incorrect X1 value")
+    );
+  }
+
+  /**
+   * Tests that reset with null coordinates throws.
+   */
+  @Test
+  @DisplayName("Test reset with null coordinates")
+  void resetWithNullCoordinates() {
+    assertThrows(IllegalArgumentException.class,
+        () -> chaosCanvas.reset(null, maxCoords), "Coordinates cannot be null");
+  }
+
+  /**
+   * Tests that a canvas large enough to be cleared in parallel is fully cleared.
+   */
+  @Test
+  @DisplayName("Test clear on a large canvas")
+  void clearLargeCanvas() {
+    ChaosCanvas largeCanvas = new ChaosCanvas(1024, 512, minCoords, maxCoords);
+    largeCanvas.putPixel(0, 0, 1);
+    largeCanvas.putPixel(511, 1023, 1);
+    largeCanvas.putPixel(300, 700, 1);
+    largeCanvas.clear();
+
+    int sum = Arrays.stream(largeCanvas.getCanvasArray()).flatMapToInt(Arrays::stream).sum();
+    assertEquals(0, sum, "Every pixel should be cleared");
+  }
+
+  /**
+   * Tests that merged long counters keep counts too large for an int.
+   */
+  @Test
+  @DisplayName("Test merging replicas of a long canvas")
+  void mergeLongReplicas() {
+    ChaosCanvas longCanvas = new ChaosCanvas(width, height, minCoords, maxCoords,
+        PixelDepth.LONG);
+    ChaosCanvas replica = new ChaosCanvas(width, height, minCoords, maxCoords,
+        PixelDepth.LONG);
+    replica.putPixel(3, 4, Integer.MAX_VALUE);
+    replica.putPixel(3, 4, Integer.MAX_VALUE);
+    longCanvas.putPixel(3, 4, 1);
+    longCanvas.mergeReplicas(List.of(replica));
+
+    assertEquals(2L * Integer.MAX_VALUE + 1, longCanvas.getPixelValue(3, 4),
+        "Long counts should be merged at full width");
+  }
+
+  /**
+   * Tests that clear also zeroes pixels written past the statistics.
+   */
+  @Test
+  @DisplayName("Test clear after writes to the backing array")
+  void clearUntrackedWrites() {
+    chaosCanvas.getCanvasArray()[5][6] = 7;
+    chaosCanvas.clear();
+
+    assertEquals(0, chaosCanvas.getCanvasArray()[5][6], "Untracked pixel should be cleared");
+  }
+}
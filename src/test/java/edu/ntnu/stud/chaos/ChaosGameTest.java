@@ -15,6 +15,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -158,6 +159,22 @@ class ChaosGameTest {
       );
     }
 
+    @Test
+    @DisplayName("Set Description after a size change creates a new canvas")
+    void setDescriptionAfterSizeChange() {
+      ChaosCanvas canvas = chaosGame.getCanvas();
+      chaosGame.setDescription(chaosGameDescription);
+      ChaosCanvas sameSize = chaosGame.getCanvas();
+      chaosGame.setWidth(50);
+      chaosGame.setDescription(chaosGameDescription);
+
+      assertAll("Set Description",
+          () -> assertSame(canvas, sameSize, "Canvas should be reused"),
+          () -> assertNotSame(canvas, chaosGame.getCanvas(), "Canvas should be recreated"),
+          () -> assertEquals(50, chaosGame.getCanvas().getWidth(), "Incorrect canvas width")
+      );
+    }
+
     @Test
     @DisplayName("Set Description with null Chaos Game Description")
     void setDescriptionWithNullChaosGameDescription() {
@@ -255,6 +272,20 @@ class ChaosGameTest {
       );
     }
 
+    @Test
+    @DisplayName("Test updateMinMaxCoords reuses the canvas")
+    void testUpdateMinMaxCoordsReusesCanvas() {
+      ChaosCanvas canvas = chaosGame.getCanvas();
+      chaosGame.runSteps(100);
+      chaosGame.updateMinAndMaxCoords(-1, -1, 1, 1);
+
+      assertAll("Reuse canvas",
+          () -> assertSame(canvas, chaosGame.getCanvas(), "Canvas should be reused"),
+          () -> assertEquals(0, canvas.getStatistics().getNonzeroCount(),
+              "Canvas should be cleared")
+      );
+    }
+
     @Test
     @DisplayName("Test updateMinMaxCoords with min coords greater than max coords")
     void testUpdateMinMaxCoordsWithMinCoordsGreaterThanMaxCoords() {
@@ -332,6 +363,79 @@ class ChaosGameTest {
     }
   }
 
+  @Nested
+  @DisplayName("Run steps in parallel")
+  class ChaosGameRunStepsParallel {
+    @Test
+    @DisplayName("Exact modes count every step")
+    void exactModesCountEveryStep() {
+      int steps = 10000;
+
+      for (AccumulationMode mode
+          : List.of(AccumulationMode.REPLICATED, AccumulationMode.SHARED_ATOMIC)) {
+        chaosGame.runStepsParallel(steps, mode, 4);
+
+        assertEquals(steps, chaosGame.getCanvas().getStatistics().getTotalHits(),
+            "Incorrect total hits for " + mode);
+      }
+    }
+
+    @Test
+    @DisplayName("Exact modes agree with the canvas contents")
+    void exactModesAgreeWithCanvas() {
+      int steps = 5000;
+      chaosGame.runStepsParallel(steps, AccumulationMode.SHARED_ATOMIC, 3);
+
+      int sum = Arrays.stream(chaosGame.getCanvas().getCanvasArray())
+          .flatMapToInt(Arrays::stream)
+          .sum();
+
+      assertEquals(steps, sum, "Incorrect sum of the canvas");
+    }
+
+    @Test
+    @DisplayName("Approximate mode never counts more than the steps")
+    void approximateModeCount() {
+      int steps = 10000;
+      chaosGame.runStepsParallel(steps, AccumulationMode.SHARED_APPROXIMATE, 4);
+      double totalHits = chaosGame.getCanvas().getStatistics().getTotalHits();
+
+      assertAll("Approximate mode",
+          () -> assertTrue(totalHits > 0, "Some hits should be counted"),
+          () -> assertTrue(totalHits <= steps, "More hits than steps were counted")
+      );
+    }
+
+    @Test
+    @DisplayName("Invalid arguments throw")
+    void invalidArguments() {
+      assertAll("Invalid arguments",
+          () -> assertThrows(IllegalArgumentException.class,
+              () -> chaosGame.runStepsParallel(-1, AccumulationMode.REPLICATED),
+              "Steps cannot be negative"),
+          () -> assertThrows(IllegalArgumentException.class,
+              () -> chaosGame.runStepsParallel(10, null), "Mode cannot be null"),
+          () -> assertThrows(IllegalArgumentException.class,
+              () -> chaosGame.runStepsParallel(10, AccumulationMode.REPLICATED, 0),
+              "Threads must be positive")
+      );
+    }
+
+    @Test
+    @DisplayName("Run parallel Chaos Game with incorrect description")
+    void runParallelWithIncorrectDescription() {
+      List<Transform2D> affineTransform2DList = new ArrayList<>();
+      affineTransform2DList.add(
+          new AffineTransform2D(new Matrix2x2(1, 1, 1, 1), new Vector2D(1, 1)));
+      chaosGame.setDescription(
+          new ChaosGameDescription(affineTransform2DList, minCoords, maxCoords));
+
+      assertThrows(IllegalArgumentException.class,
+          () -> chaosGame.runStepsParallel(100, AccumulationMode.SHARED_ATOMIC, 2),
+          "Incorrect description");
+    }
+  }
+
   @Nested
   @DisplayName("Run Julia Methods")
   class ChaosGameRunJuliaMethods {
@@ -379,5 +483,198 @@ class ChaosGameTest {
 
       assertEquals(1000, maxValue, "Incorrect max value");
     }
+
+    @Test
+    @DisplayName("Mandelbrot Method keeps fractional smooth values")
+    void runMandelbrotMethodSmooth() {
+      chaosGame.runMandelbrotMethod();
+      ChaosCanvas canvas = chaosGame.getCanvas();
+      int fractional = 0;
+      for (int i = 0; i < canvas.getHeight(); i++) {
+        for (int j = 0; j < canvas.getWidth(); j++) {
+          double value = canvas.getPixelValue(i, j);
+          if (value != Math.rint(value)) {
+            fractional++;
+          }
+        }
+      }
+      int finalFractional = fractional;
+      chaosGame.runSteps(10);
+
+      assertAll("Smooth values",
+          () -> assertEquals(PixelDepth.FLOAT, canvas.getPixelDepth(), "Incorrect pixel depth"),
+          () -> assertTrue(finalFractional > 0, "Escaped values should not be rounded"),
+          () -> assertEquals(chaosGame.getPixelDepth(), chaosGame.getCanvas().getPixelDepth(),
+              "Chaos game should count on its own pixel depth")
+      );
+    }
+
+    @Test
+    @DisplayName("Mandelbrot Method shows the distance estimate")
+    void runMandelbrotMethodDistanceEstimation() {
+      chaosGame.updateMinAndMaxCoords(-2, -1.12, 0.47, 1.12);
+      chaosGame.setDistanceEstimation(true);
+      chaosGame.runMandelbrotMethod();
+
+      assertAll("Distance estimation",
+          () -> assertTrue(chaosGame.isDistanceEstimation(), "Mode should be on"),
+          () -> assertEquals(1, chaosGame.getCanvas().getStatistics().getMaxValue(),
+              "Coverage should be at most 1"),
+          () -> assertEquals(0, chaosGame.getCanvas().getPixelValue(0, 0),
+              "Corner far from the set should not be covered")
+      );
+    }
+
+    @Test
+    @DisplayName("Escape-time fractals are rendered exactly by default")
+    void exactEngineByDefault() {
+      assertAll("Engine",
+          () -> assertEquals(EscapeTimeEngine.class, chaosGame.getEscapeTimeEngine().getClass(),
+              "The default engine should be the tiled engine"),
+          () -> assertFalse(chaosGame.isProgressive(), "Rendering should not be progressive")
+      );
+
+      chaosGame.setProgressive(true);
+      assertInstanceOf(ProgressiveEngine.class, chaosGame.getEscapeTimeEngine(),
+          "Progressive rendering should use the progressive engine");
+      chaosGame.setProgressive(false);
+      assertEquals(EscapeTimeEngine.class, chaosGame.getEscapeTimeEngine().getClass(),
+          "Turning progressive rendering off should restore the tiled engine");
+    }
+
+    @Test
+    @DisplayName("Cancelling stops the renders until the cancellation is cleared")
+    void cancelRendering() {
+      chaosGame.cancelRendering();
+      assertAll("Cancelled",
+          () -> assertTrue(chaosGame.getEscapeTimeEngine().isCancelled(),
+              "The escape-time engine should be cancelled"),
+          () -> assertTrue(chaosGame.getSupersampler().isCancelled(),
+              "The supersampler should be cancelled"),
+          () -> assertTrue(chaosGame.getBuddhabrotEngine().isCancelled(),
+              "The Buddhabrot engine should be cancelled")
+      );
+
+      chaosGame.clearCancellation();
+      assertAll("Cleared",
+          () -> assertFalse(chaosGame.getEscapeTimeEngine().isCancelled(),
+              "The escape-time engine should run again"),
+          () -> assertFalse(chaosGame.getSupersampler().isCancelled(),
+              "The supersampler should run again"),
+          () -> assertFalse(chaosGame.getBuddhabrotEngine().isCancelled(),
+              "The Buddhabrot engine should run again")
+      );
+    }
+
+    @Test
+    @DisplayName("Mandelbrot Method supersamples the edges")
+    void runMandelbrotMethodAntialiasing() {
+      chaosGame.updateMinAndMaxCoords(-2, -1.12, 0.47, 1.12);
+      chaosGame.setAntialiasing(true);
+      chaosGame.runMandelbrotMethod();
+      int sampled = chaosGame.getSupersampler().getSampledPixels();
+      int pixels = chaosGame.getCanvas().getWidth() * chaosGame.getCanvas().getHeight();
+
+      assertAll("Antialiasing",
+          () -> assertTrue(chaosGame.isAntialiasing(), "Antialiasing should be on"),
+          () -> assertTrue(sampled > 0, "Edge pixels should be sampled"),
+          () -> assertTrue(sampled < pixels / 4, "Most pixels should be kept")
+      );
+    }
+
+    @Test
+    @DisplayName("Buddhabrot Method renders the Nebulabrot channels")
+    void runBuddhabrotMethodNebulabrot() {
+      chaosGame.updateMinAndMaxCoords(-2, -1.5, 1, 1.5);
+      chaosGame.setNebulabrot(true);
+      chaosGame.runBuddhabrotMethod(new Viewport(new Vector2D(-2, -1.5), new Vector2D(1, 1.5),
+          chaosGame.getCanvas().getWidth(), chaosGame.getCanvas().getHeight()), 50_000);
+      ChaosCanvas[] channels = chaosGame.getNebulabrotChannels();
+
+      assertAll("Nebulabrot",
+          () -> assertEquals(3, channels.length, "There should be three channels"),
+          () -> assertSame(chaosGame.getCanvas(), channels[0], "Red should be the canvas"),
+          () -> assertTrue(chaosGame.getCanvas().getStatistics().getMaxValue() > 0,
+              "Orbits should be counted")
+      );
+
+      chaosGame.runMandelbrotMethod();
+      assertNull(chaosGame.getNebulabrotChannels(), "Other runs should drop the channels");
+    }
+
+    @Test
+    @DisplayName("Formula Method renders an escape-time formula")
+    void runFormulaMethod() {
+      chaosGame.updateMinAndMaxCoords(-2, -1.6, 1.2, 1.6);
+      chaosGame.runFormulaMethod(new TricornFormula());
+      ChaosCanvas canvas = chaosGame.getCanvas();
+
+      assertAll("Formula",
+          () -> assertEquals(PixelDepth.FLOAT, canvas.getPixelDepth(),
+              "Formulas should keep smooth values"),
+          () -> assertTrue(canvas.getStatistics().getMaxValue() > 0,
+              "Points should be computed"),
+          () -> assertThrows(IllegalArgumentException.class,
+              () -> chaosGame.runFormulaMethod(null), "Null formulas should throw")
+      );
+    }
+
+    @Test
+    @DisplayName("Mandelbrot Method honors the description coordinates")
+    void runMandelbrotMethodInViewport() {
+      chaosGame.updateMinAndMaxCoords(1, 1, 1.5, 1.5);
+      chaosGame.runMandelbrotMethod();
+
+      assertTrue(chaosGame.getCanvas().getStatistics().getMaxValue() < 1000,
+          "Region outside the set should escape everywhere");
+    }
+
+    @Test
+    @DisplayName("Mandelbrot Method resumes at a higher iteration limit")
+    void runMandelbrotMethodResumed() {
+      chaosGame.runMandelbrotMethod();
+      chaosGame.setMaxIterations(2000);
+      chaosGame.runMandelbrotMethod();
+      int running = chaosGame.getOrbitState().countRunning();
+
+      assertAll("Resumed render",
+          () -> assertEquals(2000, chaosGame.getOrbitState().getMaxIterations(),
+              "Incorrect iteration limit"),
+          () -> assertTrue(running > 0, "Interior pixels should be kept running"),
+          () -> assertEquals(2000, chaosGame.getCanvas().getStatistics().getMaxValue(),
+              "Incorrect max value"),
+          () -> assertThrows(IllegalArgumentException.class,
+              () -> chaosGame.setMaxIterations(0), "Max iterations must be positive")
+      );
+    }
+
+    @Test
+    @DisplayName("Mandelbrot Method beyond double precision renders by perturbation")
+    void runMandelbrotMethodDeep() {
+      chaosGame.runMandelbrotMethod(new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-40, 1e-40,
+          chaosGame.getCanvas().getWidth(), chaosGame.getCanvas().getHeight()));
+
+      assertTrue(chaosGame.getCanvas().getStatistics().getMaxValue() > 0,
+          "Deep zoom should be rendered");
+    }
+
+    @Test
+    @DisplayName("Mandelbrot Method between double precision and perturbation")
+    void runMandelbrotMethodDoubleDouble() {
+      chaosGame.runMandelbrotMethod(new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-20, 1e-20,
+          chaosGame.getCanvas().getWidth(), chaosGame.getCanvas().getHeight()));
+
+      assertTrue(chaosGame.getCanvas().getStatistics().getMaxValue() > 0,
+          "Zoom should be rendered in double-double precision");
+    }
+
+    @Test
+    @DisplayName("Mandelbrot Method with a viewport of another size throws")
+    void runMandelbrotMethodWrongSize() {
+      Viewport viewport = new Viewport(new Vector2D(0, 0), new Vector2D(1, 1), 3, 3);
+
+      assertThrows(IllegalArgumentException.class,
+          () -> chaosGame.runMandelbrotMethod(viewport), "Viewport must be the size of the canvas");
+    }
   }
-}
\ No newline at end of file
+}
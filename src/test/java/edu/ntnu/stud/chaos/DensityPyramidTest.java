@@ -0,0 +1,210 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link DensityPyramid}.
+ */
+class DensityPyramidTest {
+
+  /** The width of the canvas. */
+  int width;
+
+  /** The height of the canvas. */
+  int height;
+
+  /** The canvas the pyramid is built from. */
+  ChaosCanvas chaosCanvas;
+
+  /**
+   * Sets up a canvas with odd dimensions filled with random values.
+   */
+  @BeforeEach
+  void setUp() {
+    width = 37;
+    height = 21;
+    chaosCanvas = new ChaosCanvas(width, height, new Vector2D(0, 0), new Vector2D(1, 1));
+
+    Random random = new Random(42);
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        chaosCanvas.putPixel(i, j, random.nextInt(100));
+      }
+    }
+  }
+
+  @Nested
+  @DisplayName("Levels")
+  class Levels {
+    @Test
+    @DisplayName("Level sizes halve until a single cell remains")
+    void levelSizes() {
+      DensityPyramid pyramid = new DensityPyramid(chaosCanvas);
+      int topLevel = pyramid.getLevelCount() - 1;
+
+      assertAll("Level sizes",
+          () -> assertEquals(7, pyramid.getLevelCount(), "Incorrect level count"),
+          () -> assertEquals(width, pyramid.getLevelWidth(0), "Incorrect width of level 0"),
+          () -> assertEquals(19, pyramid.getLevelWidth(1), "Incorrect width of level 1"),
+          () -> assertEquals(11, pyramid.getLevelHeight(1), "Incorrect height of level 1"),
+          () -> assertEquals(1, pyramid.getLevelWidth(topLevel), "Incorrect top width"),
+          () -> assertEquals(1, pyramid.getLevelHeight(topLevel), "Incorrect top height")
+      );
+    }
+
+    @Test
+    @DisplayName("Top level holds the total sum and the global maximum")
+    void topLevel() {
+      DensityPyramid pyramid = new DensityPyramid(chaosCanvas);
+      int topLevel = pyramid.getLevelCount() - 1;
+
+      assertAll("Top level",
+          () -> assertEquals(bruteSum(0, 0, height, width), pyramid.getSum(topLevel, 0, 0),
+              "Incorrect total sum"),
+          () -> assertEquals(bruteMax(0, 0, height, width), pyramid.getMax(topLevel, 0, 0),
+              "Incorrect global maximum")
+      );
+    }
+
+    @Test
+    @DisplayName("Invalid level throws")
+    void invalidLevel() {
+      DensityPyramid pyramid = new DensityPyramid(chaosCanvas);
+
+      assertThrows(IllegalArgumentException.class,
+          () -> pyramid.getLevelWidth(pyramid.getLevelCount()), "Level should not exist");
+    }
+
+    @Test
+    @DisplayName("Reduced view fits within the requested size")
+    void reducedView() {
+      DensityPyramid pyramid = new DensityPyramid(chaosCanvas);
+      double[][] view = pyramid.getReducedView(10, 10, true);
+
+      assertAll("Reduced view",
+          () -> assertTrue(view.length <= 10, "View is too high"),
+          () -> assertTrue(view[0].length <= 10, "View is too wide"),
+          () -> assertEquals(bruteMax(0, 0, height, width), maxOf(view),
+              "View should keep the global maximum")
+      );
+    }
+  }
+
+  @Nested
+  @DisplayName("Region queries")
+  class RegionQueries {
+    @Test
+    @DisplayName("Region queries match a brute force scan")
+    void regionQueriesMatchBruteForce() {
+      DensityPyramid pyramid = new DensityPyramid(chaosCanvas);
+      Random random = new Random(7);
+
+      for (int n = 0; n < 200; n++) {
+        int row0 = random.nextInt(height + 1);
+        int row1 = row0 + random.nextInt(height - row0 + 1);
+        int col0 = random.nextInt(width + 1);
+        int col1 = col0 + random.nextInt(width - col0 + 1);
+
+        assertEquals(bruteSum(row0, col0, row1, col1),
+            pyramid.getRegionSum(row0, col0, row1, col1), "Incorrect region sum");
+        assertEquals(bruteMax(row0, col0, row1, col1),
+            pyramid.getRegionMax(row0, col0, row1, col1), "Incorrect region maximum");
+      }
+    }
+
+    @Test
+    @DisplayName("Region outside the canvas throws")
+    void regionOutsideCanvas() {
+      DensityPyramid pyramid = new DensityPyramid(chaosCanvas);
+
+      assertThrows(IllegalArgumentException.class,
+          () -> pyramid.getRegionMax(0, 0, height + 1, width), "Region is outside the canvas");
+    }
+  }
+
+  @Nested
+  @DisplayName("Canvas pyramid")
+  class CanvasPyramid {
+    @Test
+    @DisplayName("Pyramid is reused until the canvas is written to")
+    void pyramidReused() {
+      DensityPyramid first = chaosCanvas.getPyramid();
+      DensityPyramid second = chaosCanvas.getPyramid();
+      chaosCanvas.putPixel(0, 0, 1000);
+      DensityPyramid third = chaosCanvas.getPyramid();
+      int topLevel = third.getLevelCount() - 1;
+
+      assertAll("Canvas pyramid",
+          () -> assertSame(first, second, "Pyramid should be reused"),
+          () -> assertNotSame(second, third, "Pyramid should be rebuilt"),
+          () -> assertEquals(bruteMax(0, 0, height, width), third.getMax(topLevel, 0, 0),
+              "Rebuilt pyramid should see the new pixel")
+      );
+    }
+
+    @Test
+    @DisplayName("Later writes change no level of a built pyramid")
+    void laterWrites() {
+      DensityPyramid pyramid = chaosCanvas.getPyramid();
+      double pixel = pyramid.getSum(0, 0, 0);
+      double topMax = pyramid.getMax(pyramid.getLevelCount() - 1, 0, 0);
+      chaosCanvas.putPixel(0, 0, 1000);
+
+      assertAll("Unchanged pyramid",
+          () -> assertEquals(pixel, pyramid.getSum(0, 0, 0), "Level 0 should not change"),
+          () -> assertEquals(topMax, pyramid.getMax(pyramid.getLevelCount() - 1, 0, 0),
+              "Top level should not change"),
+          () -> assertEquals(pyramid.getSum(1, 0, 0), pyramid.getSum(0, 0, 0)
+              + pyramid.getSum(0, 0, 1) + pyramid.getSum(0, 1, 0) + pyramid.getSum(0, 1, 1),
+              "Levels should agree")
+      );
+    }
+  }
+
+  /**
+   * Sum a region of the canvas pixel by pixel.
+   */
+  private double bruteSum(int row0, int col0, int row1, int col1) {
+    double sum = 0;
+    for (int i = row0; i < row1; i++) {
+      for (int j = col0; j < col1; j++) {
+        sum += chaosCanvas.getPixelValue(i, j);
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Find the largest pixel in a region of the canvas pixel by pixel.
+   */
+  private double bruteMax(int row0, int col0, int row1, int col1) {
+    double max = 0;
+    for (int i = row0; i < row1; i++) {
+      for (int j = col0; j < col1; j++) {
+        max = Math.max(max, chaosCanvas.getPixelValue(i, j));
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Find the largest value in a view.
+   */
+  private static double maxOf(double[][] view) {
+    double max = 0;
+    for (double[] row : view) {
+      for (double value : row) {
+        max = Math.max(max, value);
+      }
+    }
+    return max;
+  }
+}
@@ -0,0 +1,88 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link DistanceEstimateEngine}.
+ */
+class DistanceEstimateEngineTest {
+
+  /** The number of pixels along each side of the tested canvas. */
+  static final int SIZE = 120;
+
+  private ChaosCanvas chaosCanvas;
+  private ChaosCanvas tiled;
+
+  /**
+   * Sets up the canvases to render on.
+   */
+  @BeforeEach
+  void setUp() {
+    chaosCanvas = new ChaosCanvas(SIZE, SIZE, new Vector2D(0, 0), new Vector2D(1, 1),
+        PixelDepth.FLOAT);
+    tiled = new ChaosCanvas(SIZE, SIZE, new Vector2D(0, 0), new Vector2D(1, 1),
+        PixelDepth.FLOAT);
+  }
+
+  @Test
+  @DisplayName("Filled blocks match a full render of the kernel")
+  void matchesFullRender() {
+    Viewport mandelbrot = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12),
+        SIZE, SIZE);
+    Viewport julia = new Viewport(new Vector2D(-1.6, -1), new Vector2D(1.6, 1), SIZE, SIZE);
+    DistanceEstimateEngine engine = new DistanceEstimateEngine(2, 8);
+
+    for (DistanceEstimateKernel kernel : new DistanceEstimateKernel[] {
+        new DistanceEstimateKernel(mandelbrot, 500),
+        new DistanceEstimateKernel(julia, -0.8, 0.156, 500)}) {
+      chaosCanvas.clear();
+      tiled.clear();
+      engine.render(chaosCanvas, kernel);
+      new EscapeTimeEngine(2, 8).render(tiled, kernel);
+
+      assertTrue(engine.getFilledPixels() > 0, "Blocks far from the set should be filled");
+      for (int i = 0; i < SIZE; i++) {
+        for (int j = 0; j < SIZE; j++) {
+          assertEquals(tiled.getPixelValue(i, j), chaosCanvas.getPixelValue(i, j),
+              "Pixel " + i + ", " + j + " differs");
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Other kernels are rendered in tiles")
+  void otherKernels() {
+    EscapeTimeKernel kernel = (i, j) -> i + j;
+    DistanceEstimateEngine engine = new DistanceEstimateEngine(2, 8);
+    engine.render(chaosCanvas, kernel);
+
+    assertAll("Other kernels",
+        () -> assertEquals(0, engine.getFilledPixels(), "Nothing should be filled"),
+        () -> assertEquals(SIZE - 1 + 7, chaosCanvas.getPixelValue(SIZE - 1, 7),
+            "Incorrect pixel value")
+    );
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw IllegalArgumentException")
+  void invalidArguments() {
+    DistanceEstimateEngine engine = new DistanceEstimateEngine();
+    Viewport viewport = new Viewport(new Vector2D(-2, -1), new Vector2D(1, 1), SIZE, SIZE);
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.render(null, new DistanceEstimateKernel(viewport, 10)),
+            "Null canvas should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.render(chaosCanvas, null), "Null kernel should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new DistanceEstimateEngine(0, 8), "Zero threads should throw")
+    );
+  }
+}
@@ -0,0 +1,83 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link DistanceEstimateKernel}.
+ */
+class DistanceEstimateKernelTest {
+
+  /** The iteration limit of the tested kernels. */
+  static final int MAX_ITERATIONS = 500;
+
+  @Test
+  @DisplayName("Mandelbrot estimate bounds the distance to the cusp at 1/4")
+  void mandelbrotBound() {
+    Viewport viewport = new Viewport(new Vector2D(-0.5, -1), new Vector2D(2.5, 1), 4, 3);
+    DistanceEstimateKernel kernel = new DistanceEstimateKernel(viewport, MAX_ITERATIONS);
+    double distance = kernel.estimateDistance(1, 3);
+
+    assertAll("Mandelbrot bound",
+        () -> assertTrue(distance <= 2.25, "Estimate should not exceed the true distance"),
+        () -> assertTrue(distance >= 2.25 / 4, "Estimate should be at least a quarter"),
+        () -> assertEquals(0, kernel.estimateDistance(1, 0), "Points inside have distance 0"),
+        () -> assertEquals(1, kernel.computePixel(1, 0), "Points inside are covered"),
+        () -> assertEquals(0, kernel.computePixel(0, 3), "Far points are not covered")
+    );
+  }
+
+  @Test
+  @DisplayName("Julia estimate of the unit circle is |z| ln|z| / 2")
+  void juliaCircle() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -2), new Vector2D(2, 2), 3, 3);
+    DistanceEstimateKernel kernel = new DistanceEstimateKernel(viewport, 0, 0, MAX_ITERATIONS);
+
+    assertAll("Julia circle",
+        () -> assertEquals(Math.log(2), kernel.estimateDistance(1, 2), 1e-9,
+            "Incorrect estimate for z = 2"),
+        () -> assertEquals(0, kernel.estimateDistance(1, 1), "The origin does not escape")
+    );
+  }
+
+  @Test
+  @DisplayName("Filaments between rows are covered")
+  void filamentsCovered() {
+    Viewport viewport = new Viewport(new Vector2D(-1.9, -0.05), new Vector2D(-1.8, 0.05), 10, 10);
+    DistanceEstimateKernel kernel = new DistanceEstimateKernel(viewport, MAX_ITERATIONS);
+    MandelbrotKernel plain = new MandelbrotKernel(viewport, MAX_ITERATIONS);
+
+    for (int j = 0; j < 10; j++) {
+      int column = j;
+      assertAll("Column " + j,
+          () -> assertTrue(plain.computePixel(4, column) < MAX_ITERATIONS,
+              "The plain kernel misses the filament"),
+          () -> assertTrue(kernel.computePixel(4, column) >= 0.5,
+              "The row above the real axis should be covered"),
+          () -> assertTrue(kernel.computePixel(5, column) >= 0.5,
+              "The row below the real axis should be covered"),
+          () -> assertEquals(0, kernel.computePixel(0, column),
+              "Rows far from the axis should not be covered")
+      );
+    }
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw IllegalArgumentException")
+  void invalidArguments() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1), new Vector2D(1, 1), 5, 5);
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new DistanceEstimateKernel(null, 10), "Null viewport should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new DistanceEstimateKernel(viewport, 0), "Zero limit should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new DistanceEstimateKernel(viewport, 0.3, 0.5, -1),
+            "Negative limit should throw")
+    );
+  }
+}
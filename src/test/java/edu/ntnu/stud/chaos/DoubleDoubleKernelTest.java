@@ -0,0 +1,117 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link DoubleDoubleKernel}.
+ */
+class DoubleDoubleKernelTest {
+
+  /** The number of pixels along each side of the tested grid. */
+  static final int SIZE = 60;
+
+  /** The iteration limit of the tested kernels. */
+  static final int MAX_ITERATIONS = 500;
+
+  @Test
+  @DisplayName("Shallow Mandelbrot zoom agrees with double precision")
+  void mandelbrotAgreesWithDouble() {
+    Viewport viewport = new Viewport(new Vector2D(-0.76, 0.05), new Vector2D(-0.74, 0.07),
+        SIZE, SIZE);
+    assertAgrees(new DoubleDoubleKernel(viewport, MAX_ITERATIONS),
+        new MandelbrotKernel(viewport, MAX_ITERATIONS));
+  }
+
+  @Test
+  @DisplayName("Shallow Julia zoom agrees with double precision")
+  void juliaAgreesWithDouble() {
+    Viewport viewport = new Viewport(new Vector2D(-1.6, -1), new Vector2D(1.6, 1), SIZE, SIZE);
+    assertAgrees(new DoubleDoubleKernel(viewport, -0.74543, 0.11301, MAX_ITERATIONS),
+        new JuliaKernel(viewport, -0.74543, 0.11301, MAX_ITERATIONS));
+  }
+
+  @Test
+  @DisplayName("Mandelbrot zoom past double precision matches arbitrary precision")
+  void deepMatchesBigDecimal() {
+    Viewport viewport = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-20, 1e-20, 5, 5);
+    DoubleDoubleKernel kernel = new DoubleDoubleKernel(viewport, MAX_ITERATIONS);
+
+    for (int[] pixel : new int[][] {{0, 0}, {4, 4}, {3, 1}, {4, 2}}) {
+      BigDecimal cx = BigDecimal.ZERO.add(new BigDecimal(viewport.getDeltaRe(pixel[1])));
+      BigDecimal cy = BigDecimal.ONE.add(new BigDecimal(viewport.getDeltaIm(pixel[0])));
+      assertEquals(iterations(cx, cy), kernel.computePixel(pixel[0], pixel[1]),
+          "Incorrect pixel value");
+    }
+  }
+
+  @Test
+  @DisplayName("Rows match single pixels")
+  void rowMatchesPixels() {
+    Viewport viewport = new Viewport(new BigDecimal("-0.75"), new BigDecimal("0.1"), 1e-18,
+        1e-18, SIZE, 3);
+    DoubleDoubleKernel kernel = new DoubleDoubleKernel(viewport, MAX_ITERATIONS);
+
+    float[] row = new float[SIZE];
+    kernel.computeRow(1, 0, SIZE, row);
+    for (int j = 0; j < SIZE; j++) {
+      assertEquals(kernel.computePixel(1, j), row[j], "Row differs from pixel " + j);
+    }
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw")
+  void invalidArguments() {
+    Viewport viewport = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-20, 1e-20, 5, 5);
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new DoubleDoubleKernel(null, 10), "Viewport cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new DoubleDoubleKernel(viewport, 0), "Max iterations must be positive"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new DoubleDoubleKernel(viewport, 0.3, 0.5, -1),
+            "Max iterations must be positive")
+    );
+  }
+
+  /**
+   * Assert that fewer than one in a hundred pixels differ between two kernels.
+   */
+  private static void assertAgrees(EscapeTimeKernel kernel, EscapeTimeKernel expected) {
+    int differences = 0;
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        if (Math.abs(kernel.computePixel(i, j) - expected.computePixel(i, j)) > 1e-3) {
+          differences++;
+        }
+      }
+    }
+    assertTrue(differences < SIZE * SIZE / 100, "Too many differing pixels: " + differences);
+  }
+
+  /**
+   * Count the iterations before a point escapes, iterating in arbitrary precision.
+   */
+  private static float iterations(BigDecimal cx, BigDecimal cy) {
+    MathContext context = new MathContext(60);
+    BigDecimal x = BigDecimal.ZERO;
+    BigDecimal y = BigDecimal.ZERO;
+    int iteration = 0;
+    while (x.doubleValue() * x.doubleValue() + y.doubleValue() * y.doubleValue() <= 4
+        && iteration < MAX_ITERATIONS) {
+      BigDecimal x2 = x.multiply(x, context);
+      BigDecimal y2 = y.multiply(y, context);
+      y = x.multiply(y, context).multiply(BigDecimal.valueOf(2)).add(cy, context);
+      x = x2.subtract(y2).add(cx, context);
+      iteration++;
+    }
+    return iteration;
+  }
+}
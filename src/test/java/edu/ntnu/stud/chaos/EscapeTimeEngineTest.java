@@ -0,0 +1,180 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link EscapeTimeEngine}.
+ */
+class EscapeTimeEngineTest {
+
+  /** The canvas rendered on, with a size that does not divide into whole tiles. */
+  ChaosCanvas chaosCanvas;
+
+  /** A kernel giving every pixel a value from its placement. */
+  EscapeTimeKernel kernel;
+
+  /**
+   * Sets up the test environment.
+   */
+  @BeforeEach
+  void setUp() {
+    chaosCanvas = new ChaosCanvas(53, 37, new Vector2D(0, 0), new Vector2D(1, 1),
+        PixelDepth.FLOAT);
+    kernel = (i, j) -> (i * 7 + j * 3) % 11;
+  }
+
+  @Test
+  @DisplayName("Parallel render matches the kernel at every pixel")
+  void renderMatchesKernel() {
+    new EscapeTimeEngine(4, 8).render(chaosCanvas, kernel);
+
+    double expectedTotal = 0;
+    for (int i = 0; i < chaosCanvas.getHeight(); i++) {
+      for (int j = 0; j < chaosCanvas.getWidth(); j++) {
+        assertEquals(kernel.computePixel(i, j), chaosCanvas.getPixelValue(i, j),
+            "Incorrect pixel value");
+        expectedTotal += kernel.computePixel(i, j);
+      }
+    }
+    assertEquals(expectedTotal, chaosCanvas.getStatistics().getTotalHits(),
+        "Incorrect total hits");
+  }
+
+  @Test
+  @DisplayName("Every pixel is computed exactly once")
+  void everyPixelOnce() {
+    Set<Integer> computed = ConcurrentHashMap.newKeySet();
+    new EscapeTimeEngine(3, 5).render(chaosCanvas, (i, j) -> {
+      assertTrue(computed.add(i * chaosCanvas.getWidth() + j), "Pixel computed twice");
+      return 1;
+    });
+
+    assertAll("Computed pixels",
+        () -> assertEquals(53 * 37, computed.size(), "Incorrect number of pixels"),
+        () -> assertEquals(53 * 37, chaosCanvas.getStatistics().getNonzeroCount(),
+            "Incorrect nonzero count")
+    );
+  }
+
+  @Test
+  @DisplayName("Renders reuse the pool of the engine")
+  void renderReusesPool() {
+    EscapeTimeEngine engine = new EscapeTimeEngine(2, 8);
+    ForkJoinPool pool = engine.getPool();
+    engine.render(chaosCanvas, kernel);
+    engine.computeValues(new float[37][53], kernel);
+
+    assertAll("Pool",
+        () -> assertSame(pool, engine.getPool(), "The pool should be kept"),
+        () -> assertFalse(pool.isShutdown(), "The pool should stay open"),
+        () -> assertEquals(2, pool.getParallelism(), "Incorrect parallelism")
+    );
+  }
+
+  @Test
+  @DisplayName("A cancelled render stops until the cancellation is cleared")
+  void cancelStopsRender() {
+    EscapeTimeEngine engine = new EscapeTimeEngine(1, 8);
+    AtomicInteger computed = new AtomicInteger();
+    engine.render(chaosCanvas, (i, j) -> {
+      if (computed.incrementAndGet() == 10) {
+        engine.cancel();
+      }
+      return 1;
+    });
+    int cancelledPixels = computed.get();
+
+    engine.render(chaosCanvas, kernel);
+    int stillCancelledPixels = computed.get() - cancelledPixels;
+    engine.clearCancellation();
+    engine.render(chaosCanvas, kernel);
+
+    assertAll("Cancel",
+        () -> assertTrue(cancelledPixels < 8 * 8, "The render should stop within the tile"),
+        () -> assertEquals(0, stillCancelledPixels, "A cancelled engine should compute nothing"),
+        () -> assertFalse(engine.isCancelled(), "The cancellation should be cleared"),
+        () -> assertEquals(kernel.computePixel(36, 52), chaosCanvas.getPixelValue(36, 52),
+            "The render after clearing should write every pixel")
+    );
+  }
+
+  @Test
+  @DisplayName("Computed values match the kernel without touching a canvas")
+  void computeValues() {
+    float[][] values = new float[37][53];
+    new EscapeTimeEngine(3, 8).computeValues(values, kernel);
+
+    for (int i = 0; i < values.length; i++) {
+      for (int j = 0; j < values[i].length; j++) {
+        assertEquals(kernel.computePixel(i, j), values[i][j], "Incorrect value");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Mirrored pixels of a symmetric kernel are copied, not computed")
+  void symmetricKernel() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12), 53, 37);
+    MandelbrotKernel mandelbrot = new MandelbrotKernel(viewport, 200);
+    Set<Integer> computed = ConcurrentHashMap.newKeySet();
+    EscapeTimeKernel counted = new EscapeTimeKernel() {
+      @Override
+      public float computePixel(int i, int j) {
+        computed.add(i * 53 + j);
+        return mandelbrot.computePixel(i, j);
+      }
+
+      @Override
+      public Symmetry getSymmetry() {
+        return mandelbrot.getSymmetry();
+      }
+    };
+    new EscapeTimeEngine(3, 8).render(chaosCanvas, counted);
+
+    assertAll("Symmetric kernel",
+        () -> assertEquals(19 * 53, computed.size(), "Only the upper half should be computed"),
+        () -> assertEquals(chaosCanvas.getPixelValue(3, 20), chaosCanvas.getPixelValue(33, 20),
+            "Mirrored pixels should be equal"),
+        () -> assertEquals(mandelbrot.computePixel(30, 10), chaosCanvas.getPixelValue(30, 10),
+            "Incorrect copied value")
+    );
+  }
+
+  @Test
+  @DisplayName("Tile size larger than the canvas renders in one tile")
+  void singleTile() {
+    new EscapeTimeEngine(2, 1000).render(chaosCanvas, kernel);
+
+    assertEquals(kernel.computePixel(36, 52), chaosCanvas.getPixelValue(36, 52),
+        "Incorrect pixel value");
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw")
+  void invalidArguments() {
+    EscapeTimeEngine engine = new EscapeTimeEngine();
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class, () -> new EscapeTimeEngine(0, 16),
+            "Threads must be positive"),
+        () -> assertThrows(IllegalArgumentException.class, () -> new EscapeTimeEngine(2, 0),
+            "Tile size must be positive"),
+        () -> assertThrows(IllegalArgumentException.class, () -> engine.render(null, kernel),
+            "Canvas cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.render(chaosCanvas, null), "Kernel cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.computeValues(null, kernel), "Values cannot be null")
+    );
+  }
+}
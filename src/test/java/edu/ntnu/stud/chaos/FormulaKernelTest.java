@@ -0,0 +1,80 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link FormulaKernel}.
+ */
+class FormulaKernelTest {
+
+  /** The number of pixels along each side of the tested grid. */
+  static final int SIZE = 40;
+
+  /** The iteration limit of the tested kernels. */
+  static final int MAX_ITERATIONS = 200;
+
+  /** The viewport of the tested kernels, with the real axis on the middle row. */
+  static final Viewport VIEWPORT = new Viewport(new Vector2D(-2, -1.6),
+      new Vector2D(1.2, 1.6), SIZE, SIZE + 1);
+
+  @Test
+  @DisplayName("Pixels are the values of the formula at their points")
+  void pixelsMatchFormula() {
+    EscapeTimeFormula formula = new BurningShipFormula();
+    FormulaKernel kernel = new FormulaKernel(formula, VIEWPORT, MAX_ITERATIONS);
+
+    for (int i = 0; i <= SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        assertEquals(formula.computeValue(VIEWPORT.getRe(j), VIEWPORT.getIm(i), MAX_ITERATIONS),
+            kernel.computePixel(i, j), "Incorrect pixel value");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("The symmetry is the one of the formula")
+  void symmetryFollowsFormula() {
+    assertAll("Symmetry",
+        () -> assertEquals(Symmetry.NONE,
+            new FormulaKernel(new BurningShipFormula(), VIEWPORT, MAX_ITERATIONS).getSymmetry(),
+            "The Burning Ship should have no symmetry"),
+        () -> assertNotEquals(Symmetry.NONE,
+            new FormulaKernel(new TricornFormula(), VIEWPORT, MAX_ITERATIONS).getSymmetry(),
+            "The Tricorn should be symmetric about the real axis")
+    );
+  }
+
+  @Test
+  @DisplayName("A rendered formula matches its kernel")
+  void renderMatchesKernel() {
+    FormulaKernel kernel = new FormulaKernel(new TricornFormula(), VIEWPORT, MAX_ITERATIONS);
+    ChaosCanvas canvas = new ChaosCanvas(SIZE, SIZE + 1, new Vector2D(-2, -1.6),
+        new Vector2D(1.2, 1.6), PixelDepth.FLOAT);
+    new EscapeTimeEngine(2, 8).render(canvas, kernel);
+
+    for (int i = 0; i <= SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        assertEquals(kernel.computePixel(i, j), canvas.getPixelValue(i, j), 1e-6,
+            "Incorrect pixel value");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw")
+  void invalidArguments() {
+    EscapeTimeFormula formula = new TricornFormula();
+    assertAll("Arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new FormulaKernel(null, VIEWPORT, MAX_ITERATIONS), "Null formula"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new FormulaKernel(formula, null, MAX_ITERATIONS), "Null viewport"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new FormulaKernel(formula, VIEWPORT, 0), "No iterations")
+    );
+  }
+}
@@ -0,0 +1,70 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.utils.FractalType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link FormulaRegistry}.
+ */
+class FormulaRegistryTest {
+
+  @Test
+  @DisplayName("Get the formulas of the escape-time fractals")
+  void getFormula() {
+    assertAll("Formula",
+        () -> assertInstanceOf(TricornFormula.class,
+            FormulaRegistry.getFormula(FractalType.TRICORN),
+            "The Tricorn should have its formula"),
+        () -> assertEquals(3, ((MultibrotFormula) FormulaRegistry.getFormula(
+            FractalType.MULTIBROT)).getDegree(), "The Multibrot set should be of degree 3"),
+        () -> assertNull(FormulaRegistry.getFormula(FractalType.MANDELBROT),
+            "The Mandelbrot set should have no formula"),
+        () -> assertNull(FormulaRegistry.getFormula("unknown"),
+            "Unknown fractals have no formula"),
+        () -> assertNull(FormulaRegistry.getFormula(null), "Null names have no formula")
+    );
+  }
+
+  @Test
+  @DisplayName("Register a formula under the name of a fractal")
+  void register() {
+    EscapeTimeFormula formula = new MultibrotFormula(3);
+    FormulaRegistry.register(FractalType.MULTIBROT, formula);
+
+    assertAll("Register",
+        () -> assertSame(formula, FormulaRegistry.getFormula(FractalType.MULTIBROT),
+            "The formula should replace the one before"),
+        () -> assertEquals(9, FractalType.getFractalSet().size(),
+            "A registered name should not be added twice"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> FormulaRegistry.register(" ", formula), "Blank names should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> FormulaRegistry.register(null, formula), "Null names should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> FormulaRegistry.register("formula", null), "Null formulas should throw")
+    );
+  }
+
+  @Test
+  @DisplayName("Register and look up a formula in any case")
+  void registerMixedCase() {
+    EscapeTimeFormula formula = new TricornFormula();
+    FormulaRegistry.register("TriCorn", formula);
+
+    try {
+      assertAll("Mixed case",
+          () -> assertSame(formula, FormulaRegistry.getFormula("TRICORN"),
+              "Upper-case lookups should find the formula"),
+          () -> assertSame(formula, FormulaRegistry.getFormula(FractalType.TRICORN),
+              "Lower-case lookups should find the formula"),
+          () -> assertEquals(9, FractalType.getFractalSet().size(),
+              "The name should be added to the fractals in lower case")
+      );
+    } finally {
+      FormulaRegistry.register(FractalType.TRICORN, new TricornFormula());
+    }
+  }
+}
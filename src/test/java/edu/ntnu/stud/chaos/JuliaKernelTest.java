@@ -0,0 +1,84 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link JuliaKernel}.
+ */
+class JuliaKernelTest {
+
+  /** The number of pixels along each side of the tested grid. */
+  static final int SIZE = 120;
+
+  /** The iteration limit of the tested kernels. */
+  static final int MAX_ITERATIONS = 500;
+
+  /** The viewport showing the whole escape radius. */
+  static final Viewport VIEWPORT = new Viewport(new Vector2D(-2, -2),
+      new Vector2D(2, 2), SIZE, SIZE);
+
+  /** The real part of the Julia constant. */
+  static final double CX = -0.4;
+
+  /** The imaginary part of the Julia constant. */
+  static final double CY = 0.6;
+
+  @Test
+  @DisplayName("Double precision matches the iteration written with Math.pow")
+  void doubleMatchesReference() {
+    JuliaKernel kernel = new JuliaKernel(VIEWPORT, CX, CY, MAX_ITERATIONS);
+
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        assertEquals(reference(VIEWPORT.getRe(j), VIEWPORT.getIm(i)), kernel.computePixel(i, j),
+            "Incorrect pixel value");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Rows computed in pairs match single pixels")
+  void rowMatchesPixels() {
+    JuliaKernel kernel = new JuliaKernel(VIEWPORT, CX, CY, MAX_ITERATIONS);
+    float[] values = new float[SIZE - 3];
+    for (int i = 0; i < SIZE; i++) {
+      kernel.computeRow(i, 3, SIZE, values);
+      for (int j = 3; j < SIZE; j++) {
+        assertEquals(kernel.computePixel(i, j), values[j - 3], "Incorrect pixel value");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw")
+  void invalidArguments() {
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new JuliaKernel(VIEWPORT, CX, CY, -1), "Max iterations must be positive"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new JuliaKernel(null, CX, CY, MAX_ITERATIONS), "Viewport cannot be null")
+    );
+  }
+
+  /**
+   * Compute a pixel the way it was computed before the kernel existed.
+   */
+  private static float reference(double zx, double zy) {
+    int iteration = 0;
+    while (Math.pow(zx, 2) + Math.pow(zy, 2) < 4 && iteration < MAX_ITERATIONS) {
+      double tempX = Math.pow(zx, 2) - Math.pow(zy, 2);
+      zy = 2.0 * zx * zy + CY;
+      zx = tempX + CX;
+      iteration++;
+    }
+    if (iteration == MAX_ITERATIONS) {
+      return MAX_ITERATIONS;
+    }
+    double absZ = Math.pow(zx, 2) + Math.pow(zy, 2);
+    return (float) Math.max(0, iteration + 1 - Math.log(Math.log(absZ)) / Math.log(2));
+  }
+}
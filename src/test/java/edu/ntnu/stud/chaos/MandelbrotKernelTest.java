@@ -0,0 +1,167 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link MandelbrotKernel}.
+ */
+class MandelbrotKernelTest {
+
+  /** The number of pixels along each side of the tested grid. */
+  static final int SIZE = 120;
+
+  /** The iteration limit of the tested kernels. */
+  static final int MAX_ITERATIONS = 500;
+
+  /** The viewport showing the whole set. */
+  static final Viewport VIEWPORT = new Viewport(new Vector2D(-2, -1.12),
+      new Vector2D(0.47, 1.12), SIZE, SIZE);
+
+  @Test
+  @DisplayName("Double precision matches the iteration written with Math.pow")
+  void doubleMatchesReference() {
+    MandelbrotKernel kernel = new MandelbrotKernel(VIEWPORT, MAX_ITERATIONS);
+
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        assertEquals(reference(VIEWPORT.getRe(j), VIEWPORT.getIm(i)),
+            kernel.computePixel(i, j), "Incorrect pixel value");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Rows computed in pairs match single pixels")
+  void rowMatchesPixels() {
+    MandelbrotKernel kernel = new MandelbrotKernel(VIEWPORT, MAX_ITERATIONS);
+    float[] values = new float[SIZE - 3];
+    for (int i = 0; i < SIZE; i++) {
+      kernel.computeRow(i, 3, SIZE, values);
+      for (int j = 3; j < SIZE; j++) {
+        assertEquals(kernel.computePixel(i, j), values[j - 3], "Incorrect pixel value");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("The default view is pixel-identical to double precision")
+  void defaultViewMatchesDouble() {
+    Viewport view = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12),
+        4 * SIZE, 4 * SIZE);
+    MandelbrotKernel kernel = new MandelbrotKernel(view, MAX_ITERATIONS);
+
+    for (int i = 0; i < 4 * SIZE; i++) {
+      for (int j = 0; j < 4 * SIZE; j++) {
+        assertEquals(reference(view.getRe(j), view.getIm(i)), kernel.computePixel(i, j),
+            "Incorrect pixel value");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Points inside the set reach the iteration limit")
+  void insidePoints() {
+    MandelbrotKernel kernel = new MandelbrotKernel(new Viewport(new Vector2D(-0.1, -0.1),
+        new Vector2D(0.1, 0.1), 3, 3), MAX_ITERATIONS);
+
+    assertEquals(MAX_ITERATIONS, kernel.computePixel(1, 1), "Origin should not escape");
+  }
+
+  @Test
+  @DisplayName("Main cardioid and period-2 bulb are found without iterating")
+  void cardioidAndBulb() {
+    assertAll("Cardioid and bulb",
+        () -> assertTrue(MandelbrotKernel.isInCardioidOrBulb(0, 0), "Origin is in the cardioid"),
+        () -> assertTrue(MandelbrotKernel.isInCardioidOrBulb(0.2, 0.5),
+            "Point should be in the cardioid"),
+        () -> assertTrue(MandelbrotKernel.isInCardioidOrBulb(-1.1, 0.1),
+            "Point should be in the bulb"),
+        () -> assertFalse(MandelbrotKernel.isInCardioidOrBulb(0.3, 0),
+            "Point right of the cusp should be outside"),
+        () -> assertFalse(MandelbrotKernel.isInCardioidOrBulb(-0.12, 0.75),
+            "Point in the period-3 bulb should be outside")
+    );
+  }
+
+  @Test
+  @DisplayName("Cycles outside the cardioid reach the iteration limit")
+  void cycleDetection() {
+    Viewport viewport = new Viewport(new Vector2D(-0.14, 0.73), new Vector2D(-0.1, 0.77), 3, 3);
+
+    MandelbrotKernel kernel = new MandelbrotKernel(viewport, MAX_ITERATIONS);
+    float[] values = new float[3];
+    kernel.computeRow(1, 0, 3, values);
+    assertAll("Period-3 bulb",
+        () -> assertEquals(MAX_ITERATIONS, kernel.computePixel(1, 1),
+            "Point in the period-3 bulb should not escape"),
+        () -> assertArrayEquals(new float[] {MAX_ITERATIONS, MAX_ITERATIONS, MAX_ITERATIONS},
+            values, "Points in the period-3 bulb should not escape")
+    );
+  }
+
+  @Test
+  @DisplayName("Cycle detection does not change pixels near the boundary")
+  void cycleDetectionNearBoundary() {
+    Viewport viewport = new Viewport(new Vector2D(-0.7454, 0.1128),
+        new Vector2D(-0.7452, 0.1130), SIZE, SIZE);
+    MandelbrotKernel kernel = new MandelbrotKernel(viewport, MAX_ITERATIONS);
+
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        assertEquals(reference(viewport.getRe(j), viewport.getIm(i)),
+            kernel.computePixel(i, j), "Incorrect pixel value");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Rows run from the top of the viewport")
+  void orientation() {
+    MandelbrotKernel kernel = new MandelbrotKernel(VIEWPORT, MAX_ITERATIONS);
+
+    assertAll("Orientation",
+        () -> assertEquals(reference(-2, 1.12), kernel.computePixel(0, 0),
+            "Top left pixel should be the smallest real and largest imaginary part"),
+        () -> assertEquals(reference(0.47, -1.12), kernel.computePixel(SIZE - 1, SIZE - 1),
+            "Bottom right pixel should be the largest real and smallest imaginary part")
+    );
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw")
+  void invalidArguments() {
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new MandelbrotKernel(VIEWPORT, 0), "Max iterations must be positive"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new MandelbrotKernel(null, MAX_ITERATIONS), "Viewport cannot be null")
+    );
+  }
+
+  /**
+   * Compute a pixel the way it was computed before the kernel existed.
+   */
+  private static float reference(double x0, double y0) {
+    double x = 0;
+    double y = 0;
+    int iteration = 0;
+    while (Math.pow(x, 2) + Math.pow(y, 2) <= 4 && iteration < MAX_ITERATIONS) {
+      double tempX = Math.pow(x, 2) - Math.pow(y, 2) + x0;
+      y = 2 * x * y + y0;
+      x = tempX;
+      iteration++;
+    }
+    if (iteration == MAX_ITERATIONS) {
+      return MAX_ITERATIONS;
+    }
+    double absZ = Math.pow(x0, 2) + Math.pow(y0, 2);
+    if (absZ <= 1) {
+      return iteration;
+    }
+    return (float) Math.max(0, iteration + 1 - Math.log(Math.log(absZ)) / Math.log(2));
+  }
+}
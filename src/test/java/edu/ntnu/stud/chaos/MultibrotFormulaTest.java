@@ -0,0 +1,86 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link MultibrotFormula}.
+ */
+class MultibrotFormulaTest {
+
+  /** The number of pixels along each side of the tested grid. */
+  static final int SIZE = 60;
+
+  /** The iteration limit of the tested formulas. */
+  static final int MAX_ITERATIONS = 200;
+
+  @Test
+  @DisplayName("Degree 2 matches the Mandelbrot iteration")
+  void degreeTwoMatchesMandelbrot() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12),
+        SIZE, SIZE);
+    MultibrotFormula formula = new MultibrotFormula(2);
+
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        assertEquals(reference(viewport.getRe(j), viewport.getIm(i)),
+            formula.computeValue(viewport.getRe(j), viewport.getIm(i), MAX_ITERATIONS), 1e-4,
+            "Incorrect pixel value");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Degree 3 has the shape of a Multibrot set of degree 3")
+  void degreeThree() {
+    MultibrotFormula formula = new MultibrotFormula(3);
+    assertAll("Multibrot",
+        () -> assertEquals(3, formula.getDegree(), "Incorrect degree"),
+        () -> assertEquals(MAX_ITERATIONS, formula.computeValue(0, 1, MAX_ITERATIONS),
+            "i should be inside, since i³ + i = 0"),
+        () -> assertEquals(MAX_ITERATIONS, formula.computeValue(-0.3, 0, MAX_ITERATIONS),
+            "-0.3 should be inside"),
+        () -> assertTrue(formula.computeValue(-1, 0, MAX_ITERATIONS) < MAX_ITERATIONS,
+            "-1 should escape, unlike in the Mandelbrot set"),
+        () -> assertEquals(formula.computeValue(0.3, 0.7, MAX_ITERATIONS),
+            formula.computeValue(0.3, -0.7, MAX_ITERATIONS), "Mirrored points should match")
+    );
+  }
+
+  @Test
+  @DisplayName("Degrees below 2 throw")
+  void invalidDegree() {
+    assertThrows(IllegalArgumentException.class, () -> new MultibrotFormula(1),
+        "Degree 1 should throw");
+  }
+
+  /**
+   * Compute the smooth iteration count of the Mandelbrot iteration written with Math.pow.
+   *
+   * @param x0 the real part of the point.
+   * @param y0 the imaginary part of the point.
+   * @return the value of the point.
+   */
+  private static float reference(double x0, double y0) {
+    double x = 0;
+    double y = 0;
+    int iteration = 0;
+    while (Math.pow(x, 2) + Math.pow(y, 2) <= 4 && iteration < MAX_ITERATIONS) {
+      double tempX = Math.pow(x, 2) - Math.pow(y, 2) + x0;
+      y = 2 * x * y + y0;
+      x = tempX;
+      iteration++;
+    }
+    if (iteration == MAX_ITERATIONS) {
+      return MAX_ITERATIONS;
+    }
+    double absZ = Math.pow(x, 2) + Math.pow(y, 2);
+    if (absZ <= 1) {
+      return iteration;
+    }
+    return (float) Math.max(0, iteration + 1 - Math.log(Math.log(absZ)) / Math.log(2));
+  }
+}
@@ -0,0 +1,50 @@
+package edu.ntnu.stud.chaos;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link NewtonFormula}.
+ */
+class NewtonFormulaTest {
+
+  /** The iteration limit of the tested formula. */
+  static final int MAX_ITERATIONS = 100;
+
+  /** The formula under test. */
+  final NewtonFormula formula = new NewtonFormula();
+
+  @Test
+  @DisplayName("The roots are in their own basins at full brightness")
+  void rootsAreBright() {
+    double rootIm = Math.sqrt(3) / 2;
+    assertAll("Roots",
+        () -> assertEquals(1, formula.computeValue(1, 0, MAX_ITERATIONS), 1e-6,
+            "1 should be root 0"),
+        () -> assertEquals(2, formula.computeValue(-0.5, rootIm, MAX_ITERATIONS), 1e-6,
+            "The upper root should be root 1"),
+        () -> assertEquals(3, formula.computeValue(-0.5, -rootIm, MAX_ITERATIONS), 1e-6,
+            "The lower root should be root 2")
+    );
+  }
+
+  @Test
+  @DisplayName("Points reach the root of their basin, darker the longer they take")
+  void basins() {
+    float near = formula.computeValue(1.1, 0.1, MAX_ITERATIONS);
+    float far = formula.computeValue(5, 0.1, MAX_ITERATIONS);
+    assertAll("Basins",
+        () -> assertEquals(0, (int) near, "Points near 1 should reach 1"),
+        () -> assertEquals(0, (int) far, "Points far along the real axis should reach 1"),
+        () -> assertTrue(far < near, "Slower points should be darker"),
+        () -> assertEquals(1, (int) formula.computeValue(-1, 1, MAX_ITERATIONS),
+            "Points near the upper root should reach it"),
+        () -> assertEquals(2, (int) formula.computeValue(-1, -1, MAX_ITERATIONS),
+            "Mirrored points should reach the lower root"),
+        () -> assertEquals(0, formula.computeValue(0, 0, MAX_ITERATIONS),
+            "0 should reach no root")
+    );
+  }
+}
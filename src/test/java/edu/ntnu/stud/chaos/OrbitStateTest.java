@@ -0,0 +1,146 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link OrbitState}.
+ */
+class OrbitStateTest {
+
+  private Viewport viewport;
+  private OrbitState state;
+
+  /**
+   * Sets up a state prepared for a small view of the Mandelbrot set.
+   */
+  @BeforeEach
+  void setUp() {
+    viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12), 20, 10);
+    state = new OrbitState();
+    state.prepareMandelbrot(viewport, 100);
+  }
+
+  @Test
+  @DisplayName("Same view with a higher limit keeps the state")
+  void keepsState() {
+    state.setRunning(state.index(3, 4), 100, 0.1, 0.2, 0.3, 0.4);
+    Viewport same = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12), 20, 10);
+
+    assertAll("Kept state",
+        () -> assertTrue(state.prepareMandelbrot(same, 400), "The state should be kept"),
+        () -> assertEquals(400, state.getMaxIterations(), "Incorrect iteration limit"),
+        () -> assertEquals(1, state.countRunning(), "Incorrect number of running pixels"),
+        () -> assertEquals(OrbitState.RUNNING, state.getStatus(state.index(3, 4)),
+            "The running pixel should be kept"),
+        () -> assertEquals(0.1, state.getX(state.index(3, 4)), "Incorrect kept z")
+    );
+  }
+
+  @Test
+  @DisplayName("Other views, fractals or lower limits reset the state")
+  void resetsState() {
+    Viewport moved = new Viewport(new Vector2D(-1.9, -1.12), new Vector2D(0.57, 1.12), 20, 10);
+    Viewport resized = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12), 21, 10);
+
+    assertAll("Reset state",
+        () -> assertFalse(state.prepareMandelbrot(viewport, 50), "A lower limit should reset"),
+        () -> assertFalse(state.prepareMandelbrot(moved, 50), "A moved view should reset"),
+        () -> assertFalse(state.prepareMandelbrot(resized, 50), "A resized view should reset"),
+        () -> assertEquals(21, state.getWidth(), "Incorrect width"),
+        () -> assertFalse(state.prepareJulia(resized, 0.3, 0.5, 50),
+            "A Julia set should reset"),
+        () -> assertFalse(state.prepareJulia(resized, 0.3, 0.6, 50),
+            "Another constant should reset"),
+        () -> assertTrue(state.prepareJulia(resized, 0.3, 0.6, 50),
+            "The same Julia view should be kept")
+    );
+  }
+
+  @Test
+  @DisplayName("View moved by whole pixels shifts the state")
+  void shiftsState() {
+    Viewport centred = new Viewport(BigDecimal.ZERO, BigDecimal.ZERO, 1.9, 0.9, 20, 10);
+    Viewport moved = new Viewport(new BigDecimal(3 * centred.getReStep()),
+        new BigDecimal(2 * centred.getImStep()), 1.9, 0.9, 20, 10);
+    state.prepareMandelbrot(centred, 100);
+    for (int i = 0; i < 10; i++) {
+      for (int j = 0; j < 20; j++) {
+        state.setEscaped(state.index(i, j), i * 100 + j);
+      }
+    }
+
+    assertAll("Shifted state",
+        () -> assertTrue(state.prepareMandelbrot(moved, 100), "The state should be kept"),
+        () -> assertEquals(3 * 10 + 2 * 20 - 3 * 2, state.countNotStarted(),
+            "Only the strips moved into view should be not started"),
+        () -> assertEquals(2 * 100 + 3, state.getValue(state.index(0, 0)),
+            "Incorrect shifted value"),
+        () -> assertEquals(9 * 100 + 19, state.getValue(state.index(7, 16)),
+            "Incorrect shifted value"),
+        () -> assertEquals(OrbitState.NOT_STARTED, state.getStatus(state.index(8, 0)),
+            "Exposed row should be not started"),
+        () -> assertEquals(OrbitState.NOT_STARTED, state.getStatus(state.index(0, 17)),
+            "Exposed column should be not started"),
+        () -> assertTrue(state.prepareMandelbrot(centred, 100), "Moving back should be kept"),
+        () -> assertEquals(2 * 100 + 3, state.getValue(state.index(2, 3)),
+            "Moving back should restore the value")
+    );
+  }
+
+  @Test
+  @DisplayName("Views off the grid or moved past their size reset the state")
+  void shiftResets() {
+    Viewport centred = new Viewport(BigDecimal.ZERO, BigDecimal.ZERO, 1.9, 0.9, 20, 10);
+    Viewport halfPixel = new Viewport(new BigDecimal(0.5 * centred.getReStep()),
+        BigDecimal.ZERO, 1.9, 0.9, 20, 10);
+    Viewport farAway = new Viewport(new BigDecimal(20 * centred.getReStep()),
+        BigDecimal.ZERO, 1.9, 0.9, 20, 10);
+    Viewport zoomed = new Viewport(BigDecimal.ZERO, BigDecimal.ZERO, 0.95, 0.45, 20, 10);
+    state.prepareMandelbrot(centred, 100);
+
+    assertAll("Reset state",
+        () -> assertFalse(state.prepareMandelbrot(halfPixel, 100),
+            "A move of half a pixel should reset"),
+        () -> assertFalse(state.prepareMandelbrot(farAway, 100),
+            "A move past the view should reset"),
+        () -> assertFalse(state.prepareMandelbrot(zoomed, 100), "A zoom should reset"),
+        () -> assertEquals(200, state.countNotStarted(), "Every pixel should be not started")
+    );
+  }
+
+  @Test
+  @DisplayName("Reset marks every pixel as not started")
+  void resetClearsPixels() {
+    state.setRunning(state.index(0, 0), 100, 0, 0, 0, 0);
+    state.setEscaped(state.index(0, 1), 5);
+    state.setInterior(state.index(0, 2));
+    state.prepareMandelbrot(viewport, 50);
+
+    assertAll("Cleared pixels",
+        () -> assertEquals(0, state.countRunning(), "No pixel should be running"),
+        () -> assertEquals(OrbitState.NOT_STARTED, state.getStatus(state.index(0, 1)),
+            "Escaped pixel should be cleared"),
+        () -> assertEquals(OrbitState.NOT_STARTED, state.getStatus(state.index(0, 2)),
+            "Interior pixel should be cleared")
+    );
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw IllegalArgumentException")
+  void invalidArguments() {
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> state.prepareMandelbrot(null, 10), "Null viewport should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> state.prepareMandelbrot(viewport, 0), "Zero limit should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> state.prepareJulia(viewport, 0.3, 0.5, -1), "Negative limit should throw")
+    );
+  }
+}
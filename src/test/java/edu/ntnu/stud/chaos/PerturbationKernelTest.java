@@ -0,0 +1,125 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PerturbationKernel}.
+ */
+class PerturbationKernelTest {
+
+  /** The number of pixels along each side of the tested grid. */
+  static final int SIZE = 60;
+
+  /** The iteration limit of the tested kernels. */
+  static final int MAX_ITERATIONS = 500;
+
+  @Test
+  @DisplayName("Shallow Mandelbrot zoom agrees with double precision")
+  void agreesWithDouble() {
+    Viewport viewport = new Viewport(new Vector2D(-0.76, 0.05), new Vector2D(-0.74, 0.07),
+        SIZE, SIZE);
+    PerturbationKernel kernel = createMandelbrotKernel(viewport);
+    MandelbrotKernel doubleKernel = new MandelbrotKernel(viewport, MAX_ITERATIONS);
+
+    int differences = 0;
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        if (kernel.computePixel(i, j) != doubleKernel.computePixel(i, j)) {
+          differences++;
+        }
+      }
+    }
+    assertTrue(differences < SIZE * SIZE / 100, "Too many differing pixels: " + differences);
+  }
+
+  @Test
+  @DisplayName("Deep Mandelbrot zoom matches the iteration in arbitrary precision")
+  void deepMatchesBigDecimal() {
+    Viewport viewport = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-30, 1e-30, 5, 5);
+    PerturbationKernel kernel = createMandelbrotKernel(viewport);
+
+    for (int[] pixel : new int[][] {{0, 0}, {4, 4}, {3, 1}, {4, 2}}) {
+      BigDecimal cx = BigDecimal.ZERO.add(new BigDecimal(viewport.getDeltaRe(pixel[1])));
+      BigDecimal cy = BigDecimal.ONE.add(new BigDecimal(viewport.getDeltaIm(pixel[0])));
+      assertEquals(iterations(cx, cy), kernel.computePixel(pixel[0], pixel[1]),
+          "Incorrect pixel value");
+    }
+  }
+
+  @Test
+  @DisplayName("Julia pixel far from its reference glitches")
+  void juliaGlitch() {
+    Viewport viewport = new Viewport(new BigDecimal("-0.5413533834586468"),
+        new BigDecimal("0.42971887550200805"), 1e-5, 1e-5, SIZE, SIZE);
+    ReferenceOrbit orbit = ReferenceOrbit.julia(viewport.getCenterRe(),
+        viewport.getCenterIm(), -0.4, 0.6, 2000, ReferenceOrbit.precisionFor(viewport));
+    PerturbationKernel kernel = new PerturbationKernel(viewport, orbit, 0, 0, false, 2000);
+
+    int glitches = 0;
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        if (Float.isNaN(kernel.computePixel(i, j))) {
+          glitches++;
+        }
+      }
+    }
+    assertTrue(glitches > 0, "Some pixels should be reported as glitches");
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw")
+  void invalidArguments() {
+    Viewport viewport = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-30, 1e-30, 5, 5);
+    ReferenceOrbit orbit = ReferenceOrbit.mandelbrot(BigDecimal.ZERO, BigDecimal.ONE, 10,
+        new MathContext(20));
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new PerturbationKernel(null, orbit, 0, 0, true, 10), "Viewport cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new PerturbationKernel(viewport, null, 0, 0, true, 10),
+            "Reference orbit cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new PerturbationKernel(viewport, orbit, 0, 0, true, 0),
+            "Max iterations must be positive"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new PerturbationKernel(viewport, orbit, 0, 0, true, 10, null),
+            "Series approximation cannot be null")
+    );
+  }
+
+  /**
+   * Create a Mandelbrot kernel with its reference at the centre of the viewport.
+   */
+  private static PerturbationKernel createMandelbrotKernel(Viewport viewport) {
+    ReferenceOrbit orbit = ReferenceOrbit.mandelbrot(viewport.getCenterRe(),
+        viewport.getCenterIm(), MAX_ITERATIONS, ReferenceOrbit.precisionFor(viewport));
+    return new PerturbationKernel(viewport, orbit, 0, 0, true, MAX_ITERATIONS);
+  }
+
+  /**
+   * Count the iterations before a point escapes, iterating in arbitrary precision.
+   */
+  private static float iterations(BigDecimal cx, BigDecimal cy) {
+    MathContext context = new MathContext(60);
+    BigDecimal x = BigDecimal.ZERO;
+    BigDecimal y = BigDecimal.ZERO;
+    int iteration = 0;
+    while (x.doubleValue() * x.doubleValue() + y.doubleValue() * y.doubleValue() <= 4
+        && iteration < MAX_ITERATIONS) {
+      BigDecimal x2 = x.multiply(x, context);
+      BigDecimal y2 = y.multiply(y, context);
+      y = x.multiply(y, context).multiply(BigDecimal.valueOf(2)).add(cy, context);
+      x = x2.subtract(y2).add(cx, context);
+      iteration++;
+    }
+    return iteration;
+  }
+}
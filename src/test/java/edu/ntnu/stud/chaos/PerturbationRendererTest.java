@@ -0,0 +1,110 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PerturbationRenderer}.
+ */
+class PerturbationRendererTest {
+
+  /** The number of pixels along each side of the canvas. */
+  static final int SIZE = 40;
+
+  /** The canvas rendered on. */
+  ChaosCanvas chaosCanvas;
+
+  /** The renderer under test. */
+  PerturbationRenderer renderer;
+
+  /**
+   * Sets up the test environment.
+   */
+  @BeforeEach
+  void setUp() {
+    chaosCanvas = new ChaosCanvas(SIZE, SIZE, new Vector2D(0, 0), new Vector2D(1, 1),
+        PixelDepth.FLOAT);
+    renderer = new PerturbationRenderer(new EscapeTimeEngine(2, 16));
+  }
+
+  @Test
+  @DisplayName("Mandelbrot zoom to 1e-100 keeps its detail")
+  void deepMandelbrot() {
+    Viewport viewport = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-100, 1e-100,
+        SIZE, SIZE);
+    renderer.renderMandelbrot(chaosCanvas, viewport, 2000);
+
+    assertAll("Deep Mandelbrot",
+        () -> assertEquals(1, renderer.getReferences(), "One reference should be enough"),
+        () -> assertEquals(0, renderer.getGlitches(), "No glitches should be left"),
+        () -> assertTrue(renderer.getSkippedIterations() > 0,
+            "Early iterations should be skipped"),
+        () -> assertTrue(distinctValues() > 10, "Neighbouring pixels should differ")
+    );
+  }
+
+  @Test
+  @DisplayName("Julia glitches are computed again from new references")
+  void juliaReferences() {
+    Viewport viewport = new Viewport(new BigDecimal("-0.5413533834586468"),
+        new BigDecimal("0.42971887550200805"), 1e-5, 1e-5, SIZE, SIZE);
+    renderer.renderJulia(chaosCanvas, viewport, -0.4, 0.6, 1000);
+    JuliaKernel kernel = new JuliaKernel(viewport, -0.4, 0.6, 1000);
+
+    int differences = 0;
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        // Smooth values of orbits rounded differently agree to within a small fraction.
+        if (Math.abs(kernel.computePixel(i, j) - chaosCanvas.getPixelValue(i, j)) > 1e-3) {
+          differences++;
+        }
+      }
+    }
+    int finalDifferences = differences;
+    assertAll("Julia references",
+        () -> assertTrue(renderer.getReferences() > 1, "Glitches should need new references"),
+        () -> assertEquals(0, renderer.getGlitches(), "No glitches should be left"),
+        () -> assertTrue(finalDifferences < SIZE * SIZE / 50,
+            "Too many differing pixels: " + finalDifferences)
+    );
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw")
+  void invalidArguments() {
+    Viewport viewport = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-30, 1e-30, SIZE, SIZE);
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class, () -> new PerturbationRenderer(null),
+            "Escape-time engine cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> renderer.renderMandelbrot(null, viewport, 10), "Canvas cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> renderer.renderMandelbrot(chaosCanvas, null, 10), "Viewport cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> renderer.renderMandelbrot(chaosCanvas, viewport, 0),
+            "Max iterations must be positive")
+    );
+  }
+
+  /**
+   * Count the distinct pixel values on the canvas.
+   */
+  private int distinctValues() {
+    Set<Double> values = new HashSet<>();
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        values.add(chaosCanvas.getPixelValue(i, j));
+      }
+    }
+    return values.size();
+  }
+}
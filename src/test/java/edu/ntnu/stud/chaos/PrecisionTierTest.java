@@ -0,0 +1,51 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PrecisionTier}.
+ */
+class PrecisionTierTest {
+
+  @Test
+  @DisplayName("Tier follows the pixel spacing and the number of pixels")
+  void select() {
+    Viewport full = new Viewport(new Vector2D(-2, -1), new Vector2D(1, 1), 300, 200);
+    Viewport shallow = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-9, 1e-9, 100, 100);
+    Viewport small = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-15, 1e-15, 24, 24);
+    Viewport wider = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-15, 1e-15, 32, 32);
+    Viewport large = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-15, 1e-15, 100, 100);
+    Viewport medium = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-20, 1e-20, 32, 32);
+    Viewport deep = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-40, 1e-40, 100, 100);
+
+    assertAll("Precision tiers",
+        () -> assertEquals(PrecisionTier.DOUBLE, PrecisionTier.select(full),
+            "Full view should use double precision"),
+        () -> assertEquals(PrecisionTier.DOUBLE, PrecisionTier.select(shallow),
+            "Shallow zoom should use double precision"),
+        () -> assertEquals(PrecisionTier.DOUBLE_DOUBLE, PrecisionTier.select(small),
+            "Small canvas just past double precision should use double-double"),
+        () -> assertEquals(PrecisionTier.PERTURBATION, PrecisionTier.select(wider),
+            "Canvas whose pixels cost more than the reference should use perturbation"),
+        () -> assertEquals(PrecisionTier.PERTURBATION, PrecisionTier.select(large),
+            "Larger canvas just past double precision should use perturbation"),
+        () -> assertEquals(PrecisionTier.PERTURBATION, PrecisionTier.select(medium),
+            "Small canvas far past double precision should use perturbation"),
+        () -> assertEquals(PrecisionTier.PERTURBATION, PrecisionTier.select(deep),
+            "Zoom past double-double should use perturbation")
+    );
+  }
+
+  @Test
+  @DisplayName("Null viewport throws")
+  void nullViewport() {
+    assertThrows(IllegalArgumentException.class, () -> PrecisionTier.select(null),
+        "Viewport cannot be null");
+  }
+}
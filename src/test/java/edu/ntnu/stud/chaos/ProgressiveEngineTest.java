@@ -0,0 +1,148 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ProgressiveEngine}.
+ */
+class ProgressiveEngineTest {
+
+  /** The canvas rendered on, with a size that does not divide into whole passes. */
+  ChaosCanvas chaosCanvas;
+
+  /**
+   * Sets up the test environment.
+   */
+  @BeforeEach
+  void setUp() {
+    chaosCanvas = new ChaosCanvas(53, 37, new Vector2D(0, 0), new Vector2D(1, 1));
+  }
+
+  @Test
+  @DisplayName("Render without uniform regions matches the kernel at every pixel")
+  void renderMatchesKernel() {
+    EscapeTimeKernel kernel = (i, j) -> i * 100 + j + 1;
+    ProgressiveEngine engine = new ProgressiveEngine(4, 8);
+    engine.render(chaosCanvas, kernel);
+
+    for (int i = 0; i < chaosCanvas.getHeight(); i++) {
+      for (int j = 0; j < chaosCanvas.getWidth(); j++) {
+        assertEquals(kernel.computePixel(i, j), chaosCanvas.getPixelValue(i, j),
+            "Incorrect pixel value");
+      }
+    }
+    assertEquals(53 * 37, engine.getComputedPixels(), "Every pixel should be computed");
+  }
+
+  @Test
+  @DisplayName("Uniform canvas is guessed from the first pass")
+  void uniformGuess() {
+    AtomicInteger computed = new AtomicInteger();
+    ProgressiveEngine engine = new ProgressiveEngine(2, 8);
+    engine.render(chaosCanvas, (i, j) -> {
+      computed.incrementAndGet();
+      return 3;
+    });
+
+    assertAll("Uniform guess",
+        () -> assertEquals(computed.get(), engine.getComputedPixels(),
+            "Incorrect computed pixel count"),
+        () -> assertTrue(computed.get() < 53 * 37 / 4, "Most pixels should be guessed"),
+        () -> assertEquals(3, chaosCanvas.getPixelValue(18, 26), "Incorrect guessed value"),
+        () -> assertEquals(53 * 37, chaosCanvas.getStatistics().getNonzeroCount(),
+            "Incorrect nonzero count")
+    );
+  }
+
+  @Test
+  @DisplayName("Every pass is published to the snapshot")
+  void passesPublished() {
+    ProgressiveEngine engine = new ProgressiveEngine(2, 8);
+    AtomicInteger passes = new AtomicInteger();
+    engine.setPassListener(() -> {
+      passes.incrementAndGet();
+      assertEquals(chaosCanvas.getStatistics().getTotalHits(),
+          chaosCanvas.getSnapshot().getStatistics().getTotalHits(),
+          "The snapshot should hold the pass");
+    });
+    engine.render(chaosCanvas, (i, j) -> i * 100 + j + 1);
+
+    assertAll("Published passes",
+        () -> assertEquals(4, passes.get(), "Incorrect number of passes"),
+        () -> assertEquals(8 * 100 + 9 + 1, chaosCanvas.getSnapshot().getPixelValue(8, 9),
+            "Incorrect pixel of the last pass")
+    );
+  }
+
+  @Test
+  @DisplayName("Mandelbrot set renders almost the same as the tiled engine with less work")
+  void mandelbrotMatchesTiled() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12),
+        200, 180);
+    MandelbrotKernel kernel = new MandelbrotKernel(viewport, 500);
+    ChaosCanvas progressive = new ChaosCanvas(200, 180, new Vector2D(0, 0), new Vector2D(1, 1));
+    ChaosCanvas tiled = new ChaosCanvas(200, 180, new Vector2D(0, 0), new Vector2D(1, 1));
+    ProgressiveEngine engine = new ProgressiveEngine(2, 16);
+
+    engine.render(progressive, kernel);
+    new EscapeTimeEngine(2, 16).render(tiled, kernel);
+
+    int mismatches = 0;
+    for (int i = 0; i < tiled.getHeight(); i++) {
+      for (int j = 0; j < tiled.getWidth(); j++) {
+        if (tiled.getPixelValue(i, j) != progressive.getPixelValue(i, j)) {
+          mismatches++;
+        }
+      }
+    }
+    int differing = mismatches;
+    assertAll("Mandelbrot set",
+        () -> assertTrue(differing <= 200 * 180 / 1000, "Too many pixels differ"),
+        () -> assertTrue(engine.getComputedPixels() < 200 * 180,
+            "Some pixels should be guessed")
+    );
+  }
+
+  @Test
+  @DisplayName("Interrupted render stops after the current pass")
+  void interruptStops() {
+    ProgressiveEngine engine = new ProgressiveEngine(2, 8);
+    AtomicInteger passes = new AtomicInteger();
+    engine.setPassListener(() -> {
+      passes.incrementAndGet();
+      Thread.currentThread().interrupt();
+    });
+    engine.render(chaosCanvas, (i, j) -> i * 100 + j + 1);
+    boolean interrupted = Thread.interrupted();
+
+    assertAll("Interrupted render",
+        () -> assertTrue(interrupted, "The interrupt should be kept"),
+        () -> assertEquals(1, passes.get(), "Only the first pass should be rendered"),
+        () -> assertEquals(8 * 100 + 8 + 1, chaosCanvas.getPixelValue(9, 10),
+            "The pixel should have the value of its block")
+    );
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw IllegalArgumentException")
+  void invalidArguments() {
+    ProgressiveEngine engine = new ProgressiveEngine();
+    EscapeTimeKernel kernel = (i, j) -> 1;
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class, () -> new ProgressiveEngine(0, 16),
+            "Zero threads should throw"),
+        () -> assertThrows(IllegalArgumentException.class, () -> engine.render(null, kernel),
+            "Null canvas should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.render(chaosCanvas, null), "Null kernel should throw")
+    );
+  }
+}
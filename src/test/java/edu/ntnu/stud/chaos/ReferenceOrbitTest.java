@@ -0,0 +1,93 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ReferenceOrbit}.
+ */
+class ReferenceOrbitTest {
+
+  /** The precision of the tested orbits. */
+  static final MathContext CONTEXT = new MathContext(30);
+
+  @Test
+  @DisplayName("Mandelbrot orbit of i is preperiodic")
+  void mandelbrotOrbit() {
+    ReferenceOrbit orbit = ReferenceOrbit.mandelbrot(BigDecimal.ZERO, BigDecimal.ONE, 100,
+        CONTEXT);
+
+    assertAll("Orbit of i",
+        () -> assertEquals(100, orbit.getLength(), "Orbit of i should not escape"),
+        () -> assertEquals(0, orbit.getRe(0), "Orbit should start at 0"),
+        () -> assertEquals(1, orbit.getIm(1), "Second point should be i"),
+        () -> assertEquals(-1, orbit.getRe(2), "Third point should be -1 + i"),
+        () -> assertEquals(-1, orbit.getIm(3), "Fourth point should be -i"),
+        () -> assertEquals(-1, orbit.getRe(98), "Orbit should cycle through -1 + i"),
+        () -> assertEquals(-1, orbit.getIm(99), "Orbit should cycle through -i")
+    );
+  }
+
+  @Test
+  @DisplayName("Orbit stops at the point where it escapes")
+  void escapingOrbit() {
+    ReferenceOrbit orbit = ReferenceOrbit.mandelbrot(BigDecimal.ONE, BigDecimal.ZERO, 100,
+        CONTEXT);
+
+    assertAll("Orbit of 1",
+        () -> assertEquals(4, orbit.getLength(), "Orbit should stop after escaping"),
+        () -> assertEquals(5, orbit.getRe(3), "Last point should be the escaped point")
+    );
+  }
+
+  @Test
+  @DisplayName("Julia orbit starts at the starting point")
+  void juliaOrbit() {
+    ReferenceOrbit orbit = ReferenceOrbit.julia(new BigDecimal("0.5"), BigDecimal.ZERO,
+        -1, 0, 10, CONTEXT);
+
+    assertAll("Julia orbit",
+        () -> assertEquals(0.5, orbit.getRe(0), "Orbit should start at the starting point"),
+        () -> assertEquals(-0.75, orbit.getRe(1), "Incorrect second point"),
+        () -> assertEquals(-0.4375, orbit.getRe(2), "Incorrect third point")
+    );
+  }
+
+  @Test
+  @DisplayName("Precision grows with the zoom")
+  void precisionFor() {
+    Viewport shallow = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12), 100, 100);
+    Viewport deep = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-100, 1e-100, 100, 100);
+
+    assertAll("Precision",
+        () -> assertEquals(20, ReferenceOrbit.precisionFor(shallow).getPrecision(),
+            "Shallow zoom should use the smallest precision"),
+        () -> assertTrue(ReferenceOrbit.precisionFor(deep).getPrecision() > 100,
+            "Deep zoom should keep every digit of the pixel spacing")
+    );
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw")
+  void invalidArguments() {
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> ReferenceOrbit.mandelbrot(null, BigDecimal.ZERO, 10, CONTEXT),
+            "Coordinates cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> ReferenceOrbit.mandelbrot(BigDecimal.ZERO, BigDecimal.ZERO, 0, CONTEXT),
+            "Max iterations must be positive"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> ReferenceOrbit.mandelbrot(BigDecimal.ZERO, BigDecimal.ZERO, 10, null),
+            "Precision cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> ReferenceOrbit.precisionFor(null), "Viewport cannot be null")
+    );
+  }
+}
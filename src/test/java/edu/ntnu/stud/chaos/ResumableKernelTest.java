@@ -0,0 +1,139 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ResumableKernel}.
+ */
+class ResumableKernelTest {
+
+  /** The number of pixels along each side of the tested grid. */
+  private static final int SIZE = 41;
+
+  /** A view of the Mandelbrot set. */
+  private static final Viewport MANDELBROT =
+      new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12), SIZE, SIZE);
+
+  /** A view of a Julia set. */
+  private static final Viewport JULIA =
+      new Viewport(new Vector2D(-1.6, -1), new Vector2D(1.6, 1), SIZE, SIZE);
+
+  @Test
+  @DisplayName("Fresh render matches the double precision kernels")
+  void freshMatchesScalar() {
+    OrbitState state = new OrbitState();
+    state.prepareMandelbrot(MANDELBROT, 300);
+    assertPixelsMatch(new ResumableKernel(state, MANDELBROT, 300),
+        new MandelbrotKernel(MANDELBROT, 300));
+
+    state.prepareJulia(JULIA, -0.74543, 0.11301, 300);
+    assertPixelsMatch(new ResumableKernel(state, JULIA, -0.74543, 0.11301, 300),
+        new JuliaKernel(JULIA, -0.74543, 0.11301, 300));
+  }
+
+  @Test
+  @DisplayName("Resumed render matches a fresh render at the higher limit")
+  void resumedMatchesFresh() {
+    OrbitState state = new OrbitState();
+    state.prepareMandelbrot(MANDELBROT, 100);
+    computeAll(new ResumableKernel(state, MANDELBROT, 100));
+    int running = state.countRunning();
+
+    assertTrue(state.prepareMandelbrot(MANDELBROT, 500), "The state should be kept");
+    assertPixelsMatch(new ResumableKernel(state, MANDELBROT, 500),
+        new MandelbrotKernel(MANDELBROT, 500));
+    assertTrue(state.countRunning() < running, "Some running pixels should escape");
+
+    state.prepareJulia(JULIA, -0.74543, 0.11301, 100);
+    computeAll(new ResumableKernel(state, JULIA, -0.74543, 0.11301, 100));
+    assertTrue(state.prepareJulia(JULIA, -0.74543, 0.11301, 500), "The state should be kept");
+    assertPixelsMatch(new ResumableKernel(state, JULIA, -0.74543, 0.11301, 500),
+        new JuliaKernel(JULIA, -0.74543, 0.11301, 500));
+  }
+
+  @Test
+  @DisplayName("Panned render reuses the pixels still in view")
+  void pannedReusesPixels() {
+    Viewport moved = new Viewport(new Vector2D(-2 + 4 * MANDELBROT.getReStep(), -1.12),
+        new Vector2D(0.47 + 4 * MANDELBROT.getReStep(), 1.12), SIZE, SIZE);
+    OrbitState state = new OrbitState();
+    state.prepareMandelbrot(MANDELBROT, 300);
+    ResumableKernel first = new ResumableKernel(state, MANDELBROT, 300);
+    float[][] before = new float[SIZE][SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        before[i][j] = first.computePixel(i, j);
+      }
+    }
+
+    assertTrue(state.prepareMandelbrot(moved, 300), "The state should be shifted");
+    assertEquals(4 * SIZE, state.countNotStarted(), "Only the new strip should be computed");
+    ResumableKernel panned = new ResumableKernel(state, moved, 300);
+    MandelbrotKernel fresh = new MandelbrotKernel(moved, 300);
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        float expected = j < SIZE - 4 ? before[i][j + 4] : fresh.computePixel(i, j);
+        assertEquals(expected, panned.computePixel(i, j), "Pixel " + i + ", " + j + " differs");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Escaped pixels keep their value")
+  void escapedPixelsKept() {
+    OrbitState state = new OrbitState();
+    state.prepareMandelbrot(MANDELBROT, 100);
+    int index = state.index(0, 0);
+    state.setEscaped(index, 42);
+
+    assertEquals(42, new ResumableKernel(state, MANDELBROT, 100).computePixel(0, 0),
+        "An escaped pixel should not be iterated again");
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw IllegalArgumentException")
+  void invalidArguments() {
+    OrbitState state = new OrbitState();
+    OrbitState unprepared = new OrbitState();
+    state.prepareMandelbrot(MANDELBROT, 100);
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new ResumableKernel(null, MANDELBROT, 100), "Null state should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new ResumableKernel(state, null, 100), "Null viewport should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new ResumableKernel(state, MANDELBROT, 0), "Zero limit should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new ResumableKernel(unprepared, MANDELBROT, 100),
+            "Unprepared state should throw")
+    );
+  }
+
+  /**
+   * Compute every pixel of a kernel once.
+   */
+  private static void computeAll(EscapeTimeKernel kernel) {
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        kernel.computePixel(i, j);
+      }
+    }
+  }
+
+  /**
+   * Assert that every pixel of a kernel equals the pixel of the expected kernel.
+   */
+  private static void assertPixelsMatch(EscapeTimeKernel kernel, EscapeTimeKernel expected) {
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        assertEquals(expected.computePixel(i, j), kernel.computePixel(i, j),
+            "Pixel " + i + ", " + j + " differs");
+      }
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package edu.ntnu.stud.chaos;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link SeriesApproximation}.
+ */
+class SeriesApproximationTest {
+
+  /** The number of pixels along each side of the tested grid. */
+  static final int SIZE = 60;
+
+  @Test
+  @DisplayName("Deep Mandelbrot zoom skips most iterations")
+  void skipsMostIterations() {
+    Viewport viewport = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-100, 1e-100,
+        SIZE, SIZE);
+    ReferenceOrbit orbit = ReferenceOrbit.mandelbrot(viewport.getCenterRe(),
+        viewport.getCenterIm(), 2000, ReferenceOrbit.precisionFor(viewport));
+    SeriesApproximation series = SeriesApproximation.compute(viewport, orbit, 0, 0, true, 2000);
+    PerturbationKernel kernel = new PerturbationKernel(viewport, orbit, 0, 0, true, 2000);
+
+    float fewest = Float.MAX_VALUE;
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        fewest = Math.min(fewest, kernel.computePixel(i, j));
+      }
+    }
+    assertTrue(series.getSkip() > 0.9 * fewest,
+        "Skipped " + series.getSkip() + " of at least " + fewest + " iterations");
+  }
+
+  @Test
+  @DisplayName("Skipping iterations does not change the Mandelbrot pixels")
+  void mandelbrotMatchesIteration() {
+    assertMatches(new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-30, 1e-30, SIZE, SIZE),
+        true, 2000);
+    assertMatches(new Viewport(new BigDecimal("-1.7685736562992577"),
+        new BigDecimal("0.0009642968357"), 1e-8, 1e-8, SIZE, SIZE), true, 3000);
+  }
+
+  @Test
+  @DisplayName("Skipping iterations does not change the Julia pixels")
+  void juliaMatchesIteration() {
+    assertMatches(new Viewport(new BigDecimal("-0.5413533834586468"),
+        new BigDecimal("0.42971887550200805"), 1e-20, 1e-20, SIZE, SIZE), false, 2000);
+  }
+
+  @Test
+  @DisplayName("Series stops before the reference escapes")
+  void stopsBeforeEscape() {
+    Viewport viewport = new Viewport(new BigDecimal("0.5"), BigDecimal.ZERO, 1e-20, 1e-20,
+        SIZE, SIZE);
+    ReferenceOrbit orbit = ReferenceOrbit.mandelbrot(viewport.getCenterRe(),
+        viewport.getCenterIm(), 100, ReferenceOrbit.precisionFor(viewport));
+
+    assertTrue(SeriesApproximation.compute(viewport, orbit, 0, 0, true, 100).getSkip()
+        < orbit.getLength() - 1, "Escaping iterations should not be skipped");
+  }
+
+  @Test
+  @DisplayName("Empty series skips nothing")
+  void none() {
+    assertAll("Empty series",
+        () -> assertEquals(0, SeriesApproximation.NONE.getSkip(), "Nothing should be skipped"),
+        () -> assertEquals(0, SeriesApproximation.NONE.getOffsetRe(1e-20, 1e-20),
+            "Offset should be 0"),
+        () -> assertEquals(0, SeriesApproximation.NONE.getOffsetIm(1e-20, 1e-20),
+            "Offset should be 0")
+    );
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw")
+  void invalidArguments() {
+    Viewport viewport = new Viewport(BigDecimal.ZERO, BigDecimal.ONE, 1e-30, 1e-30, 5, 5);
+    ReferenceOrbit orbit = ReferenceOrbit.mandelbrot(BigDecimal.ZERO, BigDecimal.ONE, 10,
+        new MathContext(40));
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> SeriesApproximation.compute(null, orbit, 0, 0, true, 10),
+            "Viewport cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> SeriesApproximation.compute(viewport, null, 0, 0, true, 10),
+            "Reference orbit cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> SeriesApproximation.compute(viewport, orbit, 0, 0, true, 0),
+            "Max iterations must be positive")
+    );
+  }
+
+  /**
+   * Assert that a kernel skipping the iterations of a series gives the same
+   * pixels as one iterating every pixel from the start.
+   */
+  private static void assertMatches(Viewport viewport, boolean mandelbrot, int maxIterations) {
+    MathContext context = ReferenceOrbit.precisionFor(viewport);
+    ReferenceOrbit orbit = mandelbrot
+        ? ReferenceOrbit.mandelbrot(viewport.getCenterRe(), viewport.getCenterIm(),
+            maxIterations, context)
+        : ReferenceOrbit.julia(viewport.getCenterRe(), viewport.getCenterIm(), -0.4, 0.6,
+            maxIterations, context);
+    SeriesApproximation series = SeriesApproximation.compute(viewport, orbit, 0, 0,
+        mandelbrot, maxIterations);
+    PerturbationKernel skipping = new PerturbationKernel(viewport, orbit, 0, 0, mandelbrot,
+        maxIterations, series);
+    PerturbationKernel iterating = new PerturbationKernel(viewport, orbit, 0, 0, mandelbrot,
+        maxIterations);
+
+    assertTrue(series.getSkip() > 0, "Some iterations should be skipped");
+    for (int i = 0; i < SIZE; i++) {
+      for (int j = 0; j < SIZE; j++) {
+        assertEquals(iterating.computePixel(i, j), skipping.computePixel(i, j), 1e-3,
+            "Pixel " + i + "," + j + " changed");
+      }
+    }
+  }
+}
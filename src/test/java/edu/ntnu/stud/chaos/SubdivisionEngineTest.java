@@ -0,0 +1,113 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link SubdivisionEngine}.
+ */
+class SubdivisionEngineTest {
+
+  /** The canvas rendered on, with a size that does not divide into whole tiles. */
+  ChaosCanvas chaosCanvas;
+
+  /**
+   * Sets up the test environment.
+   */
+  @BeforeEach
+  void setUp() {
+    chaosCanvas = new ChaosCanvas(53, 37, new Vector2D(0, 0), new Vector2D(1, 1));
+  }
+
+  @Test
+  @DisplayName("Render without uniform regions matches the kernel at every pixel")
+  void renderMatchesKernel() {
+    EscapeTimeKernel kernel = (i, j) -> (i * 7 + j * 3) % 11;
+    new SubdivisionEngine(4, 8).render(chaosCanvas, kernel);
+
+    double expectedTotal = 0;
+    for (int i = 0; i < chaosCanvas.getHeight(); i++) {
+      for (int j = 0; j < chaosCanvas.getWidth(); j++) {
+        assertEquals(kernel.computePixel(i, j), chaosCanvas.getPixelValue(i, j),
+            "Incorrect pixel value");
+        expectedTotal += kernel.computePixel(i, j);
+      }
+    }
+    assertEquals(expectedTotal, chaosCanvas.getStatistics().getTotalHits(),
+        "Incorrect total hits");
+  }
+
+  @Test
+  @DisplayName("Uniform canvas is filled from its border")
+  void uniformFill() {
+    AtomicInteger computed = new AtomicInteger();
+    new SubdivisionEngine(2, 8).render(chaosCanvas, (i, j) -> {
+      computed.incrementAndGet();
+      return 3;
+    });
+
+    assertAll("Uniform fill",
+        () -> assertEquals(2 * 53 + 2 * 35, computed.get(), "Only the border should be computed"),
+        () -> assertEquals(3, chaosCanvas.getPixelValue(18, 26), "Incorrect filled value"),
+        () -> assertEquals(53 * 37, chaosCanvas.getStatistics().getNonzeroCount(),
+            "Incorrect nonzero count")
+    );
+  }
+
+  @Test
+  @DisplayName("Mandelbrot set renders the same as the tiled engine")
+  void mandelbrotMatchesTiled() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12),
+        chaosCanvas.getWidth(), chaosCanvas.getHeight());
+    MandelbrotKernel kernel = new MandelbrotKernel(viewport, 500);
+    ChaosCanvas tiled = new ChaosCanvas(53, 37, new Vector2D(0, 0), new Vector2D(1, 1));
+    SubdivisionEngine engine = new SubdivisionEngine(2, 4);
+    engine.setVerifying(true);
+
+    engine.render(chaosCanvas, kernel);
+    new EscapeTimeEngine(2, 4).render(tiled, kernel);
+
+    assertEquals(0, engine.getMismatches(), "No pixel should differ");
+    for (int i = 0; i < chaosCanvas.getHeight(); i++) {
+      for (int j = 0; j < chaosCanvas.getWidth(); j++) {
+        assertEquals(tiled.getPixelValue(i, j), chaosCanvas.getPixelValue(i, j),
+            "Incorrect pixel value");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Verifying counts the pixels a fill missed")
+  void verifyingCountsMismatches() {
+    SubdivisionEngine engine = new SubdivisionEngine(2, 16);
+    engine.setVerifying(true);
+    engine.render(chaosCanvas, (i, j) -> i == 5 && j == 5 ? 1 : 0);
+
+    assertAll("Mismatches",
+        () -> assertTrue(engine.isVerifying(), "Engine should be verifying"),
+        () -> assertEquals(1, engine.getMismatches(), "Isolated pixel should be missed"),
+        () -> assertEquals(0, chaosCanvas.getPixelValue(5, 5), "Pixel should be filled")
+    );
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw")
+  void invalidArguments() {
+    SubdivisionEngine engine = new SubdivisionEngine();
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class, () -> new SubdivisionEngine(0, 16),
+            "Threads must be positive"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.render(null, (i, j) -> 0), "Canvas cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.render(chaosCanvas, null), "Kernel cannot be null")
+    );
+  }
+}
@@ -0,0 +1,138 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link SummedAreaTable}.
+ */
+class SummedAreaTableTest {
+
+  /** The width of the canvas. */
+  int width;
+
+  /** The height of the canvas. */
+  int height;
+
+  /** The canvas the table is built from. */
+  ChaosCanvas chaosCanvas;
+
+  /**
+   * Sets up a canvas wider than one column strip, filled with random values.
+   */
+  @BeforeEach
+  void setUp() {
+    width = 150;
+    height = 33;
+    chaosCanvas = new ChaosCanvas(width, height, new Vector2D(0, 0), new Vector2D(1, 1));
+
+    Random random = new Random(3);
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        chaosCanvas.putPixel(i, j, random.nextInt(10));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Rectangle sums match a brute force scan")
+  void sumsMatchBruteForce() {
+    SummedAreaTable table = new SummedAreaTable(chaosCanvas);
+    Random random = new Random(11);
+
+    for (int n = 0; n < 200; n++) {
+      int row0 = random.nextInt(height + 1);
+      int row1 = row0 + random.nextInt(height - row0 + 1);
+      int col0 = random.nextInt(width + 1);
+      int col1 = col0 + random.nextInt(width - col0 + 1);
+
+      assertEquals(bruteSum(row0, col0, row1, col1), table.getSum(row0, col0, row1, col1),
+          "Incorrect rectangle sum");
+    }
+  }
+
+  @Test
+  @DisplayName("Whole canvas sum matches the total hits")
+  void wholeCanvasSum() {
+    SummedAreaTable table = new SummedAreaTable(chaosCanvas);
+
+    assertEquals(chaosCanvas.getStatistics().getTotalHits(),
+        table.getSum(0, 0, height, width), "Incorrect total sum");
+  }
+
+  @Test
+  @DisplayName("Mean density")
+  void meanDensity() {
+    SummedAreaTable table = new SummedAreaTable(chaosCanvas);
+
+    assertAll("Mean density",
+        () -> assertEquals(bruteSum(2, 4, 6, 9) / 20, table.getMean(2, 4, 6, 9),
+            "Incorrect mean"),
+        () -> assertEquals(0, table.getMean(2, 4, 2, 9), "Empty rectangle should have mean 0"),
+        () -> assertEquals(bruteSum(0, 0, 2, 2) / 4, table.getBoxMean(0, 0, 1),
+            "Box should be clipped to the canvas")
+    );
+  }
+
+  @Test
+  @DisplayName("Downsample averages whole blocks")
+  void downsample() {
+    SummedAreaTable table = new SummedAreaTable(chaosCanvas);
+    double[][] reduced = table.downsample(50, 11);
+
+    assertAll("Downsample",
+        () -> assertEquals(11, reduced.length, "Incorrect number of rows"),
+        () -> assertEquals(50, reduced[0].length, "Incorrect number of columns"),
+        () -> assertEquals(bruteSum(3, 6, 6, 9) / 9, reduced[1][2], 1e-9, "Incorrect block mean")
+    );
+  }
+
+  @Test
+  @DisplayName("Invalid queries throw")
+  void invalidQueries() {
+    SummedAreaTable table = new SummedAreaTable(chaosCanvas);
+
+    assertAll("Invalid queries",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> table.getSum(0, 0, height + 1, width), "Rectangle is outside the canvas"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> table.downsample(width + 1, height), "Target is larger than the canvas"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new SummedAreaTable((ChaosCanvas) null), "Canvas cannot be null")
+    );
+  }
+
+  @Test
+  @DisplayName("Canvas table is rebuilt after a write")
+  void canvasTableRebuilt() {
+    SummedAreaTable first = chaosCanvas.getSummedAreaTable();
+    SummedAreaTable second = chaosCanvas.getSummedAreaTable();
+    chaosCanvas.putPixel(0, 0, 100);
+    SummedAreaTable third = chaosCanvas.getSummedAreaTable();
+
+    assertAll("Canvas table",
+        () -> assertSame(first, second, "Table should be reused"),
+        () -> assertEquals(bruteSum(0, 0, 1, 1), third.getSum(0, 0, 1, 1),
+            "Rebuilt table should see the new pixel")
+    );
+  }
+
+  /**
+   * Sum a rectangle of the canvas pixel by pixel.
+   */
+  private double bruteSum(int row0, int col0, int row1, int col1) {
+    double sum = 0;
+    for (int i = row0; i < row1; i++) {
+      for (int j = col0; j < col1; j++) {
+        sum += chaosCanvas.getPixelValue(i, j);
+      }
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,134 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link Symmetry}.
+ */
+class SymmetryTest {
+
+  /**
+   * Count the copies of a symmetry on a grid.
+   *
+   * @param symmetry the symmetry.
+   * @param height   the number of rows.
+   * @param width    the number of columns.
+   * @return the number of copies.
+   */
+  private static int countCopies(Symmetry symmetry, int height, int width) {
+    int copies = 0;
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        if (symmetry.isCopy(i, j)) {
+          copies++;
+        }
+      }
+    }
+    return copies;
+  }
+
+  @Test
+  @DisplayName("Centred view is mirrored about the real axis")
+  void realAxisCentred() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12), 30, 20);
+    Symmetry symmetry = Symmetry.aboutRealAxis(viewport);
+
+    assertAll("Real axis",
+        () -> assertTrue(symmetry.hasCopies(), "The view should have copies"),
+        () -> assertEquals(10 * 30, countCopies(symmetry, 20, 30), "Half the pixels are copies"),
+        () -> assertFalse(symmetry.isCopy(9, 4), "The upper half is computed"),
+        () -> assertTrue(symmetry.isCopy(10, 4), "The lower half is copied"),
+        () -> assertEquals(9, symmetry.getMirrorRow(10), "Incorrect mirror row"),
+        () -> assertEquals(4, symmetry.getMirrorColumn(4), "Columns are not mirrored"),
+        () -> assertTrue(symmetry.isCopy(10, 0, 20, 30), "The lower half is all copies"),
+        () -> assertFalse(symmetry.isCopy(9, 0, 20, 30), "The middle is not all copies")
+    );
+  }
+
+  @Test
+  @DisplayName("Axis on a row leaves that row computed")
+  void realAxisOnRow() {
+    Viewport viewport = new Viewport(new Vector2D(-1, -1), new Vector2D(1, 2), 10, 31);
+    Symmetry symmetry = Symmetry.aboutRealAxis(viewport);
+
+    assertAll("Axis on a row",
+        () -> assertEquals(40, symmetry.getMirrorRow(0), "Incorrect mirror row"),
+        () -> assertFalse(symmetry.isCopy(20, 0), "The axis row is computed"),
+        () -> assertTrue(symmetry.isCopy(21, 0), "The row below the axis is copied"),
+        () -> assertEquals(10 * 10, countCopies(symmetry, 31, 10),
+            "Only rows whose mirror is in view are copies")
+    );
+  }
+
+  @Test
+  @DisplayName("Half turn copies across the origin")
+  void halfTurn() {
+    Viewport viewport = new Viewport(new Vector2D(-1.6, -1), new Vector2D(1.6, 1), 9, 7);
+    Symmetry symmetry = Symmetry.aboutOrigin(viewport);
+
+    assertAll("Half turn",
+        () -> assertEquals(2, symmetry.getMirrorRow(4), "Incorrect mirror row"),
+        () -> assertEquals(7, symmetry.getMirrorColumn(1), "Incorrect mirror column"),
+        () -> assertFalse(symmetry.isCopy(3, 4), "The origin is computed"),
+        () -> assertFalse(symmetry.isCopy(3, 3), "The left of the middle row is computed"),
+        () -> assertTrue(symmetry.isCopy(3, 5), "The right of the middle row is copied"),
+        () -> assertEquals(3 * 9 + 4, countCopies(symmetry, 7, 9), "Incorrect number of copies")
+    );
+  }
+
+  @Test
+  @DisplayName("Views off the grid or away from the axis have no copies")
+  void noCopies() {
+    Viewport shifted = new Viewport(new Vector2D(-2, -1.0), new Vector2D(0.47, 1.12), 30, 20);
+    Viewport away = new Viewport(new Vector2D(-2, 0.5), new Vector2D(0.47, 1.5), 30, 20);
+    Viewport offCentre = new Viewport(new Vector2D(-1.5, -1), new Vector2D(1.6, 1), 30, 21);
+
+    assertAll("No copies",
+        () -> assertFalse(Symmetry.aboutRealAxis(shifted).hasCopies(),
+            "Axis between rows should not be mirrored"),
+        () -> assertFalse(Symmetry.aboutRealAxis(away).hasCopies(),
+            "Axis outside the view should not be mirrored"),
+        () -> assertFalse(Symmetry.aboutOrigin(offCentre).hasCopies(),
+            "Origin off the columns should not be mirrored"),
+        () -> assertFalse(Symmetry.NONE.hasCopies(), "NONE should have no copies"),
+        () -> assertFalse(Symmetry.NONE.isCopy(0, 0), "NONE should copy nothing")
+    );
+  }
+
+  @Test
+  @DisplayName("Copy fills every copy from its mirror")
+  void copyValues() {
+    Viewport viewport = new Viewport(new Vector2D(-1.6, -1), new Vector2D(1.6, 1), 9, 7);
+    Symmetry symmetry = Symmetry.aboutOrigin(viewport);
+    float[][] values = new float[7][9];
+    for (int i = 0; i < 7; i++) {
+      for (int j = 0; j < 9; j++) {
+        values[i][j] = symmetry.isCopy(i, j) ? -1 : i * 10 + j;
+      }
+    }
+    symmetry.copy(values);
+
+    assertAll("Copied values",
+        () -> assertEquals(values[0][0], values[6][8], "Incorrect corner copy"),
+        () -> assertEquals(values[3][2], values[3][6], "Incorrect middle row copy"),
+        () -> assertEquals(2 * 10 + 5, values[4][3], "Incorrect copy")
+    );
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw IllegalArgumentException")
+  void invalidArguments() {
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> Symmetry.aboutRealAxis(null), "Null viewport should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> Symmetry.aboutOrigin(null), "Null viewport should throw"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> Symmetry.NONE.copy(null), "Null values should throw")
+    );
+  }
+}
@@ -0,0 +1,44 @@
+package edu.ntnu.stud.chaos;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link TricornFormula}.
+ */
+class TricornFormulaTest {
+
+  /** The iteration limit of the tested formula. */
+  static final int MAX_ITERATIONS = 200;
+
+  /** The formula under test. */
+  final TricornFormula formula = new TricornFormula();
+
+  @Test
+  @DisplayName("Mirrored points have the same value")
+  void symmetricAboutRealAxis() {
+    for (double re = -2; re < 1.2; re += 0.05) {
+      for (double im = 0.01; im < 1.6; im += 0.05) {
+        assertEquals(formula.computeValue(re, im, MAX_ITERATIONS),
+            formula.computeValue(re, -im, MAX_ITERATIONS), "Incorrect value at " + re);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Conjugating the orbit gives three corners")
+  void threeCorners() {
+    assertAll("Tricorn",
+        () -> assertEquals(MAX_ITERATIONS, formula.computeValue(0, 0, MAX_ITERATIONS),
+            "0 should be inside"),
+        () -> assertEquals(MAX_ITERATIONS, formula.computeValue(-1, 0, MAX_ITERATIONS),
+            "-1 should be inside"),
+        () -> assertTrue(formula.computeValue(0, 0.8, MAX_ITERATIONS) < MAX_ITERATIONS,
+            "0.8i should escape, unlike in the Mandelbrot set"),
+        () -> assertTrue(formula.computeValue(1, 0, MAX_ITERATIONS) < MAX_ITERATIONS,
+            "1 should escape")
+    );
+  }
+}
@@ -0,0 +1,125 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test class for {@link VectorKernel}.
+ * The tests only run when the Vector API is available.
+ */
+class VectorKernelTest {
+
+  /** The number of pixels along each side of the tested grid. */
+  static final int SIZE = 61;
+
+  /** The iteration limit of the tested kernels. */
+  static final int MAX_ITERATIONS = 500;
+
+  /**
+   * Skips the tests if the Vector API is not available.
+   */
+  @BeforeEach
+  void setUp() {
+    assumeTrue(VectorSupport.isAvailable(), "Vector API not available");
+  }
+
+  @Test
+  @DisplayName("Mandelbrot rows match the scalar kernel")
+  void mandelbrotMatchesScalar() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12),
+        SIZE, SIZE);
+    assertRowsMatch(new VectorKernel(viewport, MAX_ITERATIONS),
+        new MandelbrotKernel(viewport, MAX_ITERATIONS));
+  }
+
+  @Test
+  @DisplayName("Julia rows match the scalar kernel")
+  void juliaMatchesScalar() {
+    Viewport viewport = new Viewport(new Vector2D(-1.6, -1), new Vector2D(1.6, 1), SIZE, SIZE);
+    assertRowsMatch(new VectorKernel(viewport, -0.74543, 0.11301, MAX_ITERATIONS),
+        new JuliaKernel(viewport, -0.74543, 0.11301, MAX_ITERATIONS));
+  }
+
+  @Test
+  @DisplayName("Runs shorter than a vector are computed")
+  void shortRuns() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12),
+        SIZE, SIZE);
+    VectorKernel kernel = new VectorKernel(viewport, MAX_ITERATIONS);
+
+    float[] run = new float[3];
+    kernel.computeRow(20, 17, 20, run);
+    for (int j = 17; j < 20; j++) {
+      assertEquals(kernel.computePixel(20, j), run[j - 17], "Run differs at column " + j);
+    }
+  }
+
+  @Test
+  @DisplayName("Rows resumed from a lower limit match the scalar kernel")
+  void resumedMatchesScalar() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12),
+        SIZE, SIZE);
+    OrbitState state = new OrbitState();
+    state.prepareMandelbrot(viewport, 100);
+    assertRowsMatch(new VectorKernel(state, viewport, 100),
+        new MandelbrotKernel(viewport, 100));
+
+    state.prepareMandelbrot(viewport, MAX_ITERATIONS);
+    assertRowsMatch(new VectorKernel(state, viewport, MAX_ITERATIONS),
+        new MandelbrotKernel(viewport, MAX_ITERATIONS));
+  }
+
+  @Test
+  @DisplayName("Rows of a panned view match the scalar resumed kernel")
+  void pannedMatchesResumed() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12),
+        SIZE, SIZE);
+    double shift = 5 * viewport.getReStep();
+    Viewport moved = new Viewport(new Vector2D(-2 - shift, -1.12),
+        new Vector2D(0.47 - shift, 1.12), SIZE, SIZE);
+    OrbitState vectorState = new OrbitState();
+    OrbitState scalarState = new OrbitState();
+    vectorState.prepareMandelbrot(viewport, MAX_ITERATIONS);
+    scalarState.prepareMandelbrot(viewport, MAX_ITERATIONS);
+    assertRowsMatch(new VectorKernel(vectorState, viewport, MAX_ITERATIONS),
+        new ResumableKernel(scalarState, viewport, MAX_ITERATIONS));
+
+    vectorState.prepareMandelbrot(moved, MAX_ITERATIONS);
+    scalarState.prepareMandelbrot(moved, MAX_ITERATIONS);
+    assertRowsMatch(new VectorKernel(vectorState, moved, MAX_ITERATIONS),
+        new ResumableKernel(scalarState, moved, MAX_ITERATIONS));
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw")
+  void invalidArguments() {
+    Viewport viewport = new Viewport(new Vector2D(-2, -1), new Vector2D(1, 1), 5, 5);
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new VectorKernel(null, 10), "Viewport cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new VectorKernel(viewport, 0), "Max iterations must be positive"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new VectorKernel(viewport, 0.3, 0.5, -1), "Max iterations must be positive")
+    );
+  }
+
+  /**
+   * Assert that every row of a kernel equals the row of the expected kernel.
+   */
+  private static void assertRowsMatch(EscapeTimeKernel kernel, EscapeTimeKernel expected) {
+    float[] row = new float[SIZE];
+    float[] expectedRow = new float[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      kernel.computeRow(i, 0, SIZE, row);
+      expected.computeRow(i, 0, SIZE, expectedRow);
+      assertArrayEquals(expectedRow, row, "Row " + i + " differs");
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link VectorSupport}.
+ */
+class VectorSupportTest {
+
+  /** The region of the complex plane the kernels are created for. */
+  final Viewport viewport = new Viewport(new Vector2D(-2, -1), new Vector2D(1, 1), 30, 20);
+
+  @Test
+  @DisplayName("Mandelbrot kernel is vectorized when the Vector API is available")
+  void mandelbrotKernel() {
+    EscapeTimeKernel kernel = VectorSupport.mandelbrotKernel(viewport, 100);
+
+    Class<?> expected = VectorSupport.isAvailable() ? VectorKernel.class : MandelbrotKernel.class;
+    assertEquals(expected, kernel.getClass(), "Incorrect kernel");
+  }
+
+  @Test
+  @DisplayName("Julia kernel is vectorized when the Vector API is available")
+  void juliaKernel() {
+    EscapeTimeKernel kernel = VectorSupport.juliaKernel(viewport, -0.4, 0.6, 100);
+
+    Class<?> expected = VectorSupport.isAvailable() ? VectorKernel.class : JuliaKernel.class;
+    assertEquals(expected, kernel.getClass(), "Incorrect kernel");
+  }
+}
@@ -0,0 +1,119 @@
+package edu.ntnu.stud.chaos;
+
+import edu.ntnu.stud.math.Vector2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link Viewport}.
+ */
+class ViewportTest {
+
+  /** The viewport showing the whole Mandelbrot set. */
+  Viewport viewport;
+
+  /**
+   * Sets up the test environment.
+   */
+  @BeforeEach
+  void setUp() {
+    viewport = new Viewport(new Vector2D(-2, -1.12), new Vector2D(0.47, 1.12), 248, 225);
+  }
+
+  @Test
+  @DisplayName("Pixels map to the corners of the region")
+  void corners() {
+    assertAll("Corners",
+        () -> assertEquals(-2, viewport.getRe(0), 1e-12, "Incorrect left edge"),
+        () -> assertEquals(0.47, viewport.getRe(247), 1e-12, "Incorrect right edge"),
+        () -> assertEquals(1.12, viewport.getIm(0), 1e-12, "Top row should be the largest"),
+        () -> assertEquals(-1.12, viewport.getIm(224), 1e-12,
+            "Bottom row should be the smallest"),
+        () -> assertEquals(0.01, viewport.getPixelSpacing(), 1e-12, "Incorrect spacing")
+    );
+  }
+
+  @Test
+  @DisplayName("Pixels match the placement of chaos game points")
+  void matchesCanvas() {
+    ChaosCanvas canvas = new ChaosCanvas(248, 225, new Vector2D(-2, -1.12),
+        new Vector2D(0.47, 1.12));
+    Vector2D indices = canvas.convertToCanvasCoords(
+        new Vector2D(viewport.getRe(31), viewport.getIm(17)));
+
+    assertAll("Canvas placement",
+        () -> assertEquals(17, indices.getX0(), 1e-9, "Incorrect row"),
+        () -> assertEquals(31, indices.getX1(), 1e-9, "Incorrect column")
+    );
+  }
+
+  @Test
+  @DisplayName("Iteration budget grows with the zoom")
+  void iterationBudget() {
+    Viewport zoomed = new Viewport(new Vector2D(-0.75, 0.1),
+        new Vector2D(-0.75 + 2.47 / 1024, 0.1 + 2.24 / 1024), 248, 225);
+
+    assertAll("Iteration budget",
+        () -> assertEquals(1000, viewport.getIterationBudget(1000, 2.47),
+            "Whole set should use the base limit"),
+        () -> assertEquals(1000 + 250 * 8, zoomed.getIterationBudget(1000, 2.47),
+            "Incorrect limit at zoom 1024")
+    );
+  }
+
+  @Test
+  @DisplayName("Zoom is limited by double precision")
+  void resolvable() {
+    Viewport deep = new Viewport(new Vector2D(-0.75, 0.1),
+        new Vector2D(-0.75 + 1e-14, 0.1 + 1e-14), 248, 225);
+
+    assertAll("Resolvable",
+        () -> assertTrue(viewport.isResolvable(), "Whole set should be resolvable"),
+        () -> assertFalse(deep.isResolvable(), "Pixels should round to the same point")
+    );
+  }
+
+  @Test
+  @DisplayName("Centre is kept exactly")
+  void exactCenter() {
+    Viewport deep = new Viewport(new BigDecimal("-0.75"), new BigDecimal("0.1"), 1e-50, 2e-50,
+        5, 9);
+
+    assertAll("Deep viewport",
+        () -> assertEquals(0, new BigDecimal(-2).add(new BigDecimal(0.47))
+            .compareTo(viewport.getCenterRe().multiply(BigDecimal.valueOf(2))),
+            "Centre should be the exact midpoint"),
+        () -> assertEquals(new BigDecimal("-0.75"), deep.getCenterRe(), "Incorrect centre"),
+        () -> assertEquals(-0.5e-50, deep.getDeltaRe(0), 1e-64, "Incorrect left offset"),
+        () -> assertEquals(1e-50, deep.getDeltaIm(0), 1e-64, "Top row should be above the centre"),
+        () -> assertEquals(0, deep.getDeltaIm(4), 0, "Middle row should be at the centre"),
+        () -> assertFalse(deep.isResolvable(), "Deep viewport is beyond double precision")
+    );
+  }
+
+  @Test
+  @DisplayName("Invalid arguments throw")
+  void invalidArguments() {
+    Vector2D min = new Vector2D(0, 0);
+    Vector2D max = new Vector2D(1, 1);
+
+    assertAll("Invalid arguments",
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new Viewport(null, max, 10, 10), "Coordinates cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new Viewport(max, min, 10, 10), "Minimum must be less than maximum"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new Viewport(min, max, 0, 10), "Width must be positive"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new Viewport(null, BigDecimal.ONE, 1, 1, 10, 10), "Coordinates cannot be null"),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new Viewport(BigDecimal.ONE, BigDecimal.ONE, 0, 1, 10, 10),
+            "Span must be positive")
+    );
+  }
+}
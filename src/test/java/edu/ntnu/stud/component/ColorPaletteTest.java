@@ -0,0 +1,52 @@
+package edu.ntnu.stud.component;
+
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ColorPalette}.
+ */
+class ColorPaletteTest {
+
+  @Test
+  @DisplayName("Values map to brightness relative to the max value")
+  void brightness() {
+    ColorPalette palette = new ColorPalette(Color.BLUE);
+
+    assertAll("Brightness",
+        () -> assertEquals(Color.BLUE, palette.getColor(1000, 1000), "Max value is the color"),
+        () -> assertEquals(0, palette.getColor(0, 1000).getBrightness(), 1e-9,
+            "Zero is black"),
+        () -> assertEquals(0.5, palette.getColor(500, 1000).getBrightness(), 1.0 / 1000,
+            "Half the max value is half as bright"),
+        () -> assertEquals(Color.BLUE, palette.getColor(2000, 1000),
+            "Values above the max are clamped"),
+        () -> assertEquals(palette.getColor(0, 1000), palette.getColor(-5, 1000),
+            "Values below zero are clamped")
+    );
+  }
+
+  @Test
+  @DisplayName("Fractional values fall between whole values")
+  void fractionalValues() {
+    ColorPalette palette = new ColorPalette(Color.RED);
+    double lower = palette.getColor(10, 20).getBrightness();
+    double middle = palette.getColor(10.5, 20).getBrightness();
+    double upper = palette.getColor(11, 20).getBrightness();
+
+    assertAll("Fractional values",
+        () -> assertTrue(lower < middle, "Fractional value should be brighter"),
+        () -> assertTrue(middle < upper, "Fractional value should be darker")
+    );
+  }
+
+  @Test
+  @DisplayName("Null color throws IllegalArgumentException")
+  void nullColor() {
+    assertThrows(IllegalArgumentException.class, () -> new ColorPalette(null),
+        "Null color should throw");
+  }
+}
@@ -104,6 +104,30 @@ class ChaosGameDescriptionFactoryTest {
     );
   }
 
+  @Test
+  @DisplayName("Test getBuddhabrotDescription")
+  void testGetBuddhabrotDescription() {
+    ChaosGameDescription result = ChaosGameDescriptionFactory.getDescription(FractalType.BUDDHABROT);
+
+    assertAll(
+      () -> assertEquals(JuliaTransform.class, result.getTransformationType(), "Transform should be Julia"),
+      () -> assertEquals(-2.00, result.getMinCoords().getX0(), "Min real part should be -2"),
+      () -> assertEquals(1.50, result.getMaxCoords().getX1(), "Max imaginary part should be 1.5")
+    );
+  }
+
+  @Test
+  @DisplayName("Test getDescription for a fractal of an escape-time formula")
+  void testGetFormulaDescription() {
+    ChaosGameDescription result = ChaosGameDescriptionFactory.getDescription(FractalType.NEWTON);
+
+    assertAll(
+      () -> assertEquals(JuliaTransform.class, result.getTransformationType(), "Transform should be Julia"),
+      () -> assertEquals(-2.00, result.getMinCoords().getX0(), "Min real part should be -2"),
+      () -> assertEquals(2.00, result.getMaxCoords().getX1(), "Max imaginary part should be 2")
+    );
+  }
+
   @Nested
   @DisplayName("Test of chaosGameDescriptionHashMap-methods")
   class ChaosGameDescriptionHashMap {
@@ -14,12 +14,17 @@ class FractalTypeTest {
   void getFractalSet() {
     assertAll("FractalType",
         () -> assertNotNull(FractalType.getFractalSet()),
-        () -> assertEquals(4, FractalType.getFractalSet().size(),
-            "The set should contain 4 elements"),
+        () -> assertEquals(9, FractalType.getFractalSet().size(),
+            "The set should contain 9 elements"),
         () -> assertTrue(FractalType.getFractalSet().contains(FractalType.SIERPINSKI)),
         () -> assertTrue(FractalType.getFractalSet().contains(FractalType.BARNSLEY)),
         () -> assertTrue(FractalType.getFractalSet().contains(FractalType.JULIA)),
-        () -> assertTrue(FractalType.getFractalSet().contains(FractalType.MANDELBROT))
+        () -> assertTrue(FractalType.getFractalSet().contains(FractalType.MANDELBROT)),
+        () -> assertTrue(FractalType.getFractalSet().contains(FractalType.BUDDHABROT)),
+        () -> assertTrue(FractalType.getFractalSet().contains(FractalType.BURNING_SHIP)),
+        () -> assertTrue(FractalType.getFractalSet().contains(FractalType.MULTIBROT)),
+        () -> assertTrue(FractalType.getFractalSet().contains(FractalType.TRICORN)),
+        () -> assertTrue(FractalType.getFractalSet().contains(FractalType.NEWTON))
         );
   }
 
@@ -34,13 +39,13 @@ class FractalTypeTest {
   @DisplayName("Add a already existing fractal to the set of fractals")
   void addExistingFractal() {
     FractalType.addFractal(FractalType.SIERPINSKI);
-    assertEquals(4, FractalType.getFractalSet().size());
+    assertEquals(9, FractalType.getFractalSet().size());
   }
 
   @Test
   @DisplayName("Add a blank fractal to the set of fractals")
   void addBlankFractal() {
     FractalType.addFractal("");
-    assertEquals(4, FractalType.getFractalSet().size());
+    assertEquals(9, FractalType.getFractalSet().size());
   }
-}
\ No newline at end of file
+}